@@ -6,11 +6,26 @@ import me.koyere.lagxpert.config.ConfigMigrator;
 import me.koyere.lagxpert.gui.GUIManager;
 import me.koyere.lagxpert.listeners.*;
 import me.koyere.lagxpert.metrics.MetricsHandler;
+import me.koyere.lagxpert.monitoring.ChunkLoadMeter;
+import me.koyere.lagxpert.monitoring.GCMonitor;
+import me.koyere.lagxpert.monitoring.MetricsExporter;
+import me.koyere.lagxpert.monitoring.MsptForecaster;
 import me.koyere.lagxpert.monitoring.PerformanceTracker;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
 import me.koyere.lagxpert.monitoring.TPSMonitor;
+import me.koyere.lagxpert.monitoring.TickDurationSampler;
+import me.koyere.lagxpert.monitoring.TimeSeriesStore;
 import me.koyere.lagxpert.system.AbyssManager;
 import me.koyere.lagxpert.system.ChunkManager;
+import me.koyere.lagxpert.system.LagShield;
+import me.koyere.lagxpert.system.HopperActivityTracker;
+import me.koyere.lagxpert.system.ItemMergeEngine;
+import me.koyere.lagxpert.system.ItemPipelineBudget;
+import me.koyere.lagxpert.system.PistonActivityTracker;
+import me.koyere.lagxpert.system.RedstoneBudgetLimiter;
 import me.koyere.lagxpert.system.RedstoneCircuitTracker;
+import me.koyere.lagxpert.system.RedstoneComponentIndex;
+import me.koyere.lagxpert.system.RedstoneTimerWheel;
 import me.koyere.lagxpert.tasks.AsyncChunkAnalyzer;
 import me.koyere.lagxpert.tasks.AutoChunkScanTask;
 import me.koyere.lagxpert.tasks.ChunkPreloader;
@@ -145,7 +160,8 @@ public class LagXpert extends JavaPlugin {
                 "itemcleaner.yml",
                 "entitycleanup.yml", // Phase 1 entity cleanup config
                 "monitoring.yml", // Phase 2 monitoring config
-                "chunks.yml" // Phase 2 chunk management config
+                "chunks.yml", // Phase 2 chunk management config
+                "lagshield.yml" // LagShield thresholds and actions
         };
 
         // Only save files that don't exist to prevent warnings
@@ -386,9 +402,15 @@ public class LagXpert extends JavaPlugin {
         }
         if (ConfigManager.isStorageModuleEnabled()) {
             getServer().getPluginManager().registerEvents(new StorageListener(), this);
+            getServer().getPluginManager().registerEvents(new HopperListener(), this);
         }
         if (ConfigManager.isMobsModuleEnabled()) {
             getServer().getPluginManager().registerEvents(new EntityListener(), this);
+            me.koyere.lagxpert.system.EntityCensus.getInstance().register();
+            getServer().getPluginManager().registerEvents(me.koyere.lagxpert.system.MobStackManager.getInstance(), this);
+            me.koyere.lagxpert.system.MobStackManager.getInstance().start();
+            getServer().getPluginManager().registerEvents(me.koyere.lagxpert.system.MobActivationManager.getInstance(), this);
+            me.koyere.lagxpert.system.MobActivationManager.getInstance().start();
         }
 
         // Register ItemCleanerListener for enhanced broken block tracking
@@ -405,6 +427,9 @@ public class LagXpert extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new me.koyere.lagxpert.system.VehicleManager(), this);
         getServer().getPluginManager().registerEvents(new me.koyere.lagxpert.system.AbilityLimiter(), this);
 
+        // Restores AI that LagShield disabled on mobs which were unloaded while restricted
+        getServer().getPluginManager().registerEvents(me.koyere.lagxpert.system.MobAIOptimizer.getInstance(), this);
+
         // ConsoleFilter is self-initializing its injection in constructor, or use a
         // manager?
         // Let's instantiate it to load config and inject.
@@ -434,6 +459,9 @@ public class LagXpert extends JavaPlugin {
             int cleanerInterval = ConfigManager.getItemCleanerIntervalTicks();
             long initialDelay = ConfigManager.getItemCleanerInitialDelayTicks();
             new ItemCleanerTask().runTaskTimer(this, initialDelay, cleanerInterval);
+            if (ConfigManager.isItemMergeEnabled()) {
+                ItemMergeEngine.start();
+            }
 
             if (ConfigManager.isDebugEnabled()) {
                 getLogger().info("[LagXpert] ItemCleanerTask scheduled with interval: " + cleanerInterval + " ticks");
@@ -474,9 +502,15 @@ public class LagXpert extends JavaPlugin {
             // Initialize redstone circuit tracking system
             if (ConfigManager.isRedstoneControlModuleEnabled()) {
                 RedstoneCircuitTracker.startCleanupTask();
+                RedstoneBudgetLimiter.start();
+                RedstoneTimerWheel.start();
                 getLogger().info("[LagXpert] Advanced redstone circuit tracking system initialized.");
             }
 
+            if (ConfigManager.isStorageModuleEnabled()) {
+                ItemPipelineBudget.start();
+            }
+
             // Initialize chunk data cache system (always initialize for performance)
             // Cache system is passive and doesn't need explicit initialization
             getLogger().info("[LagXpert] Performance cache system initialized.");
@@ -508,22 +542,42 @@ public class LagXpert extends JavaPlugin {
         }
 
         try {
+            // Initialize GC and allocation telemetry before TPS monitoring so spikes can be correlated
+            if (ConfigManager.isMemoryMonitoringEnabled() && ConfigManager.isGCMonitoringEnabled()) {
+                GCMonitor.start();
+            }
+
             // Initialize TPS monitoring system
             if (ConfigManager.isTPSMonitoringEnabled()) {
                 TPSMonitor.startMonitoring();
+                TickDurationSampler.startSampling();
                 getLogger().info("[LagXpert] TPS monitoring system initialized.");
             }
 
+            // Initialize event-driven chunk load/unload metering
+            if (ConfigManager.isChunkMonitoringEnabled() && ConfigManager.shouldTrackChunkEvents()) {
+                ChunkLoadMeter.start();
+            }
+
+            // Initialize persistent performance history
+            if (ConfigManager.isTPSHistoryEnabled() && ConfigManager.isPersistentHistoryEnabled()) {
+                TimeSeriesStore.initialize();
+            }
+
             // Initialize performance tracking system
             PerformanceTracker.startTracking();
             getLogger().info("[LagXpert] Performance tracking system initialized.");
 
+            // Initialize OpenMetrics scrape endpoint
+            MetricsExporter.start();
+
             if (ConfigManager.isDebugEnabled()) {
                 getLogger().info("[LagXpert] Monitoring systems initialized successfully:");
                 getLogger().info(
                         "  - TPS Monitoring: " + (ConfigManager.isTPSMonitoringEnabled() ? "Enabled" : "Disabled"));
                 getLogger().info("  - Memory Monitoring: "
                         + (ConfigManager.isMemoryMonitoringEnabled() ? "Enabled" : "Disabled"));
+                getLogger().info("  - GC Monitoring: " + (GCMonitor.isRunning() ? "Enabled" : "Disabled"));
                 getLogger().info(
                         "  - Chunk Monitoring: " + (ConfigManager.isChunkMonitoringEnabled() ? "Enabled" : "Disabled"));
                 getLogger()
@@ -740,14 +794,27 @@ public class LagXpert extends JavaPlugin {
      */
     private void shutdownMonitoringSystems() {
         try {
+            // Stop the scrape endpoint before the systems it reports on
+            MetricsExporter.stop();
+
             // Stop TPS monitoring
             TPSMonitor.stopMonitoring();
+            TickDurationSampler.stopSampling();
             getLogger().info("[LagXpert] TPS monitoring system shutdown completed.");
 
             // Stop performance tracking
             PerformanceTracker.stopTracking();
             getLogger().info("[LagXpert] Performance tracking system shutdown completed.");
 
+            // Stop chunk metering
+            ChunkLoadMeter.stop();
+
+            // Stop GC notifications
+            GCMonitor.stop();
+
+            // Flush rollups and close history segments
+            TimeSeriesStore.shutdown();
+
         } catch (Exception e) {
             getLogger().warning("[LagXpert] Error during monitoring systems shutdown: " + e.getMessage());
         }
@@ -769,8 +836,20 @@ public class LagXpert extends JavaPlugin {
 
             // Clear redstone circuit tracking data
             RedstoneCircuitTracker.clearAll();
+            RedstoneBudgetLimiter.stop();
+            RedstoneTimerWheel.stop();
+            PistonActivityTracker.clearAll();
+            HopperActivityTracker.clearAll();
+            ItemPipelineBudget.stop();
+            ItemMergeEngine.stop();
+            me.koyere.lagxpert.system.EntityCensus.getInstance().clearAll();
+            me.koyere.lagxpert.system.MobStackManager.getInstance().stop();
+            me.koyere.lagxpert.system.MobActivationManager.getInstance().stop();
             getLogger().info("[LagXpert] Redstone circuit tracking data cleared.");
 
+            // Restore world spawn limits and mob AI changed by LagShield
+            LagShield.getInstance().shutdown();
+
         } catch (Exception e) {
             getLogger().warning("[LagXpert] Error during advanced systems shutdown: " + e.getMessage());
         }
@@ -808,6 +887,25 @@ public class LagXpert extends JavaPlugin {
 
             if (ConfigManager.isRedstoneControlModuleEnabled()) {
                 stats.put("redstone_circuits", RedstoneCircuitTracker.getStatistics());
+                stats.put("redstone_budget", RedstoneBudgetLimiter.getStatistics());
+                stats.put("redstone_timers", RedstoneTimerWheel.getStatistics());
+                stats.put("redstone_index", RedstoneComponentIndex.getStatistics());
+                stats.put("redstone_pistons", PistonActivityTracker.getStatistics());
+            }
+
+            if (ConfigManager.isStorageModuleEnabled()) {
+                stats.put("hoppers", HopperActivityTracker.getStatistics());
+                stats.put("item_pipeline", ItemPipelineBudget.getStatistics());
+            }
+
+            if (ConfigManager.isItemCleanerModuleEnabled()) {
+                stats.put("item_merge", ItemMergeEngine.getStatistics());
+            }
+
+            if (ConfigManager.isMobsModuleEnabled()) {
+                stats.put("entity_census", me.koyere.lagxpert.system.EntityCensus.getInstance().getStatistics());
+                stats.put("mob_stacking", me.koyere.lagxpert.system.MobStackManager.getInstance().getStatistics());
+                stats.put("mob_activation", me.koyere.lagxpert.system.MobActivationManager.getInstance().getStatistics());
             }
 
             if (ConfigManager.isEntityCleanupModuleEnabled()) {
@@ -829,6 +927,22 @@ public class LagXpert extends JavaPlugin {
                 tpsStats.put("total_ticks", TPSMonitor.getTotalTicks());
                 tpsStats.put("recent_lag_spikes", TPSMonitor.getRecentLagSpikes().size());
                 stats.put("tps_monitoring", tpsStats);
+
+                if (TimeSeriesStore.isInitialized()) {
+                    stats.put("history_store", TimeSeriesStore.getStatistics());
+                }
+
+                if (MsptForecaster.isReady()) {
+                    stats.put("mspt_forecast", MsptForecaster.getStatistics());
+                }
+
+                if (ChunkLoadMeter.isRunning()) {
+                    stats.put("chunk_loading", ChunkLoadMeter.getStatistics());
+                }
+
+                if (GCMonitor.isRunning()) {
+                    stats.put("gc_monitoring", GCMonitor.getStatistics());
+                }
             }
 
             // Phase 2 chunk management statistics
@@ -846,6 +960,12 @@ public class LagXpert extends JavaPlugin {
             // Per-world configuration statistics
             stats.put("per_world_config", WorldConfigManager.getStatistics());
 
+            // LagShield degradation ladder
+            stats.put("lagshield", LagShield.getInstance().getStatistics());
+
+            // LagXpert's own listener and task overhead
+            stats.put("self_overhead", SelfOverheadMeter.getStatistics());
+
         } catch (Exception e) {
             if (getInstance() != null) {
                 getInstance().getLogger()
@@ -866,11 +986,13 @@ public class LagXpert extends JavaPlugin {
             // Reset Phase 1 statistics
             AsyncChunkAnalyzer.resetStatistics();
             EntityCleanupTask.resetStatistics();
+            LagShield.getInstance().resetStatistics();
 
             // Reset Phase 2 statistics
             if (ConfigManager.isMonitoringModuleEnabled()) {
                 PerformanceTracker.resetStatistics();
                 TPSMonitor.resetStatistics();
+                GCMonitor.resetStatistics();
             }
 
             // Reset chunk management statistics
@@ -880,6 +1002,8 @@ public class LagXpert extends JavaPlugin {
                 ChunkPreloader.resetStatistics();
             }
 
+            SelfOverheadMeter.resetStatistics();
+
             // Note: GUI statistics are reset automatically through session management
 
             if (getInstance() != null && ConfigManager.isDebugEnabled()) {
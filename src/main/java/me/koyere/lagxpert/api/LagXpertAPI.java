@@ -1,5 +1,6 @@
 package me.koyere.lagxpert.api;
 
+import me.koyere.lagxpert.monitoring.TimeSeriesStore;
 import me.koyere.lagxpert.utils.ConfigManager;
 import org.bukkit.Chunk;
 import org.bukkit.Material;
@@ -9,6 +10,8 @@ import org.bukkit.block.BlockState; // For Tile Entities
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 
+import java.util.function.Consumer;
+
 /**
  * Public API for external plugins to access LagXpert's data and configured limits.
  * Provides methods to count entities/blocks and retrieve configured thresholds.
@@ -252,4 +255,32 @@ public class LagXpertAPI {
                 return -1; // Indicates no specific limit managed for this material via this generic getter
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Streams persisted performance history records within a time range, oldest first.
+     * Records are read from memory-mapped segment files, so large ranges do not load onto the heap.
+     * Does nothing if persistent history is disabled.
+     *
+     * @param resolution Resolution to read (RAW, MINUTE or HOUR rollups).
+     * @param fromMillis Range start in epoch milliseconds (inclusive).
+     * @param toMillis   Range end in epoch milliseconds (inclusive).
+     * @param consumer   Receives each record in the range.
+     */
+    public static void queryPerformanceHistory(TimeSeriesStore.Resolution resolution, long fromMillis, long toMillis,
+                                               Consumer<TimeSeriesStore.Record> consumer) {
+        if (resolution == null || consumer == null) return;
+        TimeSeriesStore.query(resolution, fromMillis, toMillis, consumer);
+    }
+
+    /**
+     * Summarizes persisted performance history (average/min TPS, MSPT, memory, peak chunks and entities)
+     * for a time range, automatically choosing the raw, minute or hour resolution.
+     *
+     * @param fromMillis Range start in epoch milliseconds (inclusive).
+     * @param toMillis   Range end in epoch milliseconds (inclusive).
+     * @return The summary; it contains zero records if no history is available.
+     */
+    public static TimeSeriesStore.Summary getPerformanceSummary(long fromMillis, long toMillis) {
+        return TimeSeriesStore.summarize(fromMillis, toMillis);
+    }
+}
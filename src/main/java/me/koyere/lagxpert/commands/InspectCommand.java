@@ -1,5 +1,6 @@
 package me.koyere.lagxpert.commands;
 
+import me.koyere.lagxpert.system.PistonActivityTracker;
 import me.koyere.lagxpert.utils.MessageManager;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
@@ -72,6 +73,9 @@ public class InspectCommand {
         chunkData.put("chunk_x", String.valueOf(targetChunk.getX()));
         chunkData.put("chunk_z", String.valueOf(targetChunk.getZ()));
         chunkData.put("world_name", targetChunk.getWorld().getName());
+        chunkData.put("piston_moves", String.valueOf(PistonActivityTracker.getMovesPerSecond(targetChunk.getWorld(), targetChunk.getX(), targetChunk.getZ())));
+        chunkData.put("piston_blocks", String.valueOf(PistonActivityTracker.getBlocksMovedPerSecond(targetChunk.getWorld(), targetChunk.getX(), targetChunk.getZ())));
+        chunkData.put("piston_blocks_total", String.valueOf(PistonActivityTracker.getTotalBlocksMoved(targetChunk.getWorld(), targetChunk.getX(), targetChunk.getZ())));
 
         sender.sendMessage(MessageManager.getPrefixedFormattedMessage("inspect.header", chunkData));
         sender.sendMessage(MessageManager.getPrefixedFormattedMessage("inspect.line.entities", chunkData));
@@ -81,6 +85,7 @@ public class InspectCommand {
         sender.sendMessage(MessageManager.getPrefixedFormattedMessage("inspect.line.shulker_boxes", chunkData));
         sender.sendMessage(MessageManager.getPrefixedFormattedMessage("inspect.line.barrels", chunkData));
         sender.sendMessage(MessageManager.getPrefixedFormattedMessage("inspect.line.dispensers_droppers", chunkData));
+        sender.sendMessage(MessageManager.getPrefixedFormattedMessage("inspect.line.pistons", chunkData));
 
         return true;
     }
@@ -1,9 +1,18 @@
 package me.koyere.lagxpert.commands;
 
 import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.MetricsExporter;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
 import me.koyere.lagxpert.system.AbyssManager;
+import me.koyere.lagxpert.system.HopperActivityTracker;
+import me.koyere.lagxpert.system.LagShield;
+import me.koyere.lagxpert.system.MobAIOptimizer;
+import me.koyere.lagxpert.system.MobActivationManager;
+import me.koyere.lagxpert.system.RedstoneProfiler;
+import me.koyere.lagxpert.utils.BlockKey;
 import me.koyere.lagxpert.utils.ConfigManager;
 import me.koyere.lagxpert.utils.MessageManager;
+import me.koyere.lagxpert.utils.SchedulerWrapper;
 // Unused Bukkit imports for specific types (Chunk, Material, etc.) are removed for this command's current logic.
 // They would be needed if specific subcommands here performed direct world manipulation.
 import org.bukkit.Bukkit; // Needed for Bukkit.getWorlds() in TabCompleter
@@ -12,10 +21,11 @@ import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
-// Player import is not directly used in this class if subcommands are handled by other classes or checks are internal to them
-// import org.bukkit.entity.Player;
+import org.bukkit.entity.Player;
 
 
+import java.io.File;
+import java.io.IOException;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList; // Needed for TabCompleter world list
@@ -37,7 +47,15 @@ import java.util.stream.Collectors;
 public class LagXpertCommand implements CommandExecutor, TabCompleter {
 
     // A list of root subcommands for easy management and tab-completion.
-    private static final List<String> ROOT_SUBCOMMANDS = Arrays.asList("help", "reload", "inspect", "chunkload");
+    private static final List<String> ROOT_SUBCOMMANDS = Arrays.asList("help", "reload", "inspect", "chunkload", "self", "redstone", "hoppers");
+
+    // Maximum number of probes listed by /lagxpert self
+    private static final int SELF_REPORT_MAX_ENTRIES = 15;
+
+    // /lagxpert redstone|hoppers top: sampling window and number of ranked entries
+    private static final int PROFILE_DEFAULT_SECONDS = 30;
+    private static final int PROFILE_MAX_SECONDS = 300;
+    private static final int PROFILE_TOP_ENTRIES = 10;
 
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
@@ -73,6 +91,12 @@ public class LagXpertCommand implements CommandExecutor, TabCompleter {
                 // Assumes "chunkload.use-chunkstatus-command" key exists in messages.yml.
                 sender.sendMessage(MessageManager.getPrefixedMessage("chunkload.use-chunkstatus-command"));
                 return true;
+            case "self":
+                return handleSelf(sender, args);
+            case "redstone":
+                return handleRedstone(sender, args);
+            case "hoppers":
+                return handleHoppers(sender, args);
             default:
                 // Handle any unknown subcommands.
                 sender.sendMessage(MessageManager.getPrefixedMessage("general.invalid-command"));
@@ -118,6 +142,9 @@ public class LagXpertCommand implements CommandExecutor, TabCompleter {
         }
         if (sender.hasPermission("lagxpert.admin")) { // Admin-specific commands
             sender.sendMessage(MessageManager.getPrefixedMessage("help.reload"));
+            sender.sendMessage(MessageManager.getPrefixedMessage("help.self"));
+            sender.sendMessage(MessageManager.getPrefixedMessage("help.redstone"));
+            sender.sendMessage(MessageManager.getPrefixedMessage("help.hoppers"));
         }
         sender.sendMessage(headerFooter);
     }
@@ -138,6 +165,12 @@ public class LagXpertCommand implements CommandExecutor, TabCompleter {
         // Reload all plugin configurations.
         ConfigManager.loadAll();    // This reloads all YAMLs and re-initializes MessageManager.
         AbyssManager.loadConfig();  // AbyssManager fetches its reloaded config values from ConfigManager.
+        LagShield.getInstance().reloadConfig(); // LagShield reads lagshield.yml directly.
+        MobAIOptimizer.getInstance().reloadConfig(); // MobAIOptimizer reads mobs.yml directly.
+        MetricsExporter.reload(); // Rebinds the endpoint if monitoring.yml changed it.
+        if (ConfigManager.isMobsModuleEnabled()) {
+            MobActivationManager.getInstance().start();
+        }
 
         sender.sendMessage(MessageManager.getPrefixedMessage("general.config-reloaded")); // Confirmation message.
         if (LagXpert.getInstance() != null) {
@@ -146,6 +179,332 @@ public class LagXpertCommand implements CommandExecutor, TabCompleter {
         return true;
     }
 
+    /**
+     * Handles the /lagxpert self [reset] subcommand.
+     * Shows how much time LagXpert's own listeners and tasks consume, based on the self-overhead meter.
+     *
+     * @param sender The CommandSender who issued the command.
+     * @param args   Full command arguments (args[0] is "self").
+     * @return true if the command was handled.
+     */
+    private boolean handleSelf(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("lagxpert.admin")) {
+            sender.sendMessage(MessageManager.getPrefixedMessage("general.no-permission"));
+            return true;
+        }
+
+        if (args.length > 1 && args[1].equalsIgnoreCase("reset")) {
+            SelfOverheadMeter.resetStatistics();
+            sender.sendMessage(MessageManager.color("&aSelf-overhead statistics have been reset."));
+            return true;
+        }
+
+        StringBuilder report = new StringBuilder();
+        report.append(MessageManager.color("&8&m------------------------------------------\n"));
+        report.append(MessageManager.color("&6&lLagXpert Self-Overhead\n"));
+        report.append(MessageManager.color("&8&m------------------------------------------\n"));
+
+        if (!ConfigManager.isSelfOverheadEnabled()) {
+            report.append(MessageManager.color("&cSelf-overhead meter is disabled in monitoring.yml.\n"));
+            report.append(MessageManager.color("&8&m------------------------------------------"));
+            sender.sendMessage(report.toString());
+            return true;
+        }
+
+        report.append(MessageManager.color("&7Sampling: &e1 in " + ConfigManager.getSelfOverheadSampleRate() + " &7invocations\n"));
+
+        List<SelfOverheadMeter.Probe> probes = SelfOverheadMeter.getProbesByTotalTime();
+        if (probes.isEmpty()) {
+            report.append(MessageManager.color("&7No handler or task invocations recorded yet.\n"));
+        } else {
+            long totalNanos = 0L;
+            for (SelfOverheadMeter.Probe probe : probes) {
+                totalNanos += probe.getEstimatedTotalNanos();
+            }
+            report.append(MessageManager.color("&7Estimated total time: &e" + formatNanos(totalNanos) + "\n"));
+            report.append(MessageManager.color("&7Name &8| &7calls &8| &7avg/p99/max &8| &7total\n"));
+
+            int shown = 0;
+            for (SelfOverheadMeter.Probe probe : probes) {
+                if (shown++ >= SELF_REPORT_MAX_ENTRIES) {
+                    break;
+                }
+                report.append(MessageManager.color("&e" + probe.getName() +
+                        " &8| &f" + probe.getInvocations() +
+                        " &8| &f" + formatNanos((long) probe.getAverageNanos()) +
+                        "&7/&f" + formatNanos(probe.getPercentileNanos(99)) +
+                        "&7/&f" + formatNanos(probe.getMaxNanos()) +
+                        " &8| &6" + formatNanos(probe.getEstimatedTotalNanos()) + "\n"));
+            }
+        }
+
+        report.append(MessageManager.color("&8&m------------------------------------------"));
+        sender.sendMessage(report.toString());
+        return true;
+    }
+
+    /**
+     * Handles the /lagxpert redstone top [world|all] [seconds] [export] subcommand.
+     * Records redstone updates per circuit and per chunk for a sampling window, then reports
+     * the busiest circuits and chunks, optionally exporting the chunk heat map to CSV.
+     *
+     * @param sender The CommandSender who issued the command.
+     * @param args   Full command arguments (args[0] is "redstone").
+     * @return true if the command was handled.
+     */
+    private boolean handleRedstone(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("lagxpert.admin")) {
+            sender.sendMessage(MessageManager.getPrefixedMessage("general.no-permission"));
+            return true;
+        }
+        if (args.length < 2 || !args[1].equalsIgnoreCase("top")) {
+            sender.sendMessage(MessageManager.color("&eUsage: /lagxpert redstone top [world|all] [seconds] [export]"));
+            return true;
+        }
+        if (!ConfigManager.isRedstoneControlModuleEnabled()) {
+            sender.sendMessage(MessageManager.color("&cThe redstone control module is disabled in modules.yml."));
+            return true;
+        }
+
+        ProfileArguments options = ProfileArguments.parse(sender, args);
+        if (options == null) {
+            return true;
+        }
+
+        if (!RedstoneProfiler.start(options.world)) {
+            sender.sendMessage(MessageManager.color("&cA redstone profile is already being recorded."));
+            return true;
+        }
+        String scope = options.getScope();
+        sender.sendMessage(MessageManager.color("&7Recording redstone activity in &e" + scope + " &7for &e" + options.seconds + "s&7..."));
+
+        boolean exportHeatMap = options.export;
+        SchedulerWrapper.runTaskLater(() -> {
+            RedstoneProfiler.Report report = RedstoneProfiler.stop();
+            if (report == null) {
+                return;
+            }
+            boolean senderOnline = isOnline(sender);
+            if (senderOnline) {
+                sender.sendMessage(formatRedstoneReport(report, scope));
+            }
+            if (exportHeatMap) {
+                SchedulerWrapper.runTaskAsynchronously(() -> {
+                    try {
+                        File file = RedstoneProfiler.exportHeatMap(report);
+                        if (senderOnline) {
+                            sender.sendMessage(MessageManager.color("&7Heat map exported to &f" + file.getPath()));
+                        }
+                    } catch (IOException e) {
+                        LagXpert.getInstance().getLogger().warning("[RedstoneProfiler] Could not export heat map: " + e.getMessage());
+                    }
+                });
+            }
+        }, options.seconds * 20L);
+        return true;
+    }
+
+    /**
+     * Handles the /lagxpert hoppers top [world|all] [seconds] subcommand.
+     * Records hopper transfers per chunk for a sampling window, then reports the chunks with
+     * the highest transfer rates and the chunks with the most idle (polling) hoppers.
+     *
+     * @param sender The CommandSender who issued the command.
+     * @param args   Full command arguments (args[0] is "hoppers").
+     * @return true if the command was handled.
+     */
+    private boolean handleHoppers(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("lagxpert.admin")) {
+            sender.sendMessage(MessageManager.getPrefixedMessage("general.no-permission"));
+            return true;
+        }
+        if (args.length < 2 || !args[1].equalsIgnoreCase("top")) {
+            sender.sendMessage(MessageManager.color("&eUsage: /lagxpert hoppers top [world|all] [seconds]"));
+            return true;
+        }
+        if (!HopperActivityTracker.isEnabled()) {
+            sender.sendMessage(MessageManager.color("&cHopper control is disabled (modules.storage / storage.yml hopper-control)."));
+            return true;
+        }
+
+        ProfileArguments options = ProfileArguments.parse(sender, args);
+        if (options == null) {
+            return true;
+        }
+        if (!HopperActivityTracker.startProfile(options.world)) {
+            sender.sendMessage(MessageManager.color("&cA hopper profile is already being recorded."));
+            return true;
+        }
+        String scope = options.getScope();
+        sender.sendMessage(MessageManager.color("&7Recording hopper activity in &e" + scope + " &7for &e" + options.seconds + "s&7..."));
+
+        SchedulerWrapper.runTaskLater(() -> HopperActivityTracker.finishProfile(report -> {
+            if (isOnline(sender)) {
+                sender.sendMessage(formatHopperReport(report, scope));
+            }
+        }), options.seconds * 20L);
+        return true;
+    }
+
+    /**
+     * Builds the /lagxpert hoppers top report.
+     */
+    private String formatHopperReport(HopperActivityTracker.Report report, String scope) {
+        StringBuilder text = new StringBuilder();
+        text.append(MessageManager.color("&8&m------------------------------------------\n"));
+        text.append(MessageManager.color("&6&lHopper Profile &7(" + scope + ", " +
+                String.format("%.0fs", report.getDurationSeconds()) + ")\n"));
+        text.append(MessageManager.color("&8&m------------------------------------------\n"));
+        text.append(MessageManager.color("&7Transfers: &e" + report.getTotalTransfers() + " &7(&e" +
+                String.format("%.1f", report.getTotalTransfers() / Math.max(0.001, report.getDurationSeconds())) + "/s&7)\n"));
+        text.append(MessageManager.color("&7Idle hoppers: &e" + report.getIdleHoppers() + " &7(&e" +
+                report.getIdlePollingEmptyContainer() + " &7below empty containers, " +
+                report.getScannedChunks() + " chunks scanned)\n"));
+
+        int rank = 0;
+        for (HopperActivityTracker.ChunkEntry entry : report.getChunks()) {
+            if (entry.getTransfers() == 0 && entry.getCancelled() == 0) {
+                break;
+            }
+            if (rank == 0) {
+                text.append(MessageManager.color("&7Top chunks &8(&7chunk &8| &7transfers/s &8| &7hoppers active/idle &8| &7cancelled&8):\n"));
+            }
+            if (rank++ >= PROFILE_TOP_ENTRIES) {
+                break;
+            }
+            text.append(MessageManager.color("&e" + rank + ". &f" + entry.getWorldName() +
+                    " [" + entry.getChunkX() + ", " + entry.getChunkZ() + "]" +
+                    " &8| &f" + String.format("%.1f", report.getTransfersPerSecond(entry)) +
+                    " &8| &f" + entry.getActiveHoppers() + "&7/&f" + entry.getIdleHoppers() +
+                    " &8| &c" + entry.getCancelled() + "\n"));
+        }
+        if (rank == 0) {
+            text.append(MessageManager.color("&7No hopper transfers recorded.\n"));
+        }
+
+        List<HopperActivityTracker.ChunkEntry> idleChunks = report.getIdleChunks();
+        if (!idleChunks.isEmpty()) {
+            text.append(MessageManager.color("&7Most idle hoppers &8(&7chunk &8| &7idle &8| &7locked&8):\n"));
+            rank = 0;
+            for (HopperActivityTracker.ChunkEntry entry : idleChunks) {
+                if (rank++ >= PROFILE_TOP_ENTRIES) {
+                    break;
+                }
+                text.append(MessageManager.color("&e" + rank + ". &f" + entry.getWorldName() +
+                        " [" + entry.getChunkX() + ", " + entry.getChunkZ() + "]" +
+                        " &8| &6" + entry.getIdleHoppers() + " &8| &7" + entry.getLockedHoppers() + "\n"));
+            }
+        }
+
+        text.append(MessageManager.color("&8&m------------------------------------------"));
+        return text.toString();
+    }
+
+    private static boolean isOnline(CommandSender sender) {
+        return !(sender instanceof Player) || ((Player) sender).isOnline();
+    }
+
+    /**
+     * Optional arguments of the profiling subcommands, in any order after the action:
+     * a world name (or "all"), a number of seconds and "export".
+     */
+    private static final class ProfileArguments {
+        private World world;
+        private int seconds = PROFILE_DEFAULT_SECONDS;
+        private boolean export;
+
+        /**
+         * @return The parsed arguments, or null if an error was sent to the sender
+         */
+        private static ProfileArguments parse(CommandSender sender, String[] args) {
+            ProfileArguments options = new ProfileArguments();
+            options.world = sender instanceof Player ? ((Player) sender).getWorld() : null;
+            for (int i = 2; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equalsIgnoreCase("export")) {
+                    options.export = true;
+                } else if (arg.equalsIgnoreCase("all")) {
+                    options.world = null;
+                } else if (arg.matches("\\d+")) {
+                    options.seconds = Math.max(1, Math.min(PROFILE_MAX_SECONDS, Integer.parseInt(arg)));
+                } else {
+                    options.world = Bukkit.getWorld(arg);
+                    if (options.world == null) {
+                        sender.sendMessage(MessageManager.color("&cWorld '" + arg + "' not found."));
+                        return null;
+                    }
+                }
+            }
+            return options;
+        }
+
+        private String getScope() {
+            return world != null ? world.getName() : "all worlds";
+        }
+    }
+
+    /**
+     * Builds the /lagxpert redstone top report.
+     */
+    private String formatRedstoneReport(RedstoneProfiler.Report report, String scope) {
+        StringBuilder text = new StringBuilder();
+        text.append(MessageManager.color("&8&m------------------------------------------\n"));
+        text.append(MessageManager.color("&6&lRedstone Profile &7(" + scope + ", " +
+                String.format("%.0fs", report.getDurationSeconds()) + ")\n"));
+        text.append(MessageManager.color("&8&m------------------------------------------\n"));
+        text.append(MessageManager.color("&7Updates: &e" + report.getTotalUpdates() + " &7(&e" +
+                String.format("%.1f", report.getTotalUpdates() / Math.max(0.001, report.getDurationSeconds())) + "/s&7)\n"));
+
+        if (report.getCircuits().isEmpty()) {
+            text.append(MessageManager.color("&7No redstone activity recorded.\n"));
+        } else {
+            text.append(MessageManager.color("&7Top circuits &8(&7location &8| &7type &8| &7updates/s &8| &7share&8):\n"));
+            int rank = 0;
+            for (RedstoneProfiler.Entry entry : report.getCircuits()) {
+                if (rank++ >= PROFILE_TOP_ENTRIES) {
+                    break;
+                }
+                String type = entry.getCircuitType() != null
+                        ? entry.getCircuitType() + ", " + entry.getComponents() + " comp." : "inactive";
+                text.append(MessageManager.color("&e" + rank + ". &f" + entry.getWorldName() + " (" + BlockKey.toString(entry.getKey()) + ")" +
+                        " &8| &7" + type +
+                        " &8| &f" + String.format("%.1f", report.getUpdatesPerSecond(entry)) +
+                        " &8| &6" + String.format("%.1f%%", report.getShare(entry) * 100) + "\n"));
+            }
+
+            text.append(MessageManager.color("&7Top chunks &8(&7chunk &8| &7updates/s &8| &7share&8):\n"));
+            rank = 0;
+            for (RedstoneProfiler.Entry entry : report.getChunks()) {
+                if (rank++ >= PROFILE_TOP_ENTRIES) {
+                    break;
+                }
+                text.append(MessageManager.color("&e" + rank + ". &f" + entry.getWorldName() +
+                        " [" + BlockKey.getChunkX(entry.getKey()) + ", " + BlockKey.getChunkZ(entry.getKey()) + "]" +
+                        " &8| &f" + String.format("%.1f", report.getUpdatesPerSecond(entry)) +
+                        " &8| &6" + String.format("%.1f%%", report.getShare(entry) * 100) + "\n"));
+            }
+        }
+
+        text.append(MessageManager.color("&8&m------------------------------------------"));
+        return text.toString();
+    }
+
+    /**
+     * Formats a nanosecond duration using the most readable unit.
+     */
+    private String formatNanos(long nanos) {
+        if (nanos >= 1_000_000_000L) {
+            return String.format("%.2fs", nanos / 1_000_000_000.0);
+        }
+        if (nanos >= 1_000_000L) {
+            return String.format("%.2fms", nanos / 1_000_000.0);
+        }
+        if (nanos >= 1_000L) {
+            return String.format("%.1fus", nanos / 1_000.0);
+        }
+        return nanos + "ns";
+    }
+
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (args.length == 1) {
@@ -155,7 +514,8 @@ public class LagXpertCommand implements CommandExecutor, TabCompleter {
             for (String sub : ROOT_SUBCOMMANDS) {
                 if (sub.toLowerCase().startsWith(currentArg)) {
                     // Permission-based tab completion
-                    if (sub.equalsIgnoreCase("reload") || sub.equalsIgnoreCase("inspect")) {
+                    if (sub.equalsIgnoreCase("reload") || sub.equalsIgnoreCase("inspect") || sub.equalsIgnoreCase("self")
+                            || sub.equalsIgnoreCase("redstone") || sub.equalsIgnoreCase("hoppers")) {
                         if (sender.hasPermission("lagxpert.admin")) {
                             completions.add(sub);
                         }
@@ -167,6 +527,33 @@ public class LagXpertCommand implements CommandExecutor, TabCompleter {
             return completions;
         }
 
+        // Tab completion for /lagxpert self [reset]
+        if (args[0].equalsIgnoreCase("self") && args.length == 2 && sender.hasPermission("lagxpert.admin")) {
+            return "reset".startsWith(args[1].toLowerCase()) ? Collections.singletonList("reset") : Collections.emptyList();
+        }
+
+        // Tab completion for /lagxpert redstone|hoppers top [world|all] [seconds] [export]
+        boolean profileCommand = args[0].equalsIgnoreCase("redstone") || args[0].equalsIgnoreCase("hoppers");
+        if (profileCommand && sender.hasPermission("lagxpert.admin")) {
+            List<String> options = new ArrayList<>();
+            if (args.length == 2) {
+                options.add("top");
+            } else if (args.length > 2 && args[1].equalsIgnoreCase("top")) {
+                options.add("all");
+                if (args[0].equalsIgnoreCase("redstone")) {
+                    options.add("export");
+                }
+                options.add(String.valueOf(PROFILE_DEFAULT_SECONDS));
+                for (World world : Bukkit.getWorlds()) {
+                    options.add(world.getName());
+                }
+            }
+            String current = args[args.length - 1].toLowerCase();
+            return options.stream()
+                    .filter(option -> option.toLowerCase().startsWith(current))
+                    .collect(Collectors.toList());
+        }
+
         // Tab completion for /lagxpert inspect <x> <z> [world]
         if (args[0].equalsIgnoreCase("inspect") && sender.hasPermission("lagxpert.admin")) {
             if (args.length == 2) { // Suggesting <x> (placeholder text)
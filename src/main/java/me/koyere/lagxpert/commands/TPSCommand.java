@@ -1,9 +1,16 @@
 package me.koyere.lagxpert.commands;
 
+import me.koyere.lagxpert.monitoring.ChunkLoadMeter;
+import me.koyere.lagxpert.monitoring.GCMonitor;
+import me.koyere.lagxpert.monitoring.MsptForecaster;
 import me.koyere.lagxpert.monitoring.PerformanceTracker;
 import me.koyere.lagxpert.monitoring.TPSMonitor;
+import me.koyere.lagxpert.monitoring.TimeSeriesStore;
+import me.koyere.lagxpert.system.LagShield;
+import me.koyere.lagxpert.system.WorldPressureTracker;
 import me.koyere.lagxpert.utils.ConfigManager;
 import me.koyere.lagxpert.utils.MessageManager;
+import me.koyere.lagxpert.utils.SchedulerWrapper;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -63,7 +70,11 @@ public class TPSCommand implements CommandExecutor, TabCompleter {
                 showLagSpikeInfo(sender);
                 break;
             case "history":
-                showPerformanceHistory(sender);
+                if (TimeSeriesStore.isInitialized()) {
+                    showStoredHistory(sender, args.length > 1 ? args[1] : "1h");
+                } else {
+                    showPerformanceHistory(sender);
+                }
                 break;
             case "reset":
                 if (!sender.hasPermission("lagxpert.admin")) {
@@ -169,6 +180,53 @@ public class TPSCommand implements CommandExecutor, TabCompleter {
         message.append(MessageManager.color("&f  Minimum: &e")).append(String.format("%.2f", TPSMonitor.getMinTickTime())).append("ms\n");
         message.append(MessageManager.color("&f  Total Ticks: &e")).append(TPSMonitor.getTotalTicks()).append("\n");
 
+        // Short-term forecast
+        if (MsptForecaster.isReady()) {
+            message.append(MessageManager.color("&6Forecast (&e" + ConfigManager.getMsptForecastHorizonSeconds() + "s&6):\n"));
+            message.append(MessageManager.color("&f  Predicted MSPT: &e")).append(String.format("%.2f", MsptForecaster.getPredictedMspt()))
+                    .append(MessageManager.color("ms &7(trend &f")).append(String.format("%+.2f", MsptForecaster.getTrendPerSecond()))
+                    .append(MessageManager.color("&7ms/s)\n"));
+            message.append(MessageManager.color("&f  Predicted TPS: ")).append(formatTPS("", MsptForecaster.getPredictedTps())).append("\n");
+        }
+
+        // LagShield ladder
+        LagShield shield = LagShield.getInstance();
+        LagShield.ShieldLevel shieldLevel = shield.getCurrentLevel();
+        message.append(MessageManager.color("&6LagShield: "));
+        if (shieldLevel != null) {
+            message.append(MessageManager.color("&cLevel " + shield.getLevel() + "/" + shield.getLevels().size()
+                    + " &7(&f" + shieldLevel.getName() + "&7)"));
+            if (shield.isActivatedByForecast()) {
+                message.append(MessageManager.color(" &7[forecast]"));
+            }
+        } else {
+            message.append(MessageManager.color("&aInactive"));
+        }
+        message.append("\n");
+        if (shield.getPressureController().isEnabled()) {
+            message.append(MessageManager.color("&f  Pressure: &e")).append(String.format("%.0f%%", shield.getPressure() * 100))
+                    .append(MessageManager.color(" &7(target &f")).append(String.format("%.0f", shield.getPressureController().getTargetMspt()))
+                    .append(MessageManager.color("&7ms, mob cap &f")).append(String.format("%.2f", shield.getMobCapMultiplier()))
+                    .append(MessageManager.color("&7x, redstone &f")).append(String.format("%.2f", shield.getRedstoneBudgetMultiplier()))
+                    .append(MessageManager.color("&7x, hoppers &f")).append(String.format("%.2f", shield.getHopperBudgetMultiplier()))
+                    .append(MessageManager.color("&7x)\n"));
+        }
+        if (shield.getWorldTracker().isEnabled()) {
+            for (WorldPressureTracker.WorldState state : shield.getWorldTracker().getStates().values()) {
+                int worldLevel = state.getLevel();
+                message.append(MessageManager.color("&f  • &e" + state.getWorldName() + ": "))
+                        .append(MessageManager.color(worldLevel > 0 ? "&cLevel " + worldLevel : "&aNormal"))
+                        .append(MessageManager.color(" &7(load &f")).append(String.format("%.2f", state.getScore()))
+                        .append(MessageManager.color("&7, ~&f")).append(String.format("%.1f", state.getEstimatedMspt()))
+                        .append(MessageManager.color("&7ms/tick)\n"));
+            }
+        }
+        if (shield.getDistanceManager().getReducedPlayerCount() > 0) {
+            message.append(MessageManager.color("&f  Reduced view distance: &e"))
+                    .append(shield.getDistanceManager().getReducedPlayerCount())
+                    .append(MessageManager.color(" &7players\n"));
+        }
+
         // Recent lag spikes
         List<TPSMonitor.LagSpike> recentSpikes = TPSMonitor.getRecentLagSpikes();
         message.append(MessageManager.color("&6Recent Lag Spikes: &e")).append(recentSpikes.size()).append("\n");
@@ -209,6 +267,28 @@ public class TPSCommand implements CommandExecutor, TabCompleter {
         message.append(MessageManager.color("&f• &eFree Memory: &f")).append(freeMB).append(" MB\n");
         message.append(MessageManager.color("&f• &eTotal Memory: &f")).append(totalMB).append(" MB\n");
 
+        // GC and allocation telemetry
+        if (GCMonitor.isRunning()) {
+            message.append(MessageManager.color("&f• &eAllocation Rate: &f"))
+                    .append(String.format("%.1f", GCMonitor.getAllocationRateBytesPerSecond() / 1024.0 / 1024.0))
+                    .append(" MB/s (peak ")
+                    .append(String.format("%.1f", GCMonitor.getPeakAllocationRateBytesPerSecond() / 1024.0 / 1024.0))
+                    .append(" MB/s)\n");
+
+            List<GCMonitor.GCEvent> gcEvents = GCMonitor.getRecentEvents();
+            message.append(MessageManager.color("&f• &eRecent GCs: &f")).append(gcEvents.size()).append("\n");
+            int gcToShow = Math.min(3, gcEvents.size());
+            for (int i = gcEvents.size() - gcToShow; i < gcEvents.size(); i++) {
+                GCMonitor.GCEvent event = gcEvents.get(i);
+                long timeAgo = (System.currentTimeMillis() - event.getEndTime()) / 1000;
+                message.append(MessageManager.color("&f  • &e")).append(event.getCollector())
+                        .append(MessageManager.color(" &f")).append(event.getDurationMs()).append("ms")
+                        .append(MessageManager.color(" &7(")).append(event.getCause()).append(", ")
+                        .append(event.getReclaimedBytes() / 1024 / 1024).append(" MB freed, ")
+                        .append(timeAgo).append("s ago)\n");
+            }
+        }
+
         // Memory status
         String memoryStatus;
         if (currentUsage >= ConfigManager.getMemoryCriticalThreshold()) {
@@ -241,6 +321,22 @@ public class TPSCommand implements CommandExecutor, TabCompleter {
 
         message.append(MessageManager.color("&f• &eTotal Loaded: &f")).append(totalChunks).append("\n");
         message.append(MessageManager.color("&f• &eLoading Rate: &f")).append(loadingRate).append(" chunks/min\n");
+
+        if (ChunkLoadMeter.isRunning()) {
+            ChunkLoadMeter.RateWindow recent = ChunkLoadMeter.getRecentRates(60);
+            message.append(MessageManager.color("&f• &eNew / Existing: &f")).append(recent.getNewChunks())
+                    .append(MessageManager.color(" &7/ &f")).append(recent.getExistingChunks()).append(" chunks/min\n");
+            message.append(MessageManager.color("&f• &eUnload Rate: &f")).append(recent.getUnloads()).append(" chunks/min\n");
+            message.append(MessageManager.color("&f• &ePeak Load Rate: &f")).append(recent.getPeakLoadsPerSecond()).append(" chunks/s\n");
+
+            for (Map.Entry<String, ChunkLoadMeter.WorldCounters> entry : ChunkLoadMeter.getWorldCounters().entrySet()) {
+                ChunkLoadMeter.WorldCounters counters = entry.getValue();
+                message.append(MessageManager.color("  &7" + entry.getKey() + ": &f")).append(counters.getLoadedChunks())
+                        .append(MessageManager.color(" &7loaded, &f")).append(counters.getNewChunks())
+                        .append(MessageManager.color(" &7generated since start\n"));
+            }
+        }
+
         message.append(MessageManager.color("&f• &eWarning Threshold: &f")).append(maxChunksWarning).append("\n");
 
         // Chunk status
@@ -293,6 +389,138 @@ public class TPSCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(message.toString());
     }
 
+    /**
+     * Shows persistent performance history for a time range such as 30m, 6h or 7d.
+     * Long ranges are served from the minute/hour rollups without loading raw data.
+     * The store is read in a single pass off the main thread; the report is sent from the main thread.
+     */
+    private void showStoredHistory(CommandSender sender, String rangeArg) {
+        long rangeMillis = parseRange(rangeArg);
+        if (rangeMillis <= 0) {
+            sender.sendMessage(MessageManager.color("&cInvalid range '" + rangeArg + "'. Use e.g. 30m, 6h or 7d."));
+            return;
+        }
+
+        SchedulerWrapper.runTaskAsynchronously(() -> {
+            String report = buildStoredHistory(rangeArg, rangeMillis);
+            SchedulerWrapper.runTask(() -> {
+                if (!(sender instanceof Player) || ((Player) sender).isOnline()) {
+                    sender.sendMessage(report);
+                }
+            });
+        });
+    }
+
+    private String buildStoredHistory(String rangeArg, long rangeMillis) {
+        long now = System.currentTimeMillis();
+        long from = now - rangeMillis;
+        TimeSeriesStore.Resolution resolution = TimeSeriesStore.selectResolution(from, now);
+
+        // Break the range into equal periods to show the trend, summarized in the same pass as the total
+        int periods = 6;
+        long periodMillis = Math.max(1L, rangeMillis / periods);
+        TimeSeriesStore.Summary total = new TimeSeriesStore.Summary();
+        TimeSeriesStore.Summary[] periodSummaries = new TimeSeriesStore.Summary[periods];
+        for (int i = 0; i < periods; i++) {
+            periodSummaries[i] = new TimeSeriesStore.Summary();
+        }
+        TimeSeriesStore.query(resolution, from, now, record -> {
+            total.add(record);
+            int index = (int) Math.min(periods - 1, (record.getTimestamp() - from) / periodMillis);
+            periodSummaries[index].add(record);
+        });
+
+        StringBuilder message = new StringBuilder();
+        message.append(MessageManager.color("&8&m------------------------------------------\n"));
+        message.append(MessageManager.color("&b&lPerformance History &7(last " + rangeArg.toLowerCase() + ")\n"));
+        message.append(MessageManager.color("&8&m------------------------------------------\n"));
+
+        if (total.getRecords() == 0) {
+            message.append(MessageManager.color("&e&lNo performance history recorded for this range yet.\n"));
+            message.append(MessageManager.color("&8&m------------------------------------------"));
+            return message.toString();
+        }
+
+        message.append(MessageManager.color("&f• &eRecords: &f")).append(total.getRecords())
+                .append(MessageManager.color(" &7(" + resolution.name().toLowerCase() + ")\n"));
+        message.append(MessageManager.color("&f• &eAverage TPS: ")).append(formatTPS("", total.getAverageTps()))
+                .append(MessageManager.color(" &7(min ")).append(String.format("%.2f", total.getMinTps())).append(")\n");
+        message.append(MessageManager.color("&f• &eAverage Tick Interval: &f")).append(String.format("%.2f", total.getAverageTickInterval()))
+                .append(MessageManager.color("ms &7(worst p99 ")).append(String.format("%.2f", total.getMaxTickIntervalP99())).append("ms)\n");
+        message.append(MessageManager.color("&f• &eAverage Memory: ")).append(formatMemory(total.getAverageMemoryPercent())).append("\n");
+        message.append(MessageManager.color("&f• &ePeak Chunks: &f")).append(total.getPeakChunks())
+                .append(MessageManager.color(" &8| &ePeak Entities: &f")).append(total.getPeakEntities()).append("\n");
+        if (total.getMaxShieldLevel() > 0 || total.getAverageShieldPressure() > 0) {
+            message.append(MessageManager.color("&f• &eLagShield: &fmax level ")).append(total.getMaxShieldLevel())
+                    .append(MessageManager.color(" &7(avg pressure &f")).append(String.format("%.0f%%", total.getAverageShieldPressure() * 100))
+                    .append(MessageManager.color("&7)\n"));
+        }
+
+        message.append(MessageManager.color("&f• &eBreakdown:\n"));
+        for (int i = 0; i < periods; i++) {
+            long periodStart = from + i * periodMillis;
+            TimeSeriesStore.Summary period = periodSummaries[i];
+            String label = formatAgo(now - periodStart);
+            if (period.getRecords() == 0) {
+                message.append(MessageManager.color("&f  • &7" + label + " ago: no data\n"));
+            } else {
+                message.append(MessageManager.color("&f  • &7" + label + " ago: "))
+                        .append(formatTPS("", period.getAverageTps()))
+                        .append(MessageManager.color(" &7TPS, &f")).append(String.format("%.1f", period.getAverageTickInterval()))
+                        .append(MessageManager.color("&7ms, ")).append(formatMemory(period.getAverageMemoryPercent())).append("\n");
+            }
+        }
+
+        message.append(MessageManager.color("&8&m------------------------------------------"));
+        return message.toString();
+    }
+
+    /**
+     * Parses a range like 30m, 6h or 7d into milliseconds.
+     *
+     * @return The range in milliseconds, or -1 if invalid
+     */
+    private long parseRange(String range) {
+        if (range == null || range.length() < 2) {
+            return -1L;
+        }
+        char unit = Character.toLowerCase(range.charAt(range.length() - 1));
+        long amount;
+        try {
+            amount = Long.parseLong(range.substring(0, range.length() - 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+        if (amount <= 0) {
+            return -1L;
+        }
+        switch (unit) {
+            case 'm':
+                return amount * 60_000L;
+            case 'h':
+                return amount * 3_600_000L;
+            case 'd':
+                return Math.min(amount, 365L) * 86_400_000L;
+            default:
+                return -1L;
+        }
+    }
+
+    /**
+     * Formats a duration in milliseconds as a compact age (e.g. 45m, 6h, 3d).
+     */
+    private String formatAgo(long millis) {
+        long minutes = millis / 60_000L;
+        if (minutes < 120) {
+            return minutes + "m";
+        }
+        long hours = minutes / 60;
+        if (hours < 48) {
+            return hours + "h";
+        }
+        return (hours / 24) + "d";
+    }
+
     /**
      * Shows performance history and trends.
      */
@@ -369,7 +597,7 @@ public class TPSCommand implements CommandExecutor, TabCompleter {
         help.append(MessageManager.color("&e/tps memory &8- &7Show memory usage details\n"));
         help.append(MessageManager.color("&e/tps chunks &8- &7Show chunk loading information\n"));
         help.append(MessageManager.color("&e/tps lagspikes &8- &7Show recent lag spikes\n"));
-        help.append(MessageManager.color("&e/tps history &8- &7Show performance history\n"));
+        help.append(MessageManager.color("&e/tps history [30m|6h|7d] &8- &7Show performance history\n"));
 
         if (sender.hasPermission("lagxpert.admin")) {
             help.append(MessageManager.color("&e/tps reset &8- &7Reset performance statistics\n"));
@@ -431,6 +659,13 @@ public class TPSCommand implements CommandExecutor, TabCompleter {
                     .collect(Collectors.toList());
         }
 
+        if (args.length == 2 && args[0].equalsIgnoreCase("history")) {
+            String currentArg = args[1].toLowerCase();
+            return Arrays.asList("30m", "1h", "6h", "24h", "7d").stream()
+                    .filter(range -> range.startsWith(currentArg))
+                    .collect(Collectors.toList());
+        }
+
         return Collections.emptyList();
     }
 }
\ No newline at end of file
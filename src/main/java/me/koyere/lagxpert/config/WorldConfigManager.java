@@ -205,6 +205,14 @@ public class WorldConfigManager {
                 "#     alert-thresholds:\n" +
                 "#       warning: 16.0         # Different TPS warning for this world\n" +
                 "# \n" +
+                "# lagshield:                  # Per-world shield budgets (lagshield.yml: per-world)\n" +
+                "#   mspt-budget: 15.0         # Estimated ms/tick this world may use\n" +
+                "#   max-entities: 2000        # Entity budget for this world\n" +
+                "# \n" +
+                "# control:\n" +
+                "#   chunk-budget:             # Redstone updates per chunk (redstone.yml)\n" +
+                "#     updates-per-tick: 64\n" +
+                "# \n" +
                 "# Remove or comment out sections you don't want to override.\n";
     }
 
@@ -346,6 +354,25 @@ public class WorldConfigManager {
         return getWorldValue(world, "limits.mobs-per-chunk", ConfigManager.getMaxMobsPerChunk(), Integer.class);
     }
 
+    // Mob stacking
+    public static boolean isMobStackingEnabled(World world) {
+        return getWorldValue(world, "mob-stacking.enabled", ConfigManager.isMobStackingEnabled(), Boolean.class);
+    }
+
+    public static double getMobStackingRadius(World world) {
+        return getWorldValue(world, "mob-stacking.radius", ConfigManager.getMobStackingRadius(), Double.class);
+    }
+
+    public static int getMobStackingMaxSize(World world) {
+        return getWorldValue(world, "mob-stacking.max-stack-size", ConfigManager.getMobStackingMaxSize(), Integer.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static List<Object> getMobStackingTypes(World world) {
+        List<?> types = getWorldValue(world, "mob-stacking.types", ConfigManager.getMobStackingTypes(), List.class);
+        return types != null ? (List<Object>) types : Collections.emptyList();
+    }
+
     // Storage limits
     public static int getHoppersPerChunk(World world) {
         return getWorldValue(world, "limits.hoppers-per-chunk", ConfigManager.getMaxHoppersPerChunk(), Integer.class);
@@ -395,6 +422,15 @@ public class WorldConfigManager {
         return getWorldValue(world, "limits.observers-per-chunk", ConfigManager.getMaxObserversPerChunk(), Integer.class);
     }
 
+    // Redstone budgets
+    public static int getRedstoneChunkUpdatesPerTick(World world) {
+        return getWorldValue(world, "control.chunk-budget.updates-per-tick", ConfigManager.getRedstoneChunkUpdatesPerTick(), Integer.class);
+    }
+
+    public static int getRedstoneChunkBurst(World world) {
+        return getWorldValue(world, "control.chunk-budget.burst", ConfigManager.getRedstoneChunkBurst(), Integer.class);
+    }
+
     // TPS monitoring thresholds
     public static double getTPSWarningThreshold(World world) {
         return getWorldValue(world, "monitoring.tps.alert-thresholds.warning", ConfigManager.getTPSWarningThreshold(), Double.class);
@@ -1,5 +1,6 @@
 package me.koyere.lagxpert.listeners;
 
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
 import me.koyere.lagxpert.system.ChunkManager;
 import me.koyere.lagxpert.utils.ConfigManager;
 import org.bukkit.Chunk;
@@ -19,59 +20,90 @@ import org.bukkit.event.player.PlayerMoveEvent;
  */
 public class ChunkActivityListener implements Listener {
 
+    private static final SelfOverheadMeter.Probe BLOCK_PLACE_PROBE = SelfOverheadMeter.probe("ChunkActivityListener#onBlockPlace");
+    private static final SelfOverheadMeter.Probe BLOCK_BREAK_PROBE = SelfOverheadMeter.probe("ChunkActivityListener#onBlockBreak");
+    private static final SelfOverheadMeter.Probe ENTITY_SPAWN_PROBE = SelfOverheadMeter.probe("ChunkActivityListener#onEntitySpawn");
+    private static final SelfOverheadMeter.Probe ENTITY_DEATH_PROBE = SelfOverheadMeter.probe("ChunkActivityListener#onEntityDeath");
+    private static final SelfOverheadMeter.Probe PLAYER_MOVE_PROBE = SelfOverheadMeter.probe("ChunkActivityListener#onPlayerMove");
+
     private boolean isTrackingActive() {
         return ConfigManager.isChunkManagementModuleEnabled() && ConfigManager.isChunkActivityTrackingEnabled();
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBlockPlace(BlockPlaceEvent event) {
-        if (!isTrackingActive() || !ConfigManager.shouldTrackBlockChanges()) {
-            return;
+        long probeStart = BLOCK_PLACE_PROBE.start();
+        try {
+            if (!isTrackingActive() || !ConfigManager.shouldTrackBlockChanges()) {
+                return;
+            }
+            ChunkManager.recordBlockChange(event.getBlockPlaced().getChunk());
+        } finally {
+            BLOCK_PLACE_PROBE.stop(probeStart);
         }
-        ChunkManager.recordBlockChange(event.getBlockPlaced().getChunk());
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBlockBreak(BlockBreakEvent event) {
-        if (!isTrackingActive() || !ConfigManager.shouldTrackBlockChanges()) {
-            return;
+        long probeStart = BLOCK_BREAK_PROBE.start();
+        try {
+            if (!isTrackingActive() || !ConfigManager.shouldTrackBlockChanges()) {
+                return;
+            }
+            ChunkManager.recordBlockChange(event.getBlock().getChunk());
+        } finally {
+            BLOCK_BREAK_PROBE.stop(probeStart);
         }
-        ChunkManager.recordBlockChange(event.getBlock().getChunk());
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onEntitySpawn(EntitySpawnEvent event) {
-        if (!isTrackingActive() || !ConfigManager.shouldTrackEntityChanges()) {
-            return;
+        long probeStart = ENTITY_SPAWN_PROBE.start();
+        try {
+            if (!isTrackingActive() || !ConfigManager.shouldTrackEntityChanges()) {
+                return;
+            }
+            ChunkManager.recordEntityActivity(event.getLocation().getChunk());
+        } finally {
+            ENTITY_SPAWN_PROBE.stop(probeStart);
         }
-        ChunkManager.recordEntityActivity(event.getLocation().getChunk());
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onEntityDeath(EntityDeathEvent event) {
-        if (!isTrackingActive() || !ConfigManager.shouldTrackEntityChanges()) {
-            return;
+        long probeStart = ENTITY_DEATH_PROBE.start();
+        try {
+            if (!isTrackingActive() || !ConfigManager.shouldTrackEntityChanges()) {
+                return;
+            }
+            Entity entity = event.getEntity();
+            ChunkManager.recordEntityActivity(entity.getLocation().getChunk());
+        } finally {
+            ENTITY_DEATH_PROBE.stop(probeStart);
         }
-        Entity entity = event.getEntity();
-        ChunkManager.recordEntityActivity(entity.getLocation().getChunk());
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerMove(PlayerMoveEvent event) {
-        if (!isTrackingActive() || !ConfigManager.shouldTrackPlayerVisits()) {
-            return;
-        }
+        long probeStart = PLAYER_MOVE_PROBE.start();
+        try {
+            if (!isTrackingActive() || !ConfigManager.shouldTrackPlayerVisits()) {
+                return;
+            }
 
-        Chunk fromChunk = event.getFrom().getChunk();
-        Chunk toChunk = event.getTo() != null ? event.getTo().getChunk() : null;
+            Chunk fromChunk = event.getFrom().getChunk();
+            Chunk toChunk = event.getTo() != null ? event.getTo().getChunk() : null;
 
-        if (toChunk == null || (fromChunk.getX() == toChunk.getX() && fromChunk.getZ() == toChunk.getZ()
-                && fromChunk.getWorld().equals(toChunk.getWorld()))) {
-            return; // No chunk change
-        }
+            if (toChunk == null || (fromChunk.getX() == toChunk.getX() && fromChunk.getZ() == toChunk.getZ()
+                    && fromChunk.getWorld().equals(toChunk.getWorld()))) {
+                return; // No chunk change
+            }
 
-        Player player = event.getPlayer();
-        ChunkManager.recordPlayerActivity(player, toChunk);
+            Player player = event.getPlayer();
+            ChunkManager.recordPlayerActivity(player, toChunk);
+        } finally {
+            PLAYER_MOVE_PROBE.stop(probeStart);
+        }
     }
 }
 
@@ -2,14 +2,17 @@ package me.koyere.lagxpert.listeners;
 
 import me.koyere.lagxpert.LagXpert;
 import me.koyere.lagxpert.api.events.ChunkOverloadEvent;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
 import me.koyere.lagxpert.system.AlertCooldownManager; // Import AlertCooldownManager
+import me.koyere.lagxpert.system.EntityCensus;
+import me.koyere.lagxpert.system.LagShield;
 import me.koyere.lagxpert.system.MobAIOptimizer;
+import me.koyere.lagxpert.system.MobStackManager;
 import me.koyere.lagxpert.utils.ConfigManager;
 import me.koyere.lagxpert.utils.MessageManager;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.World;
@@ -32,101 +35,117 @@ import java.util.Map;
  */
 public class EntityListener implements Listener {
 
+    private static final SelfOverheadMeter.Probe CREATURE_SPAWN_PROBE = SelfOverheadMeter.probe("EntityListener#onCreatureSpawn");
+
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onCreatureSpawn(CreatureSpawnEvent event) {
-        if (!ConfigManager.isMobsModuleEnabled()) {
-            return;
-        }
-
-        // Apply AI optimization immediately
-        if (event.getEntity() instanceof LivingEntity) {
-            MobAIOptimizer.getInstance().optimizeEntity(event.getEntity());
-        }
-
-        Location spawnLocation = event.getLocation();
-        Chunk chunk = spawnLocation.getChunk();
-
-        List<Player> playersInChunk = new ArrayList<>();
-        for (Entity entity : chunk.getEntities()) {
-            if (entity instanceof Player) {
-                Player player = (Player) entity; // Java 11 compatible cast
-                playersInChunk.add(player);
+        long probeStart = CREATURE_SPAWN_PROBE.start();
+        try {
+            if (!ConfigManager.isMobsModuleEnabled()) {
+                return;
             }
-        }
 
-        if (!playersInChunk.isEmpty()) {
-            for (Player player : playersInChunk) {
-                if (player.hasPermission("lagxpert.bypass.mobs")) {
-                    if (ConfigManager.isDebugEnabled()) {
-                        LagXpert.getInstance().getLogger().info(
-                                "Mob spawn at " + locationToString(spawnLocation) +
-                                        " (Chunk: " + chunk.getX() + "," + chunk.getZ() + ")" +
-                                        " bypassed due to player " + player.getName() + " having permission.");
-                    }
-                    return;
-                }
+            // LagShield: block natural spawns while the world's level requires it
+            if (event.getSpawnReason() == CreatureSpawnEvent.SpawnReason.NATURAL
+                    && LagShield.getInstance().shouldBlockNaturalSpawns(event.getLocation().getWorld())) {
+                event.setCancelled(true);
+                return;
             }
-        }
 
-        int livingEntitiesInChunk = 0;
-        for (Entity entity : chunk.getEntities()) {
-            if (entity instanceof LivingEntity) {
-                livingEntitiesInChunk++;
+            // Apply AI optimization immediately
+            if (event.getEntity() instanceof LivingEntity) {
+                MobAIOptimizer.getInstance().optimizeEntity(event.getEntity());
             }
-        }
 
-        // Get the highest custom limit from any player in the chunk, or use default
-        int mobLimit = getEffectiveMobLimit(playersInChunk, chunk.getWorld());
-        int nearLimitThreshold = (int) (mobLimit * 0.80);
+            // The rest of a mob stack replacing its dead carrier is not a new mob
+            if (MobStackManager.getInstance().isSpawningRemainder()) {
+                return;
+            }
 
-        if (livingEntitiesInChunk >= mobLimit) {
-            event.setCancelled(true);
-            fireChunkOverloadEvent(chunk, "mobs_limit_reached");
+            Location spawnLocation = event.getLocation();
+            Chunk chunk = spawnLocation.getChunk();
 
-            if (ConfigManager.isDebugEnabled()) {
-                LagXpert.getInstance().getLogger().info(
-                        "Cancelled mob spawn at " + locationToString(spawnLocation) +
-                                " (Chunk: " + chunk.getX() + "," + chunk.getZ() + "). " +
-                                "Count: " + livingEntitiesInChunk + ", Limit: " + mobLimit);
+            // Players are looked up from the world's player list; the census does not count them
+            List<Player> playersInChunk = new ArrayList<>();
+            for (Player player : chunk.getWorld().getPlayers()) {
+                Location playerLocation = player.getLocation();
+                if (playerLocation.getBlockX() >> 4 == chunk.getX() && playerLocation.getBlockZ() >> 4 == chunk.getZ()) {
+                    playersInChunk.add(player);
+                }
             }
 
-            if (ConfigManager.isAlertsModuleEnabled() && ConfigManager.shouldAlertOnMobsLimitReached()
-                    && !playersInChunk.isEmpty()) {
-                String limitMessageKey = "limits.mobs"; // The key for the message in messages.yml
-                // Generate a unique key for this specific alert condition (type and chunk)
-                String alertCooldownKey = AlertCooldownManager.generateAlertKey("mobs_limit_reached", chunk);
-
+            if (!playersInChunk.isEmpty()) {
                 for (Player player : playersInChunk) {
-                    // Only send alerts to players with permission to receive them
-                    if (player.hasPermission("lagxpert.alerts.receive")
-                            || player.hasPermission("lagxpert.alerts.mobs")) {
-                        // Check cooldown for this player and this specific alert
-                        if (AlertCooldownManager.canSendAlert(player, alertCooldownKey)) {
-                            MessageManager.sendRestrictionMessage(player, limitMessageKey);
+                    if (player.hasPermission("lagxpert.bypass.mobs")) {
+                        if (ConfigManager.isDebugEnabled()) {
+                            LagXpert.getInstance().getLogger().info(
+                                    "Mob spawn at " + locationToString(spawnLocation) +
+                                            " (Chunk: " + chunk.getX() + "," + chunk.getZ() + ")" +
+                                            " bypassed due to player " + player.getName() + " having permission.");
                         }
+                        return;
                     }
                 }
             }
-        } else if (livingEntitiesInChunk >= nearLimitThreshold && mobLimit > 0) {
-            if (ConfigManager.isAlertsModuleEnabled() && ConfigManager.shouldWarnOnMobsNearLimit()
-                    && !playersInChunk.isEmpty()) {
-                Player targetPlayer = findClosestPlayerToLocation(playersInChunk, spawnLocation);
-                if (targetPlayer != null && (targetPlayer.hasPermission("lagxpert.alerts.receive")
-                        || targetPlayer.hasPermission("lagxpert.alerts.mobs"))) {
-                    // Generate a unique key for this specific alert condition (type and chunk)
-                    String alertCooldownKey = AlertCooldownManager.generateAlertKey("mobs_near_limit", chunk);
 
-                    // Check cooldown for the target player and this specific alert
-                    if (AlertCooldownManager.canSendAlert(targetPlayer, alertCooldownKey)) {
-                        Map<String, Object> placeholders = new HashMap<>();
-                        placeholders.put("used", String.valueOf(livingEntitiesInChunk));
-                        placeholders.put("max", String.valueOf(mobLimit));
-                        placeholders.put("type", "mobs"); // Consistent with how messages.yml expects it
+            int livingEntitiesInChunk = EntityCensus.getInstance().getCount(chunk, EntityCensus.Category.LIVING)
+                    + playersInChunk.size();
+
+            // Get the highest custom limit from any player in the chunk, or use default
+            int mobLimit = getEffectiveMobLimit(playersInChunk, chunk.getWorld());
+            int nearLimitThreshold = (int) (mobLimit * 0.80);
+
+            if (livingEntitiesInChunk >= mobLimit) {
+                event.setCancelled(true);
+                fireChunkOverloadEvent(chunk, "mobs_limit_reached");
+
+                if (ConfigManager.isDebugEnabled()) {
+                    LagXpert.getInstance().getLogger().info(
+                            "Cancelled mob spawn at " + locationToString(spawnLocation) +
+                                    " (Chunk: " + chunk.getX() + "," + chunk.getZ() + "). " +
+                                    "Count: " + livingEntitiesInChunk + ", Limit: " + mobLimit);
+                }
 
-                        MessageManager.sendFormattedRestrictionMessage(targetPlayer, "limits.near-limit", placeholders);
+                if (ConfigManager.isAlertsModuleEnabled() && ConfigManager.shouldAlertOnMobsLimitReached()
+                        && !playersInChunk.isEmpty()) {
+                    String limitMessageKey = "limits.mobs"; // The key for the message in messages.yml
+                    // Generate a unique key for this specific alert condition (type and chunk)
+                    String alertCooldownKey = AlertCooldownManager.generateAlertKey("mobs_limit_reached", chunk);
+
+                    for (Player player : playersInChunk) {
+                        // Only send alerts to players with permission to receive them
+                        if (player.hasPermission("lagxpert.alerts.receive")
+                                || player.hasPermission("lagxpert.alerts.mobs")) {
+                            // Check cooldown for this player and this specific alert
+                            if (AlertCooldownManager.canSendAlert(player, alertCooldownKey)) {
+                                MessageManager.sendRestrictionMessage(player, limitMessageKey);
+                            }
+                        }
+                    }
+                }
+            } else if (livingEntitiesInChunk >= nearLimitThreshold && mobLimit > 0) {
+                if (ConfigManager.isAlertsModuleEnabled() && ConfigManager.shouldWarnOnMobsNearLimit()
+                        && !playersInChunk.isEmpty()) {
+                    Player targetPlayer = findClosestPlayerToLocation(playersInChunk, spawnLocation);
+                    if (targetPlayer != null && (targetPlayer.hasPermission("lagxpert.alerts.receive")
+                            || targetPlayer.hasPermission("lagxpert.alerts.mobs"))) {
+                        // Generate a unique key for this specific alert condition (type and chunk)
+                        String alertCooldownKey = AlertCooldownManager.generateAlertKey("mobs_near_limit", chunk);
+
+                        // Check cooldown for the target player and this specific alert
+                        if (AlertCooldownManager.canSendAlert(targetPlayer, alertCooldownKey)) {
+                            Map<String, Object> placeholders = new HashMap<>();
+                            placeholders.put("used", String.valueOf(livingEntitiesInChunk));
+                            placeholders.put("max", String.valueOf(mobLimit));
+                            placeholders.put("type", "mobs"); // Consistent with how messages.yml expects it
+
+                            MessageManager.sendFormattedRestrictionMessage(targetPlayer, "limits.near-limit", placeholders);
+                        }
                     }
                 }
             }
+        } finally {
+            CREATURE_SPAWN_PROBE.stop(probeStart);
         }
     }
 
@@ -174,8 +193,9 @@ public class EntityListener implements Listener {
             }
         }
 
-        // Return custom limit if found, otherwise default
-        return highestCustomLimit > 0 ? highestCustomLimit : ConfigManager.getMaxMobsPerChunk(world);
+        // Return custom limit if found, otherwise default (scaled down by LagShield level and pressure)
+        int limit = highestCustomLimit > 0 ? highestCustomLimit : ConfigManager.getMaxMobsPerChunk(world);
+        return (int) Math.ceil(limit * LagShield.getInstance().getMobCapMultiplier(world));
     }
 
     /**
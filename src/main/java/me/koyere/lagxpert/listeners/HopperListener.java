@@ -0,0 +1,99 @@
+package me.koyere.lagxpert.listeners;
+
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
+import me.koyere.lagxpert.system.HopperActivityTracker;
+import me.koyere.lagxpert.system.ItemPipelineBudget;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.minecart.HopperMinecart;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.event.inventory.InventoryPickupItemEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+
+/**
+ * Feeds hopper transfers into the {@link HopperActivityTracker} and cancels transfers of
+ * hoppers or chunks that exceed their transfers-per-second caps. Item pickups by hoppers
+ * and hopper minecarts also go through the per-chunk {@link ItemPipelineBudget}.
+ * Inventory locations are used instead of holders, since resolving a block holder
+ * creates a block state snapshot on every transfer.
+ */
+public class HopperListener implements Listener {
+
+    private static final SelfOverheadMeter.Probe MOVE_ITEM_PROBE = SelfOverheadMeter.probe("HopperListener#onInventoryMoveItem");
+    private static final SelfOverheadMeter.Probe PICKUP_ITEM_PROBE = SelfOverheadMeter.probe("HopperListener#onInventoryPickupItem");
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onInventoryMoveItem(InventoryMoveItemEvent event) {
+        long probeStart = MOVE_ITEM_PROBE.start();
+        try {
+            if (!HopperActivityTracker.isEnabled()) {
+                return;
+            }
+            // The initiator is the hopper, both when pulling from above and when pushing
+            if (!isHopperBlock(event.getInitiator()) || allowTransfer(event.getInitiator())) {
+                return;
+            }
+            event.setCancelled(true);
+        } finally {
+            MOVE_ITEM_PROBE.stop(probeStart);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onInventoryPickupItem(InventoryPickupItemEvent event) {
+        long probeStart = PICKUP_ITEM_PROBE.start();
+        try {
+            Inventory inventory = event.getInventory();
+            if (inventory.getType() != InventoryType.HOPPER
+                    || (!HopperActivityTracker.isEnabled() && !ItemPipelineBudget.isEnabled())) {
+                return;
+            }
+
+            Entity minecart = null;
+            if (isHopperBlock(inventory)) {
+                if (HopperActivityTracker.isEnabled() && !allowTransfer(inventory)) {
+                    event.setCancelled(true);
+                    return;
+                }
+            } else {
+                // Entity holders are resolved without a block state snapshot
+                InventoryHolder holder = inventory.getHolder();
+                if (!(holder instanceof HopperMinecart)) {
+                    return;
+                }
+                minecart = (Entity) holder;
+            }
+
+            if (!ItemPipelineBudget.tryPickup(event.getItem(), inventory, minecart)) {
+                event.setCancelled(true);
+            }
+        } finally {
+            PICKUP_ITEM_PROBE.stop(probeStart);
+        }
+    }
+
+    /**
+     * Whether an inventory belongs to a hopper block (hopper minecarts share the inventory type).
+     */
+    private boolean isHopperBlock(Inventory inventory) {
+        if (inventory.getType() != InventoryType.HOPPER) {
+            return false;
+        }
+        Location location = inventory.getLocation();
+        return location != null && location.getWorld() != null
+                && location.getWorld().getBlockAt(location.getBlockX(), location.getBlockY(), location.getBlockZ()).getType() == Material.HOPPER;
+    }
+
+    private boolean allowTransfer(Inventory hopper) {
+        Location location = hopper.getLocation();
+        World world = location.getWorld();
+        return HopperActivityTracker.tryTransfer(world, location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+}
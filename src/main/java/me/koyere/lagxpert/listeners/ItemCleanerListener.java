@@ -1,6 +1,7 @@
 package me.koyere.lagxpert.listeners;
 
 import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
 import me.koyere.lagxpert.system.RecentlyBrokenBlocksTracker;
 import me.koyere.lagxpert.utils.ConfigManager;
 import org.bukkit.GameMode;
@@ -20,6 +21,9 @@ import org.bukkit.event.player.PlayerQuitEvent;
  * but haven't collected yet.
  */
 public class ItemCleanerListener implements Listener {
+
+    private static final SelfOverheadMeter.Probe BLOCK_BREAK_PROBE = SelfOverheadMeter.probe("ItemCleanerListener#onBlockBreak");
+    private static final SelfOverheadMeter.Probe PLAYER_QUIT_PROBE = SelfOverheadMeter.probe("ItemCleanerListener#onPlayerQuit");
     
     /**
      * Handles block break events to track recently broken blocks.
@@ -28,41 +32,46 @@ public class ItemCleanerListener implements Listener {
      */
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBlockBreak(BlockBreakEvent event) {
-        // Only track if item cleaner module and tracking are enabled
-        if (!ConfigManager.isItemCleanerModuleEnabled() || !ConfigManager.isBrokenBlockTrackingEnabled()) {
-            return;
-        }
+        long probeStart = BLOCK_BREAK_PROBE.start();
+        try {
+            // Only track if item cleaner module and tracking are enabled
+            if (!ConfigManager.isItemCleanerModuleEnabled() || !ConfigManager.isBrokenBlockTrackingEnabled()) {
+                return;
+            }
 
-        Player player = event.getPlayer();
-        Block block = event.getBlock();
-        Material material = block.getType();
+            Player player = event.getPlayer();
+            Block block = event.getBlock();
+            Material material = block.getType();
         
-        // Skip if player is in creative mode (no drops)
-        if (player.getGameMode() == GameMode.CREATIVE) {
-            return;
-        }
+            // Skip if player is in creative mode (no drops)
+            if (player.getGameMode() == GameMode.CREATIVE) {
+                return;
+            }
         
-        // Skip blocks that don't typically drop items
-        if (isNonDroppableBlock(material)) {
-            return;
-        }
+            // Skip blocks that don't typically drop items
+            if (isNonDroppableBlock(material)) {
+                return;
+            }
         
-        // Get grace period from configuration (with fallback to default)
-        long gracePeriodMs = RecentlyBrokenBlocksTracker.getGracePeriodForMaterial(material);
-        if (gracePeriodMs <= 0) {
-            return;
-        }
+            // Get grace period from configuration (with fallback to default)
+            long gracePeriodMs = RecentlyBrokenBlocksTracker.getGracePeriodForMaterial(material);
+            if (gracePeriodMs <= 0) {
+                return;
+            }
 
-        // Record the broken block with grace period
-        RecentlyBrokenBlocksTracker.recordBrokenBlock(player, material, block.getLocation(), gracePeriodMs);
+            // Record the broken block with grace period
+            RecentlyBrokenBlocksTracker.recordBrokenBlock(player, material, block.getLocation(), gracePeriodMs);
         
-        if (ConfigManager.isDebugEnabled()) {
-            LagXpert.getInstance().getLogger().info(
-                "[ItemCleanerListener] Recorded broken block: " + material + 
-                " by " + player.getName() + 
-                " at " + block.getX() + "," + block.getY() + "," + block.getZ() + 
-                " (grace period: " + (gracePeriodMs / 1000) + "s)"
-            );
+            if (ConfigManager.isDebugEnabled()) {
+                LagXpert.getInstance().getLogger().info(
+                    "[ItemCleanerListener] Recorded broken block: " + material + 
+                    " by " + player.getName() + 
+                    " at " + block.getX() + "," + block.getY() + "," + block.getZ() + 
+                    " (grace period: " + (gracePeriodMs / 1000) + "s)"
+                );
+            }
+        } finally {
+            BLOCK_BREAK_PROBE.stop(probeStart);
         }
     }
     
@@ -72,17 +81,22 @@ public class ItemCleanerListener implements Listener {
      */
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent event) {
-        Player player = event.getPlayer();
+        long probeStart = PLAYER_QUIT_PROBE.start();
+        try {
+            Player player = event.getPlayer();
         
-        // Clear all broken block records for this player
-        if (ConfigManager.isBrokenBlockTrackingEnabled()) {
-            RecentlyBrokenBlocksTracker.clearPlayerRecords(player.getUniqueId());
-        }
+            // Clear all broken block records for this player
+            if (ConfigManager.isBrokenBlockTrackingEnabled()) {
+                RecentlyBrokenBlocksTracker.clearPlayerRecords(player.getUniqueId());
+            }
         
-        if (ConfigManager.isDebugEnabled()) {
-            LagXpert.getInstance().getLogger().info(
-                "[ItemCleanerListener] Cleared broken block records for " + player.getName()
-            );
+            if (ConfigManager.isDebugEnabled()) {
+                LagXpert.getInstance().getLogger().info(
+                    "[ItemCleanerListener] Cleared broken block records for " + player.getName()
+                );
+            }
+        } finally {
+            PLAYER_QUIT_PROBE.stop(probeStart);
         }
     }
     
@@ -2,8 +2,14 @@ package me.koyere.lagxpert.listeners;
 
 import me.koyere.lagxpert.LagXpert;
 import me.koyere.lagxpert.api.events.ChunkOverloadEvent;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
 import me.koyere.lagxpert.system.AlertCooldownManager;
+import me.koyere.lagxpert.system.PistonActivityTracker;
+import me.koyere.lagxpert.system.RedstoneBudgetLimiter;
 import me.koyere.lagxpert.system.RedstoneCircuitTracker;
+import me.koyere.lagxpert.system.RedstoneComponentIndex;
+import me.koyere.lagxpert.system.RedstoneTimerWheel;
+import me.koyere.lagxpert.utils.BlockKey;
 import me.koyere.lagxpert.utils.ConfigManager;
 import me.koyere.lagxpert.utils.MessageManager;
 import org.bukkit.Bukkit;
@@ -19,7 +25,13 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPistonEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.block.BlockRedstoneEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -32,26 +44,151 @@ import java.util.List;
  */
 public class RedstoneListener implements Listener {
 
+    private static final SelfOverheadMeter.Probe REDSTONE_CHANGE_PROBE = SelfOverheadMeter.probe("RedstoneListener#onRedstoneChange");
+    private static final SelfOverheadMeter.Probe REDSTONE_BUDGET_PROBE = SelfOverheadMeter.probe("RedstoneListener#onRedstoneBudget");
+    private static final SelfOverheadMeter.Probe PISTON_EXTEND_PROBE = SelfOverheadMeter.probe("RedstoneListener#onPistonExtend");
+    private static final SelfOverheadMeter.Probe PISTON_RETRACT_PROBE = SelfOverheadMeter.probe("RedstoneListener#onPistonRetract");
+    private static final SelfOverheadMeter.Probe BLOCK_PLACE_PROBE = SelfOverheadMeter.probe("RedstoneListener#onBlockPlace");
+    private static final SelfOverheadMeter.Probe BLOCK_BREAK_PROBE = SelfOverheadMeter.probe("RedstoneListener#onBlockBreak");
+    private static final SelfOverheadMeter.Probe CHUNK_UNLOAD_PROBE = SelfOverheadMeter.probe("RedstoneListener#onChunkUnload");
+
     private static final int BYPASS_RADIUS = 16; // Radius in blocks to check for bypass players
+    private static final long SHUTDOWN_WARNING_TICKS = 60L; // 3 second warning
+
+    // Wire timeouts run on the shared redstone timer wheel
+    private final int wireTimeoutTimer = RedstoneTimerWheel.registerKind("wire-timeout", this::onWireTimeout);
+    private final int wireCutTimer = RedstoneTimerWheel.registerKind("wire-cut", this::onWireCut);
+
+    /**
+     * Holds back current changes in chunks that have used up their redstone budget
+     * for this tick (see {@link RedstoneBudgetLimiter}).
+     */
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onRedstoneBudget(BlockRedstoneEvent event) {
+        long probeStart = REDSTONE_BUDGET_PROBE.start();
+        try {
+            if (!ConfigManager.isRedstoneControlModuleEnabled() || event.getNewCurrent() == event.getOldCurrent()) {
+                return;
+            }
+            if (!RedstoneBudgetLimiter.tryConsume(event.getBlock())) {
+                event.setNewCurrent(event.getOldCurrent());
+            }
+        } finally {
+            REDSTONE_BUDGET_PROBE.stop(probeStart);
+        }
+    }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onRedstoneChange(BlockRedstoneEvent event) {
+        long probeStart = REDSTONE_CHANGE_PROBE.start();
+        try {
+            if (!ConfigManager.isRedstoneControlModuleEnabled()) {
+                return;
+            }
+
+            // Changes held back by the budget did not happen
+            if (event.getNewCurrent() == event.getOldCurrent()) {
+                return;
+            }
+
+            Block block = event.getBlock();
+            Material material = block.getType();
+
+            // Record all redstone activity for circuit tracking
+            if (isRedstoneComponent(material)) {
+                RedstoneCircuitTracker.recordRedstoneActivity(block, material);
+            }
+
+            // Observers fire redstone events when they pulse
+            if (material == Material.OBSERVER && event.getNewCurrent() > 0) {
+                PistonActivityTracker.recordObserverPulse(block);
+            }
+
+            // Handle redstone wire specifically for the legacy timeout system
+            if (material == Material.REDSTONE_WIRE && event.getNewCurrent() > 0 && event.getOldCurrent() == 0) {
+                scheduleRedstoneCheck(block);
+            }
+        } finally {
+            REDSTONE_CHANGE_PROBE.stop(probeStart);
+        }
+    }
+
+    /**
+     * Cancels piston pushes in chunks that exceed their piston limits
+     * (see {@link PistonActivityTracker}) and records accepted moves in the circuit tracker.
+     */
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        long probeStart = PISTON_EXTEND_PROBE.start();
+        try {
+            handlePistonMove(event, event.getBlocks().size());
+        } finally {
+            PISTON_EXTEND_PROBE.stop(probeStart);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        long probeStart = PISTON_RETRACT_PROBE.start();
+        try {
+            handlePistonMove(event, event.getBlocks().size());
+        } finally {
+            PISTON_RETRACT_PROBE.stop(probeStart);
+        }
+    }
+
+    private void handlePistonMove(BlockPistonEvent event, int movedCount) {
         if (!ConfigManager.isRedstoneControlModuleEnabled()) {
             return;
         }
+        Block piston = event.getBlock();
+        if (!PistonActivityTracker.tryMove(piston, movedCount)) {
+            event.setCancelled(true);
+            return;
+        }
+        // Pistons do not fire redstone events, so their moves are recorded here
+        RedstoneCircuitTracker.recordRedstoneActivity(piston, piston.getType());
+    }
 
-        Block block = event.getBlock();
-        Material material = block.getType();
-        Location location = block.getLocation();
+    /**
+     * Keeps the chunk redstone component index and the tracked circuits current.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        long probeStart = BLOCK_PLACE_PROBE.start();
+        try {
+            if (!ConfigManager.isRedstoneControlModuleEnabled()) {
+                return;
+            }
+            Block block = event.getBlockPlaced();
+            RedstoneComponentIndex.onBlockChange(block.getWorld(), block.getX(), block.getY(), block.getZ(), block.getType());
+        } finally {
+            BLOCK_PLACE_PROBE.stop(probeStart);
+        }
+    }
 
-        // Record all redstone activity for circuit tracking
-        if (isRedstoneComponent(material)) {
-            RedstoneCircuitTracker.recordRedstoneActivity(location, material);
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        long probeStart = BLOCK_BREAK_PROBE.start();
+        try {
+            if (!ConfigManager.isRedstoneControlModuleEnabled()) {
+                return;
+            }
+            Block block = event.getBlock();
+            RedstoneComponentIndex.onBlockChange(block.getWorld(), block.getX(), block.getY(), block.getZ(), Material.AIR);
+            RedstoneCircuitTracker.removeComponent(block);
+        } finally {
+            BLOCK_BREAK_PROBE.stop(probeStart);
         }
+    }
 
-        // Handle redstone wire specifically for the legacy timeout system
-        if (material == Material.REDSTONE_WIRE && event.getNewCurrent() > 0 && event.getOldCurrent() == 0) {
-            scheduleRedstoneCheck(block);
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        long probeStart = CHUNK_UNLOAD_PROBE.start();
+        try {
+            RedstoneComponentIndex.onChunkUnload(event.getWorld(), event.getChunk().getX(), event.getChunk().getZ());
+        } finally {
+            CHUNK_UNLOAD_PROBE.stop(probeStart);
         }
     }
 
@@ -78,6 +215,7 @@ public class RedstoneListener implements Listener {
     /**
      * Legacy redstone wire timeout system - still used as a fallback.
      * Now enhanced with player notifications and integration with circuit tracker.
+     * A wire that turns on again while its timeout is pending keeps the pending timeout.
      */
     private void scheduleRedstoneCheck(Block block) {
         long delayTicks = ConfigManager.getRedstoneActiveTicks();
@@ -85,58 +223,71 @@ public class RedstoneListener implements Listener {
             return;
         }
 
-        Location blockLocation = block.getLocation().clone();
+        RedstoneTimerWheel.schedule(wireTimeoutTimer, block.getWorld(), BlockKey.pack(block), delayTicks);
+    }
 
-        Bukkit.getScheduler().runTaskLater(LagXpert.getInstance(), () -> {
-            World world = blockLocation.getWorld();
-            if (world == null || !world.isChunkLoaded(blockLocation.getBlockX() >> 4, blockLocation.getBlockZ() >> 4)) {
-                return;
-            }
+    /**
+     * Timeout of a wire that turned on: cuts it if it is still powered.
+     */
+    private long onWireTimeout(World world, long blockKey) {
+        int x = BlockKey.getX(blockKey);
+        int z = BlockKey.getZ(blockKey);
+        if (!world.isChunkLoaded(x >> 4, z >> 4)) {
+            return 0L;
+        }
 
-            Block currentBlockState = blockLocation.getBlock();
+        Block currentBlockState = world.getBlockAt(x, BlockKey.getY(blockKey), z);
 
-            if (currentBlockState.getType() != Material.REDSTONE_WIRE) {
-                return;
-            }
+        if (currentBlockState.getType() != Material.REDSTONE_WIRE) {
+            return 0L;
+        }
 
-            org.bukkit.block.data.BlockData blockData = currentBlockState.getBlockData();
-            if (!(blockData instanceof RedstoneWire)) {
-                return;
-            }
-            RedstoneWire wireData = (RedstoneWire) blockData;
+        org.bukkit.block.data.BlockData blockData = currentBlockState.getBlockData();
+        if (!(blockData instanceof RedstoneWire)) {
+            return 0L;
+        }
+        RedstoneWire wireData = (RedstoneWire) blockData;
 
-            if (wireData.getPower() == 0) {
-                return;
-            }
+        if (wireData.getPower() == 0) {
+            return 0L;
+        }
 
-            // Check for bypass permissions
-            List<Player> nearbyPlayers = getNearbyPlayers(blockLocation, BYPASS_RADIUS);
-            boolean isBypassed = false;
-            for (Player player : nearbyPlayers) {
-                if (player.hasPermission("lagxpert.bypass.redstone")) {
-                    isBypassed = true;
-                    break;
-                }
-            }
+        Location blockLocation = currentBlockState.getLocation();
 
-            if (isBypassed) {
-                return;
+        // Check for bypass permissions
+        List<Player> nearbyPlayers = getNearbyPlayers(blockLocation, BYPASS_RADIUS);
+        boolean isBypassed = false;
+        for (Player player : nearbyPlayers) {
+            if (player.hasPermission("lagxpert.bypass.redstone")) {
+                isBypassed = true;
+                break;
             }
+        }
 
-            // Enhanced warning system - notify players before cutting
-            if (!nearbyPlayers.isEmpty()) {
-                notifyPlayersBeforeShutdown(nearbyPlayers, blockLocation, "timeout");
-
-                // Give players a few seconds to react before cutting
-                Bukkit.getScheduler().runTaskLater(LagXpert.getInstance(), () -> {
-                    performRedstoneShutdown(blockLocation, "redstone_timeout");
-                }, 60L); // 3 second warning
-            } else {
-                // No players nearby, cut immediately
-                performRedstoneShutdown(blockLocation, "redstone_timeout");
-            }
+        if (isBypassed) {
+            return 0L;
+        }
 
-        }, delayTicks);
+        // Enhanced warning system - notify players before cutting
+        if (!nearbyPlayers.isEmpty()) {
+            notifyPlayersBeforeShutdown(nearbyPlayers, blockLocation, "timeout");
+
+            // Give players a few seconds to react before cutting
+            RedstoneTimerWheel.schedule(wireCutTimer, world, blockKey, SHUTDOWN_WARNING_TICKS);
+        } else {
+            // No players nearby, cut immediately
+            performRedstoneShutdown(blockLocation, "redstone_timeout");
+        }
+        return 0L;
+    }
+
+    /**
+     * End of the warning period of a timed-out wire.
+     */
+    private long onWireCut(World world, long blockKey) {
+        performRedstoneShutdown(new Location(world, BlockKey.getX(blockKey), BlockKey.getY(blockKey), BlockKey.getZ(blockKey)),
+                "redstone_timeout");
+        return 0L;
     }
 
     /**
@@ -3,6 +3,7 @@ package me.koyere.lagxpert.listeners;
 import me.koyere.lagxpert.LagXpert;
 import me.koyere.lagxpert.api.events.ChunkOverloadEvent;
 import me.koyere.lagxpert.cache.ChunkDataCache;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
 import me.koyere.lagxpert.system.AlertCooldownManager;
 import me.koyere.lagxpert.tasks.AsyncChunkAnalyzer;
 import me.koyere.lagxpert.utils.ChunkUtils;
@@ -34,6 +35,9 @@ import java.util.function.ToIntFunction;
  */
 public class StorageListener implements Listener {
 
+    private static final SelfOverheadMeter.Probe STORAGE_PLACE_PROBE = SelfOverheadMeter.probe("StorageListener#onStoragePlace");
+    private static final SelfOverheadMeter.Probe BLOCK_BREAK_PROBE = SelfOverheadMeter.probe("StorageListener#onBlockBreak");
+
     // Helper class (replaces record) to store configuration for each limited block type
     private static final class BlockLimitConfig {
         private final Material material;
@@ -109,90 +113,95 @@ public class StorageListener implements Listener {
 
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onStoragePlace(BlockPlaceEvent event) {
-        if (!ConfigManager.isStorageModuleEnabled()) {
-            return;
-        }
+        long probeStart = STORAGE_PLACE_PROBE.start();
+        try {
+            if (!ConfigManager.isStorageModuleEnabled()) {
+                return;
+            }
 
-        Player player = event.getPlayer();
-        Block blockBeingPlaced = event.getBlock();
-        Material type = blockBeingPlaced.getType();
-        Chunk chunk = blockBeingPlaced.getChunk();
+            Player player = event.getPlayer();
+            Block blockBeingPlaced = event.getBlock();
+            Material type = blockBeingPlaced.getType();
+            Chunk chunk = blockBeingPlaced.getChunk();
 
-        BlockLimitConfig config = limitedBlocks.get(type);
+            BlockLimitConfig config = limitedBlocks.get(type);
 
-        if (config != null) {
-            if (player.hasPermission(config.getBypassPermissionSuffix())) {
-                if (ConfigManager.isDebugEnabled()) {
-                    LagXpert.getInstance().getLogger().info(
-                            "Placement of " + type + " by " + player.getName() + " at chunk " +
-                                    chunk.getX() + "," + chunk.getZ() + " bypassed due to permission."
-                    );
+            if (config != null) {
+                if (player.hasPermission(config.getBypassPermissionSuffix())) {
+                    if (ConfigManager.isDebugEnabled()) {
+                        LagXpert.getInstance().getLogger().info(
+                                "Placement of " + type + " by " + player.getName() + " at chunk " +
+                                        chunk.getX() + "," + chunk.getZ() + " bypassed due to permission."
+                        );
+                    }
+                    // Still invalidate cache even for bypass to keep data accurate
+                    invalidateChunkCache(chunk);
+                    return;
                 }
-                // Still invalidate cache even for bypass to keep data accurate
-                invalidateChunkCache(chunk);
-                return;
-            }
 
-            // Get current count using cache-optimized methods
-            int currentCount = getCurrentCount(chunk, config);
-            int limit = getEffectiveLimit(player, config, chunk.getWorld());
-
-            // Check if we're already at the limit (fix off-by-one error)
-            if (currentCount >= limit && limit > 0) {
-                event.setCancelled(true);
-                fireChunkOverloadEvent(chunk, config.getOverloadCause() + "_limit_exceeded_placement");
-
-                if (ConfigManager.isAlertsModuleEnabled() && shouldShowLimitReachedAlert(config.getMaterial())) {
-                    // Only send alerts to players with permission to receive them
-                    if (player.hasPermission("lagxpert.alerts.receive") || player.hasPermission("lagxpert.alerts.blocks")) {
-                        // Generate a unique key for this alert: type_limit_chunk_world_x_z
-                        String alertKey = AlertCooldownManager.generateAlertKey(config.getOverloadCause() + "_limit", chunk);
-                        if (AlertCooldownManager.canSendAlert(player, alertKey)) {
-                            MessageManager.sendRestrictionMessage(player, config.getLimitMessageKey());
+                // Get current count using cache-optimized methods
+                int currentCount = getCurrentCount(chunk, config);
+                int limit = getEffectiveLimit(player, config, chunk.getWorld());
+
+                // Check if we're already at the limit (fix off-by-one error)
+                if (currentCount >= limit && limit > 0) {
+                    event.setCancelled(true);
+                    fireChunkOverloadEvent(chunk, config.getOverloadCause() + "_limit_exceeded_placement");
+
+                    if (ConfigManager.isAlertsModuleEnabled() && shouldShowLimitReachedAlert(config.getMaterial())) {
+                        // Only send alerts to players with permission to receive them
+                        if (player.hasPermission("lagxpert.alerts.receive") || player.hasPermission("lagxpert.alerts.blocks")) {
+                            // Generate a unique key for this alert: type_limit_chunk_world_x_z
+                            String alertKey = AlertCooldownManager.generateAlertKey(config.getOverloadCause() + "_limit", chunk);
+                            if (AlertCooldownManager.canSendAlert(player, alertKey)) {
+                                MessageManager.sendRestrictionMessage(player, config.getLimitMessageKey());
+                            }
                         }
                     }
-                }
 
-                if (ConfigManager.isDebugEnabled()) {
-                    LagXpert.getInstance().getLogger().info(
-                            "Cancelled placement of " + type + " by " + player.getName() + " at chunk " +
-                                    chunk.getX() + "," + chunk.getZ() + ". Current in chunk: " + currentCount +
-                                    ", Limit: " + limit
-                    );
-                }
+                    if (ConfigManager.isDebugEnabled()) {
+                        LagXpert.getInstance().getLogger().info(
+                                "Cancelled placement of " + type + " by " + player.getName() + " at chunk " +
+                                        chunk.getX() + "," + chunk.getZ() + ". Current in chunk: " + currentCount +
+                                        ", Limit: " + limit
+                        );
+                    }
 
-            } else if ((currentCount + 1) >= (int) (limit * 0.8) && limit > 0) { // Near limit warning
-                if (ConfigManager.isAlertsModuleEnabled() && shouldShowNearLimitWarning(config.getMaterial())) {
-                    // Only send alerts to players with permission to receive them
-                    if (player.hasPermission("lagxpert.alerts.receive") || player.hasPermission("lagxpert.alerts.blocks")) {
-                        // Generate a unique key for this alert: type_near_limit_chunk_world_x_z
-                        String alertKey = AlertCooldownManager.generateAlertKey(config.getOverloadCause() + "_near_limit", chunk);
-                        if (AlertCooldownManager.canSendAlert(player, alertKey)) {
-                            Map<String, Object> placeholders = new HashMap<>();
-                            placeholders.put("type", MessageManager.getTranslation(
-                                    config.getOverloadCause(),
-                                    type.toString().toLowerCase().replace("_", " ")));
-                            placeholders.put("used", String.valueOf(currentCount + 1));
-                            placeholders.put("max", String.valueOf(limit));
-                            MessageManager.sendFormattedRestrictionMessage(player, config.getNearLimitMessageKey(), placeholders);
+                } else if ((currentCount + 1) >= (int) (limit * 0.8) && limit > 0) { // Near limit warning
+                    if (ConfigManager.isAlertsModuleEnabled() && shouldShowNearLimitWarning(config.getMaterial())) {
+                        // Only send alerts to players with permission to receive them
+                        if (player.hasPermission("lagxpert.alerts.receive") || player.hasPermission("lagxpert.alerts.blocks")) {
+                            // Generate a unique key for this alert: type_near_limit_chunk_world_x_z
+                            String alertKey = AlertCooldownManager.generateAlertKey(config.getOverloadCause() + "_near_limit", chunk);
+                            if (AlertCooldownManager.canSendAlert(player, alertKey)) {
+                                Map<String, Object> placeholders = new HashMap<>();
+                                placeholders.put("type", MessageManager.getTranslation(
+                                        config.getOverloadCause(),
+                                        type.toString().toLowerCase().replace("_", " ")));
+                                placeholders.put("used", String.valueOf(currentCount + 1));
+                                placeholders.put("max", String.valueOf(limit));
+                                MessageManager.sendFormattedRestrictionMessage(player, config.getNearLimitMessageKey(), placeholders);
+                            }
                         }
                     }
-                }
 
-                // Block was placed successfully, update atomic counters and invalidate cache
-                updateCountersAfterPlacement(chunk, config);
-                invalidateChunkCache(chunk);
+                    // Block was placed successfully, update atomic counters and invalidate cache
+                    updateCountersAfterPlacement(chunk, config);
+                    invalidateChunkCache(chunk);
 
-                // Optionally trigger async re-analysis of the chunk for future cache hits
-                scheduleAsyncReanalysis(chunk);
-            } else {
-                // Block was placed successfully, update atomic counters and invalidate cache
-                updateCountersAfterPlacement(chunk, config);
-                invalidateChunkCache(chunk);
+                    // Optionally trigger async re-analysis of the chunk for future cache hits
+                    scheduleAsyncReanalysis(chunk);
+                } else {
+                    // Block was placed successfully, update atomic counters and invalidate cache
+                    updateCountersAfterPlacement(chunk, config);
+                    invalidateChunkCache(chunk);
 
-                // Optionally trigger async re-analysis of the chunk for future cache hits
-                scheduleAsyncReanalysis(chunk);
+                    // Optionally trigger async re-analysis of the chunk for future cache hits
+                    scheduleAsyncReanalysis(chunk);
+                }
             }
+        } finally {
+            STORAGE_PLACE_PROBE.stop(probeStart);
         }
     }
 
@@ -414,33 +423,38 @@ public class StorageListener implements Listener {
      */
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBlockBreak(BlockBreakEvent event) {
-        if (!ConfigManager.isStorageModuleEnabled()) {
-            return;
-        }
+        long probeStart = BLOCK_BREAK_PROBE.start();
+        try {
+            if (!ConfigManager.isStorageModuleEnabled()) {
+                return;
+            }
         
-        Block block = event.getBlock();
-        Material type = block.getType();
-        Chunk chunk = block.getChunk();
+            Block block = event.getBlock();
+            Material type = block.getType();
+            Chunk chunk = block.getChunk();
         
-        // Check if this is a tracked material
-        BlockLimitConfig config = limitedBlocks.get(type);
-        if (config != null) {
-            // Update atomic counters for tracked materials
-            if (type == Material.TNT || type == Material.PISTON || type == Material.STICKY_PISTON) {
-                ChunkDataCache.decrementAtomicCounter(chunk, type);
+            // Check if this is a tracked material
+            BlockLimitConfig config = limitedBlocks.get(type);
+            if (config != null) {
+                // Update atomic counters for tracked materials
+                if (type == Material.TNT || type == Material.PISTON || type == Material.STICKY_PISTON) {
+                    ChunkDataCache.decrementAtomicCounter(chunk, type);
                 
-                if (ConfigManager.isDebugEnabled()) {
-                    int newCount = ChunkDataCache.getAtomicCounter(chunk, type);
-                    LagXpert.getInstance().getLogger().info(
-                        "[StorageListener] Atomic counter decremented for " + type + 
-                        " in chunk " + chunk.getX() + "," + chunk.getZ() + 
-                        ". New count: " + newCount
-                    );
+                    if (ConfigManager.isDebugEnabled()) {
+                        int newCount = ChunkDataCache.getAtomicCounter(chunk, type);
+                        LagXpert.getInstance().getLogger().info(
+                            "[StorageListener] Atomic counter decremented for " + type + 
+                            " in chunk " + chunk.getX() + "," + chunk.getZ() + 
+                            ". New count: " + newCount
+                        );
+                    }
                 }
-            }
             
-            // Always invalidate cache when blocks are broken
-            invalidateChunkCache(chunk);
+                // Always invalidate cache when blocks are broken
+                invalidateChunkCache(chunk);
+            }
+        } finally {
+            BLOCK_BREAK_PROBE.stop(probeStart);
         }
     }
 }
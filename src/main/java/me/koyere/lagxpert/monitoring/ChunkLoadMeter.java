@@ -0,0 +1,315 @@
+package me.koyere.lagxpert.monitoring;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.utils.ConfigManager;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Event-driven chunk load/unload meter.
+ * Counts every ChunkLoadEvent and ChunkUnloadEvent into striped per-world counters,
+ * splits loads into freshly generated and existing chunks, and keeps one-second
+ * rate buckets for the last minute. The loaded chunk count is maintained from the
+ * events, so callers no longer need to copy each world's loaded chunk array.
+ */
+public class ChunkLoadMeter implements Listener {
+
+    private static final SelfOverheadMeter.Probe CHUNK_LOAD_PROBE = SelfOverheadMeter.probe("ChunkLoadMeter#onChunkLoad");
+    private static final SelfOverheadMeter.Probe CHUNK_UNLOAD_PROBE = SelfOverheadMeter.probe("ChunkLoadMeter#onChunkUnload");
+
+    // One minute of one-second buckets
+    private static final int BUCKET_COUNT = 60;
+
+    private static ChunkLoadMeter instance;
+
+    private final Map<String, WorldCounters> worldCounters = new ConcurrentHashMap<>();
+
+    // Per-second buckets indexed by (epoch second % BUCKET_COUNT)
+    private final AtomicLongArray bucketSeconds = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLongArray bucketLoads = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLongArray bucketNewChunks = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLongArray bucketUnloads = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * Lifetime and current counters for a single world.
+     */
+    public static class WorldCounters {
+        private final LongAdder loads = new LongAdder();
+        private final LongAdder newChunks = new LongAdder();
+        private final LongAdder unloads = new LongAdder();
+        private final LongAdder loaded = new LongAdder();
+
+        public long getLoads() { return loads.sum(); }
+        public long getNewChunks() { return newChunks.sum(); }
+        public long getExistingChunks() { return loads.sum() - newChunks.sum(); }
+        public long getUnloads() { return unloads.sum(); }
+        public long getLoadedChunks() { return Math.max(0L, loaded.sum()); }
+    }
+
+    /**
+     * Rates over a recent window, in chunks.
+     */
+    public static class RateWindow {
+        private final long loads;
+        private final long newChunks;
+        private final long unloads;
+        private final long peakLoadsPerSecond;
+        private final long peakNewChunksPerSecond;
+
+        RateWindow(long loads, long newChunks, long unloads, long peakLoadsPerSecond, long peakNewChunksPerSecond) {
+            this.loads = loads;
+            this.newChunks = newChunks;
+            this.unloads = unloads;
+            this.peakLoadsPerSecond = peakLoadsPerSecond;
+            this.peakNewChunksPerSecond = peakNewChunksPerSecond;
+        }
+
+        public long getLoads() { return loads; }
+        public long getNewChunks() { return newChunks; }
+        public long getExistingChunks() { return loads - newChunks; }
+        public long getUnloads() { return unloads; }
+        public long getPeakLoadsPerSecond() { return peakLoadsPerSecond; }
+        public long getPeakNewChunksPerSecond() { return peakNewChunksPerSecond; }
+    }
+
+    private ChunkLoadMeter() {
+    }
+
+    /**
+     * Registers the meter and seeds loaded chunk counts from the current worlds.
+     * Must be called on the main thread.
+     */
+    public static void start() {
+        stop();
+        instance = new ChunkLoadMeter();
+        for (World world : Bukkit.getWorlds()) {
+            instance.seedWorld(world);
+        }
+        Bukkit.getPluginManager().registerEvents(instance, LagXpert.getInstance());
+
+        if (ConfigManager.isDebugEnabled()) {
+            LagXpert.getInstance().getLogger().info("[ChunkLoadMeter] Chunk load/unload metering started.");
+        }
+    }
+
+    /**
+     * Unregisters the meter and discards collected data.
+     */
+    public static void stop() {
+        if (instance != null) {
+            HandlerList.unregisterAll(instance);
+            instance = null;
+        }
+    }
+
+    public static boolean isRunning() {
+        return instance != null;
+    }
+
+    private void seedWorld(World world) {
+        WorldCounters counters = new WorldCounters();
+        counters.loaded.add(world.getLoadedChunks().length);
+        worldCounters.put(world.getName(), counters);
+    }
+
+    private WorldCounters countersFor(World world) {
+        return worldCounters.computeIfAbsent(world.getName(), name -> new WorldCounters());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        long probeStart = CHUNK_LOAD_PROBE.start();
+        try {
+            boolean newChunk = event.isNewChunk();
+            WorldCounters counters = countersFor(event.getWorld());
+            counters.loads.increment();
+            counters.loaded.increment();
+            if (newChunk) {
+                counters.newChunks.increment();
+            }
+
+            int bucket = currentBucket();
+            bucketLoads.incrementAndGet(bucket);
+            if (newChunk) {
+                bucketNewChunks.incrementAndGet(bucket);
+            }
+        } finally {
+            CHUNK_LOAD_PROBE.stop(probeStart);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        long probeStart = CHUNK_UNLOAD_PROBE.start();
+        try {
+            WorldCounters counters = countersFor(event.getWorld());
+            counters.unloads.increment();
+            counters.loaded.decrement();
+
+            bucketUnloads.incrementAndGet(currentBucket());
+        } finally {
+            CHUNK_UNLOAD_PROBE.stop(probeStart);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        seedWorld(event.getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        if (!event.isCancelled()) {
+            worldCounters.remove(event.getWorld().getName());
+        }
+    }
+
+    /**
+     * Returns the bucket for the current second, clearing it first if it still
+     * holds counts from a previous minute.
+     */
+    private int currentBucket() {
+        long second = System.currentTimeMillis() / 1000L;
+        int index = (int) (second % BUCKET_COUNT);
+        long stamp = bucketSeconds.get(index);
+        if (stamp != second && bucketSeconds.compareAndSet(index, stamp, second)) {
+            bucketLoads.set(index, 0L);
+            bucketNewChunks.set(index, 0L);
+            bucketUnloads.set(index, 0L);
+        }
+        return index;
+    }
+
+    /**
+     * Sums the per-second buckets covering the last N seconds.
+     */
+    private RateWindow sumWindow(int seconds) {
+        int window = Math.max(1, Math.min(seconds, BUCKET_COUNT));
+        long now = System.currentTimeMillis() / 1000L;
+        long loads = 0L;
+        long newChunks = 0L;
+        long unloads = 0L;
+        long peakLoads = 0L;
+        long peakNew = 0L;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long stamp = bucketSeconds.get(i);
+            if (stamp <= now - window || stamp > now) {
+                continue;
+            }
+            long bucketLoadCount = bucketLoads.get(i);
+            long bucketNewCount = bucketNewChunks.get(i);
+            loads += bucketLoadCount;
+            newChunks += bucketNewCount;
+            unloads += bucketUnloads.get(i);
+            peakLoads = Math.max(peakLoads, bucketLoadCount);
+            peakNew = Math.max(peakNew, bucketNewCount);
+        }
+        return new RateWindow(loads, newChunks, unloads, peakLoads, peakNew);
+    }
+
+    /**
+     * Gets load/unload totals over the last N seconds (max 60).
+     */
+    public static RateWindow getRecentRates(int seconds) {
+        return instance != null ? instance.sumWindow(seconds) : new RateWindow(0L, 0L, 0L, 0L, 0L);
+    }
+
+    /**
+     * Gets chunk loads over the last minute.
+     */
+    public static int getLoadsPerMinute() {
+        return (int) getRecentRates(BUCKET_COUNT).getLoads();
+    }
+
+    /**
+     * Gets newly generated chunks over the last minute.
+     */
+    public static int getNewChunksPerMinute() {
+        return (int) getRecentRates(BUCKET_COUNT).getNewChunks();
+    }
+
+    /**
+     * Gets the number of loaded chunks across all worlds, maintained from events.
+     *
+     * @return Loaded chunk count, or -1 if the meter is not running
+     */
+    public static long getLoadedChunkCount() {
+        if (instance == null) {
+            return -1L;
+        }
+        long total = 0L;
+        for (WorldCounters counters : instance.worldCounters.values()) {
+            total += counters.getLoadedChunks();
+        }
+        return total;
+    }
+
+    /**
+     * Gets lifetime counters per world name.
+     */
+    public static Map<String, WorldCounters> getWorldCounters() {
+        return instance != null ? new HashMap<>(instance.worldCounters) : new HashMap<>();
+    }
+
+    /**
+     * Gets chunk metering statistics.
+     */
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        RateWindow minute = getRecentRates(BUCKET_COUNT);
+        stats.put("loaded_chunks", Math.max(0L, getLoadedChunkCount()));
+        stats.put("loads_per_minute", minute.getLoads());
+        stats.put("new_chunks_per_minute", minute.getNewChunks());
+        stats.put("unloads_per_minute", minute.getUnloads());
+        stats.put("peak_loads_per_second", minute.getPeakLoadsPerSecond());
+        stats.put("peak_new_chunks_per_second", minute.getPeakNewChunksPerSecond());
+
+        Map<String, Object> worlds = new HashMap<>();
+        for (Map.Entry<String, WorldCounters> entry : getWorldCounters().entrySet()) {
+            WorldCounters counters = entry.getValue();
+            Map<String, Object> worldStats = new HashMap<>();
+            worldStats.put("loaded_chunks", counters.getLoadedChunks());
+            worldStats.put("total_loads", counters.getLoads());
+            worldStats.put("total_new_chunks", counters.getNewChunks());
+            worldStats.put("total_unloads", counters.getUnloads());
+            worlds.put(entry.getKey(), worldStats);
+        }
+        stats.put("worlds", worlds);
+        return stats;
+    }
+
+    /**
+     * Clears rate buckets and lifetime load/unload totals. Loaded counts are kept.
+     */
+    public static void resetStatistics() {
+        if (instance == null) {
+            return;
+        }
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            instance.bucketSeconds.set(i, 0L);
+            instance.bucketLoads.set(i, 0L);
+            instance.bucketNewChunks.set(i, 0L);
+            instance.bucketUnloads.set(i, 0L);
+        }
+        for (WorldCounters counters : instance.worldCounters.values()) {
+            counters.loads.reset();
+            counters.newChunks.reset();
+            counters.unloads.reset();
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package me.koyere.lagxpert.monitoring;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import com.sun.management.ThreadMXBean;
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.utils.ConfigManager;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Garbage collection and allocation telemetry.
+ * Subscribes to GarbageCollectorMXBean notifications to record every collection
+ * (collector, cause, duration, reclaimed bytes) and samples the main thread's
+ * allocation rate, so lag spikes can be attributed to GC pauses instead of guessed.
+ */
+public final class GCMonitor {
+
+    private static final int MAX_RECENT_EVENTS = 256;
+
+    private static final Deque<GCEvent> recentEvents = new ArrayDeque<>();
+    private static final Map<String, LongAdder> collectionsByCollector = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> pauseMsByCollector = new ConcurrentHashMap<>();
+    private static final LongAdder totalReclaimedBytes = new LongAdder();
+    private static final Map<NotificationEmitter, NotificationListener> registeredListeners = new HashMap<>();
+
+    private static volatile boolean running = false;
+    private static long jvmStartTime;
+
+    // Main thread allocation sampling (only touched from the main thread)
+    private static ThreadMXBean threadBean;
+    private static long mainThreadId = -1L;
+    private static long lastAllocatedBytes = -1L;
+    private static long lastAllocationSampleNanos = 0L;
+    private static volatile double allocationRateBytesPerSecond = 0.0;
+    private static volatile double peakAllocationRateBytesPerSecond = 0.0;
+
+    private GCMonitor() {
+    }
+
+    /**
+     * A single completed garbage collection.
+     */
+    public static class GCEvent {
+        private final long startTime;
+        private final long endTime;
+        private final String collector;
+        private final String cause;
+        private final String action;
+        private final long durationMs;
+        private final long reclaimedBytes;
+        private final boolean concurrent;
+
+        public GCEvent(long startTime, long endTime, String collector, String cause, String action,
+                       long durationMs, long reclaimedBytes, boolean concurrent) {
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.collector = collector;
+            this.cause = cause;
+            this.action = action;
+            this.durationMs = durationMs;
+            this.reclaimedBytes = reclaimedBytes;
+            this.concurrent = concurrent;
+        }
+
+        public long getStartTime() { return startTime; }
+        public long getEndTime() { return endTime; }
+        public String getCollector() { return collector; }
+        public String getCause() { return cause; }
+        public String getAction() { return action; }
+        public long getDurationMs() { return durationMs; }
+        public long getReclaimedBytes() { return reclaimedBytes; }
+
+        /**
+         * Whether the collection ran concurrently with application threads (not a stop-the-world pause).
+         */
+        public boolean isConcurrent() { return concurrent; }
+    }
+
+    /**
+     * Starts GC notification listening and allocation sampling.
+     * Must be called from the main server thread so the allocation sampler binds to it.
+     */
+    public static void start() {
+        if (running || !ConfigManager.isGCMonitoringEnabled()) {
+            return;
+        }
+
+        jvmStartTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+        mainThreadId = Thread.currentThread().getId();
+        lastAllocatedBytes = -1L;
+
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof ThreadMXBean && ((ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+                threadBean = (ThreadMXBean) bean;
+                if (!threadBean.isThreadAllocatedMemoryEnabled()) {
+                    threadBean.setThreadAllocatedMemoryEnabled(true);
+                }
+            }
+        } catch (Exception | LinkageError e) {
+            threadBean = null;
+            if (ConfigManager.isDebugEnabled()) {
+                LagXpert.getInstance().getLogger().warning("[GCMonitor] Thread allocation sampling unavailable: " + e.getMessage());
+            }
+        }
+
+        try {
+            for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (!(gcBean instanceof NotificationEmitter)) {
+                    continue;
+                }
+                NotificationEmitter emitter = (NotificationEmitter) gcBean;
+                NotificationListener listener = GCMonitor::handleNotification;
+                emitter.addNotificationListener(listener, notification ->
+                        GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType()), null);
+                registeredListeners.put(emitter, listener);
+            }
+        } catch (Exception | LinkageError e) {
+            LagXpert.getInstance().getLogger().warning("[GCMonitor] GC notifications unavailable on this JVM: " + e.getMessage());
+        }
+
+        running = true;
+
+        if (ConfigManager.isDebugEnabled()) {
+            LagXpert.getInstance().getLogger().info("[GCMonitor] Listening to " + registeredListeners.size() +
+                    " garbage collectors, allocation sampling " + (threadBean != null ? "enabled" : "unavailable"));
+        }
+    }
+
+    /**
+     * Removes all GC notification listeners.
+     */
+    public static void stop() {
+        for (Map.Entry<NotificationEmitter, NotificationListener> entry : registeredListeners.entrySet()) {
+            try {
+                entry.getKey().removeNotificationListener(entry.getValue());
+            } catch (ListenerNotFoundException ignored) {
+                // Already removed
+            }
+        }
+        registeredListeners.clear();
+        threadBean = null;
+        running = false;
+    }
+
+    /**
+     * Handles a GC notification. Called on a JMX notification thread, not the main thread.
+     */
+    private static void handleNotification(Notification notification, Object handback) {
+        try {
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            GcInfo gcInfo = info.getGcInfo();
+
+            long reclaimed = 0L;
+            Map<String, MemoryUsage> before = gcInfo.getMemoryUsageBeforeGc();
+            Map<String, MemoryUsage> after = gcInfo.getMemoryUsageAfterGc();
+            for (Map.Entry<String, MemoryUsage> entry : before.entrySet()) {
+                MemoryUsage afterUsage = after.get(entry.getKey());
+                if (afterUsage != null) {
+                    reclaimed += entry.getValue().getUsed() - afterUsage.getUsed();
+                }
+            }
+            reclaimed = Math.max(0L, reclaimed);
+
+            String collector = info.getGcName();
+            String action = info.getGcAction();
+            boolean concurrent = action.toLowerCase().contains("concurrent") || collector.endsWith("Cycles");
+
+            GCEvent event = new GCEvent(
+                    jvmStartTime + gcInfo.getStartTime(),
+                    jvmStartTime + gcInfo.getEndTime(),
+                    collector, info.getGcCause(), action,
+                    gcInfo.getDuration(), reclaimed, concurrent
+            );
+
+            synchronized (recentEvents) {
+                recentEvents.addLast(event);
+                while (recentEvents.size() > MAX_RECENT_EVENTS) {
+                    recentEvents.removeFirst();
+                }
+            }
+
+            collectionsByCollector.computeIfAbsent(collector, k -> new LongAdder()).increment();
+            if (!concurrent) {
+                pauseMsByCollector.computeIfAbsent(collector, k -> new LongAdder()).add(event.getDurationMs());
+            }
+            totalReclaimedBytes.add(reclaimed);
+
+            if (ConfigManager.isMonitoringDetailedLogging()) {
+                LagXpert.getInstance().getLogger().info(String.format(
+                        "[GCMonitor] %s (%s, cause: %s) took %dms, reclaimed %.1f MB",
+                        collector, action, info.getGcCause(), event.getDurationMs(), reclaimed / 1024.0 / 1024.0));
+            }
+        } catch (Exception e) {
+            if (ConfigManager.isDebugEnabled()) {
+                LagXpert.getInstance().getLogger().warning("[GCMonitor] Failed to process GC notification: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Samples the main thread's allocated bytes and updates the allocation rate.
+     * Intended to be called from a main-thread task such as TPSMonitor.
+     */
+    public static void sampleAllocationRate() {
+        ThreadMXBean bean = threadBean;
+        if (!running || bean == null) {
+            return;
+        }
+
+        long allocated = bean.getThreadAllocatedBytes(mainThreadId);
+        long now = System.nanoTime();
+        if (allocated < 0) {
+            return;
+        }
+
+        if (lastAllocatedBytes >= 0 && now > lastAllocationSampleNanos) {
+            double seconds = (now - lastAllocationSampleNanos) / 1_000_000_000.0;
+            double rate = (allocated - lastAllocatedBytes) / seconds;
+            allocationRateBytesPerSecond = rate;
+            if (rate > peakAllocationRateBytesPerSecond) {
+                peakAllocationRateBytesPerSecond = rate;
+            }
+        }
+        lastAllocatedBytes = allocated;
+        lastAllocationSampleNanos = now;
+    }
+
+    /**
+     * Returns the collections that ended within the given wall-clock window.
+     *
+     * @param fromMillis Window start (epoch milliseconds)
+     * @param toMillis   Window end (epoch milliseconds)
+     * @return Matching GC events, oldest first
+     */
+    public static List<GCEvent> getEventsBetween(long fromMillis, long toMillis) {
+        List<GCEvent> result = new ArrayList<>();
+        synchronized (recentEvents) {
+            for (GCEvent event : recentEvents) {
+                if (event.getEndTime() >= fromMillis && event.getStartTime() <= toMillis) {
+                    result.add(event);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sums the stop-the-world pause time of collections within a window.
+     */
+    public static long getPauseMillisBetween(long fromMillis, long toMillis) {
+        long total = 0L;
+        for (GCEvent event : getEventsBetween(fromMillis, toMillis)) {
+            if (!event.isConcurrent()) {
+                total += event.getDurationMs();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Describes the stop-the-world pauses within a window, e.g. "GC pause 180ms (G1 Young Generation)".
+     *
+     * @return The description, or null if no pause occurred in the window
+     */
+    public static String describePausesBetween(long fromMillis, long toMillis) {
+        long totalPause = 0L;
+        GCEvent longest = null;
+        int pauses = 0;
+        for (GCEvent event : getEventsBetween(fromMillis, toMillis)) {
+            if (event.isConcurrent()) {
+                continue;
+            }
+            pauses++;
+            totalPause += event.getDurationMs();
+            if (longest == null || event.getDurationMs() > longest.getDurationMs()) {
+                longest = event;
+            }
+        }
+
+        if (longest == null) {
+            return null;
+        }
+
+        String description = "GC pause " + totalPause + "ms (" + longest.getCollector() + ", " + longest.getCause() + ")";
+        return pauses > 1 ? description + " across " + pauses + " collections" : description;
+    }
+
+    public static List<GCEvent> getRecentEvents() {
+        synchronized (recentEvents) {
+            return new ArrayList<>(recentEvents);
+        }
+    }
+
+    public static double getAllocationRateBytesPerSecond() {
+        return allocationRateBytesPerSecond;
+    }
+
+    public static double getPeakAllocationRateBytesPerSecond() {
+        return peakAllocationRateBytesPerSecond;
+    }
+
+    public static boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Gets GC and allocation statistics.
+     *
+     * @return Map containing GC statistics
+     */
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("running", running);
+
+        Map<String, Long> collections = new HashMap<>();
+        collectionsByCollector.forEach((name, count) -> collections.put(name, count.sum()));
+        stats.put("collections_by_collector", Collections.unmodifiableMap(collections));
+
+        Map<String, Long> pauses = new HashMap<>();
+        pauseMsByCollector.forEach((name, total) -> pauses.put(name, total.sum()));
+        stats.put("pause_ms_by_collector", Collections.unmodifiableMap(pauses));
+
+        stats.put("reclaimed_mb", totalReclaimedBytes.sum() / 1024 / 1024);
+        stats.put("allocation_rate_mb_per_second", allocationRateBytesPerSecond / 1024.0 / 1024.0);
+        stats.put("peak_allocation_rate_mb_per_second", peakAllocationRateBytesPerSecond / 1024.0 / 1024.0);
+        return stats;
+    }
+
+    /**
+     * Resets GC counters and the recent event buffer.
+     */
+    public static void resetStatistics() {
+        synchronized (recentEvents) {
+            recentEvents.clear();
+        }
+        collectionsByCollector.clear();
+        pauseMsByCollector.clear();
+        totalReclaimedBytes.reset();
+        peakAllocationRateBytesPerSecond = 0.0;
+    }
+}
@@ -0,0 +1,311 @@
+package me.koyere.lagxpert.monitoring;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.utils.ConfigManager;
+import me.koyere.lagxpert.utils.SchedulerWrapper;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * Optional embedded OpenMetrics (Prometheus) scrape endpoint.
+ * A main-thread task periodically copies LagXpert's performance statistics into an
+ * immutable snapshot published through a volatile reference; HTTP requests are
+ * served on a dedicated thread that only reads and renders the latest snapshot,
+ * so scrapes never touch the server tick.
+ * Monotonic event totals are exposed as counters (with the "_total" sample suffix),
+ * everything else as gauges.
+ */
+public final class MetricsExporter {
+
+    private static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+    private static final String METRIC_PREFIX = "lagxpert";
+    private static final Pattern NAME_SEGMENT = Pattern.compile("[a-z][a-z0-9_]*");
+    // Sections whose keys are world names rather than metric name segments
+    private static final String WORLDS_SECTION = "worlds";
+    private static final String TOTAL_SUFFIX = "_total";
+    // Statistics keys that only count up (until a statistics reset); keys ending in "_total" are counters too.
+    // Values under such a key that are keyed by a label (e.g. per collector) are counters as well.
+    private static final Set<String> COUNTER_KEYS = new HashSet<>(Arrays.asList(
+            "abandoned_vehicles_removed", "activations", "ai_disabled", "ai_enabled", "applications",
+            "blocks_moved", "budget_exhausted_ticks", "cancelled_moves", "cancelled_transfers", "chunk_scans",
+            "chunks_scanned", "collections_by_collector", "completed_analyses", "completed_pickups", "deferred_analyses", "deferred_pickups",
+            "dropped_pickups", "duplicate_entities_removed", "empty_containers_removed", "estimated_total_ns",
+            "failed_analyses", "fallbacks", "invalid_entities_removed", "invocations", "level_changes", "lookups",
+            "merged_entities", "merged_items", "merged_xp_orbs", "observer_pulses", "out_of_bounds_entities_removed",
+            "pause_ms_by_collector", "piston_moves", "protected_mobs_skipped", "queued_analyses",
+            "rate_limited_updates", "reclaimed_mb", "records_dropped", "records_written", "reduction_steps", "rejected_pickups", "restoration_steps", "sampled",
+            "saturated_updates", "stack_deaths", "suppressed_updates", "throttled_chunk_ticks",
+            "total_chunks_evaluated", "total_chunks_preloaded", "total_chunks_skipped", "total_chunks_unloaded",
+            "total_entities_removed", "total_loads", "total_memory_saved_bytes", "total_mobs_removed",
+            "total_new_chunks", "total_preload_cycles", "total_ticks", "total_unload_cycles", "total_unloads",
+            "transfers", "updates"
+    ));
+
+    private static HttpServer server;
+    private static ExecutorService executor;
+    private static BukkitTask snapshotTask;
+    // Endpoint settings the running server was started with, to detect changes on reload
+    private static String runningSettings;
+
+    private static volatile Snapshot latestSnapshot;
+
+    private MetricsExporter() {
+    }
+
+    /**
+     * Immutable copy of the statistics map taken on the main thread.
+     */
+    private static final class Snapshot {
+        private final long timestamp;
+        private final Map<String, Object> values;
+
+        private Snapshot(long timestamp, Map<String, Object> values) {
+            this.timestamp = timestamp;
+            this.values = values;
+        }
+    }
+
+    /**
+     * Starts the snapshot task and HTTP server if enabled in monitoring.yml.
+     */
+    public static void start() {
+        if (!ConfigManager.isMetricsEndpointEnabled() || server != null) {
+            return;
+        }
+
+        String bindAddress = ConfigManager.getMetricsEndpointBindAddress();
+        int port = ConfigManager.getMetricsEndpointPort();
+        String path = ConfigManager.getMetricsEndpointPath();
+
+        try {
+            server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "LagXpert-Metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            server.setExecutor(executor);
+            server.createContext(path, MetricsExporter::handleScrape);
+            server.start();
+        } catch (IOException | IllegalArgumentException e) {
+            LagXpert.getInstance().getLogger().warning("[MetricsExporter] Failed to start metrics endpoint on " +
+                    bindAddress + ":" + port + ": " + e.getMessage());
+            stop();
+            return;
+        }
+
+        long intervalTicks = Math.max(1, ConfigManager.getMetricsSnapshotIntervalSeconds()) * 20L;
+        snapshotTask = SchedulerWrapper.runTaskTimer(MetricsExporter::captureSnapshot, 20L, intervalTicks);
+        runningSettings = currentSettings();
+
+        LagXpert.getInstance().getLogger().info("[MetricsExporter] OpenMetrics endpoint listening on http://" +
+                bindAddress + ":" + port + path);
+    }
+
+    /**
+     * Applies reloaded settings: starts, stops or rebinds the endpoint when it (or the
+     * monitoring module) was enabled or disabled, or when its address, port, path or
+     * snapshot interval changed.
+     */
+    public static void reload() {
+        if (!ConfigManager.isMonitoringModuleEnabled() || !ConfigManager.isMetricsEndpointEnabled()) {
+            stop();
+            return;
+        }
+        if (server != null && currentSettings().equals(runningSettings)) {
+            return;
+        }
+        stop();
+        start();
+    }
+
+    private static String currentSettings() {
+        return ConfigManager.getMetricsEndpointBindAddress() + ":" + ConfigManager.getMetricsEndpointPort()
+                + ConfigManager.getMetricsEndpointPath() + "@" + ConfigManager.getMetricsSnapshotIntervalSeconds();
+    }
+
+    /**
+     * Stops the HTTP server and snapshot task.
+     */
+    public static void stop() {
+        if (snapshotTask != null) {
+            snapshotTask.cancel();
+            snapshotTask = null;
+        }
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        latestSnapshot = null;
+        runningSettings = null;
+    }
+
+    /**
+     * Copies the current statistics into an immutable snapshot. Runs on the main thread.
+     */
+    private static void captureSnapshot() {
+        try {
+            latestSnapshot = new Snapshot(System.currentTimeMillis(), deepCopy(LagXpert.getPerformanceStatistics()));
+        } catch (Exception e) {
+            if (ConfigManager.isDebugEnabled()) {
+                LagXpert.getInstance().getLogger().warning("[MetricsExporter] Failed to capture snapshot: " + e.getMessage());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> deepCopy(Map<String, Object> source) {
+        Map<String, Object> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : source.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Map) {
+                copy.put(entry.getKey(), deepCopy((Map<String, Object>) value));
+            } else if (value instanceof Number || value instanceof Boolean) {
+                copy.put(entry.getKey(), value);
+            }
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * Serves a scrape request. Runs on the exporter thread.
+     */
+    private static void handleScrape(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = render(latestSnapshot).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Renders a snapshot in OpenMetrics text format.
+     * Nested map keys that are valid name segments extend the metric name; other keys
+     * (collector names, probe names) become a "name" label, and entries of a "worlds"
+     * section become a "world" label.
+     */
+    private static String render(Snapshot snapshot) {
+        Map<String, List<String>> families = new LinkedHashMap<>();
+        Set<String> counters = new HashSet<>();
+        addSample(families, METRIC_PREFIX + "_up", "", 1);
+
+        if (snapshot != null) {
+            addSample(families, METRIC_PREFIX + "_snapshot_timestamp_seconds", "", snapshot.timestamp / 1000.0);
+            flatten(families, counters, METRIC_PREFIX, "", snapshot.values, false, false);
+        }
+
+        StringBuilder out = new StringBuilder(4096);
+        for (Map.Entry<String, List<String>> family : families.entrySet()) {
+            out.append("# TYPE ").append(family.getKey())
+                    .append(counters.contains(family.getKey()) ? " counter\n" : " gauge\n");
+            for (String sample : family.getValue()) {
+                out.append(sample).append('\n');
+            }
+        }
+        out.append("# EOF\n");
+        return out.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void flatten(Map<String, List<String>> families, Set<String> counters, String name, String labels,
+                                Map<String, Object> values, boolean worldKeys, boolean counter) {
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            String key = entry.getKey();
+            String childName = name;
+            String childLabels = labels;
+            boolean childCounter = counter;
+
+            if (worldKeys) {
+                String worldLabel = "world=\"" + escapeLabel(key) + "\"";
+                childLabels = labels.isEmpty() ? worldLabel : labels + "," + worldLabel;
+            } else if (NAME_SEGMENT.matcher(key).matches()) {
+                childName = name + "_" + key;
+                childCounter = COUNTER_KEYS.contains(key) || key.endsWith(TOTAL_SUFFIX);
+            } else {
+                childLabels = labels.isEmpty()
+                        ? "name=\"" + escapeLabel(key) + "\""
+                        : labels + ",name" + (labels.split(",").length + 1) + "=\"" + escapeLabel(key) + "\"";
+            }
+
+            Object value = entry.getValue();
+            if (value instanceof Map) {
+                flatten(families, counters, childName, childLabels, (Map<String, Object>) value,
+                        !worldKeys && WORLDS_SECTION.equals(key), childCounter);
+            } else if (value instanceof Number && childCounter) {
+                // The family is named without the suffix, its samples carry it
+                String family = childName.endsWith(TOTAL_SUFFIX)
+                        ? childName.substring(0, childName.length() - TOTAL_SUFFIX.length())
+                        : childName;
+                counters.add(family);
+                addSample(families, family, family + TOTAL_SUFFIX, childLabels, ((Number) value).doubleValue());
+            } else if (value instanceof Number) {
+                addSample(families, childName, childLabels, ((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                addSample(families, childName, childLabels, (Boolean) value ? 1 : 0);
+            }
+        }
+    }
+
+    private static void addSample(Map<String, List<String>> families, String name, String labels, double value) {
+        addSample(families, name, name, labels, value);
+    }
+
+    private static void addSample(Map<String, List<String>> families, String family, String name, String labels, double value) {
+        String sample = labels.isEmpty()
+                ? name + " " + formatValue(value)
+                : name + "{" + labels + "} " + formatValue(value);
+        families.computeIfAbsent(family, k -> new ArrayList<>()).add(sample);
+    }
+
+    private static String formatValue(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    public static boolean isRunning() {
+        return server != null;
+    }
+}
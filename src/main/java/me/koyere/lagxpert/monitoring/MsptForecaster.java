@@ -0,0 +1,170 @@
+package me.koyere.lagxpert.monitoring;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.utils.ConfigManager;
+import org.bukkit.Bukkit;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Short-term MSPT forecaster.
+ * Applies Holt's linear exponential smoothing (an EWMA level plus an EWMA trend)
+ * to MSPT samples taken by TPSMonitor and extrapolates the trend over a configured
+ * horizon, so LagShield can act while the server still has tick budget left.
+ *
+ * On Paper the input is the server's own average tick time (real work per tick).
+ * Elsewhere it falls back to TickDurationSampler intervals, which never read below
+ * 50ms and therefore only show a trend once ticks are already over budget.
+ */
+public final class MsptForecaster {
+
+    private static final double TARGET_TICK_MS = 50.0;
+
+    private static Method averageTickTimeMethod;
+    private static boolean averageTickTimeResolved = false;
+
+    private static double level = TARGET_TICK_MS;
+    private static double trendPerSecond = 0.0;
+    private static double meanAbsoluteError = 0.0;
+    private static double lastSampleMs = TARGET_TICK_MS;
+    private static long lastSampleTime = 0L;
+    private static int samples = 0;
+
+    private MsptForecaster() {
+    }
+
+    /**
+     * Feeds the forecaster with the current MSPT. Called by TPSMonitor on every check cycle.
+     */
+    public static synchronized void update() {
+        if (!ConfigManager.isMsptForecastEnabled()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        double sample = readCurrentMspt();
+        lastSampleMs = sample;
+
+        if (samples == 0) {
+            level = sample;
+            trendPerSecond = 0.0;
+            lastSampleTime = now;
+            samples = 1;
+            return;
+        }
+
+        double elapsedSeconds = Math.max(0.05, (now - lastSampleTime) / 1000.0);
+        double alpha = ConfigManager.getMsptForecastSmoothing();
+        double beta = ConfigManager.getMsptForecastTrendSmoothing();
+
+        double expected = level + trendPerSecond * elapsedSeconds;
+        double newLevel = alpha * sample + (1.0 - alpha) * expected;
+        trendPerSecond = beta * ((newLevel - level) / elapsedSeconds) + (1.0 - beta) * trendPerSecond;
+        level = newLevel;
+        meanAbsoluteError = 0.1 * Math.abs(sample - expected) + 0.9 * meanAbsoluteError;
+
+        lastSampleTime = now;
+        samples++;
+    }
+
+    /**
+     * Reads the current MSPT, preferring Paper's average tick time when available.
+     */
+    private static double readCurrentMspt() {
+        if (!averageTickTimeResolved) {
+            averageTickTimeResolved = true;
+            try {
+                averageTickTimeMethod = Bukkit.getServer().getClass().getMethod("getAverageTickTime");
+                if (ConfigManager.isDebugEnabled()) {
+                    LagXpert.getInstance().getLogger().info("[MsptForecaster] Using server average tick time as MSPT source.");
+                }
+            } catch (NoSuchMethodException e) {
+                averageTickTimeMethod = null;
+            }
+        }
+
+        if (averageTickTimeMethod != null) {
+            try {
+                return ((Number) averageTickTimeMethod.invoke(Bukkit.getServer())).doubleValue();
+            } catch (Exception e) {
+                averageTickTimeMethod = null;
+            }
+        }
+
+        return TickDurationSampler.getAverageIntervalMs(Math.max(1, ConfigManager.getTPSUpdateIntervalTicks()));
+    }
+
+    /**
+     * Whether enough samples have been collected for the forecast to be trusted.
+     */
+    public static synchronized boolean isReady() {
+        return ConfigManager.isMsptForecastEnabled() && samples >= ConfigManager.getMsptForecastWarmupSamples();
+    }
+
+    /**
+     * Whether MSPT is measured as real work per tick (Paper) rather than tick intervals.
+     */
+    public static synchronized boolean isPrecise() {
+        return averageTickTimeMethod != null;
+    }
+
+    /**
+     * Gets the predicted MSPT at the configured horizon.
+     */
+    public static double getPredictedMspt() {
+        return getPredictedMspt(ConfigManager.getMsptForecastHorizonSeconds());
+    }
+
+    /**
+     * Gets the predicted MSPT a number of seconds from now.
+     */
+    public static synchronized double getPredictedMspt(int horizonSeconds) {
+        return Math.max(0.0, level + trendPerSecond * horizonSeconds);
+    }
+
+    /**
+     * Gets the TPS implied by the predicted MSPT at the configured horizon.
+     */
+    public static double getPredictedTps() {
+        return Math.min(20.0, 1000.0 / Math.max(TARGET_TICK_MS, getPredictedMspt()));
+    }
+
+    public static synchronized double getSmoothedMspt() {
+        return level;
+    }
+
+    public static synchronized double getTrendPerSecond() {
+        return trendPerSecond;
+    }
+
+    /**
+     * Gets forecaster statistics.
+     */
+    public static synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("ready", isReady());
+        stats.put("precise_source", isPrecise());
+        stats.put("current_mspt", lastSampleMs);
+        stats.put("smoothed_mspt", level);
+        stats.put("trend_ms_per_second", trendPerSecond);
+        stats.put("predicted_mspt", getPredictedMspt());
+        stats.put("horizon_seconds", ConfigManager.getMsptForecastHorizonSeconds());
+        stats.put("mean_absolute_error_ms", meanAbsoluteError);
+        stats.put("samples", samples);
+        return stats;
+    }
+
+    /**
+     * Discards the model state; the forecaster warms up again from the next sample.
+     */
+    public static synchronized void reset() {
+        level = TARGET_TICK_MS;
+        trendPerSecond = 0.0;
+        meanAbsoluteError = 0.0;
+        lastSampleMs = TARGET_TICK_MS;
+        lastSampleTime = 0L;
+        samples = 0;
+    }
+}
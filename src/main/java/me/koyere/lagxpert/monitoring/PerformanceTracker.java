@@ -1,22 +1,26 @@
 package me.koyere.lagxpert.monitoring;
 
 import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.system.LagShield;
+import me.koyere.lagxpert.system.WorldPressureTracker;
 import me.koyere.lagxpert.utils.ConfigManager;
 import me.koyere.lagxpert.utils.MessageManager;
 import org.bukkit.Bukkit;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.MemoryUsage;
+import java.lang.reflect.Method;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -27,8 +31,14 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public class PerformanceTracker extends BukkitRunnable {
 
+    private static final SelfOverheadMeter.Probe RUN_PROBE = SelfOverheadMeter.probe("PerformanceTracker#run");
+
     private static PerformanceTracker instance;
 
+    // Paper's World#getEntityCount, which counts without copying the entity list
+    private static Method entityCountMethod;
+    private static boolean entityCountMethodResolved = false;
+
     // Memory tracking
     private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
     private volatile double currentMemoryUsage = 0.0;
@@ -38,13 +48,12 @@ public class PerformanceTracker extends BukkitRunnable {
     private volatile long freeMemory = 0L;
 
     // Chunk tracking
+    // Load/unload rates come from ChunkLoadMeter, which counts the chunk events directly
     private final AtomicLong totalChunksLoaded = new AtomicLong(0);
-    private final AtomicLong chunksLoadedThisMinute = new AtomicLong(0);
-    private final AtomicLong chunksUnloadedThisMinute = new AtomicLong(0);
-    private final Queue<Long> chunkLoadHistory = new ArrayDeque<>();
 
     // Performance history for analytics
-    private final List<PerformanceSnapshot> performanceHistory = Collections.synchronizedList(new ArrayList<>());
+    // Recent snapshots kept in memory; long-range history lives in TimeSeriesStore
+    private final Deque<PerformanceSnapshot> performanceHistory = new ArrayDeque<>();
     private volatile long lastSnapshotTime = 0L;
 
     // Alert cooldown tracking
@@ -132,25 +141,30 @@ public class PerformanceTracker extends BukkitRunnable {
 
     @Override
     public void run() {
-        // Update memory statistics
-        updateMemoryStatistics();
+        long probeStart = RUN_PROBE.start();
+        try {
+            // Update memory statistics
+            updateMemoryStatistics();
 
-        // Update chunk statistics
-        updateChunkStatistics();
+            // Update chunk statistics
+            updateChunkStatistics();
 
-        // Check for performance alerts
-        checkPerformanceAlerts();
+            // Check for performance alerts
+            checkPerformanceAlerts();
 
-        // Create performance snapshot if enabled
-        createPerformanceSnapshot();
+            // Create performance snapshot if enabled
+            createPerformanceSnapshot();
 
-        // Log performance details if enabled
-        if (ConfigManager.shouldLogMemoryDetails()) {
-            LagXpert.getInstance().getLogger().info(String.format(
-                    "[PerformanceTracker] Memory: %.2f%% (%.2f/%.2f GB), Chunks: %d, TPS: %.2f",
-                    currentMemoryUsage, usedMemory / 1024.0 / 1024.0 / 1024.0,
-                    totalMemory / 1024.0 / 1024.0 / 1024.0, totalChunksLoaded.get(), TPSMonitor.getCurrentTPS()
-            ));
+            // Log performance details if enabled
+            if (ConfigManager.shouldLogMemoryDetails()) {
+                LagXpert.getInstance().getLogger().info(String.format(
+                        "[PerformanceTracker] Memory: %.2f%% (%.2f/%.2f GB), Chunks: %d, TPS: %.2f",
+                        currentMemoryUsage, usedMemory / 1024.0 / 1024.0 / 1024.0,
+                        totalMemory / 1024.0 / 1024.0 / 1024.0, totalChunksLoaded.get(), TPSMonitor.getCurrentTPS()
+                ));
+            }
+        } finally {
+            RUN_PROBE.stop(probeStart);
         }
     }
 
@@ -190,13 +204,20 @@ public class PerformanceTracker extends BukkitRunnable {
         }
 
         updateChunkCount();
-        updateChunkLoadingRate();
     }
 
     /**
      * Updates the current chunk count across all worlds.
+     * Uses the event-maintained count from ChunkLoadMeter when available, falling back
+     * to copying each world's loaded chunk array.
      */
     private void updateChunkCount() {
+        long meteredChunks = ChunkLoadMeter.getLoadedChunkCount();
+        if (meteredChunks >= 0) {
+            totalChunksLoaded.set(meteredChunks);
+            return;
+        }
+
         long totalChunks = 0;
         try {
             totalChunks = Bukkit.getWorlds().stream()
@@ -210,26 +231,6 @@ public class PerformanceTracker extends BukkitRunnable {
         totalChunksLoaded.set(totalChunks);
     }
 
-    /**
-     * Updates chunk loading rate tracking.
-     */
-    private void updateChunkLoadingRate() {
-        if (!ConfigManager.isChunkLoadingRateMonitoring()) {
-            return;
-        }
-
-        long currentTime = System.currentTimeMillis();
-        synchronized (chunkLoadHistory) {
-            chunkLoadHistory.offer(currentTime);
-
-            // Remove entries older than 1 minute
-            long cutoffTime = currentTime - 60000;
-            while (!chunkLoadHistory.isEmpty() && chunkLoadHistory.peek() < cutoffTime) {
-                chunkLoadHistory.poll();
-            }
-        }
-    }
-
     /**
      * Checks for performance alerts and sends them if thresholds are exceeded.
      */
@@ -301,10 +302,13 @@ public class PerformanceTracker extends BukkitRunnable {
             }
         }
 
-        // Check chunk loading rate
+        // Check chunk loading rate; thresholds grow with the players online, since every
+        // moving player loads (and while exploring, generates) hundreds of chunks per minute
         if (ConfigManager.isChunkLoadingRateMonitoring()) {
+            int onlinePlayers = Bukkit.getOnlinePlayers().size();
             int loadingRate = getCurrentChunkLoadingRate();
-            int threshold = ConfigManager.getChunkLoadingRateThreshold();
+            int threshold = Math.max(ConfigManager.getChunkLoadingRateThreshold(),
+                    ConfigManager.getChunkLoadingRatePerPlayer() * onlinePlayers);
 
             if (loadingRate > threshold) {
                 String alertType = "chunk_loading_rate";
@@ -314,6 +318,21 @@ public class PerformanceTracker extends BukkitRunnable {
                     recordAlert(alertType);
                 }
             }
+
+            // Check chunk generation storms (many brand-new chunks, e.g. fast exploration or pregen)
+            ChunkLoadMeter.RateWindow recent = ChunkLoadMeter.getRecentRates(60);
+            int generationThreshold = ConfigManager.getChunkGenerationRateThreshold() > 0
+                    ? Math.max(ConfigManager.getChunkGenerationRateThreshold(), ConfigManager.getChunkGenerationRatePerPlayer() * onlinePlayers)
+                    : 0;
+
+            if (generationThreshold > 0 && recent.getNewChunks() > generationThreshold) {
+                String alertType = "chunk_generation_storm";
+
+                if (canSendAlert(alertType, 120)) { // 2 minute cooldown
+                    sendChunkGenerationAlert(recent, generationThreshold);
+                    recordAlert(alertType);
+                }
+            }
         }
     }
 
@@ -417,6 +436,15 @@ public class PerformanceTracker extends BukkitRunnable {
         broadcastAlert(message);
     }
 
+    /**
+     * Sends chunk generation storm alerts.
+     */
+    private void sendChunkGenerationAlert(ChunkLoadMeter.RateWindow recent, int threshold) {
+        String message = MessageManager.color("&e[Performance Alert] &fChunk generation storm: &e" + recent.getNewChunks()
+                + "&f new chunks/min (peak &e" + recent.getPeakNewChunksPerSecond() + "&f/s). Threshold: &e" + threshold + "&f.");
+        broadcastAlert(message);
+    }
+
     /**
      * Sends lag spike alerts.
      */
@@ -514,17 +542,22 @@ public class PerformanceTracker extends BukkitRunnable {
             );
 
             synchronized (performanceHistory) {
-                performanceHistory.add(snapshot);
+                performanceHistory.addLast(snapshot);
 
                 // Cleanup old snapshots if auto-cleanup is enabled
                 if (ConfigManager.isTPSAutoCleanup()) {
                     int maxRecords = ConfigManager.getTPSMaxRecords();
                     while (performanceHistory.size() > maxRecords) {
-                        performanceHistory.remove(0);
+                        performanceHistory.pollFirst();
                     }
                 }
             }
 
+            // Persist to the on-disk time-series store
+            if (TimeSeriesStore.isInitialized()) {
+                TimeSeriesStore.append(createHistoryRecord(currentTime));
+            }
+
             lastSnapshotTime = currentTime;
         }
     }
@@ -533,9 +566,7 @@ public class PerformanceTracker extends BukkitRunnable {
      * Gets the current chunk loading rate (chunks per minute).
      */
     private int getCurrentChunkLoadingRate() {
-        synchronized (chunkLoadHistory) {
-            return chunkLoadHistory.size();
-        }
+        return ChunkLoadMeter.getLoadsPerMinute();
     }
 
     // Public getters for performance data
@@ -559,6 +590,48 @@ public class PerformanceTracker extends BukkitRunnable {
         return instance != null ? instance.freeMemory : 0L;
     }
 
+    /**
+     * Total entities across worlds, from counts that are already maintained: LagShield's
+     * per-world samples while that tracker runs, otherwise Paper's world entity counters.
+     * Returns 0 when neither is available instead of copying every world's entity list.
+     */
+    private static int countEntities() {
+        WorldPressureTracker tracker = LagShield.getInstance().getWorldTracker();
+        if (tracker.isEnabled() && !tracker.getStates().isEmpty()) {
+            int total = 0;
+            for (WorldPressureTracker.WorldState state : tracker.getStates().values()) {
+                total += state.getEntities();
+            }
+            return total;
+        }
+
+        if (!entityCountMethodResolved) {
+            entityCountMethodResolved = true;
+            try {
+                entityCountMethod = World.class.getMethod("getEntityCount");
+            } catch (NoSuchMethodException e) {
+                entityCountMethod = null;
+            }
+        }
+        if (entityCountMethod == null) {
+            return 0;
+        }
+
+        int total = 0;
+        try {
+            for (World world : Bukkit.getWorlds()) {
+                total += (Integer) entityCountMethod.invoke(world);
+            }
+        } catch (Exception e) {
+            entityCountMethod = null;
+            if (ConfigManager.isDebugEnabled()) {
+                LagXpert.getInstance().getLogger().warning("[PerformanceTracker] Failed to count entities: " + e.getMessage());
+            }
+            return 0;
+        }
+        return total;
+    }
+
     public static long getTotalChunksLoaded() {
         return instance != null ? instance.totalChunksLoaded.get() : 0L;
     }
@@ -567,6 +640,33 @@ public class PerformanceTracker extends BukkitRunnable {
         return instance != null ? instance.getCurrentChunkLoadingRate() : 0;
     }
 
+    /**
+     * Builds a persistent history record from the current TPS, tick intervals, memory and world state.
+     */
+    private TimeSeriesStore.Record createHistoryRecord(long timestamp) {
+        double[] intervals = TickDurationSampler.getIntervalPercentilesMs(1200, 50, 95, 99);
+        int entities = countEntities();
+
+        float tps = (float) TPSMonitor.getCurrentTPS();
+        LagShield shield = LagShield.getInstance();
+        return new TimeSeriesStore.Record(
+                timestamp,
+                tps,
+                tps,
+                (float) TickDurationSampler.getAverageIntervalMs(1200),
+                (float) intervals[0],
+                (float) intervals[1],
+                (float) intervals[2],
+                (float) currentMemoryUsage,
+                (int) (usedMemory / 1024 / 1024),
+                (int) totalChunksLoaded.get(),
+                entities,
+                (float) shield.getPressure(),
+                (float) shield.getPressureController().getIntegral(),
+                shield.getLevel()
+        );
+    }
+
     public static List<PerformanceSnapshot> getPerformanceHistory() {
         if (instance == null) {
             return Collections.emptyList();
@@ -589,7 +689,10 @@ public class PerformanceTracker extends BukkitRunnable {
             stats.put("memory_free_mb", instance.freeMemory / 1024 / 1024);
             stats.put("chunks_loaded", instance.totalChunksLoaded.get());
             stats.put("chunk_loading_rate", instance.getCurrentChunkLoadingRate());
-            stats.put("performance_snapshots", instance.performanceHistory.size());
+            stats.put("chunk_generation_rate", ChunkLoadMeter.getNewChunksPerMinute());
+            synchronized (instance.performanceHistory) {
+                stats.put("performance_snapshots", instance.performanceHistory.size());
+            }
         }
 
         stats.put("current_tps", TPSMonitor.getCurrentTPS());
@@ -605,13 +708,6 @@ public class PerformanceTracker extends BukkitRunnable {
     public static void resetStatistics() {
         if (instance != null) {
             instance.maxMemoryUsage = 0.0;
-            instance.chunksLoadedThisMinute.set(0);
-            instance.chunksUnloadedThisMinute.set(0);
-
-            synchronized (instance.chunkLoadHistory) {
-                instance.chunkLoadHistory.clear();
-            }
-
             synchronized (instance.performanceHistory) {
                 instance.performanceHistory.clear();
             }
@@ -620,5 +716,6 @@ public class PerformanceTracker extends BukkitRunnable {
         }
 
         TPSMonitor.resetStatistics();
+        ChunkLoadMeter.resetStatistics();
     }
 }
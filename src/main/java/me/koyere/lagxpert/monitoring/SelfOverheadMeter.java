@@ -0,0 +1,210 @@
+package me.koyere.lagxpert.monitoring;
+
+import me.koyere.lagxpert.utils.ConfigManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lightweight instrumentation for LagXpert's own listeners and tasks.
+ * Every invocation is counted, while only 1-in-N invocations are timed with a
+ * System.nanoTime pair so the meter stays cheap on hot paths like PlayerMoveEvent.
+ * Sampled durations are kept in power-of-two buckets to approximate percentiles.
+ */
+public final class SelfOverheadMeter {
+
+    // Bucket i holds durations in [2^(i-1), 2^i) nanoseconds; 40 buckets cover ~18 minutes
+    private static final int BUCKET_COUNT = 40;
+
+    private static final Map<String, Probe> probes = new ConcurrentHashMap<>();
+
+    private SelfOverheadMeter() {
+    }
+
+    /**
+     * A single instrumented handler or task. Obtain once via {@link #probe(String)}
+     * and keep it in a static field so the hot path never touches the registry map.
+     */
+    public static final class Probe {
+        private final String name;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder sampledInvocations = new LongAdder();
+        private final LongAdder sampledNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong(0L);
+        private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+
+        private Probe(String name) {
+            this.name = name;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Marks the start of an invocation.
+         *
+         * @return Start timestamp when this invocation is sampled, 0 otherwise
+         */
+        public long start() {
+            if (!ConfigManager.isSelfOverheadEnabled()) {
+                return 0L;
+            }
+            invocations.increment();
+            int sampleRate = ConfigManager.getSelfOverheadSampleRate();
+            if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+                return 0L;
+            }
+            return System.nanoTime();
+        }
+
+        /**
+         * Marks the end of an invocation started with {@link #start()}.
+         *
+         * @param startNanos Value returned by start()
+         */
+        public void stop(long startNanos) {
+            if (startNanos == 0L) {
+                return;
+            }
+            long elapsed = System.nanoTime() - startNanos;
+            if (elapsed < 0L) {
+                return;
+            }
+            sampledInvocations.increment();
+            sampledNanos.add(elapsed);
+            buckets[Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(elapsed))].increment();
+
+            long currentMax;
+            do {
+                currentMax = maxNanos.get();
+            } while (elapsed > currentMax && !maxNanos.compareAndSet(currentMax, elapsed));
+        }
+
+        public String getName() { return name; }
+        public long getInvocations() { return invocations.sum(); }
+        public long getSampledInvocations() { return sampledInvocations.sum(); }
+        public long getMaxNanos() { return maxNanos.get(); }
+
+        /**
+         * Average duration of sampled invocations in nanoseconds.
+         */
+        public double getAverageNanos() {
+            long sampled = sampledInvocations.sum();
+            return sampled > 0 ? (double) sampledNanos.sum() / sampled : 0.0;
+        }
+
+        /**
+         * Estimated total time spent in this probe, extrapolated from the sampled subset.
+         */
+        public long getEstimatedTotalNanos() {
+            return (long) (getAverageNanos() * invocations.sum());
+        }
+
+        /**
+         * Approximates a percentile from the bucket histogram (upper bound of the bucket).
+         *
+         * @param percentile Value between 0 and 100
+         * @return Approximate duration in nanoseconds
+         */
+        public long getPercentileNanos(double percentile) {
+            long[] counts = new long[BUCKET_COUNT];
+            long total = 0L;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+            if (total == 0L) {
+                return 0L;
+            }
+
+            long target = (long) Math.ceil(total * (percentile / 100.0));
+            long seen = 0L;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(1L << i, maxNanos.get());
+                }
+            }
+            return maxNanos.get();
+        }
+
+        private void reset() {
+            invocations.reset();
+            sampledInvocations.reset();
+            sampledNanos.reset();
+            maxNanos.set(0L);
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+        }
+    }
+
+    /**
+     * Gets or creates the probe with the given name.
+     *
+     * @param name Display name, usually "ClassName#method"
+     * @return Shared probe instance
+     */
+    public static Probe probe(String name) {
+        return probes.computeIfAbsent(name, Probe::new);
+    }
+
+    /**
+     * Returns all probes that have been invoked, ordered by estimated total time (highest first).
+     */
+    public static List<Probe> getProbesByTotalTime() {
+        List<Probe> result = new ArrayList<>();
+        for (Probe probe : probes.values()) {
+            if (probe.getInvocations() > 0) {
+                result.add(probe);
+            }
+        }
+        result.sort(Comparator.comparingLong(Probe::getEstimatedTotalNanos).reversed());
+        return result;
+    }
+
+    /**
+     * Gets a statistics snapshot for all active probes.
+     *
+     * @return Map containing per-probe statistics
+     */
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", ConfigManager.isSelfOverheadEnabled());
+        stats.put("sample_rate", ConfigManager.getSelfOverheadSampleRate());
+
+        long totalNanos = 0L;
+        Map<String, Object> probeStats = new LinkedHashMap<>();
+        for (Probe probe : getProbesByTotalTime()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("invocations", probe.getInvocations());
+            entry.put("sampled", probe.getSampledInvocations());
+            entry.put("avg_ns", (long) probe.getAverageNanos());
+            entry.put("p50_ns", probe.getPercentileNanos(50));
+            entry.put("p99_ns", probe.getPercentileNanos(99));
+            entry.put("max_ns", probe.getMaxNanos());
+            entry.put("estimated_total_ns", probe.getEstimatedTotalNanos());
+            probeStats.put(probe.getName(), entry);
+            totalNanos += probe.getEstimatedTotalNanos();
+        }
+        stats.put("estimated_total_ns", totalNanos);
+        stats.put("probes", probeStats);
+        return stats;
+    }
+
+    /**
+     * Resets all probe counters. Probes stay registered.
+     */
+    public static void resetStatistics() {
+        for (Probe probe : probes.values()) {
+            probe.reset();
+        }
+    }
+}
@@ -23,6 +23,8 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public class TPSMonitor extends BukkitRunnable {
 
+    private static final SelfOverheadMeter.Probe RUN_PROBE = SelfOverheadMeter.probe("TPSMonitor#run");
+
     // TPS calculation constants
     private static final double TARGET_TPS = 20.0;
     private static final long TARGET_TICK_TIME_NS = 50_000_000L; // 50ms in nanoseconds
@@ -82,12 +84,18 @@ public class TPSMonitor extends BukkitRunnable {
         private final double duration;
         private final double tickTime;
         private final String possibleCause;
+        private final long gcPauseMs;
 
         public LagSpike(long timestamp, double duration, double tickTime, String possibleCause) {
+            this(timestamp, duration, tickTime, possibleCause, 0L);
+        }
+
+        public LagSpike(long timestamp, double duration, double tickTime, String possibleCause, long gcPauseMs) {
             this.timestamp = timestamp;
             this.duration = duration;
             this.tickTime = tickTime;
             this.possibleCause = possibleCause;
+            this.gcPauseMs = gcPauseMs;
         }
 
         public long getTimestamp() {
@@ -105,6 +113,13 @@ public class TPSMonitor extends BukkitRunnable {
         public String getPossibleCause() {
             return possibleCause;
         }
+
+        /**
+         * Stop-the-world GC pause time observed during the spike window, 0 if none.
+         */
+        public long getGcPauseMs() {
+            return gcPauseMs;
+        }
     }
 
     /**
@@ -165,52 +180,63 @@ public class TPSMonitor extends BukkitRunnable {
 
     @Override
     public void run() {
-        long currentTime = System.nanoTime();
-        long lastTime = lastTickTime.getAndSet(currentTime);
+        long probeStart = RUN_PROBE.start();
+        try {
+            long currentTime = System.nanoTime();
+            long lastTime = lastTickTime.getAndSet(currentTime);
 
-        if (lastTime == 0) {
-            return; // First run, no previous time to compare
-        }
+            if (lastTime == 0) {
+                return; // First run, no previous time to compare
+            }
 
-        double tickTimeMs = (currentTime - lastTime) / 1_000_000.0;
-        long timestampSeconds = System.currentTimeMillis() / 1000;
+            double tickTimeMs = (currentTime - lastTime) / 1_000_000.0;
+            long timestampSeconds = System.currentTimeMillis() / 1000;
 
-        // Update tick statistics
-        totalTicks++;
-        updateTickStatistics(tickTimeMs);
+            // Update tick statistics
+            totalTicks++;
+            updateTickStatistics(tickTimeMs);
 
-        // Store tick data for TPS calculations
-        synchronized (tickHistory) {
-            tickHistory.offer(new TickData(timestampSeconds, tickTimeMs));
+            // Store tick data for TPS calculations
+            synchronized (tickHistory) {
+                tickHistory.offer(new TickData(timestampSeconds, tickTimeMs));
 
-            // Clean old data (keep only data within the longest window)
-            long cutoffTime = timestampSeconds - longTermWindow;
-            while (!tickHistory.isEmpty() && tickHistory.peek().getTimestamp() < cutoffTime) {
-                tickHistory.poll();
+                // Clean old data (keep only data within the longest window)
+                long cutoffTime = timestampSeconds - longTermWindow;
+                while (!tickHistory.isEmpty() && tickHistory.peek().getTimestamp() < cutoffTime) {
+                    tickHistory.poll();
+                }
             }
-        }
 
-        // Calculate TPS for different time windows
-        calculateTPS();
+            // Calculate TPS for different time windows
+            calculateTPS();
+
+            // Sample main thread allocation rate for GC correlation
+            GCMonitor.sampleAllocationRate();
 
-        // Detect and handle lag spikes
-        detectLagSpikes(tickTimeMs, timestampSeconds);
+            // Detect and handle lag spikes
+            detectLagSpikes(tickTimeMs, timestampSeconds);
 
-        // Calculate Memory Usage for LagShield
-        long maxMemory = Runtime.getRuntime().maxMemory();
-        long totalMemory = Runtime.getRuntime().totalMemory();
-        long freeMemory = Runtime.getRuntime().freeMemory();
-        long usedMemory = totalMemory - freeMemory;
-        double memoryUsagePercent = (maxMemory > 0) ? ((double) usedMemory / maxMemory) * 100.0 : 0.0;
+            // Update the short-term MSPT forecast before LagShield evaluates it
+            MsptForecaster.update();
 
-        // Update LagShield
-        LagShield.getInstance().onTick(currentTPS, memoryUsagePercent);
+            // Calculate Memory Usage for LagShield
+            long maxMemory = Runtime.getRuntime().maxMemory();
+            long totalMemory = Runtime.getRuntime().totalMemory();
+            long freeMemory = Runtime.getRuntime().freeMemory();
+            long usedMemory = totalMemory - freeMemory;
+            double memoryUsagePercent = (maxMemory > 0) ? ((double) usedMemory / maxMemory) * 100.0 : 0.0;
 
-        // Log debug information if enabled
-        if (ConfigManager.shouldLogTPSCalculations()) {
-            LagXpert.getInstance().getLogger().info(
-                    String.format("[TPSMonitor] Current: %.2f, 1m: %.2f, 5m: %.2f, 15m: %.2f, Tick: %.2fms",
-                            currentTPS, shortTermTPS, mediumTermTPS, longTermTPS, tickTimeMs));
+            // Update LagShield
+            LagShield.getInstance().onTick(currentTPS, memoryUsagePercent);
+
+            // Log debug information if enabled
+            if (ConfigManager.shouldLogTPSCalculations()) {
+                LagXpert.getInstance().getLogger().info(
+                        String.format("[TPSMonitor] Current: %.2f, 1m: %.2f, 5m: %.2f, 15m: %.2f, Tick: %.2fms",
+                                currentTPS, shortTermTPS, mediumTermTPS, longTermTPS, tickTimeMs));
+            }
+        } finally {
+            RUN_PROBE.stop(probeStart);
         }
     }
 
@@ -299,10 +325,15 @@ public class TPSMonitor extends BukkitRunnable {
         if (tickTimeMs > lagThreshold) {
             consecutiveLagSpikes++;
 
+            // Correlate with GC pauses that overlapped this measurement window
+            long windowEnd = System.currentTimeMillis();
+            long windowStart = windowEnd - (long) Math.ceil(tickTimeMs);
+            long gcPauseMs = GCMonitor.isRunning() ? GCMonitor.getPauseMillisBetween(windowStart, windowEnd) : 0L;
+
             // Create lag spike record
-            String possibleCause = analyzeLagSpikeCause(tickTimeMs);
+            String possibleCause = analyzeLagSpikeCause(tickTimeMs, gcPauseMs, windowStart, windowEnd);
             LagSpike spike = new LagSpike(timestamp * 1000, tickTimeMs - TARGET_TICK_TIME_NS / 1_000_000.0, tickTimeMs,
-                    possibleCause);
+                    possibleCause, gcPauseMs);
 
             // Store lag spike (with size limit)
             synchronized (recentLagSpikes) {
@@ -331,15 +362,29 @@ public class TPSMonitor extends BukkitRunnable {
 
     /**
      * Analyzes potential causes of lag spikes.
+     * Recorded GC pauses take precedence over the tick time heuristics when they
+     * account for at least half of the delay beyond the expected interval.
      * 
-     * @param tickTimeMs The tick time that caused the lag spike
+     * @param tickTimeMs  The tick time that caused the lag spike
+     * @param gcPauseMs   Stop-the-world GC pause time within the spike window
+     * @param windowStart Spike window start (epoch milliseconds)
+     * @param windowEnd   Spike window end (epoch milliseconds)
      * @return A string describing the possible cause
      */
-    private String analyzeLagSpikeCause(double tickTimeMs) {
+    private String analyzeLagSpikeCause(double tickTimeMs, long gcPauseMs, long windowStart, long windowEnd) {
         if (!ConfigManager.shouldAutoAnalyzeLagSpikes()) {
             return "Unknown";
         }
 
+        if (gcPauseMs > 0) {
+            double expectedMs = ConfigManager.getTPSUpdateIntervalTicks() * (TARGET_TICK_TIME_NS / 1_000_000.0);
+            double excessMs = Math.max(tickTimeMs - expectedMs, 0.0);
+            String gcDescription = GCMonitor.describePausesBetween(windowStart, windowEnd);
+            if (gcDescription != null && gcPauseMs >= excessMs * 0.5) {
+                return gcDescription;
+            }
+        }
+
         // Simple heuristic analysis
         if (tickTimeMs > 500) {
             return "Severe lag - possible plugin issue or world generation";
@@ -0,0 +1,159 @@
+package me.koyere.lagxpert.monitoring;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.utils.ConfigManager;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.Arrays;
+
+/**
+ * Tick interval sampler. Runs every server tick and records the wall-clock interval
+ * between consecutive runs in a fixed ring buffer.
+ * This is not MSPT (the time a tick spends working): the interval never drops below
+ * ~50ms on a healthy server and only equals a tick's real duration once that tick
+ * exceeds its budget, so it shows how late ticks run rather than how busy they are.
+ */
+public class TickDurationSampler extends BukkitRunnable {
+
+    private static final SelfOverheadMeter.Probe RUN_PROBE = SelfOverheadMeter.probe("TickDurationSampler#run");
+
+    // One minute of ticks at 20 TPS
+    private static final int BUFFER_SIZE = 1200;
+    private static final double TARGET_TICK_MS = 50.0;
+
+    private static TickDurationSampler instance;
+
+    private final long[] intervalNanos = new long[BUFFER_SIZE];
+    private volatile int writeIndex = 0;
+    private volatile int samples = 0;
+    private long lastTickNanos = 0L;
+    private volatile double lastIntervalMs = TARGET_TICK_MS;
+
+    private TickDurationSampler() {
+    }
+
+    /**
+     * Starts sampling every tick. Replaces any previous sampler.
+     */
+    public static void startSampling() {
+        stopSampling();
+        instance = new TickDurationSampler();
+        instance.runTaskTimer(LagXpert.getInstance(), 1L, 1L);
+
+        if (ConfigManager.isDebugEnabled()) {
+            LagXpert.getInstance().getLogger().info("[TickDurationSampler] Tick interval sampling started.");
+        }
+    }
+
+    /**
+     * Stops sampling and discards collected data.
+     */
+    public static void stopSampling() {
+        if (instance != null) {
+            instance.cancel();
+            instance = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        long probeStart = RUN_PROBE.start();
+        try {
+            long now = System.nanoTime();
+            if (lastTickNanos != 0L) {
+                long elapsed = now - lastTickNanos;
+                int index = writeIndex;
+                intervalNanos[index] = elapsed;
+                writeIndex = (index + 1) % BUFFER_SIZE;
+                if (samples < BUFFER_SIZE) {
+                    samples++;
+                }
+                lastIntervalMs = elapsed / 1_000_000.0;
+            }
+            lastTickNanos = now;
+        } finally {
+            RUN_PROBE.stop(probeStart);
+        }
+    }
+
+    /**
+     * Copies the most recent tick intervals (newest last).
+     */
+    private long[] copyRecent(int windowTicks) {
+        int count = Math.min(Math.max(windowTicks, 1), samples);
+        long[] result = new long[count];
+        int end = writeIndex;
+        for (int i = 0; i < count; i++) {
+            int index = (end - count + i + BUFFER_SIZE) % BUFFER_SIZE;
+            result[i] = intervalNanos[index];
+        }
+        return result;
+    }
+
+    /**
+     * Gets the interval before the most recent tick in milliseconds.
+     */
+    public static double getLastIntervalMs() {
+        return instance != null ? instance.lastIntervalMs : TARGET_TICK_MS;
+    }
+
+    /**
+     * Gets the mean tick interval over the last N ticks.
+     *
+     * @param windowTicks Number of recent ticks to consider (max 1200)
+     * @return Average tick interval in milliseconds
+     */
+    public static double getAverageIntervalMs(int windowTicks) {
+        if (instance == null || instance.samples == 0) {
+            return TARGET_TICK_MS;
+        }
+        long[] recent = instance.copyRecent(windowTicks);
+        long total = 0L;
+        for (long nanos : recent) {
+            total += nanos;
+        }
+        return total / (double) recent.length / 1_000_000.0;
+    }
+
+    /**
+     * Gets a tick interval percentile over the last N ticks.
+     *
+     * @param percentile  Value between 0 and 100
+     * @param windowTicks Number of recent ticks to consider (max 1200)
+     * @return Tick interval percentile in milliseconds
+     */
+    public static double getIntervalPercentileMs(double percentile, int windowTicks) {
+        return getIntervalPercentilesMs(windowTicks, percentile)[0];
+    }
+
+    /**
+     * Gets several tick interval percentiles over the last N ticks with a single sort.
+     *
+     * @param windowTicks Number of recent ticks to consider (max 1200)
+     * @param percentiles Values between 0 and 100
+     * @return Tick interval percentiles in milliseconds, in the same order as requested
+     */
+    public static double[] getIntervalPercentilesMs(int windowTicks, double... percentiles) {
+        double[] result = new double[percentiles.length];
+        if (instance == null || instance.samples == 0) {
+            Arrays.fill(result, TARGET_TICK_MS);
+            return result;
+        }
+
+        long[] recent = instance.copyRecent(windowTicks);
+        Arrays.sort(recent);
+        for (int i = 0; i < percentiles.length; i++) {
+            int rank = (int) Math.ceil(percentiles[i] / 100.0 * recent.length) - 1;
+            rank = Math.max(0, Math.min(recent.length - 1, rank));
+            result[i] = recent[rank] / 1_000_000.0;
+        }
+        return result;
+    }
+
+    /**
+     * Whether the sampler is currently running.
+     */
+    public static boolean isRunning() {
+        return instance != null;
+    }
+}
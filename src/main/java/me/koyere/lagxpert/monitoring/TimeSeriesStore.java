@@ -0,0 +1,622 @@
+package me.koyere.lagxpert.monitoring;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.utils.ConfigManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Persistent, append-only time-series store for performance history.
+ * Records have a fixed binary layout and are written into memory-mapped daily
+ * segment files (plugins/LagXpert/history/&lt;resolution&gt;-YYYY-MM-DD.lxts).
+ * Raw snapshots are downsampled into 1-minute and 1-hour rollups as they arrive,
+ * so long ranges can be queried by streaming rollup records without loading
+ * the raw data onto the heap.
+ * Records also carry LagShield's controller state (pressure, integral and ladder
+ * level) for tuning.
+ */
+public final class TimeSeriesStore {
+
+    private static final int MAGIC = 0x4C585453; // "LXTS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int HEADER_COUNT_OFFSET = 16;
+    public static final int RECORD_SIZE = 64;
+
+    private static final String FILE_EXTENSION = ".lxts";
+
+    private static final Object lock = new Object();
+    private static final Map<Resolution, Segment> activeSegments = new EnumMap<>(Resolution.class);
+    private static final Map<Resolution, RollupAccumulator> accumulators = new EnumMap<>(Resolution.class);
+
+    private static File historyFolder;
+    private static volatile boolean initialized = false;
+    private static long recordsWritten = 0L;
+    private static long recordsDropped = 0L;
+
+    private TimeSeriesStore() {
+    }
+
+    /**
+     * Storage resolutions. Rollup resolutions aggregate raw records into fixed buckets.
+     */
+    public enum Resolution {
+        RAW("raw", 0L),
+        MINUTE("minute", 60_000L),
+        HOUR("hour", 3_600_000L);
+
+        private final String fileName;
+        private final long bucketMillis;
+
+        Resolution(String fileName, long bucketMillis) {
+            this.fileName = fileName;
+            this.bucketMillis = bucketMillis;
+        }
+
+        public String getFileName() { return fileName; }
+        public long getBucketMillis() { return bucketMillis; }
+    }
+
+    /**
+     * A single fixed-size performance record.
+     * Layout (64 bytes): timestamp(long), tps, minTps, tickIntervalAvg, tickIntervalP50,
+     * tickIntervalP95, tickIntervalP99, memoryPercent (floats), memoryUsedMb, chunksLoaded, entities (ints),
+     * shieldPressure, controllerIntegral (floats), shieldLevel (int), reserved (int).
+     * Tick intervals are the wall-clock time between ticks (see {@link TickDurationSampler}), not MSPT.
+     */
+    public static class Record {
+        private final long timestamp;
+        private final float tps;
+        private final float minTps;
+        private final float tickIntervalAvg;
+        private final float tickIntervalP50;
+        private final float tickIntervalP95;
+        private final float tickIntervalP99;
+        private final float memoryPercent;
+        private final int memoryUsedMb;
+        private final int chunksLoaded;
+        private final int entities;
+        private final float shieldPressure;
+        private final float controllerIntegral;
+        private final int shieldLevel;
+
+        public Record(long timestamp, float tps, float minTps,
+                      float tickIntervalAvg, float tickIntervalP50, float tickIntervalP95, float tickIntervalP99,
+                      float memoryPercent, int memoryUsedMb, int chunksLoaded, int entities,
+                      float shieldPressure, float controllerIntegral, int shieldLevel) {
+            this.timestamp = timestamp;
+            this.tps = tps;
+            this.minTps = minTps;
+            this.tickIntervalAvg = tickIntervalAvg;
+            this.tickIntervalP50 = tickIntervalP50;
+            this.tickIntervalP95 = tickIntervalP95;
+            this.tickIntervalP99 = tickIntervalP99;
+            this.memoryPercent = memoryPercent;
+            this.memoryUsedMb = memoryUsedMb;
+            this.chunksLoaded = chunksLoaded;
+            this.entities = entities;
+            this.shieldPressure = shieldPressure;
+            this.controllerIntegral = controllerIntegral;
+            this.shieldLevel = shieldLevel;
+        }
+
+        private void writeTo(ByteBuffer buffer, int offset) {
+            buffer.putLong(offset, timestamp);
+            buffer.putFloat(offset + 8, tps);
+            buffer.putFloat(offset + 12, minTps);
+            buffer.putFloat(offset + 16, tickIntervalAvg);
+            buffer.putFloat(offset + 20, tickIntervalP50);
+            buffer.putFloat(offset + 24, tickIntervalP95);
+            buffer.putFloat(offset + 28, tickIntervalP99);
+            buffer.putFloat(offset + 32, memoryPercent);
+            buffer.putInt(offset + 36, memoryUsedMb);
+            buffer.putInt(offset + 40, chunksLoaded);
+            buffer.putInt(offset + 44, entities);
+            buffer.putFloat(offset + 48, shieldPressure);
+            buffer.putFloat(offset + 52, controllerIntegral);
+            buffer.putInt(offset + 56, shieldLevel);
+            buffer.putInt(offset + 60, 0);
+        }
+
+        private static Record readFrom(ByteBuffer buffer, int offset) {
+            return new Record(
+                    buffer.getLong(offset),
+                    buffer.getFloat(offset + 8),
+                    buffer.getFloat(offset + 12),
+                    buffer.getFloat(offset + 16),
+                    buffer.getFloat(offset + 20),
+                    buffer.getFloat(offset + 24),
+                    buffer.getFloat(offset + 28),
+                    buffer.getFloat(offset + 32),
+                    buffer.getInt(offset + 36),
+                    buffer.getInt(offset + 40),
+                    buffer.getInt(offset + 44),
+                    buffer.getFloat(offset + 48),
+                    buffer.getFloat(offset + 52),
+                    buffer.getInt(offset + 56)
+            );
+        }
+
+        public long getTimestamp() { return timestamp; }
+        public float getTps() { return tps; }
+        public float getMinTps() { return minTps; }
+        public float getTickIntervalAvg() { return tickIntervalAvg; }
+        public float getTickIntervalP50() { return tickIntervalP50; }
+        public float getTickIntervalP95() { return tickIntervalP95; }
+        public float getTickIntervalP99() { return tickIntervalP99; }
+        public float getMemoryPercent() { return memoryPercent; }
+        public int getMemoryUsedMb() { return memoryUsedMb; }
+        public int getChunksLoaded() { return chunksLoaded; }
+        public int getEntities() { return entities; }
+        public float getShieldPressure() { return shieldPressure; }
+        public float getControllerIntegral() { return controllerIntegral; }
+        public int getShieldLevel() { return shieldLevel; }
+    }
+
+    /**
+     * Aggregated view over a range of records.
+     */
+    public static class Summary {
+        private int records = 0;
+        private long firstTimestamp = 0L;
+        private long lastTimestamp = 0L;
+        private double tpsSum = 0.0;
+        private float minTps = Float.MAX_VALUE;
+        private double tickIntervalSum = 0.0;
+        private float maxP99 = 0.0f;
+        private double memorySum = 0.0;
+        private int peakChunks = 0;
+        private int peakEntities = 0;
+        private double pressureSum = 0.0;
+        private int maxShieldLevel = 0;
+
+        /**
+         * Adds a record, e.g. from a {@link #query(Resolution, long, long, Consumer)} consumer.
+         */
+        public void add(Record record) {
+            if (records == 0) {
+                firstTimestamp = record.getTimestamp();
+            }
+            records++;
+            lastTimestamp = record.getTimestamp();
+            tpsSum += record.getTps();
+            minTps = Math.min(minTps, record.getMinTps());
+            tickIntervalSum += record.getTickIntervalAvg();
+            maxP99 = Math.max(maxP99, record.getTickIntervalP99());
+            memorySum += record.getMemoryPercent();
+            peakChunks = Math.max(peakChunks, record.getChunksLoaded());
+            peakEntities = Math.max(peakEntities, record.getEntities());
+            pressureSum += record.getShieldPressure();
+            maxShieldLevel = Math.max(maxShieldLevel, record.getShieldLevel());
+        }
+
+        public int getRecords() { return records; }
+        public long getFirstTimestamp() { return firstTimestamp; }
+        public long getLastTimestamp() { return lastTimestamp; }
+        public double getAverageTps() { return records > 0 ? tpsSum / records : 0.0; }
+        public float getMinTps() { return records > 0 ? minTps : 0.0f; }
+        public double getAverageTickInterval() { return records > 0 ? tickIntervalSum / records : 0.0; }
+        public float getMaxTickIntervalP99() { return maxP99; }
+        public double getAverageMemoryPercent() { return records > 0 ? memorySum / records : 0.0; }
+        public int getPeakChunks() { return peakChunks; }
+        public int getPeakEntities() { return peakEntities; }
+        public double getAverageShieldPressure() { return records > 0 ? pressureSum / records : 0.0; }
+        public int getMaxShieldLevel() { return maxShieldLevel; }
+    }
+
+    /**
+     * An open, memory-mapped daily segment.
+     */
+    private static class Segment {
+        private final LocalDate day;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private int count;
+
+        private Segment(LocalDate day, FileChannel channel, MappedByteBuffer buffer, int capacity, int count) {
+            this.day = day;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = capacity;
+            this.count = count;
+        }
+
+        private boolean append(Record record) {
+            if (count >= capacity) {
+                return false;
+            }
+            record.writeTo(buffer, HEADER_SIZE + count * RECORD_SIZE);
+            count++;
+            buffer.putInt(HEADER_COUNT_OFFSET, count);
+            return true;
+        }
+
+        private void close() {
+            try {
+                buffer.force();
+                channel.close();
+            } catch (IOException ignored) {
+                // Segment is being discarded anyway
+            }
+        }
+    }
+
+    /**
+     * Accumulates raw records into a rollup bucket.
+     */
+    private static class RollupAccumulator {
+        private long bucketStart = -1L;
+        private int samples = 0;
+        private double tpsSum, tickIntervalAvgSum, tickIntervalP50Sum, memorySum, pressureSum, integralSum;
+        private float minTps, tickIntervalP95Max, tickIntervalP99Max;
+        private long memoryUsedSum, chunksSum, entitiesSum;
+        private int shieldLevelMax;
+
+        private void reset(long newBucketStart) {
+            bucketStart = newBucketStart;
+            samples = 0;
+            tpsSum = tickIntervalAvgSum = tickIntervalP50Sum = memorySum = pressureSum = integralSum = 0.0;
+            minTps = Float.MAX_VALUE;
+            tickIntervalP95Max = tickIntervalP99Max = 0.0f;
+            memoryUsedSum = chunksSum = entitiesSum = 0L;
+            shieldLevelMax = 0;
+        }
+
+        private void add(Record record) {
+            samples++;
+            tpsSum += record.getTps();
+            minTps = Math.min(minTps, record.getMinTps());
+            tickIntervalAvgSum += record.getTickIntervalAvg();
+            tickIntervalP50Sum += record.getTickIntervalP50();
+            tickIntervalP95Max = Math.max(tickIntervalP95Max, record.getTickIntervalP95());
+            tickIntervalP99Max = Math.max(tickIntervalP99Max, record.getTickIntervalP99());
+            memorySum += record.getMemoryPercent();
+            memoryUsedSum += record.getMemoryUsedMb();
+            chunksSum += record.getChunksLoaded();
+            entitiesSum += record.getEntities();
+            pressureSum += record.getShieldPressure();
+            integralSum += record.getControllerIntegral();
+            shieldLevelMax = Math.max(shieldLevelMax, record.getShieldLevel());
+        }
+
+        // Means for averages and controller state, maxima for tail percentiles and the shield level, minimum TPS
+        private Record toRecord() {
+            return new Record(bucketStart,
+                    (float) (tpsSum / samples), minTps,
+                    (float) (tickIntervalAvgSum / samples), (float) (tickIntervalP50Sum / samples),
+                    tickIntervalP95Max, tickIntervalP99Max,
+                    (float) (memorySum / samples), (int) (memoryUsedSum / samples),
+                    (int) (chunksSum / samples), (int) (entitiesSum / samples),
+                    (float) (pressureSum / samples), (float) (integralSum / samples), shieldLevelMax);
+        }
+    }
+
+    /**
+     * Opens the store under the plugin data folder and removes expired segments.
+     */
+    public static void initialize() {
+        synchronized (lock) {
+            if (initialized) {
+                return;
+            }
+            historyFolder = new File(LagXpert.getInstance().getDataFolder(), "history");
+            if (!historyFolder.exists() && !historyFolder.mkdirs()) {
+                LagXpert.getInstance().getLogger().warning("[TimeSeriesStore] Could not create history folder: " + historyFolder.getPath());
+                return;
+            }
+
+            accumulators.put(Resolution.MINUTE, new RollupAccumulator());
+            accumulators.put(Resolution.HOUR, new RollupAccumulator());
+            initialized = true;
+            deleteExpiredSegments();
+
+            if (ConfigManager.isDebugEnabled()) {
+                LagXpert.getInstance().getLogger().info("[TimeSeriesStore] Persistent history initialized at " + historyFolder.getPath());
+            }
+        }
+    }
+
+    /**
+     * Flushes pending rollups and closes all open segments.
+     */
+    public static void shutdown() {
+        synchronized (lock) {
+            if (!initialized) {
+                return;
+            }
+            for (Map.Entry<Resolution, RollupAccumulator> entry : accumulators.entrySet()) {
+                RollupAccumulator accumulator = entry.getValue();
+                if (accumulator.samples > 0) {
+                    writeRecord(entry.getKey(), accumulator.toRecord());
+                }
+            }
+            accumulators.clear();
+            for (Segment segment : activeSegments.values()) {
+                segment.close();
+            }
+            activeSegments.clear();
+            initialized = false;
+        }
+    }
+
+    /**
+     * Appends a raw record and updates the minute and hour rollups.
+     *
+     * @param record The snapshot to store
+     */
+    public static void append(Record record) {
+        synchronized (lock) {
+            if (!initialized) {
+                return;
+            }
+            writeRecord(Resolution.RAW, record);
+            updateRollup(Resolution.MINUTE, record);
+            updateRollup(Resolution.HOUR, record);
+        }
+    }
+
+    private static void updateRollup(Resolution resolution, Record record) {
+        RollupAccumulator accumulator = accumulators.get(resolution);
+        long bucketStart = record.getTimestamp() - Math.floorMod(record.getTimestamp(), resolution.getBucketMillis());
+
+        if (accumulator.bucketStart != bucketStart) {
+            if (accumulator.samples > 0) {
+                writeRecord(resolution, accumulator.toRecord());
+            }
+            accumulator.reset(bucketStart);
+        }
+        accumulator.add(record);
+    }
+
+    private static void writeRecord(Resolution resolution, Record record) {
+        LocalDate day = toDay(record.getTimestamp());
+        Segment segment = activeSegments.get(resolution);
+
+        if (segment == null || !segment.day.equals(day)) {
+            if (segment != null) {
+                segment.close();
+                deleteExpiredSegments();
+            }
+            segment = openSegment(resolution, day);
+            if (segment == null) {
+                activeSegments.remove(resolution);
+                recordsDropped++;
+                return;
+            }
+            activeSegments.put(resolution, segment);
+        }
+
+        if (segment.append(record)) {
+            recordsWritten++;
+        } else {
+            recordsDropped++;
+        }
+    }
+
+    /**
+     * Opens (or creates) the segment for a resolution and day, sized for a full day of records.
+     */
+    private static Segment openSegment(Resolution resolution, LocalDate day) {
+        File file = getSegmentFile(resolution, day);
+        try {
+            boolean exists = file.exists() && file.length() >= HEADER_SIZE;
+            long size = exists ? file.length() : HEADER_SIZE + (long) getDailyCapacity(resolution) * RECORD_SIZE;
+
+            if (!exists) {
+                try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                    raf.setLength(size);
+                }
+            }
+
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            int capacity = (int) ((size - HEADER_SIZE) / RECORD_SIZE);
+
+            int count = 0;
+            if (exists && buffer.getInt(0) == MAGIC && buffer.getInt(8) == RECORD_SIZE) {
+                count = Math.max(0, Math.min(capacity, buffer.getInt(HEADER_COUNT_OFFSET)));
+            } else {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, RECORD_SIZE);
+                buffer.putInt(12, (int) (resolution.getBucketMillis() / 1000L));
+                buffer.putInt(HEADER_COUNT_OFFSET, 0);
+            }
+
+            return new Segment(day, channel, buffer, capacity, count);
+        } catch (IOException e) {
+            LagXpert.getInstance().getLogger().warning("[TimeSeriesStore] Failed to open segment " + file.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static int getDailyCapacity(Resolution resolution) {
+        switch (resolution) {
+            case MINUTE:
+                return 1440 + 16;
+            case HOUR:
+                return 24 + 8;
+            case RAW:
+            default:
+                // Snapshots can never be more frequent than once per second
+                int interval = Math.max(1, ConfigManager.getTPSSnapshotIntervalSeconds());
+                return 86400 / interval + 64;
+        }
+    }
+
+    /**
+     * Streams all records of a resolution within a time range, oldest first.
+     * Closed segments are mapped read-only for the duration of the scan, so only
+     * the records passed to the consumer are materialized.
+     *
+     * @param resolution Resolution to read
+     * @param fromMillis Range start (epoch milliseconds, inclusive)
+     * @param toMillis   Range end (epoch milliseconds, inclusive)
+     * @param consumer   Receives each record in the range
+     */
+    public static void query(Resolution resolution, long fromMillis, long toMillis, Consumer<Record> consumer) {
+        synchronized (lock) {
+            if (!initialized || fromMillis > toMillis) {
+                return;
+            }
+
+            LocalDate lastDay = toDay(toMillis);
+            for (LocalDate day = toDay(fromMillis); !day.isAfter(lastDay); day = day.plusDays(1)) {
+                File file = getSegmentFile(resolution, day);
+                Segment active = activeSegments.get(resolution);
+                if (active != null && active.day.equals(day)) {
+                    scan(active.buffer, active.count, fromMillis, toMillis, consumer);
+                } else {
+                    scanFile(file, fromMillis, toMillis, consumer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Scans a closed segment file.
+     */
+    private static void scanFile(File file, long fromMillis, long toMillis, Consumer<Record> consumer) {
+        if (!file.exists() || file.length() < HEADER_SIZE) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(8) != RECORD_SIZE) {
+                return;
+            }
+            int capacity = (int) ((channel.size() - HEADER_SIZE) / RECORD_SIZE);
+            int count = Math.max(0, Math.min(capacity, buffer.getInt(HEADER_COUNT_OFFSET)));
+            scan(buffer, count, fromMillis, toMillis, consumer);
+        } catch (IOException e) {
+            if (ConfigManager.isDebugEnabled()) {
+                LagXpert.getInstance().getLogger().warning("[TimeSeriesStore] Failed to read " + file.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static void scan(ByteBuffer buffer, int count, long fromMillis, long toMillis, Consumer<Record> consumer) {
+        for (int i = 0; i < count; i++) {
+            int offset = HEADER_SIZE + i * RECORD_SIZE;
+            long timestamp = buffer.getLong(offset);
+            if (timestamp < fromMillis || timestamp > toMillis) {
+                continue;
+            }
+            consumer.accept(Record.readFrom(buffer, offset));
+        }
+    }
+
+    /**
+     * Chooses the finest resolution that keeps a range query cheap.
+     */
+    public static Resolution selectResolution(long fromMillis, long toMillis) {
+        long span = toMillis - fromMillis;
+        if (span <= 3L * 3_600_000L) {
+            return Resolution.RAW;
+        }
+        if (span <= 8L * 86_400_000L) {
+            return Resolution.MINUTE;
+        }
+        return Resolution.HOUR;
+    }
+
+    /**
+     * Summarizes a time range using the resolution picked by {@link #selectResolution(long, long)}.
+     */
+    public static Summary summarize(long fromMillis, long toMillis) {
+        return summarize(selectResolution(fromMillis, toMillis), fromMillis, toMillis);
+    }
+
+    /**
+     * Summarizes a time range at a specific resolution.
+     */
+    public static Summary summarize(Resolution resolution, long fromMillis, long toMillis) {
+        Summary summary = new Summary();
+        query(resolution, fromMillis, toMillis, summary::add);
+        return summary;
+    }
+
+    /**
+     * Deletes segments older than the configured retention for their resolution.
+     */
+    private static void deleteExpiredSegments() {
+        File[] files = historyFolder != null ? historyFolder.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION)) : null;
+        if (files == null) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        for (File file : files) {
+            String name = file.getName();
+            int separator = name.indexOf('-');
+            if (separator < 0) {
+                continue;
+            }
+            String prefix = name.substring(0, separator);
+            String datePart = name.substring(separator + 1, name.length() - FILE_EXTENSION.length());
+
+            int retentionDays;
+            if (prefix.equals(Resolution.RAW.getFileName())) {
+                retentionDays = ConfigManager.getHistoryRawRetentionDays();
+            } else if (prefix.equals(Resolution.MINUTE.getFileName())) {
+                retentionDays = ConfigManager.getHistoryMinuteRetentionDays();
+            } else if (prefix.equals(Resolution.HOUR.getFileName())) {
+                retentionDays = ConfigManager.getHistoryHourRetentionDays();
+            } else {
+                continue;
+            }
+
+            try {
+                LocalDate day = LocalDate.parse(datePart);
+                if (day.isBefore(today.minusDays(retentionDays)) && !file.delete() && ConfigManager.isDebugEnabled()) {
+                    LagXpert.getInstance().getLogger().warning("[TimeSeriesStore] Could not delete expired segment " + name);
+                }
+            } catch (DateTimeParseException ignored) {
+                // Not one of our segment files
+            }
+        }
+    }
+
+    private static File getSegmentFile(Resolution resolution, LocalDate day) {
+        return new File(historyFolder, resolution.getFileName() + "-" + day + FILE_EXTENSION);
+    }
+
+    private static LocalDate toDay(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    public static boolean isInitialized() {
+        return initialized;
+    }
+
+    /**
+     * Gets store statistics.
+     *
+     * @return Map containing store statistics
+     */
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (lock) {
+            stats.put("initialized", initialized);
+            stats.put("records_written", recordsWritten);
+            stats.put("records_dropped", recordsDropped);
+            stats.put("open_segments", activeSegments.size());
+        }
+        return stats;
+    }
+}
@@ -1,6 +1,7 @@
 package me.koyere.lagxpert.system;
 
 import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
 import me.koyere.lagxpert.utils.ConfigManager;
 import me.koyere.lagxpert.utils.MessageManager;
 import org.bukkit.Material;
@@ -31,6 +32,9 @@ import java.util.UUID;
  */
 public class AbilityLimiter implements Listener {
 
+    private static final SelfOverheadMeter.Probe PLAYER_MOVE_PROBE = SelfOverheadMeter.probe("AbilityLimiter#onPlayerMove");
+    private static final SelfOverheadMeter.Probe RIPTIDE_PROBE = SelfOverheadMeter.probe("AbilityLimiter#onRiptide");
+
     private boolean enabled;
     private double elytraSpeedLimit;
     private long riptideCooldownMs;
@@ -65,75 +69,85 @@ public class AbilityLimiter implements Listener {
 
     @EventHandler(priority = EventPriority.NORMAL)
     public void onPlayerMove(PlayerMoveEvent event) {
-        if (!enabled)
-            return;
-        Player player = event.getPlayer();
-        if (isDisabledWorld(player.getWorld()))
-            return;
-
-        if (player.isGliding()) {
-            // Calculate speed
-            double dist = event.getFrom().distance(event.getTo());
-            // Typical max default speed is around 0.6-0.9 without boosts?
-            // 1.5 is a generous burst limit.
-
-            // Note: This is a simplistic check. Only rubberband if consistently high?
-            // For this implementation, we'll keep it simple: just monitor burst.
-
-            if (dist > elytraSpeedLimit && !player.hasPermission("lagxpert.bypass.abilities")) {
-                event.setCancelled(true);
-                // Teleport back to 'from' is automatic on cancel
-                player.setVelocity(player.getVelocity().multiply(0.5)); // Slow down
-
-                // Optional: Alert player
-                // MessageManager.sendRestrictionMessage(player, "limits.elytra");
+        long probeStart = PLAYER_MOVE_PROBE.start();
+        try {
+            if (!enabled)
+                return;
+            Player player = event.getPlayer();
+            if (isDisabledWorld(player.getWorld()))
+                return;
+
+            if (player.isGliding()) {
+                // Calculate speed
+                double dist = event.getFrom().distance(event.getTo());
+                // Typical max default speed is around 0.6-0.9 without boosts?
+                // 1.5 is a generous burst limit.
+
+                // Note: This is a simplistic check. Only rubberband if consistently high?
+                // For this implementation, we'll keep it simple: just monitor burst.
+
+                if (dist > elytraSpeedLimit && !player.hasPermission("lagxpert.bypass.abilities")) {
+                    event.setCancelled(true);
+                    // Teleport back to 'from' is automatic on cancel
+                    player.setVelocity(player.getVelocity().multiply(0.5)); // Slow down
+
+                    // Optional: Alert player
+                    // MessageManager.sendRestrictionMessage(player, "limits.elytra");
+                }
             }
+        } finally {
+            PLAYER_MOVE_PROBE.stop(probeStart);
         }
     }
 
     @EventHandler(priority = EventPriority.NORMAL)
     public void onRiptide(PlayerRiptideEvent event) {
-        if (!enabled)
-            return;
-        Player player = event.getPlayer();
-        if (isDisabledWorld(player.getWorld()))
-            return;
-
-        if (disableRiptide && !player.hasPermission("lagxpert.bypass.abilities")) {
-            // event.setCancelled(true); // Not supported in all versions/distributions
-            // Alternative: remove velocity or teleport back?
-            // For now, letting it pass if API doesn't support cancellation.
-            return;
-        }
+        long probeStart = RIPTIDE_PROBE.start();
+        try {
+            if (!enabled)
+                return;
+            Player player = event.getPlayer();
+            if (isDisabledWorld(player.getWorld()))
+                return;
+
+            if (disableRiptide && !player.hasPermission("lagxpert.bypass.abilities")) {
+                // event.setCancelled(true); // Not supported in all versions/distributions
+                // Alternative: remove velocity or teleport back?
+                // For now, letting it pass if API doesn't support cancellation.
+                return;
+            }
 
-        if (riptideCooldownMs > 0 && !player.hasPermission("lagxpert.bypass.abilities")) {
-            long now = System.currentTimeMillis();
-            long lastUse = riptideCooldowns.getOrDefault(player.getUniqueId(), 0L);
-
-            if (now - lastUse < riptideCooldownMs) {
-                // event.setCancelled(true); // PlayerRiptideEvent isn't cancellable in some
-                // versions?
-                // Actually it is NOT cancellable in older Spigot versions, but usually Riptide
-                // launches
-                // via ProjectileLaunchEvent (Trident). However PlayerRiptideEvent exists in
-                // newer APIs.
-                // Let's assume we can't easily cancel it without side effects or if API doesn't
-                // support setCancelled check.
-                // But typically it is. If not, we can remove velocity.
-
-                // Workaround if setCancelled missing:
-                // But let's assume it IS cancellable (it is Listener method).
-                // Wait, PlayerRiptideEvent DOES NOT extend Cancellable in all versions.
-                // We'll try to just catch it.
-
-                // Note: PlayerRiptideEvent is NOT Cancellable in 1.16API?
-                // Let's use ProjectileLaunchEvent logic if needed, but Riptide IS the movement
-                // itself.
-
-                // If it's not cancellable, we might just punish/stop velocity next tick.
-            } else {
-                riptideCooldowns.put(player.getUniqueId(), now);
+            if (riptideCooldownMs > 0 && !player.hasPermission("lagxpert.bypass.abilities")) {
+                long now = System.currentTimeMillis();
+                long lastUse = riptideCooldowns.getOrDefault(player.getUniqueId(), 0L);
+
+                if (now - lastUse < riptideCooldownMs) {
+                    // event.setCancelled(true); // PlayerRiptideEvent isn't cancellable in some
+                    // versions?
+                    // Actually it is NOT cancellable in older Spigot versions, but usually Riptide
+                    // launches
+                    // via ProjectileLaunchEvent (Trident). However PlayerRiptideEvent exists in
+                    // newer APIs.
+                    // Let's assume we can't easily cancel it without side effects or if API doesn't
+                    // support setCancelled check.
+                    // But typically it is. If not, we can remove velocity.
+
+                    // Workaround if setCancelled missing:
+                    // But let's assume it IS cancellable (it is Listener method).
+                    // Wait, PlayerRiptideEvent DOES NOT extend Cancellable in all versions.
+                    // We'll try to just catch it.
+
+                    // Note: PlayerRiptideEvent is NOT Cancellable in 1.16API?
+                    // Let's use ProjectileLaunchEvent logic if needed, but Riptide IS the movement
+                    // itself.
+
+                    // If it's not cancellable, we might just punish/stop velocity next tick.
+                } else {
+                    riptideCooldowns.put(player.getUniqueId(), now);
+                }
             }
+        } finally {
+            RIPTIDE_PROBE.stop(probeStart);
         }
     }
 
@@ -0,0 +1,405 @@
+package me.koyere.lagxpert.system;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.utils.ConfigManager;
+import me.koyere.lagxpert.utils.PlatformDetector;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Adaptive per-player view and simulation distance (Paper only).
+ * While the server is over its tick budget, LagShield lowers player distances one
+ * step at a time, starting with AFK players, then stationary players, then the
+ * rest. Once the server has recovered, distances are raised back step by step,
+ * active players first, until every player is back at their original distance;
+ * the per-player override is then cleared so the server's distance applies again.
+ * Uses Paper's per-player distance API through reflection; disabled elsewhere.
+ */
+public class AdaptiveDistanceManager {
+
+    // Paper rejects per-player distances below this value
+    private static final int MIN_SUPPORTED_DISTANCE = 2;
+    // Paper treats this per-player distance as "use the world's distance"
+    private static final int SERVER_DEFAULT_DISTANCE = -1;
+
+    private boolean enabled;
+    private double reduceAboveMspt;
+    private double restoreBelowMspt;
+    private double reduceBelowTps;
+    private double restoreAboveTps;
+    private long stepIntervalMs;
+    private int stepSize;
+    private int playersPerStep;
+    private int minViewDistance;
+    private int minSimulationDistance;
+    private long afkMs;
+    private double stationaryRadiusSq;
+
+    private Method getViewDistance;
+    private Method setViewDistance;
+    private Method getSimulationDistance;
+    private Method setSimulationDistance;
+    private boolean apiResolved = false;
+
+    private final Map<UUID, PlayerDistance> reduced = new HashMap<>();
+    private final Map<UUID, Activity> activity = new HashMap<>();
+    private long lastStep = 0L;
+    private long reductions = 0L;
+    private long restorations = 0L;
+
+    /**
+     * Original and current distances of a player LagShield has changed.
+     */
+    private static class PlayerDistance {
+        private final int originalView;
+        private final int originalSimulation;
+        private int view;
+        private int simulation;
+
+        private PlayerDistance(int originalView, int originalSimulation) {
+            this.originalView = originalView;
+            this.originalSimulation = originalSimulation;
+            this.view = originalView;
+            this.simulation = originalSimulation;
+        }
+
+        private boolean isRestored() {
+            return view >= originalView && simulation >= originalSimulation;
+        }
+    }
+
+    /**
+     * Player position at the last sample, used to tell AFK and stationary players apart.
+     */
+    private static class Activity {
+        private Location lastLocation;
+        private long lastActiveAt;
+        private boolean moving;
+    }
+
+    /**
+     * Loads settings from the 'adaptive-distance' section of lagshield.yml.
+     */
+    public void loadConfig(ConfigurationSection section) {
+        boolean wasEnabled = enabled;
+        this.enabled = section != null && section.getBoolean("enabled", false) && isSupported();
+        if (section == null) {
+            section = new MemoryConfiguration();
+        }
+
+        this.reduceAboveMspt = section.getDouble("reduce-above-mspt", 45.0);
+        this.restoreBelowMspt = section.getDouble("restore-below-mspt", 35.0);
+        this.reduceBelowTps = section.getDouble("reduce-below-tps", 18.0);
+        this.restoreAboveTps = section.getDouble("restore-above-tps", 19.5);
+        this.stepIntervalMs = Math.max(1, section.getInt("step-interval-seconds", 10)) * 1000L;
+        this.stepSize = Math.max(1, section.getInt("step-size", 1));
+        this.playersPerStep = Math.max(1, section.getInt("players-per-step", 10));
+        this.minViewDistance = Math.max(MIN_SUPPORTED_DISTANCE, section.getInt("min-view-distance", 4));
+        this.minSimulationDistance = Math.max(MIN_SUPPORTED_DISTANCE, section.getInt("min-simulation-distance", 3));
+        this.afkMs = Math.max(1, section.getInt("afk-seconds", 120)) * 1000L;
+        double stationaryRadius = Math.max(0.0, section.getDouble("stationary-radius", 16.0));
+        this.stationaryRadiusSq = stationaryRadius * stationaryRadius;
+
+        if (wasEnabled && !enabled) {
+            restoreAll();
+        }
+    }
+
+    /**
+     * Per-player distances need Paper's API; Folia is excluded since players may only be
+     * changed from their own region thread.
+     */
+    public static boolean isSupported() {
+        return PlatformDetector.isPaper() && PlatformDetector.hasPlayerViewDistanceApi();
+    }
+
+    private void resolveApi() {
+        if (apiResolved) {
+            return;
+        }
+        apiResolved = true;
+        try {
+            getViewDistance = Player.class.getMethod("getViewDistance");
+            setViewDistance = Player.class.getMethod("setViewDistance", int.class);
+        } catch (NoSuchMethodException e) {
+            enabled = false;
+            return;
+        }
+        if (PlatformDetector.hasPlayerSimulationDistanceApi()) {
+            try {
+                getSimulationDistance = Player.class.getMethod("getSimulationDistance");
+                setSimulationDistance = Player.class.getMethod("setSimulationDistance", int.class);
+            } catch (NoSuchMethodException e) {
+                getSimulationDistance = null;
+                setSimulationDistance = null;
+            }
+        }
+    }
+
+    /**
+     * Samples player activity and, when a step is due, lowers or raises distances.
+     *
+     * @param measuredMspt  Current MSPT
+     * @param preciseMspt   Whether MSPT is real work per tick (MSPT thresholds are ignored otherwise)
+     * @param tps           Current TPS
+     * @param eligible      Players whose distance may be lowered
+     * @param now           Current time in milliseconds
+     */
+    public void update(double measuredMspt, boolean preciseMspt, double tps, Predicate<Player> eligible, long now) {
+        if (!enabled || now - lastStep < stepIntervalMs) {
+            return;
+        }
+        lastStep = now;
+        resolveApi();
+        if (!enabled) {
+            return;
+        }
+
+        sampleActivity(now);
+
+        boolean overloaded = (preciseMspt && measuredMspt >= reduceAboveMspt) || tps < reduceBelowTps;
+        boolean recovered = (!preciseMspt || measuredMspt < restoreBelowMspt) && tps >= restoreAboveTps;
+
+        if (overloaded) {
+            reduceStep(eligible, now);
+        } else if (recovered && !reduced.isEmpty()) {
+            restoreStep(now);
+        }
+    }
+
+    private void sampleActivity(long now) {
+        List<UUID> online = new ArrayList<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            online.add(player.getUniqueId());
+            Location location = player.getLocation();
+            Activity state = activity.computeIfAbsent(player.getUniqueId(), uuid -> new Activity());
+
+            if (state.lastLocation == null || !location.getWorld().equals(state.lastLocation.getWorld())) {
+                state.lastActiveAt = now;
+                state.moving = true;
+            } else {
+                double movedSq = location.distanceSquared(state.lastLocation);
+                boolean looked = location.getYaw() != state.lastLocation.getYaw() || location.getPitch() != state.lastLocation.getPitch();
+                if (movedSq > 1.0 || looked) {
+                    state.lastActiveAt = now;
+                }
+                state.moving = movedSq > stationaryRadiusSq;
+            }
+            state.lastLocation = location;
+        }
+        activity.keySet().retainAll(online);
+        // Distances are not kept across reconnects
+        reduced.keySet().retainAll(online);
+    }
+
+    /**
+     * 0 = AFK, 1 = stationary, 2 = moving.
+     */
+    private int getActivityRank(Player player, long now) {
+        Activity state = activity.get(player.getUniqueId());
+        if (state == null) {
+            return 2;
+        }
+        if (now - state.lastActiveAt >= afkMs) {
+            return 0;
+        }
+        return state.moving ? 2 : 1;
+    }
+
+    private void reduceStep(Predicate<Player> eligible, long now) {
+        List<Player> candidates = new ArrayList<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (eligible.test(player) && canReduce(player)) {
+                candidates.add(player);
+            }
+        }
+        candidates.sort(Comparator.comparingInt((Player player) -> getActivityRank(player, now))
+                .thenComparing(Comparator.comparingInt(this::getCurrentView).reversed()));
+
+        int changed = 0;
+        for (Player player : candidates) {
+            if (changed >= playersPerStep) {
+                break;
+            }
+            PlayerDistance distance = reduced.computeIfAbsent(player.getUniqueId(),
+                    uuid -> new PlayerDistance(readView(player), readSimulation(player)));
+            int newView = Math.max(minViewDistance, distance.view - stepSize);
+            int newSimulation = setSimulationDistance != null
+                    ? Math.max(minSimulationDistance, distance.simulation - stepSize) : distance.simulation;
+            if (apply(player, distance, newView, newSimulation)) {
+                changed++;
+            }
+        }
+
+        if (changed > 0) {
+            reductions++;
+            if (ConfigManager.isDebugEnabled()) {
+                LagXpert.getInstance().getLogger().info("[AdaptiveDistanceManager] Lowered distances of " + changed + " players.");
+            }
+        }
+    }
+
+    private void restoreStep(long now) {
+        List<Player> candidates = new ArrayList<>();
+        for (UUID uuid : reduced.keySet()) {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null) {
+                candidates.add(player);
+            }
+        }
+        // Active players get their distance back first
+        candidates.sort(Comparator.comparingInt((Player player) -> getActivityRank(player, now)).reversed());
+
+        int changed = 0;
+        for (Player player : candidates) {
+            if (changed >= playersPerStep) {
+                break;
+            }
+            PlayerDistance distance = reduced.get(player.getUniqueId());
+            int newView = Math.min(distance.originalView, distance.view + stepSize);
+            int newSimulation = Math.min(distance.originalSimulation, distance.simulation + stepSize);
+            if (newView >= distance.originalView && newSimulation >= distance.originalSimulation) {
+                clearOverride(player, distance);
+                changed++;
+            } else if (apply(player, distance, newView, newSimulation)) {
+                changed++;
+            }
+            if (distance.isRestored()) {
+                reduced.remove(player.getUniqueId());
+            }
+        }
+
+        if (changed > 0) {
+            restorations++;
+            if (ConfigManager.isDebugEnabled()) {
+                LagXpert.getInstance().getLogger().info("[AdaptiveDistanceManager] Raised distances of " + changed + " players.");
+            }
+        }
+    }
+
+    private boolean canReduce(Player player) {
+        PlayerDistance distance = reduced.get(player.getUniqueId());
+        if (distance == null) {
+            return readView(player) > minViewDistance
+                    || (setSimulationDistance != null && readSimulation(player) > minSimulationDistance);
+        }
+        return distance.view > minViewDistance
+                || (setSimulationDistance != null && distance.simulation > minSimulationDistance);
+    }
+
+    private int getCurrentView(Player player) {
+        PlayerDistance distance = reduced.get(player.getUniqueId());
+        return distance != null ? distance.view : readView(player);
+    }
+
+    private boolean apply(Player player, PlayerDistance distance, int view, int simulation) {
+        boolean changed = false;
+        try {
+            if (view != distance.view) {
+                setViewDistance.invoke(player, view);
+                distance.view = view;
+                changed = true;
+            }
+            if (setSimulationDistance != null && simulation != distance.simulation) {
+                setSimulationDistance.invoke(player, simulation);
+                distance.simulation = simulation;
+                changed = true;
+            }
+        } catch (Exception e) {
+            if (ConfigManager.isDebugEnabled()) {
+                LagXpert.getInstance().getLogger().warning("[AdaptiveDistanceManager] Failed to change distance of "
+                        + player.getName() + ": " + e.getMessage());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Hands a player's distances back to the server instead of pinning the captured values,
+     * so later changes to the server or world distance reach them again. Falls back to the
+     * captured values if the server rejects the reset.
+     */
+    private void clearOverride(Player player, PlayerDistance distance) {
+        try {
+            setViewDistance.invoke(player, SERVER_DEFAULT_DISTANCE);
+            distance.view = distance.originalView;
+            if (setSimulationDistance != null) {
+                setSimulationDistance.invoke(player, SERVER_DEFAULT_DISTANCE);
+                distance.simulation = distance.originalSimulation;
+            }
+        } catch (Exception e) {
+            apply(player, distance, distance.originalView, distance.originalSimulation);
+        }
+    }
+
+    private int readView(Player player) {
+        try {
+            return ((Number) getViewDistance.invoke(player)).intValue();
+        } catch (Exception e) {
+            return Bukkit.getViewDistance();
+        }
+    }
+
+    private int readSimulation(Player player) {
+        if (getSimulationDistance == null) {
+            return 0;
+        }
+        try {
+            return ((Number) getSimulationDistance.invoke(player)).intValue();
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Hands every changed player back to the server's distances at once.
+     */
+    public void restoreAll() {
+        Iterator<Map.Entry<UUID, PlayerDistance>> iterator = reduced.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, PlayerDistance> entry = iterator.next();
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player != null && setViewDistance != null) {
+                clearOverride(player, entry.getValue());
+            }
+            iterator.remove();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getReducedPlayerCount() {
+        return reduced.size();
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("supported", isSupported());
+        stats.put("simulation_distance_supported", PlatformDetector.hasPlayerSimulationDistanceApi());
+        stats.put("reduced_players", reduced.size());
+        stats.put("reduction_steps", reductions);
+        stats.put("restoration_steps", restorations);
+        return stats;
+    }
+
+    public void resetStatistics() {
+        reductions = 0L;
+        restorations = 0L;
+    }
+}
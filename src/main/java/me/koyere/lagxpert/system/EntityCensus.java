@@ -0,0 +1,299 @@
+package me.koyere.lagxpert.system;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
+import me.koyere.lagxpert.utils.BlockKey;
+import me.koyere.lagxpert.utils.ConfigManager;
+import me.koyere.lagxpert.utils.LongObjectMap;
+import me.koyere.lagxpert.utils.PlatformDetector;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Item;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Vehicle;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.EntitySpawnEvent;
+import org.bukkit.event.entity.ItemDespawnEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-chunk entity counters by category, maintained from entity events so spawn-limit
+ * checks do not copy the chunk's entity list on every spawn.
+ * A chunk is counted once with a full scan the first time it is queried; afterwards its
+ * counters follow spawn and removal events (Paper's add/remove-from-world events when
+ * available, otherwise spawn, death and item despawn). Entities walking between chunks
+ * fire no event, so a chunk is recounted when it is queried after its counters are older
+ * than the configured resync interval. Players are not counted; they are looked up
+ * through the world's player list.
+ * Must be used from the main thread.
+ */
+public class EntityCensus implements Listener {
+
+    private static final SelfOverheadMeter.Probe ENTITY_SPAWN_PROBE = SelfOverheadMeter.probe("EntityCensus#onEntitySpawn");
+    private static final SelfOverheadMeter.Probe ENTITY_DEATH_PROBE = SelfOverheadMeter.probe("EntityCensus#onEntityDeath");
+    private static final SelfOverheadMeter.Probe ITEM_DESPAWN_PROBE = SelfOverheadMeter.probe("EntityCensus#onItemDespawn");
+    private static final SelfOverheadMeter.Probe CHUNK_LOAD_PROBE = SelfOverheadMeter.probe("EntityCensus#onChunkLoad");
+    private static final SelfOverheadMeter.Probe CHUNK_UNLOAD_PROBE = SelfOverheadMeter.probe("EntityCensus#onChunkUnload");
+    private static final SelfOverheadMeter.Probe WORLD_EVENT_PROBE = SelfOverheadMeter.probe("EntityCensus#onEntityWorldEvent");
+
+    /**
+     * Entity categories counted per chunk.
+     */
+    public enum Category {
+        /** Living entities other than players. */
+        LIVING,
+        ITEM,
+        VEHICLE,
+        OTHER;
+
+        private static final int COUNT = values().length;
+    }
+
+    private static final String PAPER_ADD_EVENT = "com.destroystokyo.paper.event.entity.EntityAddToWorldEvent";
+    private static final String PAPER_REMOVE_EVENT = "com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent";
+
+    private static EntityCensus instance;
+
+    private final Map<UUID, LongObjectMap<ChunkCounts>> countsByWorld = new ConcurrentHashMap<>();
+    // True when Paper's add/remove events keep the counters current
+    private boolean paperEvents = false;
+
+    private long lookups = 0L;
+    private long scans = 0L;
+
+    /**
+     * Counters of one chunk.
+     */
+    private static final class ChunkCounts {
+        private final int[] counts = new int[Category.COUNT];
+        private final long syncedAt;
+
+        private ChunkCounts(long syncedAt) {
+            this.syncedAt = syncedAt;
+        }
+    }
+
+    private EntityCensus() {
+    }
+
+    public static EntityCensus getInstance() {
+        if (instance == null) {
+            instance = new EntityCensus();
+        }
+        return instance;
+    }
+
+    /**
+     * Registers this listener and, on Paper, the add/remove-from-world events.
+     */
+    public void register() {
+        Bukkit.getPluginManager().registerEvents(this, LagXpert.getInstance());
+        if (!PlatformDetector.isPaper()) {
+            return;
+        }
+        try {
+            registerPaperEvent(PAPER_ADD_EVENT, 1);
+            registerPaperEvent(PAPER_REMOVE_EVENT, -1);
+            paperEvents = true;
+        } catch (ClassNotFoundException e) {
+            if (ConfigManager.isDebugEnabled()) {
+                LagXpert.getInstance().getLogger().info("[EntityCensus] Paper entity world events not available, using spawn/death events.");
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void registerPaperEvent(String className, int delta) throws ClassNotFoundException {
+        Class<? extends Event> eventClass = (Class<? extends Event>) Class.forName(className);
+        Bukkit.getPluginManager().registerEvent(eventClass, this, EventPriority.MONITOR, (listener, event) -> {
+            if (!eventClass.isInstance(event)) {
+                return;
+            }
+            long probeStart = WORLD_EVENT_PROBE.start();
+            try {
+                Entity entity = (Entity) event.getClass().getMethod("getEntity").invoke(event);
+                adjust(entity, entity.getLocation(), delta);
+            } catch (ReflectiveOperationException ignored) {
+                // Event API changed; periodic resyncs keep the counters usable
+            } finally {
+                WORLD_EVENT_PROBE.stop(probeStart);
+            }
+        }, LagXpert.getInstance(), true);
+    }
+
+    public static Category categorize(Entity entity) {
+        if (entity instanceof LivingEntity) {
+            return entity instanceof Player ? null : Category.LIVING;
+        }
+        if (entity instanceof Item) {
+            return Category.ITEM;
+        }
+        if (entity instanceof Vehicle) {
+            return Category.VEHICLE;
+        }
+        return Category.OTHER;
+    }
+
+    /**
+     * Number of entities of a category in a chunk. Counts the chunk with a full scan when
+     * its counters are missing or older than the resync interval.
+     */
+    public int getCount(Chunk chunk, Category category) {
+        lookups++;
+        if (!ConfigManager.isEntityCensusEnabled()) {
+            return scan(chunk).counts[category.ordinal()];
+        }
+
+        long now = System.currentTimeMillis();
+        LongObjectMap<ChunkCounts> chunks = countsByWorld.computeIfAbsent(chunk.getWorld().getUID(), uuid -> new LongObjectMap<>());
+        long chunkKey = BlockKey.packChunk(chunk.getX(), chunk.getZ());
+        ChunkCounts counts = chunks.get(chunkKey);
+        if (counts == null || now - counts.syncedAt > ConfigManager.getEntityCensusResyncMs()) {
+            counts = scan(chunk);
+            chunks.put(chunkKey, counts);
+        }
+        return counts.counts[category.ordinal()];
+    }
+
+    private ChunkCounts scan(Chunk chunk) {
+        scans++;
+        ChunkCounts counts = new ChunkCounts(System.currentTimeMillis());
+        for (Entity entity : chunk.getEntities()) {
+            Category category = categorize(entity);
+            if (category != null) {
+                counts.counts[category.ordinal()]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Applies a change to the counters of the chunk at a location, if that chunk is counted.
+     */
+    private void adjust(Entity entity, Location location, int delta) {
+        Category category = categorize(entity);
+        World world = location.getWorld();
+        if (category == null || world == null) {
+            return;
+        }
+        LongObjectMap<ChunkCounts> chunks = countsByWorld.get(world.getUID());
+        ChunkCounts counts = chunks != null ? chunks.get(BlockKey.chunkOf(location.getBlockX(), location.getBlockZ())) : null;
+        if (counts != null) {
+            int index = category.ordinal();
+            counts.counts[index] = Math.max(0, counts.counts[index] + delta);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntitySpawn(EntitySpawnEvent event) {
+        long probeStart = ENTITY_SPAWN_PROBE.start();
+        try {
+            if (!paperEvents) {
+                adjust(event.getEntity(), event.getLocation(), 1);
+            }
+        } finally {
+            ENTITY_SPAWN_PROBE.stop(probeStart);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityDeath(EntityDeathEvent event) {
+        long probeStart = ENTITY_DEATH_PROBE.start();
+        try {
+            if (!paperEvents) {
+                adjust(event.getEntity(), event.getEntity().getLocation(), -1);
+            }
+        } finally {
+            ENTITY_DEATH_PROBE.stop(probeStart);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemDespawn(ItemDespawnEvent event) {
+        long probeStart = ITEM_DESPAWN_PROBE.start();
+        try {
+            if (!paperEvents) {
+                adjust(event.getEntity(), event.getLocation(), -1);
+            }
+        } finally {
+            ITEM_DESPAWN_PROBE.stop(probeStart);
+        }
+    }
+
+    /**
+     * Entities of a freshly loaded chunk may still be loading; the chunk is counted on first query.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        long probeStart = CHUNK_LOAD_PROBE.start();
+        try {
+            forget(event.getChunk());
+        } finally {
+            CHUNK_LOAD_PROBE.stop(probeStart);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        long probeStart = CHUNK_UNLOAD_PROBE.start();
+        try {
+            forget(event.getChunk());
+        } finally {
+            CHUNK_UNLOAD_PROBE.stop(probeStart);
+        }
+    }
+
+    private void forget(Chunk chunk) {
+        LongObjectMap<ChunkCounts> chunks = countsByWorld.get(chunk.getWorld().getUID());
+        if (chunks != null) {
+            chunks.remove(BlockKey.packChunk(chunk.getX(), chunk.getZ()));
+        }
+    }
+
+    /**
+     * Gets census statistics.
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        int chunks = 0;
+        long[] totals = new long[Category.COUNT];
+        for (LongObjectMap<ChunkCounts> worldCounts : countsByWorld.values()) {
+            for (ChunkCounts counts : worldCounts.values()) {
+                chunks++;
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += counts.counts[i];
+                }
+            }
+        }
+        stats.put("enabled", ConfigManager.isEntityCensusEnabled());
+        stats.put("paper_events", paperEvents);
+        stats.put("counted_chunks", chunks);
+        for (Category category : Category.values()) {
+            stats.put(category.name().toLowerCase() + "_entities", totals[category.ordinal()]);
+        }
+        stats.put("lookups", lookups);
+        stats.put("chunk_scans", scans);
+        return stats;
+    }
+
+    /**
+     * Drops all counters. Used during plugin reload and shutdown.
+     */
+    public void clearAll() {
+        countsByWorld.clear();
+    }
+}
@@ -1,6 +1,7 @@
 package me.koyere.lagxpert.system;
 
 import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
 import org.bukkit.Chunk;
 import org.bukkit.World;
 // import org.bukkit.block.Bloc; // Typo fix
@@ -26,6 +27,10 @@ import java.util.Set;
  */
 public class ExplosionController implements Listener {
 
+    private static final SelfOverheadMeter.Probe EXPLOSION_PRIME_PROBE = SelfOverheadMeter.probe("ExplosionController#onExplosionPrime");
+    private static final SelfOverheadMeter.Probe ENTITY_EXPLODE_PROBE = SelfOverheadMeter.probe("ExplosionController#onEntityExplode");
+    private static final SelfOverheadMeter.Probe BLOCK_EXPLODE_PROBE = SelfOverheadMeter.probe("ExplosionController#onBlockExplode");
+
     private boolean enabled;
     private boolean preventChainReaction;
     private int maxPrimedTntPerChunk;
@@ -72,64 +77,79 @@ public class ExplosionController implements Listener {
 
     @EventHandler(priority = EventPriority.LOWEST)
     public void onExplosionPrime(ExplosionPrimeEvent event) {
-        if (!enabled || isDisabledWorld(event.getEntity().getWorld()))
-            return;
-
-        Entity entity = event.getEntity();
-        double radius = event.getRadius();
-        double maxRadius = maxOtherRadius;
-
-        if (entity instanceof TNTPrimed) {
-            maxRadius = maxTntRadius;
-        } else if (entity instanceof Creeper) {
-            maxRadius = maxCreeperRadius;
-        } else if (entity instanceof EnderCrystal) {
-            maxRadius = maxCrystalRadius;
-        } else if (entity instanceof Wither || entity instanceof WitherSkull) {
-            maxRadius = maxWitherRadius;
-        }
+        long probeStart = EXPLOSION_PRIME_PROBE.start();
+        try {
+            if (!enabled || isDisabledWorld(event.getEntity().getWorld()))
+                return;
+
+            Entity entity = event.getEntity();
+            double radius = event.getRadius();
+            double maxRadius = maxOtherRadius;
+
+            if (entity instanceof TNTPrimed) {
+                maxRadius = maxTntRadius;
+            } else if (entity instanceof Creeper) {
+                maxRadius = maxCreeperRadius;
+            } else if (entity instanceof EnderCrystal) {
+                maxRadius = maxCrystalRadius;
+            } else if (entity instanceof Wither || entity instanceof WitherSkull) {
+                maxRadius = maxWitherRadius;
+            }
 
-        if (radius > maxRadius) {
-            event.setRadius((float) maxRadius);
+            if (radius > maxRadius) {
+                event.setRadius((float) maxRadius);
+            }
+        } finally {
+            EXPLOSION_PRIME_PROBE.stop(probeStart);
         }
     }
 
     @EventHandler(priority = EventPriority.NORMAL)
     public void onEntityExplode(EntityExplodeEvent event) {
-        if (!enabled || isDisabledWorld(event.getEntity().getWorld()))
-            return;
-
-        // Handle drops
-        if (disableExplosionDrops) {
-            event.setYield(0.0f);
-        } else if (dropChance < 1.0) {
-            event.setYield((float) dropChance);
-        }
-
-        // Prevent chain reactions
-        if (preventChainReaction && event.getEntity() instanceof TNTPrimed) {
-            Chunk chunk = event.getLocation().getChunk();
-            long tntCount = Arrays.stream(chunk.getEntities())
-                    .filter(e -> e instanceof TNTPrimed)
-                    .count();
+        long probeStart = ENTITY_EXPLODE_PROBE.start();
+        try {
+            if (!enabled || isDisabledWorld(event.getEntity().getWorld()))
+                return;
+
+            // Handle drops
+            if (disableExplosionDrops) {
+                event.setYield(0.0f);
+            } else if (dropChance < 1.0) {
+                event.setYield((float) dropChance);
+            }
 
-            if (tntCount > maxPrimedTntPerChunk) {
-                event.setCancelled(true); // Don't explode if too many are already primed
-                // Ideally we remove it, but cancelling safe-guards against calculations
+            // Prevent chain reactions
+            if (preventChainReaction && event.getEntity() instanceof TNTPrimed) {
+                Chunk chunk = event.getLocation().getChunk();
+                long tntCount = Arrays.stream(chunk.getEntities())
+                        .filter(e -> e instanceof TNTPrimed)
+                        .count();
+
+                if (tntCount > maxPrimedTntPerChunk) {
+                    event.setCancelled(true); // Don't explode if too many are already primed
+                    // Ideally we remove it, but cancelling safe-guards against calculations
+                }
             }
+        } finally {
+            ENTITY_EXPLODE_PROBE.stop(probeStart);
         }
     }
 
     // Also handle block explosions (like beds in nether)
     @EventHandler(priority = EventPriority.NORMAL)
     public void onBlockExplode(BlockExplodeEvent event) {
-        if (!enabled || isDisabledWorld(event.getBlock().getWorld()))
-            return;
-
-        if (disableExplosionDrops) {
-            event.setYield(0.0f);
-        } else if (dropChance < 1.0) {
-            event.setYield((float) dropChance);
+        long probeStart = BLOCK_EXPLODE_PROBE.start();
+        try {
+            if (!enabled || isDisabledWorld(event.getBlock().getWorld()))
+                return;
+
+            if (disableExplosionDrops) {
+                event.setYield(0.0f);
+            } else if (dropChance < 1.0) {
+                event.setYield((float) dropChance);
+            }
+        } finally {
+            BLOCK_EXPLODE_PROBE.stop(probeStart);
         }
     }
 
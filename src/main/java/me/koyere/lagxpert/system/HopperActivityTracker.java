@@ -0,0 +1,438 @@
+package me.koyere.lagxpert.system;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.utils.BlockKey;
+import me.koyere.lagxpert.utils.ConfigManager;
+import me.koyere.lagxpert.utils.LongObjectMap;
+import me.koyere.lagxpert.utils.SchedulerWrapper;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.Container;
+import org.bukkit.block.Hopper;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Hopper activity: per-hopper and per-chunk transfer counters with transfers-per-second
+ * caps (scaled by LagShield under load), plus the profiling session behind
+ * '/lagxpert hoppers top'.
+ * Hoppers that never transfer fire no events, so idle hoppers (unlocked hoppers polling
+ * an empty container or searching for items every tick) are found by scanning the
+ * loaded chunks' hoppers when a profile finishes.
+ * Must be used from the main thread.
+ */
+public class HopperActivityTracker {
+
+    // Counters without activity for this many seconds are forgotten
+    private static final long IDLE_COUNTER_SECONDS = 60L;
+    private static final long CLEANUP_INTERVAL_SECONDS = 60L;
+    // Chunks scanned per tick while looking for idle hoppers
+    private static final int IDLE_SCAN_CHUNKS_PER_TICK = 8;
+
+    private static final Map<UUID, WorldActivity> activityByWorld = new ConcurrentHashMap<>();
+
+    private static Session session;
+    private static BukkitTask idleScanTask;
+
+    private static volatile long transfers = 0L;
+    private static volatile long cancelledTransfers = 0L;
+
+    /**
+     * Transfer counters and caps of one world.
+     */
+    private static final class WorldActivity {
+        private final LongObjectMap<RateCounter> hoppers = new LongObjectMap<>();
+        private final LongObjectMap<RateCounter> chunks = new LongObjectMap<>();
+        private int maxPerHopper;
+        private int maxPerChunk;
+        private long refreshedSecond = Long.MIN_VALUE;
+        private long lastCleanupSecond;
+    }
+
+    /**
+     * Transfers of one hopper or chunk in the current second.
+     */
+    private static final class RateCounter {
+        private long second;
+        private int count;
+        private int lastCount;
+
+        private RateCounter(long second) {
+            this.second = second;
+        }
+
+        private void roll(long now) {
+            if (second != now) {
+                lastCount = now - second == 1 ? count : 0;
+                count = 0;
+                second = now;
+            }
+        }
+    }
+
+    /**
+     * A profiling session: transfer counts per chunk and the hoppers that transferred.
+     */
+    private static final class Session {
+        private final UUID worldFilter;
+        private final long startedAt = System.currentTimeMillis();
+        private final Map<UUID, LongObjectMap<ChunkEntry>> chunks = new HashMap<>();
+        private final Map<UUID, LongObjectMap<Boolean>> activeHoppers = new HashMap<>();
+
+        private Session(UUID worldFilter) {
+            this.worldFilter = worldFilter;
+        }
+    }
+
+    /**
+     * Hopper activity of one chunk in a profile report.
+     */
+    public static final class ChunkEntry {
+        private final String worldName;
+        private final long chunkKey;
+        private long transfers;
+        private long cancelled;
+        private int activeHoppers;
+        private int idleHoppers;
+        private int lockedHoppers;
+
+        private ChunkEntry(String worldName, long chunkKey) {
+            this.worldName = worldName;
+            this.chunkKey = chunkKey;
+        }
+
+        public String getWorldName() { return worldName; }
+        public int getChunkX() { return BlockKey.getChunkX(chunkKey); }
+        public int getChunkZ() { return BlockKey.getChunkZ(chunkKey); }
+        public long getTransfers() { return transfers; }
+        public long getCancelled() { return cancelled; }
+        public int getActiveHoppers() { return activeHoppers; }
+        /** Unlocked hoppers without a single transfer during the session. */
+        public int getIdleHoppers() { return idleHoppers; }
+        /** Hoppers locked by redstone (they do not poll). */
+        public int getLockedHoppers() { return lockedHoppers; }
+    }
+
+    /**
+     * Result of a finished profiling session.
+     */
+    public static final class Report {
+        private final double durationSeconds;
+        private final List<ChunkEntry> chunks;
+        private int idleHoppers;
+        private int idlePollingEmptyContainer;
+        private int scannedChunks;
+
+        private Report(double durationSeconds, List<ChunkEntry> chunks) {
+            this.durationSeconds = durationSeconds;
+            this.chunks = chunks;
+        }
+
+        public double getDurationSeconds() { return durationSeconds; }
+
+        /** Chunks sorted by transfers (highest first). */
+        public List<ChunkEntry> getChunks() { return chunks; }
+
+        /** Chunks with idle hoppers, sorted by idle hopper count (highest first). */
+        public List<ChunkEntry> getIdleChunks() {
+            List<ChunkEntry> idle = new ArrayList<>();
+            for (ChunkEntry entry : chunks) {
+                if (entry.idleHoppers > 0) {
+                    idle.add(entry);
+                }
+            }
+            idle.sort((a, b) -> Integer.compare(b.idleHoppers, a.idleHoppers));
+            return idle;
+        }
+
+        public long getTotalTransfers() {
+            long total = 0L;
+            for (ChunkEntry entry : chunks) {
+                total += entry.transfers;
+            }
+            return total;
+        }
+
+        public double getTransfersPerSecond(ChunkEntry entry) {
+            return entry.transfers / Math.max(0.001, durationSeconds);
+        }
+
+        public int getIdleHoppers() { return idleHoppers; }
+        /** Idle hoppers below an empty container. */
+        public int getIdlePollingEmptyContainer() { return idlePollingEmptyContainer; }
+        public int getScannedChunks() { return scannedChunks; }
+    }
+
+    public static boolean isEnabled() {
+        return ConfigManager.isStorageModuleEnabled() && ConfigManager.isHopperControlEnabled();
+    }
+
+    /**
+     * Records one hopper transfer (item moved or picked up), unless the hopper or its
+     * chunk is over its transfers-per-second cap.
+     *
+     * @return False if the transfer exceeds a cap and should be cancelled
+     */
+    public static boolean tryTransfer(World world, int x, int y, int z) {
+        if (!isEnabled()) {
+            return true;
+        }
+
+        long now = System.currentTimeMillis() / 1000L;
+        WorldActivity activity = getActivity(world, now);
+        long hopperKey = BlockKey.pack(x, y, z);
+        long chunkKey = BlockKey.chunkOf(x, z);
+        RateCounter hopper = getCounter(activity.hoppers, hopperKey, now);
+        RateCounter chunk = getCounter(activity.chunks, chunkKey, now);
+
+        boolean allowed = hopper.count < activity.maxPerHopper && chunk.count < activity.maxPerChunk;
+        if (allowed) {
+            hopper.count++;
+            chunk.count++;
+            transfers++;
+        } else {
+            cancelledTransfers++;
+        }
+
+        if (session != null) {
+            recordInSession(world, hopperKey, chunkKey, allowed);
+        }
+        return allowed;
+    }
+
+    private static WorldActivity getActivity(World world, long now) {
+        WorldActivity activity = activityByWorld.get(world.getUID());
+        if (activity == null) {
+            activity = new WorldActivity();
+            activity.lastCleanupSecond = now;
+            activityByWorld.put(world.getUID(), activity);
+        }
+        if (activity.refreshedSecond != now) {
+            double multiplier = LagShield.getInstance().getHopperBudgetMultiplier(world);
+            activity.maxPerHopper = Math.max(1, (int) Math.round(ConfigManager.getMaxHopperTransfersPerSecond() * multiplier));
+            activity.maxPerChunk = Math.max(1, (int) Math.round(ConfigManager.getMaxChunkHopperTransfersPerSecond() * multiplier));
+            activity.refreshedSecond = now;
+
+            if (now - activity.lastCleanupSecond >= CLEANUP_INTERVAL_SECONDS) {
+                activity.hoppers.removeIf(counter -> now - counter.second > IDLE_COUNTER_SECONDS);
+                activity.chunks.removeIf(counter -> now - counter.second > IDLE_COUNTER_SECONDS);
+                activity.lastCleanupSecond = now;
+            }
+        }
+        return activity;
+    }
+
+    private static RateCounter getCounter(LongObjectMap<RateCounter> counters, long key, long now) {
+        RateCounter counter = counters.get(key);
+        if (counter == null) {
+            counter = new RateCounter(now);
+            counters.put(key, counter);
+        } else {
+            counter.roll(now);
+        }
+        return counter;
+    }
+
+    /**
+     * Hopper transfers per second of a chunk, measured over the last full second.
+     */
+    public static int getTransfersPerSecond(World world, int chunkX, int chunkZ) {
+        WorldActivity activity = activityByWorld.get(world.getUID());
+        RateCounter counter = activity != null ? activity.chunks.get(BlockKey.packChunk(chunkX, chunkZ)) : null;
+        if (counter == null) {
+            return 0;
+        }
+        counter.roll(System.currentTimeMillis() / 1000L);
+        return counter.lastCount;
+    }
+
+    // --- Profiling ---
+
+    public static boolean isProfiling() {
+        return session != null || idleScanTask != null;
+    }
+
+    /**
+     * Starts a profiling session.
+     *
+     * @param world World to profile, or null for all worlds
+     * @return False if a session (or its idle hopper scan) is already running
+     */
+    public static boolean startProfile(World world) {
+        if (isProfiling()) {
+            return false;
+        }
+        session = new Session(world != null ? world.getUID() : null);
+        return true;
+    }
+
+    private static void recordInSession(World world, long hopperKey, long chunkKey, boolean allowed) {
+        UUID worldId = world.getUID();
+        if (session.worldFilter != null && !session.worldFilter.equals(worldId)) {
+            return;
+        }
+        ChunkEntry entry = getChunkEntry(session, world.getName(), worldId, chunkKey);
+        if (allowed) {
+            entry.transfers++;
+        } else {
+            entry.cancelled++;
+        }
+        LongObjectMap<Boolean> active = session.activeHoppers.computeIfAbsent(worldId, uuid -> new LongObjectMap<>());
+        if (active.get(hopperKey) == null) {
+            active.put(hopperKey, Boolean.TRUE);
+            entry.activeHoppers++;
+        }
+    }
+
+    private static ChunkEntry getChunkEntry(Session current, String worldName, UUID worldId, long chunkKey) {
+        LongObjectMap<ChunkEntry> chunks = current.chunks.computeIfAbsent(worldId, uuid -> new LongObjectMap<>());
+        ChunkEntry entry = chunks.get(chunkKey);
+        if (entry == null) {
+            entry = new ChunkEntry(worldName, chunkKey);
+            chunks.put(chunkKey, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Ends the profiling session, scans the loaded chunks in its scope for idle hoppers
+     * (a few chunks per tick) and passes the report to the callback.
+     */
+    public static void finishProfile(Consumer<Report> callback) {
+        Session finished = session;
+        session = null;
+        if (finished == null || idleScanTask != null) {
+            return;
+        }
+        double durationSeconds = (System.currentTimeMillis() - finished.startedAt) / 1000.0;
+
+        List<Chunk> toScan = new ArrayList<>();
+        for (World world : Bukkit.getWorlds()) {
+            if (finished.worldFilter == null || finished.worldFilter.equals(world.getUID())) {
+                Collections.addAll(toScan, world.getLoadedChunks());
+            }
+        }
+
+        int[] next = {0};
+        int[] idleTotals = {0, 0};
+        idleScanTask = SchedulerWrapper.runTaskTimer(() -> {
+            int end = Math.min(toScan.size(), next[0] + IDLE_SCAN_CHUNKS_PER_TICK);
+            for (; next[0] < end; next[0]++) {
+                Chunk chunk = toScan.get(next[0]);
+                if (chunk.isLoaded()) {
+                    scanChunkForIdleHoppers(finished, chunk, idleTotals);
+                }
+            }
+            if (next[0] < toScan.size()) {
+                return;
+            }
+
+            idleScanTask.cancel();
+            idleScanTask = null;
+
+            List<ChunkEntry> entries = new ArrayList<>();
+            for (LongObjectMap<ChunkEntry> chunks : finished.chunks.values()) {
+                entries.addAll(chunks.values());
+            }
+            entries.sort((a, b) -> Long.compare(b.transfers, a.transfers));
+            Report report = new Report(durationSeconds, Collections.unmodifiableList(entries));
+            report.idleHoppers = idleTotals[0];
+            report.idlePollingEmptyContainer = idleTotals[1];
+            report.scannedChunks = toScan.size();
+            callback.accept(report);
+        }, 1L, 1L);
+    }
+
+    private static void scanChunkForIdleHoppers(Session finished, Chunk chunk, int[] idleTotals) {
+        UUID worldId = chunk.getWorld().getUID();
+        LongObjectMap<Boolean> active = finished.activeHoppers.get(worldId);
+        ChunkEntry entry = null;
+
+        for (BlockState state : chunk.getTileEntities()) {
+            if (!(state instanceof Hopper)) {
+                continue;
+            }
+            long hopperKey = BlockKey.pack(state.getX(), state.getY(), state.getZ());
+            if (active != null && active.get(hopperKey) != null) {
+                continue;
+            }
+            if (entry == null) {
+                entry = getChunkEntry(finished, chunk.getWorld().getName(), worldId, BlockKey.packChunk(chunk.getX(), chunk.getZ()));
+            }
+
+            Block block = state.getBlock();
+            if (block.isBlockIndirectlyPowered()) {
+                entry.lockedHoppers++;
+                continue;
+            }
+            entry.idleHoppers++;
+            idleTotals[0]++;
+            BlockState above = block.getRelative(BlockFace.UP).getState();
+            if (above instanceof Container && ((Container) above).getInventory().isEmpty()) {
+                idleTotals[1]++;
+            }
+        }
+    }
+
+    // --- Statistics ---
+
+    /**
+     * Gets hopper activity statistics.
+     */
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("transfers", transfers);
+        stats.put("cancelled_transfers", cancelledTransfers);
+        stats.put("profiling", isProfiling());
+
+        long now = System.currentTimeMillis() / 1000L;
+        int trackedHoppers = 0;
+        int trackedChunks = 0;
+        int highestChunkRate = 0;
+        for (WorldActivity activity : activityByWorld.values()) {
+            trackedHoppers += activity.hoppers.size();
+            for (RateCounter counter : activity.chunks.values()) {
+                counter.roll(now);
+                trackedChunks++;
+                highestChunkRate = Math.max(highestChunkRate, counter.lastCount);
+            }
+        }
+        stats.put("tracked_hoppers", trackedHoppers);
+        stats.put("tracked_chunks", trackedChunks);
+        stats.put("highest_chunk_transfers_per_second", highestChunkRate);
+        return stats;
+    }
+
+    public static void resetStatistics() {
+        transfers = 0L;
+        cancelledTransfers = 0L;
+    }
+
+    /**
+     * Clears all counters and any running profile. Used during plugin reload and shutdown.
+     */
+    public static void clearAll() {
+        activityByWorld.clear();
+        session = null;
+        if (idleScanTask != null) {
+            idleScanTask.cancel();
+            idleScanTask = null;
+        }
+        if (ConfigManager.isDebugEnabled()) {
+            LagXpert.getInstance().getLogger().info("[HopperActivityTracker] Hopper activity data cleared.");
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package me.koyere.lagxpert.system;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
+import me.koyere.lagxpert.utils.BlockKey;
+import me.koyere.lagxpert.utils.ConfigManager;
+import me.koyere.lagxpert.utils.LongObjectMap;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.ExperienceOrb;
+import org.bukkit.entity.Item;
+import org.bukkit.event.entity.ItemMergeEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Coalesces item entities carrying similar stacks, and experience orbs, into fewer
+ * entities without deleting anything. Loaded chunks of the enabled worlds are queued
+ * once per merge interval and worked through under a per-tick time budget. Within a
+ * chunk, entities are bucketed into a spatial hash of merge-radius cells, so each one is
+ * only compared with entities in its own and neighbouring cells.
+ * Items are topped up to their maximum stack size; the remainder stays on the ground.
+ * Item merges go through {@link ItemMergeEvent} like vanilla merges, and display items
+ * (infinite pickup delay) and items with a different owner or thrower are never merged.
+ * Must be used from the main thread.
+ */
+public class ItemMergeEngine {
+
+    private static final SelfOverheadMeter.Probe MERGE_PROBE = SelfOverheadMeter.probe("ItemMergeEngine#processChunks");
+
+    // Pickup delay used by shop and display plugins for items that must never be picked up or merged
+    private static final int INFINITE_PICKUP_DELAY = 32767;
+
+    private static final ArrayDeque<Chunk> pendingChunks = new ArrayDeque<>();
+
+    private static BukkitTask tickTask;
+    private static long currentTick = 0L;
+    private static long lastRefillTick = Long.MIN_VALUE;
+
+    private static volatile long mergedItems = 0L;
+    private static volatile long mergedOrbs = 0L;
+    private static volatile long chunksScanned = 0L;
+    private static volatile long budgetExhaustedTicks = 0L;
+
+    /**
+     * Starts the merge task. Replaces any previous task.
+     */
+    public static void start() {
+        stop();
+        tickTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        }.runTaskTimer(LagXpert.getInstance(), 20L, 1L);
+    }
+
+    /**
+     * Stops the merge task and drops queued chunks.
+     */
+    public static void stop() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        pendingChunks.clear();
+        lastRefillTick = Long.MIN_VALUE;
+    }
+
+    public static boolean isEnabled() {
+        return tickTask != null && ConfigManager.isItemCleanerModuleEnabled() && ConfigManager.isItemMergeEnabled();
+    }
+
+    private static void tick() {
+        currentTick++;
+        if (!isEnabled()) {
+            return;
+        }
+        if (pendingChunks.isEmpty()) {
+            if (currentTick - lastRefillTick < ConfigManager.getItemMergeIntervalTicks()) {
+                return;
+            }
+            for (World world : Bukkit.getWorlds()) {
+                if (isWorldEnabled(world)) {
+                    for (Chunk chunk : world.getLoadedChunks()) {
+                        pendingChunks.add(chunk);
+                    }
+                }
+            }
+            lastRefillTick = currentTick;
+            if (pendingChunks.isEmpty()) {
+                return;
+            }
+        }
+        processChunks();
+    }
+
+    private static boolean isWorldEnabled(World world) {
+        for (String name : ConfigManager.getItemMergeEnabledWorlds()) {
+            if (name.equalsIgnoreCase("all") || name.equalsIgnoreCase(world.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Merges queued chunks until the tick's time budget is used up (at least one chunk per tick).
+     */
+    private static void processChunks() {
+        long probeStart = MERGE_PROBE.start();
+        try {
+            long deadline = System.nanoTime() + ConfigManager.getItemMergeMaxNanosPerTick();
+            do {
+                Chunk chunk = pendingChunks.poll();
+                if (chunk.isLoaded()) {
+                    mergeChunk(chunk);
+                    chunksScanned++;
+                }
+            } while (!pendingChunks.isEmpty() && System.nanoTime() < deadline);
+            if (!pendingChunks.isEmpty()) {
+                budgetExhaustedTicks++;
+            }
+        } finally {
+            MERGE_PROBE.stop(probeStart);
+        }
+    }
+
+    private static void mergeChunk(Chunk chunk) {
+        double radius = ConfigManager.getItemMergeRadius();
+        double radiusSquared = radius * radius;
+        boolean mergeOrbs = ConfigManager.isXpOrbMergeEnabled();
+        LongObjectMap<List<Entity>> grid = null;
+
+        for (Entity entity : chunk.getEntities()) {
+            boolean item = entity instanceof Item;
+            if ((!item && !(mergeOrbs && entity instanceof ExperienceOrb)) || !entity.isValid()) {
+                continue;
+            }
+            if (item && ((Item) entity).getPickupDelay() >= INFINITE_PICKUP_DELAY) {
+                continue;
+            }
+            if (grid == null) {
+                grid = new LongObjectMap<>();
+            }
+
+            Location location = entity.getLocation();
+            int cellX = (int) Math.floor(location.getX() / radius);
+            int cellY = (int) Math.floor(location.getY() / radius);
+            int cellZ = (int) Math.floor(location.getZ() / radius);
+
+            boolean absorbed = item
+                    ? mergeItem((Item) entity, location, grid, cellX, cellY, cellZ, radiusSquared)
+                    : mergeOrb((ExperienceOrb) entity, location, grid, cellX, cellY, cellZ, radiusSquared);
+            if (absorbed) {
+                continue;
+            }
+
+            long cellKey = BlockKey.pack(cellX, cellY, cellZ);
+            List<Entity> cell = grid.get(cellKey);
+            if (cell == null) {
+                cell = new ArrayList<>(4);
+                grid.put(cellKey, cell);
+            }
+            cell.add(entity);
+        }
+    }
+
+    /**
+     * Moves as much of an item's stack as fits into similar items nearby.
+     *
+     * @return True if the item was fully absorbed and removed
+     */
+    private static boolean mergeItem(Item item, Location location, LongObjectMap<List<Entity>> grid,
+                                     int cellX, int cellY, int cellZ, double radiusSquared) {
+        ItemStack stack = item.getItemStack();
+        int maxStackSize = stack.getMaxStackSize();
+        if (stack.getAmount() >= maxStackSize) {
+            return false;
+        }
+
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    List<Entity> cell = grid.get(BlockKey.pack(cellX + dx, cellY + dy, cellZ + dz));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (Entity candidate : cell) {
+                        if (!(candidate instanceof Item) || candidate.getLocation().distanceSquared(location) > radiusSquared) {
+                            continue;
+                        }
+                        Item target = (Item) candidate;
+                        ItemStack targetStack = target.getItemStack();
+                        int space = maxStackSize - targetStack.getAmount();
+                        if (space <= 0 || !targetStack.isSimilar(stack)
+                                || !Objects.equals(target.getOwner(), item.getOwner())
+                                || !Objects.equals(target.getThrower(), item.getThrower())) {
+                            continue;
+                        }
+
+                        ItemMergeEvent mergeEvent = new ItemMergeEvent(item, target);
+                        Bukkit.getPluginManager().callEvent(mergeEvent);
+                        if (mergeEvent.isCancelled() || !item.isValid() || !target.isValid()) {
+                            continue;
+                        }
+
+                        int moved = Math.min(space, stack.getAmount());
+                        targetStack.setAmount(targetStack.getAmount() + moved);
+                        target.setItemStack(targetStack);
+                        target.setPickupDelay(Math.max(target.getPickupDelay(), item.getPickupDelay()));
+                        if (moved == stack.getAmount()) {
+                            item.remove();
+                            mergedItems++;
+                            return true;
+                        }
+                        stack.setAmount(stack.getAmount() - moved);
+                        item.setItemStack(stack);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds an orb's experience to an orb nearby that has room for it.
+     *
+     * @return True if the orb was absorbed and removed
+     */
+    private static boolean mergeOrb(ExperienceOrb orb, Location location, LongObjectMap<List<Entity>> grid,
+                                    int cellX, int cellY, int cellZ, double radiusSquared) {
+        int maxValue = ConfigManager.getXpOrbMaxValue();
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    List<Entity> cell = grid.get(BlockKey.pack(cellX + dx, cellY + dy, cellZ + dz));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (Entity candidate : cell) {
+                        if (!(candidate instanceof ExperienceOrb) || candidate.getLocation().distanceSquared(location) > radiusSquared) {
+                            continue;
+                        }
+                        ExperienceOrb target = (ExperienceOrb) candidate;
+                        int total = target.getExperience() + orb.getExperience();
+                        if (total <= maxValue) {
+                            target.setExperience(total);
+                            orb.remove();
+                            mergedOrbs++;
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets item merge statistics.
+     */
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("merged_items", mergedItems);
+        stats.put("merged_xp_orbs", mergedOrbs);
+        stats.put("chunks_scanned", chunksScanned);
+        stats.put("pending_chunks", pendingChunks.size());
+        stats.put("budget_exhausted_ticks", budgetExhaustedTicks);
+        return stats;
+    }
+
+    public static void resetStatistics() {
+        mergedItems = 0L;
+        mergedOrbs = 0L;
+        chunksScanned = 0L;
+        budgetExhaustedTicks = 0L;
+    }
+}
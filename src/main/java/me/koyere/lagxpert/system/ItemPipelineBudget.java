@@ -0,0 +1,322 @@
+package me.koyere.lagxpert.system;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
+import me.koyere.lagxpert.utils.BlockKey;
+import me.koyere.lagxpert.utils.ConfigManager;
+import me.koyere.lagxpert.utils.LongObjectMap;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.Hopper;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Item;
+import org.bukkit.entity.minecart.HopperMinecart;
+import org.bukkit.event.inventory.InventoryPickupItemEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-chunk budget for item-collection work: hoppers and hopper minecarts picking up
+ * item entities. Each chunk has a token bucket refilled every tick (same scheme as
+ * {@link RedstoneBudgetLimiter}); pickups beyond it are cancelled and queued instead,
+ * and a fixed number of queued pickups is performed per tick. The queue is bounded and
+ * holds each item entity at most once; when it is full, excess pickups are only
+ * cancelled and the collector retries on its own.
+ * Queued pickups keep no inventory reference: the collector is resolved again when the
+ * pickup is performed, skipped if it is a redstone-locked hopper, and the pickup goes
+ * through {@link InventoryPickupItemEvent} again so other plugins and the hopper
+ * transfer caps still apply.
+ * Must be used from the main thread.
+ */
+public class ItemPipelineBudget {
+
+    private static final SelfOverheadMeter.Probe DRAIN_PROBE = SelfOverheadMeter.probe("ItemPipelineBudget#drain");
+
+    // Buckets idle for this long are full again and can be forgotten
+    private static final int IDLE_BUCKET_TICKS = 600;
+    private static final int CLEANUP_INTERVAL_TICKS = 1200;
+    // Queued pickups older than this are dropped (the collector has retried long since)
+    private static final int MAX_DEFERRAL_TICKS = 100;
+    // Items further than this from their collector are no longer picked up
+    private static final double MAX_PICKUP_DISTANCE_SQUARED = 4.0;
+
+    private static final Map<UUID, LongObjectMap<ChunkBucket>> bucketsByWorld = new ConcurrentHashMap<>();
+    private static final ArrayDeque<DeferredPickup> queue = new ArrayDeque<>();
+    // Item entity ids currently queued
+    private static final LongObjectMap<Boolean> queuedItems = new LongObjectMap<>();
+
+    private static BukkitTask tickTask;
+    private static long currentTick = 0L;
+    // Set while a queued pickup re-fires its event, so the pickup is not budgeted twice
+    private static boolean replaying = false;
+
+    private static volatile long deferredPickups = 0L;
+    private static volatile long completedPickups = 0L;
+    private static volatile long droppedPickups = 0L;
+    private static volatile long rejectedPickups = 0L;
+    private static volatile int maxQueueDepth = 0;
+
+    /**
+     * Token bucket of one chunk.
+     */
+    private static final class ChunkBucket {
+        private int tokens;
+        private long lastRefillTick;
+
+        private ChunkBucket(int tokens, long tick) {
+            this.tokens = tokens;
+            this.lastRefillTick = tick;
+        }
+    }
+
+    /**
+     * A pickup that was over its chunk's budget.
+     */
+    private static final class DeferredPickup {
+        private final Item item;
+        // Hopper block position (minecart == null) or the hopper minecart
+        private final Location hopper;
+        private final Entity minecart;
+        private final long queuedTick;
+
+        private DeferredPickup(Item item, Location hopper, Entity minecart, long queuedTick) {
+            this.item = item;
+            this.hopper = hopper;
+            this.minecart = minecart;
+            this.queuedTick = queuedTick;
+        }
+    }
+
+    /**
+     * Starts the tick counter and queue drain. Replaces any previous task.
+     */
+    public static void start() {
+        stop();
+        tickTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                long tick = ++currentTick;
+                drainQueue(tick);
+                if (tick % CLEANUP_INTERVAL_TICKS == 0) {
+                    cleanupIdleBuckets(tick);
+                }
+            }
+        }.runTaskTimer(LagXpert.getInstance(), 1L, 1L);
+    }
+
+    /**
+     * Stops the task and drops all buckets and queued pickups.
+     */
+    public static void stop() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        bucketsByWorld.clear();
+        queue.clear();
+        queuedItems.clear();
+    }
+
+    public static boolean isEnabled() {
+        return tickTask != null && ConfigManager.isStorageModuleEnabled() && ConfigManager.isItemPipelineBudgetEnabled();
+    }
+
+    /**
+     * Takes one pickup from the budget of the collector's chunk, or queues the pickup
+     * if the chunk has used up its budget for this tick.
+     *
+     * @param item      The item entity being picked up
+     * @param inventory The collecting hopper or hopper minecart inventory
+     * @param minecart  The hopper minecart, or null for a hopper block
+     * @return False if the pickup should be cancelled now
+     */
+    public static boolean tryPickup(Item item, Inventory inventory, Entity minecart) {
+        if (!isEnabled() || replaying) {
+            return true;
+        }
+        Location location = minecart != null ? minecart.getLocation() : inventory.getLocation();
+        if (location == null || location.getWorld() == null) {
+            return true;
+        }
+
+        if (consume(location.getWorld(), location.getBlockX(), location.getBlockZ())) {
+            return true;
+        }
+
+        long itemId = item.getEntityId();
+        if (queuedItems.get(itemId) == null) {
+            if (queue.size() < ConfigManager.getItemPipelineQueueSize()) {
+                queue.add(new DeferredPickup(item, minecart != null ? null : location.clone(), minecart, currentTick));
+                queuedItems.put(itemId, Boolean.TRUE);
+                deferredPickups++;
+                maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+            } else {
+                rejectedPickups++;
+            }
+        }
+        return false;
+    }
+
+    private static boolean consume(World world, int blockX, int blockZ) {
+        long tick = currentTick;
+        int tokensPerTick = ConfigManager.getItemPipelinePickupsPerTick();
+        int capacity = ConfigManager.getItemPipelineBurst();
+
+        LongObjectMap<ChunkBucket> buckets = bucketsByWorld.computeIfAbsent(world.getUID(), uuid -> new LongObjectMap<>());
+        long chunkKey = BlockKey.chunkOf(blockX, blockZ);
+        ChunkBucket bucket = buckets.get(chunkKey);
+        if (bucket == null) {
+            bucket = new ChunkBucket(capacity, tick);
+            buckets.put(chunkKey, bucket);
+        } else if (bucket.lastRefillTick != tick) {
+            long refill = (tick - bucket.lastRefillTick) * (long) tokensPerTick;
+            bucket.tokens = (int) Math.min(capacity, bucket.tokens + refill);
+            bucket.lastRefillTick = tick;
+        }
+
+        if (bucket.tokens > 0) {
+            bucket.tokens--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Performs up to the configured number of queued pickups.
+     */
+    private static void drainQueue(long tick) {
+        if (queue.isEmpty()) {
+            return;
+        }
+        long probeStart = DRAIN_PROBE.start();
+        try {
+            int budget = ConfigManager.getItemPipelineDeferredPerTick();
+            while (budget > 0 && !queue.isEmpty()) {
+                DeferredPickup pickup = queue.poll();
+                queuedItems.remove(pickup.item.getEntityId());
+                if (tick - pickup.queuedTick > MAX_DEFERRAL_TICKS || !performPickup(pickup)) {
+                    droppedPickups++;
+                    continue;
+                }
+                completedPickups++;
+                budget--;
+            }
+        } finally {
+            DRAIN_PROBE.stop(probeStart);
+        }
+    }
+
+    /**
+     * Moves a queued item into its collector, if both are still there.
+     *
+     * @return False if the pickup no longer applies
+     */
+    private static boolean performPickup(DeferredPickup pickup) {
+        Item item = pickup.item;
+        if (!item.isValid() || item.getPickupDelay() > 0) {
+            return false;
+        }
+
+        Location collector;
+        Inventory inventory;
+        if (pickup.minecart != null) {
+            if (!pickup.minecart.isValid() || !((HopperMinecart) pickup.minecart).isEnabled()) {
+                return false;
+            }
+            collector = pickup.minecart.getLocation();
+            inventory = ((HopperMinecart) pickup.minecart).getInventory();
+        } else {
+            // Resolve the hopper again: it may have been broken, replaced or locked meanwhile
+            Block block = pickup.hopper.getBlock();
+            if (block.getType() != Material.HOPPER || block.isBlockIndirectlyPowered()) {
+                return false;
+            }
+            BlockState state = block.getState();
+            if (!(state instanceof Hopper)) {
+                return false;
+            }
+            collector = pickup.hopper.clone().add(0.5, 0.5, 0.5);
+            inventory = ((Hopper) state).getInventory();
+        }
+        if (collector.getWorld() != item.getWorld()
+                || collector.distanceSquared(item.getLocation()) > MAX_PICKUP_DISTANCE_SQUARED) {
+            return false;
+        }
+
+        // Give filter, claim and shop plugins (and the hopper transfer caps) their say again
+        InventoryPickupItemEvent event = new InventoryPickupItemEvent(inventory, item);
+        replaying = true;
+        try {
+            Bukkit.getPluginManager().callEvent(event);
+        } finally {
+            replaying = false;
+        }
+        if (event.isCancelled() || !item.isValid()) {
+            return false;
+        }
+
+        ItemStack stack = item.getItemStack();
+        Map<Integer, ItemStack> leftover = inventory.addItem(stack.clone());
+        if (leftover.isEmpty()) {
+            item.remove();
+            return true;
+        }
+        ItemStack remaining = leftover.values().iterator().next();
+        if (remaining.getAmount() == stack.getAmount()) {
+            return false; // Collector is full
+        }
+        item.setItemStack(remaining);
+        return true;
+    }
+
+    private static void cleanupIdleBuckets(long tick) {
+        for (Map.Entry<UUID, LongObjectMap<ChunkBucket>> entry : bucketsByWorld.entrySet()) {
+            if (Bukkit.getWorld(entry.getKey()) == null) {
+                bucketsByWorld.remove(entry.getKey());
+                continue;
+            }
+            entry.getValue().removeIf(bucket -> tick - bucket.lastRefillTick > IDLE_BUCKET_TICKS);
+        }
+    }
+
+    /**
+     * Gets item pipeline statistics (deferred work metrics).
+     */
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("queue_depth", queue.size());
+        stats.put("max_queue_depth", maxQueueDepth);
+        stats.put("deferred_pickups", deferredPickups);
+        stats.put("completed_pickups", completedPickups);
+        stats.put("dropped_pickups", droppedPickups);
+        stats.put("rejected_pickups", rejectedPickups);
+
+        int trackedChunks = 0;
+        for (LongObjectMap<ChunkBucket> buckets : bucketsByWorld.values()) {
+            trackedChunks += buckets.size();
+        }
+        stats.put("tracked_chunks", trackedChunks);
+        return stats;
+    }
+
+    public static void resetStatistics() {
+        deferredPickups = 0L;
+        completedPickups = 0L;
+        droppedPickups = 0L;
+        rejectedPickups = 0L;
+        maxQueueDepth = 0;
+    }
+}
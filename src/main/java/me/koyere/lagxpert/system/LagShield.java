@@ -1,34 +1,132 @@
 package me.koyere.lagxpert.system;
 
 import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.MsptForecaster;
+import me.koyere.lagxpert.monitoring.TickDurationSampler;
+import me.koyere.lagxpert.tasks.ItemCleanerTask;
 import me.koyere.lagxpert.utils.ConfigManager;
 import me.koyere.lagxpert.utils.MessageManager;
-// import me.koyere.lagxpert.utils.SchedulerWrapper; // Unused
 import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 
 /**
  * LagShield: Reactive protection system.
- * Reacts to low TPS or high Memory usage by enabling emergency restrictions.
+ * Walks a configurable ladder of degradation levels based on MSPT, TPS and heap usage.
+ * Each level enables progressively stronger measures. Levels step up and down one at a
+ * time, with separate entry/exit thresholds (hysteresis) and a minimum dwell time, so
+ * the shield does not flap between states.
+ * Can also step up ahead of time when the MSPT forecast predicts an overload.
+ * Alongside the ladder, an optional PID pressure controller holds MSPT at a target
+ * and continuously scales mob caps, analyzer, cleanup and redstone budgets.
+ * With per-world tracking enabled, world-scoped measures (mob caps, spawns, redstone,
+ * mob AI) follow each world's own level; the global level still drives server-wide
+ * measures and is applied to every world when no single world is overloaded.
  */
 public class LagShield {
 
+    private static final double TARGET_TICK_MS = 50.0;
+    // Window used for measured MSPT when the forecaster is not ready
+    private static final int MSPT_WINDOW_TICKS = 100;
+    // How often AI restrictions are re-applied while a level requires them
+    private static final long AI_REAPPLY_INTERVAL_MS = 30000L;
+
     private static LagShield instance;
-    private boolean active = false;
     private boolean enabled;
+    private boolean predictiveEnabled;
+    private long stepUpDelayMs;
+
+    private List<ShieldLevel> levels = Collections.emptyList();
+    private final PressureController pressureController = new PressureController();
+    private final WorldSpawnLimiter spawnLimiter = new WorldSpawnLimiter();
+    private final WorldPressureTracker worldTracker = new WorldPressureTracker();
+    private final AdaptiveDistanceManager distanceManager = new AdaptiveDistanceManager();
+
+    // Ladder state (level 0 = inactive)
+    private int currentLevel = 0;
+    private long levelEnteredAt = 0L;
+    private boolean activatedByForecast = false;
+    private long lastItemCleanup = 0L;
+    private long lastAiRestriction = 0L;
+    private long levelChanges = 0L;
+    private long activations = 0L;
 
-    // Thresholds
-    private double criticalTps;
-    private double recoveryTps;
-    private double criticalRam;
-    private double recoveryRam;
+    /**
+     * A single rung of the degradation ladder.
+     * Entry triggers when any configured metric crosses its entry threshold; exit requires
+     * every configured metric to be back past its exit threshold. Thresholds of 0 are unused.
+     */
+    public static class ShieldLevel {
+        private final String name;
+        private final double enterMspt;
+        private final double enterTps;
+        private final double enterMemory;
+        private final double exitMspt;
+        private final double exitTps;
+        private final double exitMemory;
+        private final long minDwellMs;
 
-    // Actions
-    private double mobCapMultiplier;
-    private boolean blockNaturalSpawns;
+        // Actions
+        private final double mobCapMultiplier;
+        private final boolean blockNaturalSpawns;
+        private final int itemCleanupIntervalSeconds;
+        private final boolean clearItemsOnEntry;
+        private final double redstoneBudgetMultiplier;
+        private final double hopperBudgetMultiplier;
+        private final boolean disableDistantMobAi;
+        private final boolean pauseChunkPreloader;
+        private final boolean pauseAutoScan;
+        private final boolean pauseEntityCleanup;
+
+        ShieldLevel(String name, double enterMspt, double enterTps, double enterMemory,
+                    double exitMspt, double exitTps, double exitMemory, long minDwellMs,
+                    double mobCapMultiplier, boolean blockNaturalSpawns, int itemCleanupIntervalSeconds,
+                    boolean clearItemsOnEntry, double redstoneBudgetMultiplier, double hopperBudgetMultiplier,
+                    boolean disableDistantMobAi,
+                    boolean pauseChunkPreloader, boolean pauseAutoScan, boolean pauseEntityCleanup) {
+            this.name = name;
+            this.enterMspt = enterMspt;
+            this.enterTps = enterTps;
+            this.enterMemory = enterMemory;
+            this.exitMspt = exitMspt;
+            this.exitTps = exitTps;
+            this.exitMemory = exitMemory;
+            this.minDwellMs = minDwellMs;
+            this.mobCapMultiplier = mobCapMultiplier;
+            this.blockNaturalSpawns = blockNaturalSpawns;
+            this.itemCleanupIntervalSeconds = itemCleanupIntervalSeconds;
+            this.clearItemsOnEntry = clearItemsOnEntry;
+            this.redstoneBudgetMultiplier = redstoneBudgetMultiplier;
+            this.hopperBudgetMultiplier = hopperBudgetMultiplier;
+            this.disableDistantMobAi = disableDistantMobAi;
+            this.pauseChunkPreloader = pauseChunkPreloader;
+            this.pauseAutoScan = pauseAutoScan;
+            this.pauseEntityCleanup = pauseEntityCleanup;
+        }
+
+        public String getName() { return name; }
+        public long getMinDwellMs() { return minDwellMs; }
+        public double getMobCapMultiplier() { return mobCapMultiplier; }
+        public boolean isBlockNaturalSpawns() { return blockNaturalSpawns; }
+        public int getItemCleanupIntervalSeconds() { return itemCleanupIntervalSeconds; }
+        public double getRedstoneBudgetMultiplier() { return redstoneBudgetMultiplier; }
+        public double getHopperBudgetMultiplier() { return hopperBudgetMultiplier; }
+        public boolean isDisableDistantMobAi() { return disableDistantMobAi; }
+        public boolean isPauseChunkPreloader() { return pauseChunkPreloader; }
+        public boolean isPauseAutoScan() { return pauseAutoScan; }
+        public boolean isPauseEntityCleanup() { return pauseEntityCleanup; }
+    }
 
     private LagShield() {
         reloadConfig();
@@ -43,62 +141,270 @@ public class LagShield {
 
     public void reloadConfig() {
         File file = new File(LagXpert.getInstance().getDataFolder(), "lagshield.yml");
-        if (!file.exists()) {
-            // Should save default resource if not exists, skipping for now as we just
-            // created it
-        }
         FileConfiguration config = YamlConfiguration.loadConfiguration(file);
 
         this.enabled = config.getBoolean("enabled", true);
-        this.criticalTps = config.getDouble("thresholds.tps.critical", 16.0);
-        this.recoveryTps = config.getDouble("thresholds.tps.recovery", 18.5);
-        this.criticalRam = config.getDouble("thresholds.ram.critical", 90.0);
-        this.recoveryRam = config.getDouble("thresholds.ram.recovery", 80.0);
+        this.predictiveEnabled = config.getBoolean("predictive.enabled",
+                config.getBoolean("thresholds.predictive.enabled", true));
+        this.stepUpDelayMs = Math.max(0, config.getInt("ladder.step-up-delay-seconds", 5)) * 1000L;
 
-        this.mobCapMultiplier = config.getDouble("actions.reduce-limits.mob-cap-multiplier", 0.5);
-        this.blockNaturalSpawns = config.getBoolean("actions.block-spawns.natural", true);
+        ConfigurationSection levelsSection = config.getConfigurationSection("ladder.levels");
+        List<ShieldLevel> loaded = new ArrayList<>();
+        if (levelsSection != null) {
+            for (String key : levelsSection.getKeys(false)) {
+                ConfigurationSection section = levelsSection.getConfigurationSection(key);
+                if (section != null) {
+                    loaded.add(loadLevel(key, section));
+                }
+            }
+        } else {
+            // Pre-ladder lagshield.yml: a single level built from the old thresholds and actions
+            loaded.add(loadLegacyLevel(config));
+        }
+        this.levels = Collections.unmodifiableList(loaded);
+        pressureController.loadConfig(config.getConfigurationSection("controller"));
+        worldTracker.loadConfig(config.getConfigurationSection("per-world"));
+        distanceManager.loadConfig(enabled ? config.getConfigurationSection("adaptive-distance") : null);
+        spawnLimiter.loadConfig(enabled && config.getBoolean("world-spawn-limits.enabled", true),
+                config.getBoolean("world-spawn-limits.scale-spawn-intervals", true));
+
+        if (currentLevel > levels.size()) {
+            currentLevel = levels.size();
+        }
+    }
+
+    private ShieldLevel loadLevel(String key, ConfigurationSection section) {
+        return new ShieldLevel(
+                section.getString("name", key),
+                section.getDouble("enter.mspt", 0.0),
+                section.getDouble("enter.tps", 0.0),
+                section.getDouble("enter.memory", 0.0),
+                section.getDouble("exit.mspt", 0.0),
+                section.getDouble("exit.tps", 0.0),
+                section.getDouble("exit.memory", 0.0),
+                Math.max(0, section.getInt("min-dwell-seconds", 30)) * 1000L,
+                Math.max(0.0, Math.min(1.0, section.getDouble("actions.mob-cap-multiplier", 1.0))),
+                section.getBoolean("actions.block-natural-spawns", false),
+                Math.max(0, section.getInt("actions.item-cleanup-interval-seconds", 0)),
+                section.getBoolean("actions.clear-items-on-entry", false),
+                Math.max(0.05, Math.min(1.0, section.getDouble("actions.redstone-budget-multiplier", 1.0))),
+                Math.max(0.05, Math.min(1.0, section.getDouble("actions.hopper-budget-multiplier", 1.0))),
+                section.getBoolean("actions.disable-distant-mob-ai", false),
+                section.getBoolean("actions.pause-chunk-preloader", false),
+                section.getBoolean("actions.pause-auto-scan", false),
+                section.getBoolean("actions.pause-entity-cleanup", false)
+        );
+    }
+
+    private ShieldLevel loadLegacyLevel(FileConfiguration config) {
+        double redstoneCooldownMultiplier = Math.max(1.0, config.getDouble("actions.reduce-limits.redstone-cooldown-multiplier", 2.0));
+        boolean clearItems = config.getBoolean("actions.emergency-cleanup.enabled", true)
+                && config.getBoolean("actions.emergency-cleanup.clear-items", true);
+
+        return new ShieldLevel(
+                "shield",
+                config.getDouble("thresholds.predictive.activate-mspt", 0.0),
+                config.getDouble("thresholds.tps.critical", 16.0),
+                config.getDouble("thresholds.ram.critical", 90.0),
+                config.getDouble("thresholds.predictive.recovery-mspt", 0.0),
+                config.getDouble("thresholds.tps.recovery", 18.5),
+                config.getDouble("thresholds.ram.recovery", 80.0),
+                0L,
+                Math.max(0.0, Math.min(1.0, config.getDouble("actions.reduce-limits.mob-cap-multiplier", 0.5))),
+                config.getBoolean("actions.block-spawns.natural", true),
+                0,
+                clearItems,
+                1.0 / redstoneCooldownMultiplier,
+                1.0,
+                false,
+                false,
+                config.getBoolean("actions.pause-tasks.auto-scan", true),
+                config.getBoolean("actions.pause-tasks.entity-cleanup", false)
+        );
     }
 
     /**
      * Called by TPSMonitor on every check cycle.
      */
     public void onTick(double currentTps, double ramUsagePercent) {
-        if (!enabled)
+        if (!enabled) {
             return;
+        }
 
-        boolean critical = (currentTps < criticalTps) || (ramUsagePercent > criticalRam);
-        boolean safe = (currentTps > recoveryTps) && (ramUsagePercent < recoveryRam);
+        long now = System.currentTimeMillis();
+        double measuredMspt = MsptForecaster.isReady() ? MsptForecaster.getSmoothedMspt()
+                : TickDurationSampler.getAverageIntervalMs(MSPT_WINDOW_TICKS);
+        pressureController.update(measuredMspt, MsptForecaster.isPrecise(), now);
 
-        if (!active && critical) {
-            activateShield();
-        } else if (active && safe) {
-            deactivateShield();
+        if (levels.isEmpty()) {
+            distanceManager.update(measuredMspt, MsptForecaster.isPrecise(), currentTps, this::isDistanceReducible, now);
+            return;
         }
+        worldTracker.update(measuredMspt, MsptForecaster.isPrecise(), levels, stepUpDelayMs, now);
+        distanceManager.update(measuredMspt, MsptForecaster.isPrecise(), currentTps, this::isDistanceReducible, now);
+        boolean usePrediction = predictiveEnabled && MsptForecaster.isReady();
+        double predictedMspt = usePrediction ? MsptForecaster.getPredictedMspt() : measuredMspt;
+
+        // Step up one level when the next rung's entry condition holds
+        if (currentLevel < levels.size() && now - levelEnteredAt >= stepUpDelayMs) {
+            ShieldLevel next = levels.get(currentLevel);
+            boolean measuredEntry = shouldEnter(next, measuredMspt, currentTps, ramUsagePercent);
+            boolean predictedEntry = usePrediction && msptAtOrAbove(predictedMspt, next.enterMspt);
+            if (measuredEntry || predictedEntry) {
+                changeLevel(currentLevel + 1, !measuredEntry, predictedMspt, now);
+                applyLevelActions(now);
+                return;
+            }
+        }
+
+        // Step down one level once the current rung's exit condition holds and the dwell time has passed
+        if (currentLevel > 0) {
+            ShieldLevel current = levels.get(currentLevel - 1);
+            boolean canExit = shouldExit(current, measuredMspt, currentTps, ramUsagePercent)
+                    && (!usePrediction || msptBelow(predictedMspt, current.exitMspt));
+            if (canExit && now - levelEnteredAt >= current.minDwellMs) {
+                changeLevel(currentLevel - 1, false, predictedMspt, now);
+            }
+        }
+
+        applyLevelActions(now);
     }
 
-    private void activateShield() {
-        active = true;
-        LagXpert.getInstance().getLogger().warning("[LagShield] 🛡️ Critical performance detected! Activating shield.");
+    private boolean shouldEnter(ShieldLevel level, double mspt, double tps, double memory) {
+        return msptAtOrAbove(mspt, level.enterMspt)
+                || (level.enterTps > 0 && tps < level.enterTps)
+                || (level.enterMemory > 0 && memory > level.enterMemory);
+    }
 
-        if (ConfigManager.isAlertsModuleEnabled()) {
-            // Broadcast alert
-            String msg = MessageManager.get("alerts.messages.lagshield.activated");
-            if (msg != null && !msg.isEmpty()) {
-                Bukkit.broadcastMessage(msg);
+    private boolean shouldExit(ShieldLevel level, double mspt, double tps, double memory) {
+        return msptBelow(mspt, level.exitMspt)
+                && (level.exitTps <= 0 || tps > level.exitTps)
+                && (level.exitMemory <= 0 || memory < level.exitMemory);
+    }
+
+    /**
+     * Tick-interval MSPT (used when the server does not expose its tick time) never reads
+     * below 50ms, so MSPT thresholds at or below that are left to the TPS thresholds.
+     */
+    private boolean isMsptThresholdUsable(double threshold) {
+        return threshold > 0 && (MsptForecaster.isPrecise() || threshold > TARGET_TICK_MS);
+    }
+
+    private boolean msptAtOrAbove(double mspt, double threshold) {
+        return isMsptThresholdUsable(threshold) && mspt >= threshold;
+    }
+
+    private boolean msptBelow(double mspt, double threshold) {
+        return !isMsptThresholdUsable(threshold) || mspt < threshold;
+    }
+
+    private void changeLevel(int newLevel, boolean byForecast, double predictedMspt, long now) {
+        int previousLevel = currentLevel;
+        currentLevel = newLevel;
+        levelEnteredAt = now;
+        levelChanges++;
+
+        if (newLevel > previousLevel) {
+            ShieldLevel entered = levels.get(newLevel - 1);
+            if (previousLevel == 0) {
+                activations++;
+                activatedByForecast = byForecast;
+            }
+
+            if (byForecast) {
+                LagXpert.getInstance().getLogger().warning(String.format(
+                        "[LagShield] 🛡️ Forecast predicts %.1fms/tick within %ds. Raising shield to level %d (%s).",
+                        predictedMspt, ConfigManager.getMsptForecastHorizonSeconds(), newLevel, entered.name));
+            } else {
+                LagXpert.getInstance().getLogger().warning(
+                        "[LagShield] 🛡️ Performance degraded. Raising shield to level " + newLevel + " (" + entered.name + ").");
+            }
+
+            if (previousLevel == 0) {
+                broadcast("alerts.messages.lagshield.activated");
+            }
+
+            // Emergency cleanup runs once when the level is entered
+            if (entered.clearItemsOnEntry && ConfigManager.isItemCleanerModuleEnabled()) {
+                int removed = ItemCleanerTask.runEmergencyCleanup();
+                lastItemCleanup = now;
+                if (removed > 0) {
+                    LagXpert.getInstance().getLogger().info("[LagShield] Emergency cleanup removed " + removed + " ground items.");
+                }
+            }
+        } else {
+            if (newLevel == 0) {
+                activatedByForecast = false;
+                LagXpert.getInstance().getLogger().info("[LagShield] 🟢 Performance recovered. Deactivating shield.");
+                broadcast("alerts.messages.lagshield.deactivated");
+            } else {
+                LagXpert.getInstance().getLogger().info(
+                        "[LagShield] Performance improving. Lowering shield to level " + newLevel + " (" + levels.get(newLevel - 1).name + ").");
             }
         }
+    }
 
-        // Execute emergency commands or adjustments here
-        // Example: Run command to clear ground items if configured
-        // In a real implementation, we would toggle flags in other managers
+    /**
+     * Applies the recurring actions of the current level.
+     */
+    private void applyLevelActions(long now) {
+        ShieldLevel level = getCurrentLevel();
+        MobAIOptimizer aiOptimizer = MobAIOptimizer.getInstance();
+
+        if (level != null && level.itemCleanupIntervalSeconds > 0 && ConfigManager.isItemCleanerModuleEnabled()
+                && now - lastItemCleanup >= level.itemCleanupIntervalSeconds * 1000L) {
+            lastItemCleanup = now;
+            ItemCleanerTask.runEmergencyCleanup();
+        }
+
+        Predicate<World> aiRestricted = this::shouldDisableDistantMobAi;
+        if (Bukkit.getWorlds().stream().anyMatch(aiRestricted)) {
+            if (now - lastAiRestriction >= AI_REAPPLY_INTERVAL_MS) {
+                lastAiRestriction = now;
+                if (aiOptimizer.hasShieldDisabledAi()) {
+                    aiOptimizer.restoreDistantAi(aiRestricted.negate());
+                }
+                aiOptimizer.disableDistantAi(aiRestricted);
+            }
+        } else if (aiOptimizer.hasShieldDisabledAi()) {
+            lastAiRestriction = 0L;
+            aiOptimizer.restoreDistantAi();
+        }
+
+        // Natural spawn blocking maps to a spawn limit of 0, so the server stops attempting spawns
+        spawnLimiter.apply(world -> shouldBlockNaturalSpawns(world) ? 0.0 : getMobCapMultiplier(world));
     }
 
-    private void deactivateShield() {
-        active = false;
-        LagXpert.getInstance().getLogger().info("[LagShield] 🟢 Performance recovered. Deactivating shield.");
+    /**
+     * Whether a player's view/simulation distance may be lowered. With per-world tracking
+     * and an overloaded world, only players in throttled worlds are affected; players in
+     * exempt worlds never are.
+     */
+    private boolean isDistanceReducible(Player player) {
+        WorldPressureTracker.WorldState state = worldTracker.getState(player.getWorld());
+        if (state == null) {
+            return true;
+        }
+        if (!state.isShieldEnabled()) {
+            return false;
+        }
+        return !worldTracker.hasThrottledWorld() || state.getLevel() > 0;
+    }
+
+    /**
+     * Undoes world and player changes (spawn limits, disabled AI, player distances). Called when the plugin is disabled.
+     */
+    public void shutdown() {
+        spawnLimiter.restoreAll();
+        distanceManager.restoreAll();
+        if (MobAIOptimizer.getInstance().hasShieldDisabledAi()) {
+            MobAIOptimizer.getInstance().restoreDistantAi();
+        }
+    }
 
+    private void broadcast(String messageKey) {
         if (ConfigManager.isAlertsModuleEnabled()) {
-            String msg = MessageManager.get("alerts.messages.lagshield.deactivated");
+            String msg = MessageManager.get(messageKey);
             if (msg != null && !msg.isEmpty()) {
                 Bukkit.broadcastMessage(msg);
             }
@@ -106,14 +412,246 @@ public class LagShield {
     }
 
     public boolean isActive() {
-        return enabled && active;
+        return enabled && currentLevel > 0;
+    }
+
+    /**
+     * Gets the current ladder level (0 when the shield is inactive).
+     */
+    public int getLevel() {
+        return enabled ? currentLevel : 0;
+    }
+
+    /**
+     * Gets the configuration of the current level, or null when inactive.
+     */
+    public ShieldLevel getCurrentLevel() {
+        return isActive() ? levels.get(currentLevel - 1) : null;
     }
 
+    /**
+     * Gets the level that applies to a world. With per-world tracking this is the world's
+     * own level, or the global level when no world holds a level of its own (fallback).
+     * Worlds with 'lagshield.enabled: false' in their world config are never throttled.
+     */
+    public int getLevel(World world) {
+        if (!enabled || world == null) {
+            return getLevel();
+        }
+        WorldPressureTracker.WorldState state = worldTracker.getState(world);
+        if (state == null) {
+            return getLevel();
+        }
+        if (!state.isShieldEnabled()) {
+            return 0;
+        }
+        if (state.getLevel() == 0 && !worldTracker.hasThrottledWorld()) {
+            return currentLevel;
+        }
+        return Math.min(state.getLevel(), levels.size());
+    }
+
+    /**
+     * Gets the configuration of the level that applies to a world, or null if none.
+     */
+    public ShieldLevel getCurrentLevel(World world) {
+        int level = getLevel(world);
+        return level > 0 ? levels.get(level - 1) : null;
+    }
+
+    public WorldPressureTracker getWorldTracker() {
+        return worldTracker;
+    }
+
+    public AdaptiveDistanceManager getDistanceManager() {
+        return distanceManager;
+    }
+
+    public List<ShieldLevel> getLevels() {
+        return levels;
+    }
+
+    /**
+     * Whether the current activation was triggered by the MSPT forecast rather than measured TPS/RAM.
+     */
+    public boolean isActivatedByForecast() {
+        return isActive() && activatedByForecast;
+    }
+
+    public PressureController getPressureController() {
+        return pressureController;
+    }
+
+    /**
+     * Gets the controller pressure (0 = no restriction, 1 = all budgets at their floor).
+     */
+    public double getPressure() {
+        return enabled ? pressureController.getPressure() : 0.0;
+    }
+
+    /**
+     * Gets the controller pressure attributed to a world. With per-world tracking the
+     * heaviest world receives the full pressure and lighter worlds a share by load score.
+     */
+    public double getPressure(World world) {
+        double pressure = getPressure();
+        WorldPressureTracker.WorldState state = worldTracker.getState(world);
+        if (pressure <= 0.0 || state == null) {
+            return pressure;
+        }
+        if (!state.isShieldEnabled()) {
+            return 0.0;
+        }
+        double maxScore = worldTracker.getMaxScore();
+        return maxScore > 0 ? pressure * Math.min(1.0, state.getScore() / maxScore) : pressure;
+    }
+
+    /**
+     * Multiplier (0-1) applied to per-chunk mob limits: the stricter of the ladder level and the controller.
+     */
     public double getMobCapMultiplier() {
-        return isActive() ? mobCapMultiplier : 1.0;
+        if (!enabled) {
+            return 1.0;
+        }
+        ShieldLevel level = getCurrentLevel();
+        double levelMultiplier = level != null ? level.mobCapMultiplier : 1.0;
+        return Math.min(levelMultiplier, pressureController.getMobCapMultiplier());
+    }
+
+    /**
+     * Multiplier (0-1) applied to a world's mob limits and spawn limits.
+     */
+    public double getMobCapMultiplier(World world) {
+        if (!enabled) {
+            return 1.0;
+        }
+        ShieldLevel level = getCurrentLevel(world);
+        double levelMultiplier = level != null ? level.mobCapMultiplier : 1.0;
+        return Math.min(levelMultiplier, 1.0 - getPressure(world) * (1.0 - pressureController.getMobCapMultiplierFloor()));
     }
 
     public boolean shouldBlockNaturalSpawns() {
-        return isActive() && blockNaturalSpawns;
+        ShieldLevel level = getCurrentLevel();
+        return level != null && level.blockNaturalSpawns;
+    }
+
+    public boolean shouldBlockNaturalSpawns(World world) {
+        ShieldLevel level = getCurrentLevel(world);
+        return level != null && level.blockNaturalSpawns;
+    }
+
+    public boolean shouldDisableDistantMobAi(World world) {
+        ShieldLevel level = getCurrentLevel(world);
+        return level != null && level.disableDistantMobAi;
+    }
+
+    /**
+     * Multiplier (0-1) applied to redstone pulse and duration budgets.
+     */
+    public double getRedstoneBudgetMultiplier() {
+        if (!enabled) {
+            return 1.0;
+        }
+        ShieldLevel level = getCurrentLevel();
+        double levelMultiplier = level != null ? level.redstoneBudgetMultiplier : 1.0;
+        return Math.min(levelMultiplier, pressureController.getRedstoneBudgetMultiplier());
+    }
+
+    /**
+     * Multiplier (0-1) applied to redstone budgets of circuits in a world.
+     */
+    public double getRedstoneBudgetMultiplier(World world) {
+        if (!enabled) {
+            return 1.0;
+        }
+        ShieldLevel level = getCurrentLevel(world);
+        double levelMultiplier = level != null ? level.redstoneBudgetMultiplier : 1.0;
+        return Math.min(levelMultiplier, 1.0 - getPressure(world) * (1.0 - pressureController.getRedstoneBudgetMultiplierFloor()));
+    }
+
+    /**
+     * Multiplier (0-1) applied to hopper transfer rate caps.
+     */
+    public double getHopperBudgetMultiplier() {
+        if (!enabled) {
+            return 1.0;
+        }
+        ShieldLevel level = getCurrentLevel();
+        double levelMultiplier = level != null ? level.hopperBudgetMultiplier : 1.0;
+        return Math.min(levelMultiplier, pressureController.getHopperBudgetMultiplier());
+    }
+
+    /**
+     * Multiplier (0-1) applied to hopper transfer rate caps in a world.
+     */
+    public double getHopperBudgetMultiplier(World world) {
+        if (!enabled) {
+            return 1.0;
+        }
+        ShieldLevel level = getCurrentLevel(world);
+        double levelMultiplier = level != null ? level.hopperBudgetMultiplier : 1.0;
+        return Math.min(levelMultiplier, 1.0 - getPressure(world) * (1.0 - pressureController.getHopperBudgetMultiplierFloor()));
+    }
+
+    /**
+     * Multiplier (0-1) applied to the async chunk analyzer's concurrent analysis budget.
+     */
+    public double getAnalyzerBudgetMultiplier() {
+        return enabled ? pressureController.getAnalyzerBudgetMultiplier() : 1.0;
+    }
+
+    /**
+     * Entity cleanup aggressiveness (1.0 = configured behaviour, higher = stricter).
+     */
+    public double getEntityCleanupAggressiveness() {
+        return enabled ? pressureController.getEntityCleanupAggressiveness() : 1.0;
+    }
+
+    public boolean shouldPauseChunkPreloader() {
+        ShieldLevel level = getCurrentLevel();
+        return level != null && level.pauseChunkPreloader;
+    }
+
+    public boolean shouldPauseAutoScan() {
+        ShieldLevel level = getCurrentLevel();
+        return level != null && level.pauseAutoScan;
+    }
+
+    public boolean shouldPauseEntityCleanup() {
+        ShieldLevel level = getCurrentLevel();
+        return level != null && level.pauseEntityCleanup;
+    }
+
+    /**
+     * Gets LagShield statistics.
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("level", getLevel());
+        stats.put("max_level", levels.size());
+        stats.put("activated_by_forecast", isActivatedByForecast());
+        stats.put("seconds_in_level", levelEnteredAt > 0 ? (System.currentTimeMillis() - levelEnteredAt) / 1000L : 0L);
+        stats.put("level_changes", levelChanges);
+        stats.put("activations", activations);
+        stats.put("mob_cap_multiplier", getMobCapMultiplier());
+        stats.put("redstone_budget_multiplier", getRedstoneBudgetMultiplier());
+        stats.put("hopper_budget_multiplier", getHopperBudgetMultiplier());
+        stats.put("analyzer_budget_multiplier", getAnalyzerBudgetMultiplier());
+        stats.put("entity_cleanup_aggressiveness", getEntityCleanupAggressiveness());
+        stats.put("controller", pressureController.getStatistics());
+        stats.put("world_spawn_limits", spawnLimiter.getStatistics());
+        stats.put("per_world", worldTracker.getStatistics());
+        stats.put("adaptive_distance", distanceManager.getStatistics());
+        return stats;
+    }
+
+    public void resetStatistics() {
+        levelChanges = 0L;
+        activations = 0L;
+        pressureController.resetStatistics();
+        spawnLimiter.resetStatistics();
+        worldTracker.resetStatistics();
+        distanceManager.resetStatistics();
     }
 }
@@ -1,25 +1,39 @@
 package me.koyere.lagxpert.system;
 
 import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
 import me.koyere.lagxpert.utils.ConfigManager;
+import me.koyere.lagxpert.utils.PlayerGrid;
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
 import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.persistence.PersistentDataType;
 
 import java.io.File;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.UUID;
+import java.util.function.Predicate;
 
 /**
  * Optimizes server performance by managing entity AI.
  * Can disable AI for specific mob types, in specific worlds, or based on
  * distance.
  */
-public class MobAIOptimizer {
+public class MobAIOptimizer implements Listener {
+
+    private static final SelfOverheadMeter.Probe CHUNK_LOAD_PROBE = SelfOverheadMeter.probe("MobAIOptimizer#onChunkLoad");
 
     private static MobAIOptimizer instance;
     private boolean enabled;
@@ -27,8 +41,16 @@ public class MobAIOptimizer {
     private Set<String> disabledAiWorlds;
     private boolean distanceOptimizationEnabled;
     private int distanceThreshold;
+    private int enableDistance;
+    private int distanceCheckIntervalTicks;
+    private long distanceCheckMaxNanosPerTick;
+
+    // Entities whose AI was disabled by LagShield; tagged so the change can be undone after unloads
+    private final NamespacedKey shieldAiKey;
+    private final Set<UUID> shieldDisabledAi = new HashSet<>();
 
     private MobAIOptimizer() {
+        this.shieldAiKey = new NamespacedKey(LagXpert.getInstance(), "shield_noai");
         reloadConfig();
     }
 
@@ -60,8 +82,16 @@ public class MobAIOptimizer {
             this.disabledAiWorlds.add(world.toLowerCase());
         }
 
-        this.distanceOptimizationEnabled = config.getBoolean("ai-optimizer.distance-optimization.enabled", true);
-        this.distanceThreshold = config.getInt("ai-optimizer.distance-optimization.distance-threshold", 64);
+        // Older configs shipped enabled: true while the setting did nothing, so toggling AI also needs the explicit opt-in
+        this.distanceOptimizationEnabled = config.getBoolean("ai-optimizer.distance-optimization.enabled", false)
+                && config.getBoolean("ai-optimizer.distance-optimization.toggle-ai", false);
+        this.distanceThreshold = Math.max(1, config.getInt("ai-optimizer.distance-optimization.distance-threshold", 64));
+        // Below the disable distance, so mobs near the boundary do not flip every pass
+        this.enableDistance = Math.min(distanceThreshold,
+                config.getInt("ai-optimizer.distance-optimization.enable-distance", distanceThreshold - 16));
+        this.distanceCheckIntervalTicks = Math.max(1, config.getInt("ai-optimizer.distance-optimization.interval-ticks", 40));
+        this.distanceCheckMaxNanosPerTick = (long) (Math.max(0.1,
+                config.getDouble("ai-optimizer.distance-optimization.max-millis-per-tick", 1.0)) * 1_000_000L);
     }
 
     /**
@@ -88,68 +118,162 @@ public class MobAIOptimizer {
             return;
         }
 
-        // Distance optimization usually happens in a periodic task,
-        // but we can check initial spawn if needed, though usually spawn happens near
-        // players.
+        // Distance optimization runs periodically in MobActivationManager
     }
 
     /**
-     * Checks distance to nearest player and toggles AI accordingly.
-     * To be called from a periodic task for active chunks.
+     * Whether an entity's AI is disabled by its type or world, which distance optimization must not undo.
      */
-    public void checkDistanceOptimization(LivingEntity entity) {
-        if (!enabled || !distanceOptimizationEnabled)
-            return;
-        if (entity instanceof Player)
-            return;
-        if (!entity.isValid())
-            return;
+    public boolean isAiDisabledByConfig(LivingEntity entity) {
+        return disabledAiTypes.contains(entity.getType().name().toUpperCase())
+                || disabledAiWorlds.contains(entity.getWorld().getName().toLowerCase());
+    }
 
-        // If explicitly disabled by type/world, keep it disabled
-        if (disabledAiTypes.contains(entity.getType().name().toUpperCase()) ||
-                disabledAiWorlds.contains(entity.getWorld().getName().toLowerCase())) {
-            if (entity.hasAI())
-                entity.setAI(false);
-            return;
+    /**
+     * Disables AI for mobs further than the distance threshold from every player.
+     * Called by LagShield while a level with AI restrictions is active.
+     *
+     * @return Number of entities whose AI was disabled
+     */
+    public int disableDistantAi() {
+        return disableDistantAi(world -> true);
+    }
+
+    /**
+     * Disables AI for distant mobs in the worlds matching the filter.
+     *
+     * @param worlds Worlds to restrict
+     * @return Number of entities whose AI was disabled
+     */
+    public int disableDistantAi(Predicate<World> worlds) {
+        if (!enabled) {
+            return 0;
         }
 
-        Player nearest = findNearestPlayer(entity);
-        if (nearest == null) {
-            // No players in world? Disable AI to be safe/efficient
-            if (entity.hasAI())
+        double thresholdSq = (double) distanceThreshold * distanceThreshold;
+        SmartMobManager protection = SmartMobManager.getInstance();
+        int disabled = 0;
+        for (World world : Bukkit.getWorlds()) {
+            if (!worlds.test(world)) {
+                continue;
+            }
+            PlayerGrid players = new PlayerGrid(world, distanceThreshold);
+            for (LivingEntity entity : world.getLivingEntities()) {
+                if (entity instanceof Player || !entity.hasAI() || entity.hasMetadata("NPC") || entity.getCustomName() != null
+                        || entity.isInsideVehicle() || !entity.getPassengers().isEmpty()) {
+                    continue;
+                }
+                // Distance check first: it is cheaper than the protection rules
+                if (players.nearestDistanceSquared(entity.getLocation()) <= thresholdSq
+                        || protection.shouldProtectEntity(entity)) {
+                    continue;
+                }
+
                 entity.setAI(false);
-            return;
+                entity.getPersistentDataContainer().set(shieldAiKey, PersistentDataType.BYTE, (byte) 1);
+                shieldDisabledAi.add(entity.getUniqueId());
+                disabled++;
+            }
         }
 
-        double distanceSq = entity.getLocation().distanceSquared(nearest.getLocation());
-        double thresholdSq = distanceThreshold * distanceThreshold;
+        if (ConfigManager.isDebugEnabled() && disabled > 0) {
+            LagXpert.getInstance().getLogger().info("[MobAIOptimizer] LagShield disabled AI for " + disabled + " distant mobs.");
+        }
+        return disabled;
+    }
 
-        if (distanceSq > thresholdSq) {
-            if (entity.hasAI())
-                entity.setAI(false);
-        } else {
-            // Re-enable AI if player comes close
-            if (!entity.hasAI())
-                entity.setAI(true);
+    /**
+     * Re-enables AI for every loaded entity disabled by {@link #disableDistantAi()}.
+     * Entities that were unloaded in the meantime are restored when their chunk loads.
+     *
+     * @return Number of entities whose AI was restored
+     */
+    public int restoreDistantAi() {
+        return restoreDistantAi(world -> true);
+    }
+
+    /**
+     * Re-enables AI for loaded entities disabled by LagShield in the worlds matching the filter.
+     * Entities that are no longer loaded are forgotten and restored when their chunk loads.
+     *
+     * @param worlds Worlds to restore
+     * @return Number of entities whose AI was restored
+     */
+    public int restoreDistantAi(Predicate<World> worlds) {
+        int restored = 0;
+        Iterator<UUID> iterator = shieldDisabledAi.iterator();
+        while (iterator.hasNext()) {
+            Entity entity = Bukkit.getEntity(iterator.next());
+            if (!(entity instanceof LivingEntity) || !entity.isValid()) {
+                iterator.remove();
+                continue;
+            }
+            if (worlds.test(entity.getWorld())) {
+                restoreAi((LivingEntity) entity);
+                iterator.remove();
+                restored++;
+            }
         }
+        return restored;
+    }
+
+    public boolean hasShieldDisabledAi() {
+        return !shieldDisabledAi.isEmpty();
+    }
+
+    private void restoreAi(LivingEntity entity) {
+        entity.getPersistentDataContainer().remove(shieldAiKey);
+        entity.setAI(true);
     }
 
-    private Player findNearestPlayer(Entity entity) {
-        World world = entity.getWorld();
-        Player nearest = null;
-        double minDstSq = Double.MAX_VALUE;
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        long probeStart = CHUNK_LOAD_PROBE.start();
+        try {
+            for (Entity entity : event.getChunk().getEntities()) {
+                if (!(entity instanceof LivingEntity) || ((LivingEntity) entity).hasAI()) {
+                    continue;
+                }
+                LivingEntity living = (LivingEntity) entity;
+                if (!living.getPersistentDataContainer().has(shieldAiKey, PersistentDataType.BYTE)) {
+                    continue;
+                }
 
-        for (Player p : world.getPlayers()) {
-            double dstSq = p.getLocation().distanceSquared(entity.getLocation());
-            if (dstSq < minDstSq) {
-                minDstSq = dstSq;
-                nearest = p;
+                // Still restricted: keep it tracked so the next restore covers it
+                if (LagShield.getInstance().shouldDisableDistantMobAi(event.getWorld())) {
+                    shieldDisabledAi.add(living.getUniqueId());
+                } else {
+                    restoreAi(living);
+                }
             }
+        } finally {
+            CHUNK_LOAD_PROBE.stop(probeStart);
         }
-        return nearest;
     }
 
     public boolean isEnabled() {
         return enabled;
     }
+
+    public boolean isDistanceOptimizationEnabled() {
+        return distanceOptimizationEnabled;
+    }
+
+    /** Distance beyond which mobs lose their AI. */
+    public int getDistanceThreshold() {
+        return distanceThreshold;
+    }
+
+    /** Distance within which mobs disabled by distance get their AI back. */
+    public int getEnableDistance() {
+        return enableDistance;
+    }
+
+    public int getDistanceCheckIntervalTicks() {
+        return distanceCheckIntervalTicks;
+    }
+
+    public long getDistanceCheckMaxNanosPerTick() {
+        return distanceCheckMaxNanosPerTick;
+    }
 }
@@ -0,0 +1,240 @@
+package me.koyere.lagxpert.system;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
+import me.koyere.lagxpert.utils.PlayerGrid;
+import me.koyere.lagxpert.utils.SchedulerWrapper;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Distance-based AI activation for mobs (ai-optimizer.distance-optimization in mobs.yml).
+ * Loaded chunks are re-evaluated periodically under a per-tick time budget. A mob's AI
+ * is disabled once no player is within the disable distance and enabled again once a
+ * player comes within the (shorter) enable distance, so mobs near the boundary do not
+ * flip every pass. Player positions are bucketed per world into a grid of
+ * disable-distance cells, so each mob only checks players in the adjacent cells.
+ * Only mobs disabled here are re-enabled here (they are tagged); mobs protected by
+ * {@link SmartMobManager} and mobs whose AI is disabled by type or world are left alone.
+ */
+public class MobActivationManager implements Listener {
+
+    private static final SelfOverheadMeter.Probe PASS_PROBE = SelfOverheadMeter.probe("MobActivationManager#processChunks");
+    private static final SelfOverheadMeter.Probe CHUNK_LOAD_PROBE = SelfOverheadMeter.probe("MobActivationManager#onChunkLoad");
+
+    private static MobActivationManager instance;
+
+    private final NamespacedKey distanceAiKey;
+    // Loaded mobs whose AI is currently disabled by this manager
+    private final Set<UUID> disabledMobs = new HashSet<>();
+
+    private BukkitTask tickTask;
+    private final ArrayDeque<Chunk> pendingChunks = new ArrayDeque<>();
+    // Player positions per world, rebuilt every tick that evaluates chunks
+    private final Map<UUID, PlayerGrid> playerGrids = new HashMap<>();
+    private long currentTick = 0L;
+    private long lastRefillTick = Long.MIN_VALUE;
+
+    private long aiDisabled = 0L;
+    private long aiEnabled = 0L;
+    private long chunksScanned = 0L;
+
+    private MobActivationManager() {
+        this.distanceAiKey = new NamespacedKey(LagXpert.getInstance(), "distance_noai");
+    }
+
+    public static MobActivationManager getInstance() {
+        if (instance == null) {
+            instance = new MobActivationManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts the periodic re-evaluation if distance optimization is enabled. Replaces any previous task.
+     */
+    public void start() {
+        stop();
+        MobAIOptimizer optimizer = MobAIOptimizer.getInstance();
+        if (!optimizer.isEnabled() || !optimizer.isDistanceOptimizationEnabled()) {
+            return;
+        }
+        tickTask = SchedulerWrapper.runTaskTimer(this::tick, 40L, 1L);
+    }
+
+    /**
+     * Stops the task and re-enables AI for every loaded mob disabled by this manager.
+     * Mobs unloaded in the meantime are restored when their chunk loads.
+     */
+    public void stop() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        pendingChunks.clear();
+        playerGrids.clear();
+        lastRefillTick = Long.MIN_VALUE;
+
+        for (UUID uuid : disabledMobs) {
+            Entity entity = Bukkit.getEntity(uuid);
+            if (entity instanceof LivingEntity && entity.isValid()) {
+                enableAi((LivingEntity) entity);
+            }
+        }
+        disabledMobs.clear();
+    }
+
+    public boolean isEnabled() {
+        return tickTask != null;
+    }
+
+    private void tick() {
+        currentTick++;
+        if (pendingChunks.isEmpty()) {
+            if (currentTick - lastRefillTick < MobAIOptimizer.getInstance().getDistanceCheckIntervalTicks()) {
+                return;
+            }
+            for (World world : Bukkit.getWorlds()) {
+                for (Chunk chunk : world.getLoadedChunks()) {
+                    pendingChunks.add(chunk);
+                }
+            }
+            lastRefillTick = currentTick;
+            disabledMobs.removeIf(uuid -> {
+                Entity entity = Bukkit.getEntity(uuid);
+                return entity == null || !entity.isValid();
+            });
+            if (pendingChunks.isEmpty()) {
+                return;
+            }
+        }
+        processChunks();
+    }
+
+    /**
+     * Evaluates queued chunks until the tick's time budget is used up (at least one chunk per tick).
+     */
+    private void processChunks() {
+        long probeStart = PASS_PROBE.start();
+        try {
+            MobAIOptimizer optimizer = MobAIOptimizer.getInstance();
+            double cellSize = optimizer.getDistanceThreshold();
+            double disableSq = cellSize * cellSize;
+            double enableSq = (double) optimizer.getEnableDistance() * optimizer.getEnableDistance();
+            long deadline = System.nanoTime() + optimizer.getDistanceCheckMaxNanosPerTick();
+
+            playerGrids.clear();
+            do {
+                Chunk chunk = pendingChunks.poll();
+                if (chunk.isLoaded()) {
+                    PlayerGrid grid = playerGrids.computeIfAbsent(chunk.getWorld().getUID(),
+                            uuid -> new PlayerGrid(chunk.getWorld(), cellSize));
+                    evaluateChunk(chunk, grid, disableSq, enableSq);
+                    chunksScanned++;
+                }
+            } while (!pendingChunks.isEmpty() && System.nanoTime() < deadline);
+        } finally {
+            PASS_PROBE.stop(probeStart);
+        }
+    }
+
+    private void evaluateChunk(Chunk chunk, PlayerGrid grid, double disableSq, double enableSq) {
+        MobAIOptimizer optimizer = MobAIOptimizer.getInstance();
+        SmartMobManager protection = SmartMobManager.getInstance();
+
+        for (Entity entity : chunk.getEntities()) {
+            if (!(entity instanceof LivingEntity) || entity instanceof Player || !entity.isValid()) {
+                continue;
+            }
+            LivingEntity mob = (LivingEntity) entity;
+            boolean disabledHere = mob.getPersistentDataContainer().has(distanceAiKey, PersistentDataType.BYTE);
+
+            if (!disabledHere) {
+                // AI turned off by someone else, or a mob that must not be touched
+                if (!mob.hasAI() || mob.hasMetadata("NPC") || optimizer.isAiDisabledByConfig(mob)
+                        || protection.shouldProtectEntity(mob)) {
+                    continue;
+                }
+                if (grid.nearestDistanceSquared(mob.getLocation()) > disableSq) {
+                    mob.setAI(false);
+                    mob.getPersistentDataContainer().set(distanceAiKey, PersistentDataType.BYTE, (byte) 1);
+                    disabledMobs.add(mob.getUniqueId());
+                    aiDisabled++;
+                }
+            } else if (grid.nearestDistanceSquared(mob.getLocation()) <= enableSq
+                    || protection.shouldProtectEntity(mob)) {
+                // Mobs that became protected (named, leashed, ...) get their AI back as well
+                enableAi(mob);
+                disabledMobs.remove(mob.getUniqueId());
+                aiEnabled++;
+            } else {
+                disabledMobs.add(mob.getUniqueId());
+            }
+        }
+    }
+
+    private void enableAi(LivingEntity mob) {
+        mob.getPersistentDataContainer().remove(distanceAiKey);
+        mob.setAI(true);
+    }
+
+    /**
+     * Restores mobs that were unloaded while disabled here if the manager no longer runs;
+     * otherwise the next pass re-evaluates them.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        long probeStart = CHUNK_LOAD_PROBE.start();
+        try {
+            if (isEnabled()) {
+                return;
+            }
+            for (Entity entity : event.getChunk().getEntities()) {
+                if (entity instanceof LivingEntity
+                        && entity.getPersistentDataContainer().has(distanceAiKey, PersistentDataType.BYTE)) {
+                    enableAi((LivingEntity) entity);
+                }
+            }
+        } finally {
+            CHUNK_LOAD_PROBE.stop(probeStart);
+        }
+    }
+
+    /**
+     * Gets AI activation statistics.
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("mobs_inactive", disabledMobs.size());
+        stats.put("ai_disabled", aiDisabled);
+        stats.put("ai_enabled", aiEnabled);
+        stats.put("chunks_scanned", chunksScanned);
+        stats.put("pending_chunks", pendingChunks.size());
+        return stats;
+    }
+
+    public void resetStatistics() {
+        aiDisabled = 0L;
+        aiEnabled = 0L;
+        chunksScanned = 0L;
+    }
+}
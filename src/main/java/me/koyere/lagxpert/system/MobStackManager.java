@@ -0,0 +1,416 @@
+package me.koyere.lagxpert.system;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.config.WorldConfigManager;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
+import me.koyere.lagxpert.utils.BlockKey;
+import me.koyere.lagxpert.utils.ConfigManager;
+import me.koyere.lagxpert.utils.LongObjectMap;
+import me.koyere.lagxpert.utils.SchedulerWrapper;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.AbstractVillager;
+import org.bukkit.entity.Ageable;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Sheep;
+import org.bukkit.entity.Slime;
+import org.bukkit.entity.ZombieVillager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.inventory.EntityEquipment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Merges nearby mobs of the same type and state into one entity carrying a count,
+ * stored in the entity's PersistentDataContainer so stacks survive chunk unloads and
+ * restarts. When a stacked mob dies it drops its own loot and XP as usual and a copy
+ * carrying the remaining count takes its place.
+ * Loaded chunks are scanned incrementally, a few per tick. Within a chunk, mobs are
+ * bucketed into a grid of merge-radius cells, so each mob is only compared with mobs
+ * in its own and neighbouring cells. Mobs protected by {@link SmartMobManager} are
+ * never stacked, nor are mobs with state a stack cannot keep (equipment, loot, damage,
+ * villager data).
+ */
+public class MobStackManager implements Listener {
+
+    private static final SelfOverheadMeter.Probe SCAN_PROBE = SelfOverheadMeter.probe("MobStackManager#processChunks");
+
+    private static MobStackManager instance;
+
+    private final NamespacedKey stackKey;
+
+    private BukkitTask tickTask;
+    private final ArrayDeque<Chunk> pendingChunks = new ArrayDeque<>();
+    private final Map<UUID, WorldSettings> settingsByWorld = new HashMap<>();
+    private long lastRefillTick = Long.MIN_VALUE;
+    private long currentTick = 0L;
+    // Set while a stack remainder is spawned, so spawn limits do not cancel it
+    private boolean spawningRemainder = false;
+
+    private long mergedEntities = 0L;
+    private long stackDeaths = 0L;
+    private long chunksScanned = 0L;
+
+    /**
+     * Stacking settings of one world, resolved once per scan cycle.
+     */
+    private static final class WorldSettings {
+        private final double radius;
+        private final double radiusSquared;
+        private final int maxStackSize;
+        private final Set<EntityType> types;
+
+        private WorldSettings(double radius, int maxStackSize, Set<EntityType> types) {
+            this.radius = radius;
+            this.radiusSquared = radius * radius;
+            this.maxStackSize = maxStackSize;
+            this.types = types;
+        }
+    }
+
+    private MobStackManager() {
+        this.stackKey = new NamespacedKey(LagXpert.getInstance(), "stack_size");
+    }
+
+    public static MobStackManager getInstance() {
+        if (instance == null) {
+            instance = new MobStackManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts the incremental chunk scan. Replaces any previous task.
+     */
+    public void start() {
+        stop();
+        if (!ConfigManager.isMobsModuleEnabled() || !ConfigManager.isMobStackingEnabled()) {
+            return;
+        }
+        tickTask = SchedulerWrapper.runTaskTimer(this::tick, 20L, 1L);
+    }
+
+    /**
+     * Stops the scan. Existing stacks keep their counts.
+     */
+    public void stop() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        pendingChunks.clear();
+        settingsByWorld.clear();
+        lastRefillTick = Long.MIN_VALUE;
+    }
+
+    public boolean isEnabled() {
+        return tickTask != null;
+    }
+
+    /**
+     * Whether a stack remainder is being spawned right now (spawn limits should let it through).
+     */
+    public boolean isSpawningRemainder() {
+        return spawningRemainder;
+    }
+
+    /**
+     * Number of mobs an entity stands for; 1 for entities that are not stacked.
+     */
+    public int getStackSize(Entity entity) {
+        Integer size = entity.getPersistentDataContainer().get(stackKey, PersistentDataType.INTEGER);
+        return size != null && size > 1 ? size : 1;
+    }
+
+    public boolean isStacked(Entity entity) {
+        return getStackSize(entity) > 1;
+    }
+
+    private void tick() {
+        currentTick++;
+        if (pendingChunks.isEmpty()) {
+            if (currentTick - lastRefillTick < ConfigManager.getMobStackingScanIntervalTicks()) {
+                return;
+            }
+            refill();
+            lastRefillTick = currentTick;
+        }
+        processChunks();
+    }
+
+    /**
+     * Queues the loaded chunks of every world with stacking enabled and resolves their settings.
+     */
+    private void refill() {
+        settingsByWorld.clear();
+        for (World world : Bukkit.getWorlds()) {
+            WorldSettings settings = resolveSettings(world);
+            if (settings == null) {
+                continue;
+            }
+            settingsByWorld.put(world.getUID(), settings);
+            for (Chunk chunk : world.getLoadedChunks()) {
+                pendingChunks.add(chunk);
+            }
+        }
+    }
+
+    private WorldSettings resolveSettings(World world) {
+        if (!WorldConfigManager.isMobStackingEnabled(world)) {
+            return null;
+        }
+        Set<EntityType> types = EnumSet.noneOf(EntityType.class);
+        for (Object name : WorldConfigManager.getMobStackingTypes(world)) {
+            try {
+                types.add(EntityType.valueOf(String.valueOf(name).trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                if (ConfigManager.isDebugEnabled()) {
+                    LagXpert.getInstance().getLogger().warning("[MobStackManager] Unknown entity type in mob-stacking.types: " + name);
+                }
+            }
+        }
+        double radius = WorldConfigManager.getMobStackingRadius(world);
+        int maxStackSize = WorldConfigManager.getMobStackingMaxSize(world);
+        if (types.isEmpty() || radius <= 0 || maxStackSize < 2) {
+            return null;
+        }
+        return new WorldSettings(radius, maxStackSize, types);
+    }
+
+    private void processChunks() {
+        long probeStart = SCAN_PROBE.start();
+        try {
+            int budget = ConfigManager.getMobStackingChunksPerTick();
+            while (budget-- > 0 && !pendingChunks.isEmpty()) {
+                Chunk chunk = pendingChunks.poll();
+                WorldSettings settings = settingsByWorld.get(chunk.getWorld().getUID());
+                if (settings != null && chunk.isLoaded()) {
+                    mergeChunk(chunk, settings);
+                    chunksScanned++;
+                }
+            }
+        } finally {
+            SCAN_PROBE.stop(probeStart);
+        }
+    }
+
+    /**
+     * Merges stackable mobs of one chunk. Each mob either joins a compatible stack in its
+     * own or a neighbouring grid cell, or becomes a stack other mobs can join.
+     */
+    private void mergeChunk(Chunk chunk, WorldSettings settings) {
+        LongObjectMap<List<LivingEntity>> grid = new LongObjectMap<>();
+        SmartMobManager protection = SmartMobManager.getInstance();
+
+        for (Entity entity : chunk.getEntities()) {
+            if (!(entity instanceof LivingEntity) || !settings.types.contains(entity.getType())) {
+                continue;
+            }
+            LivingEntity mob = (LivingEntity) entity;
+            if (!mob.isValid() || mob.isInsideVehicle() || !mob.getPassengers().isEmpty()
+                    || protection.shouldProtectEntity(mob) || hasUncopiedState(mob)) {
+                continue;
+            }
+
+            Location location = mob.getLocation();
+            int cellX = (int) Math.floor(location.getX() / settings.radius);
+            int cellY = (int) Math.floor(location.getY() / settings.radius);
+            int cellZ = (int) Math.floor(location.getZ() / settings.radius);
+            int size = getStackSize(mob);
+
+            LivingEntity target = size < settings.maxStackSize
+                    ? findTarget(grid, mob, location, size, cellX, cellY, cellZ, settings) : null;
+            if (target != null) {
+                setStackSize(target, getStackSize(target) + size);
+                mob.remove();
+                mergedEntities += size;
+                continue;
+            }
+
+            long cellKey = BlockKey.pack(cellX, cellY, cellZ);
+            List<LivingEntity> cell = grid.get(cellKey);
+            if (cell == null) {
+                cell = new ArrayList<>(4);
+                grid.put(cellKey, cell);
+            }
+            cell.add(mob);
+        }
+    }
+
+    private LivingEntity findTarget(LongObjectMap<List<LivingEntity>> grid, LivingEntity mob, Location location,
+                                    int size, int cellX, int cellY, int cellZ, WorldSettings settings) {
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    List<LivingEntity> cell = grid.get(BlockKey.pack(cellX + dx, cellY + dy, cellZ + dz));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (LivingEntity candidate : cell) {
+                        if (candidate.getType() == mob.getType()
+                                && getStackSize(candidate) + size <= settings.maxStackSize
+                                && candidate.getLocation().distanceSquared(location) <= settings.radiusSquared
+                                && hasSameState(candidate, mob)) {
+                            return candidate;
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether two mobs of the same type look and behave alike, so one can stand for the other.
+     */
+    private boolean hasSameState(LivingEntity a, LivingEntity b) {
+        if (a instanceof Ageable && ((Ageable) a).isAdult() != ((Ageable) b).isAdult()) {
+            return false;
+        }
+        if (a instanceof Sheep) {
+            Sheep sheepA = (Sheep) a;
+            Sheep sheepB = (Sheep) b;
+            if (sheepA.getColor() != sheepB.getColor() || sheepA.isSheared() != sheepB.isSheared()) {
+                return false;
+            }
+        }
+        return !(a instanceof Slime) || ((Slime) a).getSize() == ((Slime) b).getSize();
+    }
+
+    /**
+     * Whether a mob carries state a stack cannot keep: merging would delete it and a
+     * remainder spawned on death would not have it (equipment, picked-up loot, damage,
+     * villager professions and trades).
+     */
+    private boolean hasUncopiedState(LivingEntity mob) {
+        if (mob.getCanPickupItems() || mob instanceof AbstractVillager || mob instanceof ZombieVillager) {
+            return true;
+        }
+        AttributeInstance maxHealth = mob.getAttribute(Attribute.GENERIC_MAX_HEALTH);
+        if (maxHealth != null && mob.getHealth() < maxHealth.getValue()) {
+            return true;
+        }
+        EntityEquipment equipment = mob.getEquipment();
+        if (equipment == null) {
+            return false;
+        }
+        for (ItemStack item : equipment.getArmorContents()) {
+            if (item != null && item.getType() != Material.AIR) {
+                return true;
+            }
+        }
+        return (equipment.getItemInMainHand() != null && equipment.getItemInMainHand().getType() != Material.AIR)
+                || (equipment.getItemInOffHand() != null && equipment.getItemInOffHand().getType() != Material.AIR);
+    }
+
+    private void copyState(LivingEntity from, LivingEntity to) {
+        if (from instanceof Ageable) {
+            if (((Ageable) from).isAdult()) {
+                ((Ageable) to).setAdult();
+            } else {
+                ((Ageable) to).setBaby();
+            }
+        }
+        if (from instanceof Sheep) {
+            ((Sheep) to).setColor(((Sheep) from).getColor());
+            ((Sheep) to).setSheared(((Sheep) from).isSheared());
+        }
+        if (from instanceof Slime) {
+            ((Slime) to).setSize(((Slime) from).getSize());
+        }
+    }
+
+    private void setStackSize(LivingEntity entity, int size) {
+        if (size > 1) {
+            entity.getPersistentDataContainer().set(stackKey, PersistentDataType.INTEGER, size);
+            if (ConfigManager.isMobStackingNameEnabled()) {
+                String typeName = entity.getType().name().toLowerCase(Locale.ROOT).replace('_', ' ');
+                entity.setCustomName(ChatColor.translateAlternateColorCodes('&', ConfigManager.getMobStackingNameFormat()
+                        .replace("{count}", String.valueOf(size))
+                        .replace("{type}", typeName)));
+                entity.setCustomNameVisible(true);
+            }
+        } else {
+            entity.getPersistentDataContainer().remove(stackKey);
+            if (ConfigManager.isMobStackingNameEnabled()) {
+                entity.setCustomName(null);
+                entity.setCustomNameVisible(false);
+            }
+        }
+    }
+
+    /**
+     * A stacked mob dies as a single mob (its own drops and XP); a copy carrying the rest
+     * of the stack is spawned in its place.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityDeath(EntityDeathEvent event) {
+        LivingEntity dead = event.getEntity();
+        int size = getStackSize(dead);
+        if (size <= 1) {
+            return;
+        }
+        dead.getPersistentDataContainer().remove(stackKey);
+        stackDeaths++;
+
+        Location location = dead.getLocation();
+        World world = location.getWorld();
+        if (world == null) {
+            return;
+        }
+        Entity spawned;
+        spawningRemainder = true;
+        try {
+            spawned = world.spawnEntity(location, dead.getType());
+        } finally {
+            spawningRemainder = false;
+        }
+        if (spawned instanceof LivingEntity && spawned.isValid()) {
+            LivingEntity remainder = (LivingEntity) spawned;
+            copyState(dead, remainder);
+            setStackSize(remainder, size - 1);
+        }
+    }
+
+    /**
+     * Gets mob stacking statistics.
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("merged_entities", mergedEntities);
+        stats.put("stack_deaths", stackDeaths);
+        stats.put("chunks_scanned", chunksScanned);
+        stats.put("pending_chunks", pendingChunks.size());
+        return stats;
+    }
+
+    public void resetStatistics() {
+        mergedEntities = 0L;
+        stackDeaths = 0L;
+        chunksScanned = 0L;
+    }
+}
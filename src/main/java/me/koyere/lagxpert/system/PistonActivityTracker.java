@@ -0,0 +1,263 @@
+package me.koyere.lagxpert.system;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.utils.BlockKey;
+import me.koyere.lagxpert.utils.ConfigManager;
+import me.koyere.lagxpert.utils.LongObjectMap;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-chunk piston and observer activity. Counts piston moves and moved blocks per
+ * chunk in one-second windows and rejects pushes once a chunk exceeds its configured
+ * moves or moved-blocks per second (scaled by LagShield under load), which stops
+ * flying machines and zero-tick farms from running unbounded.
+ * Observer pulses are counted per chunk as well, for statistics.
+ * Must be used from the main thread.
+ */
+public class PistonActivityTracker {
+
+    // Chunks without activity for this many seconds are forgotten
+    private static final long IDLE_CHUNK_SECONDS = 60L;
+    private static final long CLEANUP_INTERVAL_SECONDS = 60L;
+
+    private static final Map<UUID, WorldActivity> activityByWorld = new ConcurrentHashMap<>();
+
+    private static volatile long pistonMoves = 0L;
+    private static volatile long blocksMoved = 0L;
+    private static volatile long cancelledMoves = 0L;
+    private static volatile long observerPulses = 0L;
+
+    /**
+     * Chunk activity and per-second limits of one world.
+     */
+    private static final class WorldActivity {
+        private final LongObjectMap<ChunkActivity> chunks = new LongObjectMap<>();
+        private int maxMovesPerSecond;
+        private int maxBlocksPerSecond;
+        private long refreshedSecond = Long.MIN_VALUE;
+        private long lastCleanupSecond;
+    }
+
+    /**
+     * Activity of one chunk: counts of the current second and totals of the previous one.
+     */
+    private static final class ChunkActivity {
+        private final long chunkKey;
+        private long second;
+        private int moves;
+        private int blocks;
+        private int observerPulses;
+        private int lastMoves;
+        private int lastBlocks;
+        private int lastObserverPulses;
+        private long totalBlocks;
+        private long lastLimitedSecond = Long.MIN_VALUE;
+
+        private ChunkActivity(long chunkKey, long second) {
+            this.chunkKey = chunkKey;
+            this.second = second;
+        }
+
+        private void roll(long now) {
+            if (second == now) {
+                return;
+            }
+            boolean consecutive = now - second == 1;
+            lastMoves = consecutive ? moves : 0;
+            lastBlocks = consecutive ? blocks : 0;
+            lastObserverPulses = consecutive ? observerPulses : 0;
+            moves = 0;
+            blocks = 0;
+            observerPulses = 0;
+            second = now;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ConfigManager.isRedstoneControlModuleEnabled() && ConfigManager.isPistonLimitsEnabled();
+    }
+
+    /**
+     * Records a piston extending or retracting, unless its chunk is over its limits.
+     *
+     * @param piston     The piston block
+     * @param movedCount Number of blocks the piston moves
+     * @return False if the move exceeds the chunk's limits and should be cancelled
+     */
+    public static boolean tryMove(Block piston, int movedCount) {
+        if (!isEnabled()) {
+            return true;
+        }
+
+        World world = piston.getWorld();
+        long now = System.currentTimeMillis() / 1000L;
+        WorldActivity activity = getActivity(world, now);
+        ChunkActivity chunk = getChunk(activity, BlockKey.chunkOf(piston.getX(), piston.getZ()), now);
+
+        if (chunk.moves >= activity.maxMovesPerSecond || chunk.blocks + movedCount > activity.maxBlocksPerSecond) {
+            // Whitelisted circuits are never throttled
+            RedstoneCircuitTracker.RedstoneCircuit circuit = RedstoneCircuitTracker.getCircuit(world, BlockKey.pack(piston));
+            if (circuit == null || !circuit.isWhitelisted()) {
+                cancelledMoves++;
+                // One log line per chunk and window, not per cancelled push
+                if (chunk.lastLimitedSecond != now) {
+                    chunk.lastLimitedSecond = now;
+                    if (ConfigManager.isDebugEnabled()) {
+                        LagXpert.getInstance().getLogger().info("[PistonActivityTracker] Chunk " + world.getName() + " ("
+                                + (piston.getX() >> 4) + ", " + (piston.getZ() >> 4) + ") exceeded its piston limits.");
+                    }
+                }
+                return false;
+            }
+        }
+
+        chunk.moves++;
+        chunk.blocks += movedCount;
+        chunk.totalBlocks += movedCount;
+        pistonMoves++;
+        blocksMoved += movedCount;
+        return true;
+    }
+
+    /**
+     * Records an observer emitting a pulse.
+     */
+    public static void recordObserverPulse(Block observer) {
+        if (!isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis() / 1000L;
+        WorldActivity activity = getActivity(observer.getWorld(), now);
+        getChunk(activity, BlockKey.chunkOf(observer.getX(), observer.getZ()), now).observerPulses++;
+        observerPulses++;
+    }
+
+    private static WorldActivity getActivity(World world, long now) {
+        WorldActivity activity = activityByWorld.get(world.getUID());
+        if (activity == null) {
+            activity = new WorldActivity();
+            activity.lastCleanupSecond = now;
+            activityByWorld.put(world.getUID(), activity);
+        }
+        if (activity.refreshedSecond != now) {
+            double multiplier = LagShield.getInstance().getRedstoneBudgetMultiplier(world);
+            activity.maxMovesPerSecond = Math.max(1, (int) Math.round(ConfigManager.getMaxPistonMovesPerSecond() * multiplier));
+            activity.maxBlocksPerSecond = Math.max(1, (int) Math.round(ConfigManager.getMaxPistonBlocksPerSecond() * multiplier));
+            activity.refreshedSecond = now;
+
+            if (now - activity.lastCleanupSecond >= CLEANUP_INTERVAL_SECONDS) {
+                activity.chunks.removeIf(chunk -> now - chunk.second > IDLE_CHUNK_SECONDS);
+                activity.lastCleanupSecond = now;
+            }
+        }
+        return activity;
+    }
+
+    private static ChunkActivity getChunk(WorldActivity activity, long chunkKey, long now) {
+        ChunkActivity chunk = activity.chunks.get(chunkKey);
+        if (chunk == null) {
+            chunk = new ChunkActivity(chunkKey, now);
+            activity.chunks.put(chunkKey, chunk);
+        } else {
+            chunk.roll(now);
+        }
+        return chunk;
+    }
+
+    /**
+     * Piston moves per second of a chunk, measured over the last full second.
+     */
+    public static int getMovesPerSecond(World world, int chunkX, int chunkZ) {
+        ChunkActivity chunk = getChunkIfPresent(world, chunkX, chunkZ);
+        return chunk != null ? chunk.lastMoves : 0;
+    }
+
+    /**
+     * Blocks moved by pistons per second in a chunk, measured over the last full second.
+     */
+    public static int getBlocksMovedPerSecond(World world, int chunkX, int chunkZ) {
+        ChunkActivity chunk = getChunkIfPresent(world, chunkX, chunkZ);
+        return chunk != null ? chunk.lastBlocks : 0;
+    }
+
+    /**
+     * Blocks moved by pistons in a chunk since it was first tracked.
+     */
+    public static long getTotalBlocksMoved(World world, int chunkX, int chunkZ) {
+        ChunkActivity chunk = getChunkIfPresent(world, chunkX, chunkZ);
+        return chunk != null ? chunk.totalBlocks : 0L;
+    }
+
+    private static ChunkActivity getChunkIfPresent(World world, int chunkX, int chunkZ) {
+        WorldActivity activity = activityByWorld.get(world.getUID());
+        if (activity == null) {
+            return null;
+        }
+        ChunkActivity chunk = activity.chunks.get(BlockKey.packChunk(chunkX, chunkZ));
+        if (chunk != null) {
+            chunk.roll(System.currentTimeMillis() / 1000L);
+        }
+        return chunk;
+    }
+
+    /**
+     * Gets piston and observer statistics.
+     */
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("piston_moves", pistonMoves);
+        stats.put("blocks_moved", blocksMoved);
+        stats.put("cancelled_moves", cancelledMoves);
+        stats.put("observer_pulses", observerPulses);
+
+        long now = System.currentTimeMillis() / 1000L;
+        int trackedChunks = 0;
+        int highestMovesPerSecond = 0;
+        int highestObserverPulsesPerSecond = 0;
+        String busiestChunk = "none";
+        for (Map.Entry<UUID, WorldActivity> entry : activityByWorld.entrySet()) {
+            World world = Bukkit.getWorld(entry.getKey());
+            if (world == null) {
+                activityByWorld.remove(entry.getKey());
+                continue;
+            }
+            for (ChunkActivity chunk : entry.getValue().chunks.values()) {
+                chunk.roll(now);
+                trackedChunks++;
+                highestObserverPulsesPerSecond = Math.max(highestObserverPulsesPerSecond, chunk.lastObserverPulses);
+                if (chunk.lastMoves > highestMovesPerSecond) {
+                    highestMovesPerSecond = chunk.lastMoves;
+                    busiestChunk = world.getName() + " [" + BlockKey.getChunkX(chunk.chunkKey) + ", "
+                            + BlockKey.getChunkZ(chunk.chunkKey) + "]";
+                }
+            }
+        }
+        stats.put("tracked_chunks", trackedChunks);
+        stats.put("highest_moves_per_second", highestMovesPerSecond);
+        stats.put("highest_observer_pulses_per_second", highestObserverPulsesPerSecond);
+        stats.put("busiest_chunk", busiestChunk);
+        return stats;
+    }
+
+    public static void resetStatistics() {
+        pistonMoves = 0L;
+        blocksMoved = 0L;
+        cancelledMoves = 0L;
+        observerPulses = 0L;
+    }
+
+    /**
+     * Clears all chunk activity. Used during plugin reload.
+     */
+    public static void clearAll() {
+        activityByWorld.clear();
+    }
+}
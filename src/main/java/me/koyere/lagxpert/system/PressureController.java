@@ -0,0 +1,216 @@
+package me.koyere.lagxpert.system;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Closed-loop MSPT controller for LagShield.
+ * A PID controller that holds MSPT at a target by producing a single "pressure"
+ * value between 0 (no restriction) and 1 (every consumer at its configured floor).
+ * Consumers scale their budgets with {@link #scale(double)}.
+ *
+ * The error is normalized by the target, so gains do not depend on the target value.
+ * The derivative acts on the measurement (no kick when the target changes), the
+ * integral is clamped and frozen while the output is saturated (anti-windup), and
+ * the output may only move by a limited amount per second.
+ */
+public class PressureController {
+
+    // Tick-interval MSPT never reads below 50ms; aim just above it on such servers
+    private static final double IMPRECISE_MIN_TARGET_MS = 52.0;
+    // Low-pass factor for the derivative term (0-1, higher = less filtering)
+    private static final double DERIVATIVE_FILTER = 0.5;
+    // Gaps longer than this (e.g. server hang) restart the derivative and rate limit
+    private static final double MAX_STEP_SECONDS = 10.0;
+
+    private boolean enabled;
+    private double targetMspt;
+    private double kp;
+    private double ki;
+    private double kd;
+    private double integralLimit;
+    private double maxChangePerSecond;
+
+    // Consumer bounds
+    private double minMobCapMultiplier;
+    private double minAnalyzerBudgetMultiplier;
+    private double minRedstoneBudgetMultiplier;
+    private double minHopperBudgetMultiplier;
+    private double maxEntityCleanupAggressiveness;
+
+    // Controller state
+    private double pressure = 0.0;
+    private double integral = 0.0;
+    private double derivative = 0.0;
+    private double lastError = 0.0;
+    private double lastMeasurement = -1.0;
+    private double lastTarget = 0.0;
+    private long lastUpdate = 0L;
+    private long updates = 0L;
+    private long saturatedUpdates = 0L;
+    private long rateLimitedUpdates = 0L;
+
+    /**
+     * Loads controller settings from the 'controller' section of lagshield.yml.
+     * A missing section leaves the controller disabled.
+     */
+    public void loadConfig(ConfigurationSection section) {
+        this.enabled = section != null && section.getBoolean("enabled", false);
+        if (section == null) {
+            section = new MemoryConfiguration();
+        }
+
+        this.targetMspt = Math.max(1.0, section.getDouble("target-mspt", 40.0));
+        this.kp = Math.max(0.0, section.getDouble("gains.kp", 1.0));
+        this.ki = Math.max(0.0, section.getDouble("gains.ki", 0.05));
+        this.kd = Math.max(0.0, section.getDouble("gains.kd", 0.2));
+        this.integralLimit = Math.max(0.0, Math.min(1.0, section.getDouble("integral-limit", 1.0)));
+        this.maxChangePerSecond = Math.max(0.001, section.getDouble("max-change-per-second", 0.05));
+
+        this.minMobCapMultiplier = clampUnit(section.getDouble("bounds.min-mob-cap-multiplier", 0.5));
+        this.minAnalyzerBudgetMultiplier = clampUnit(section.getDouble("bounds.min-analyzer-budget-multiplier", 0.25));
+        this.minRedstoneBudgetMultiplier = Math.max(0.05, clampUnit(section.getDouble("bounds.min-redstone-budget-multiplier", 0.5)));
+        this.minHopperBudgetMultiplier = Math.max(0.05, clampUnit(section.getDouble("bounds.min-hopper-budget-multiplier", 0.5)));
+        this.maxEntityCleanupAggressiveness = Math.max(1.0, section.getDouble("bounds.max-entity-cleanup-aggressiveness", 2.0));
+
+        if (!enabled) {
+            reset();
+        }
+    }
+
+    /**
+     * Feeds one MSPT measurement and recomputes the pressure.
+     *
+     * @param measuredMspt Current (smoothed) MSPT
+     * @param precise      Whether MSPT is real work per tick rather than tick intervals
+     * @param now          Current time in milliseconds
+     */
+    public void update(double measuredMspt, boolean precise, long now) {
+        if (!enabled) {
+            return;
+        }
+
+        double target = getEffectiveTarget(precise);
+        double error = (measuredMspt - target) / target;
+        updates++;
+
+        double elapsedSeconds = lastUpdate > 0 ? (now - lastUpdate) / 1000.0 : 0.0;
+        lastUpdate = now;
+        lastTarget = target;
+        lastError = error;
+
+        if (elapsedSeconds <= 0.0 || elapsedSeconds > MAX_STEP_SECONDS || lastMeasurement < 0) {
+            // First sample (or after a long gap): no rate information yet
+            lastMeasurement = measuredMspt;
+            derivative = 0.0;
+            return;
+        }
+
+        // Derivative on measurement, low-pass filtered
+        double measurementRate = (measuredMspt - lastMeasurement) / target / elapsedSeconds;
+        derivative = DERIVATIVE_FILTER * measurementRate + (1.0 - DERIVATIVE_FILTER) * derivative;
+        lastMeasurement = measuredMspt;
+
+        double proportional = kp * error;
+        double derivativeTerm = kd * derivative;
+
+        // Conditional integration: do not integrate further into a saturated output
+        double unsaturated = proportional + integral + derivativeTerm;
+        boolean saturatedHigh = unsaturated >= 1.0 && error > 0;
+        boolean saturatedLow = unsaturated <= 0.0 && error < 0;
+        if (saturatedHigh || saturatedLow) {
+            saturatedUpdates++;
+        } else {
+            integral = clamp(integral + ki * error * elapsedSeconds, -integralLimit, integralLimit);
+        }
+
+        double output = clamp(proportional + integral + derivativeTerm, 0.0, 1.0);
+
+        // Rate limiting
+        double maxStep = maxChangePerSecond * elapsedSeconds;
+        double step = output - pressure;
+        if (Math.abs(step) > maxStep) {
+            step = Math.copySign(maxStep, step);
+            rateLimitedUpdates++;
+        }
+        pressure = clamp(pressure + step, 0.0, 1.0);
+    }
+
+    /**
+     * Scales a budget between 1.0 (no pressure) and the given floor (full pressure).
+     */
+    public double scale(double floor) {
+        return enabled ? 1.0 - pressure * (1.0 - floor) : 1.0;
+    }
+
+    private double getEffectiveTarget(boolean precise) {
+        return precise ? targetMspt : Math.max(targetMspt, IMPRECISE_MIN_TARGET_MS);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static double clampUnit(double value) {
+        return clamp(value, 0.0, 1.0);
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public double getPressure() { return enabled ? pressure : 0.0; }
+    public double getIntegral() { return integral; }
+    public double getTargetMspt() { return targetMspt; }
+
+    public double getMobCapMultiplier() { return scale(minMobCapMultiplier); }
+    public double getAnalyzerBudgetMultiplier() { return scale(minAnalyzerBudgetMultiplier); }
+    public double getRedstoneBudgetMultiplier() { return scale(minRedstoneBudgetMultiplier); }
+    public double getHopperBudgetMultiplier() { return scale(minHopperBudgetMultiplier); }
+    public double getMobCapMultiplierFloor() { return minMobCapMultiplier; }
+    public double getRedstoneBudgetMultiplierFloor() { return minRedstoneBudgetMultiplier; }
+    public double getHopperBudgetMultiplierFloor() { return minHopperBudgetMultiplier; }
+
+    /**
+     * Entity cleanup aggressiveness, from 1.0 (normal) up to the configured maximum.
+     */
+    public double getEntityCleanupAggressiveness() {
+        return enabled ? 1.0 + pressure * (maxEntityCleanupAggressiveness - 1.0) : 1.0;
+    }
+
+    /**
+     * Gets controller state for tuning.
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("pressure", getPressure());
+        stats.put("target_mspt", lastTarget > 0 ? lastTarget : targetMspt);
+        stats.put("error", lastError);
+        stats.put("proportional", kp * lastError);
+        stats.put("integral", integral);
+        stats.put("derivative", kd * derivative);
+        stats.put("updates", updates);
+        stats.put("saturated_updates", saturatedUpdates);
+        stats.put("rate_limited_updates", rateLimitedUpdates);
+        return stats;
+    }
+
+    public void resetStatistics() {
+        updates = 0L;
+        saturatedUpdates = 0L;
+        rateLimitedUpdates = 0L;
+    }
+
+    /**
+     * Clears controller state; pressure returns to 0.
+     */
+    public void reset() {
+        pressure = 0.0;
+        integral = 0.0;
+        derivative = 0.0;
+        lastError = 0.0;
+        lastMeasurement = -1.0;
+        lastUpdate = 0L;
+    }
+}
@@ -0,0 +1,194 @@
+package me.koyere.lagxpert.system;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.config.WorldConfigManager;
+import me.koyere.lagxpert.utils.BlockKey;
+import me.koyere.lagxpert.utils.ConfigManager;
+import me.koyere.lagxpert.utils.LongObjectMap;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-chunk redstone update budget. Every chunk has a token bucket that is refilled
+ * each tick with the world's updates-per-tick budget (scaled by LagShield) and holds at
+ * most the world's burst size. Each redstone current change takes one token; once a
+ * chunk's bucket is empty, further changes in that chunk are held back for the rest
+ * of the tick. Buckets are refilled lazily on first use in a tick, so the per-event
+ * cost is one primitive map lookup.
+ * Must be used from the main thread.
+ */
+public class RedstoneBudgetLimiter {
+
+    // How often per-world budgets (world config, LagShield multiplier) are refreshed
+    private static final int SETTINGS_REFRESH_TICKS = 20;
+    // Buckets idle for this long are full again and can be forgotten
+    private static final int IDLE_BUCKET_TICKS = 600;
+    private static final int CLEANUP_INTERVAL_TICKS = 1200;
+
+    private static final Map<UUID, WorldBudget> budgets = new ConcurrentHashMap<>();
+    private static BukkitTask tickTask;
+    private static volatile long currentTick = 0L;
+
+    private static volatile long suppressedUpdates = 0L;
+    private static volatile long throttledChunkTicks = 0L;
+
+    /**
+     * Budget settings and chunk buckets of one world.
+     */
+    private static final class WorldBudget {
+        private final LongObjectMap<ChunkBucket> buckets = new LongObjectMap<>();
+        private int tokensPerTick;
+        private int capacity;
+        private long refreshedAt = Long.MIN_VALUE;
+    }
+
+    /**
+     * Token bucket of one chunk.
+     */
+    private static final class ChunkBucket {
+        private int tokens;
+        private long lastRefillTick;
+        private long lastThrottledTick = -1L;
+
+        private ChunkBucket(int tokens, long tick) {
+            this.tokens = tokens;
+            this.lastRefillTick = tick;
+        }
+    }
+
+    /**
+     * Starts the tick counter and bucket cleanup. Replaces any previous task.
+     */
+    public static void start() {
+        stop();
+        tickTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                long tick = ++currentTick;
+                if (tick % CLEANUP_INTERVAL_TICKS == 0) {
+                    cleanupIdleBuckets(tick);
+                }
+            }
+        }.runTaskTimer(LagXpert.getInstance(), 1L, 1L);
+    }
+
+    public static void stop() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        budgets.clear();
+    }
+
+    public static boolean isEnabled() {
+        return tickTask != null && ConfigManager.isRedstoneChunkBudgetEnabled();
+    }
+
+    /**
+     * Takes one update from the budget of the block's chunk.
+     *
+     * @param block Block whose redstone current is about to change
+     * @return False if the chunk has used up its budget for this tick
+     */
+    public static boolean tryConsume(Block block) {
+        if (!isEnabled()) {
+            return true;
+        }
+
+        World world = block.getWorld();
+        long tick = currentTick;
+        WorldBudget budget = getBudget(world, tick);
+
+        long chunkKey = BlockKey.chunkOf(block.getX(), block.getZ());
+        ChunkBucket bucket = budget.buckets.get(chunkKey);
+        if (bucket == null) {
+            bucket = new ChunkBucket(budget.capacity, tick);
+            budget.buckets.put(chunkKey, bucket);
+        } else if (bucket.lastRefillTick != tick) {
+            long refill = (tick - bucket.lastRefillTick) * (long) budget.tokensPerTick;
+            bucket.tokens = (int) Math.min(budget.capacity, bucket.tokens + refill);
+            bucket.lastRefillTick = tick;
+        }
+
+        if (bucket.tokens > 0) {
+            bucket.tokens--;
+            return true;
+        }
+
+        suppressedUpdates++;
+        if (bucket.lastThrottledTick != tick) {
+            bucket.lastThrottledTick = tick;
+            throttledChunkTicks++;
+            if (ConfigManager.isDebugEnabled() && tick % 100 == 0) {
+                LagXpert.getInstance().getLogger().info("[RedstoneBudgetLimiter] Chunk " + world.getName() + " ("
+                        + (block.getX() >> 4) + ", " + (block.getZ() >> 4) + ") exceeded its redstone budget.");
+            }
+        }
+        return false;
+    }
+
+    private static WorldBudget getBudget(World world, long tick) {
+        WorldBudget budget = budgets.get(world.getUID());
+        if (budget == null) {
+            budget = new WorldBudget();
+            budgets.put(world.getUID(), budget);
+        }
+        if (tick - budget.refreshedAt >= SETTINGS_REFRESH_TICKS) {
+            double multiplier = LagShield.getInstance().getRedstoneBudgetMultiplier(world);
+            int updatesPerTick = Math.max(1, WorldConfigManager.getRedstoneChunkUpdatesPerTick(world));
+            budget.tokensPerTick = Math.max(1, (int) Math.round(updatesPerTick * multiplier));
+            budget.capacity = Math.max(budget.tokensPerTick,
+                    (int) Math.round(Math.max(updatesPerTick, WorldConfigManager.getRedstoneChunkBurst(world)) * multiplier));
+            budget.refreshedAt = tick;
+        }
+        return budget;
+    }
+
+    private static void cleanupIdleBuckets(long tick) {
+        for (Map.Entry<UUID, WorldBudget> entry : budgets.entrySet()) {
+            if (Bukkit.getWorld(entry.getKey()) == null) {
+                budgets.remove(entry.getKey());
+                continue;
+            }
+            entry.getValue().buckets.removeIf(bucket -> tick - bucket.lastRefillTick > IDLE_BUCKET_TICKS);
+        }
+    }
+
+    /**
+     * Gets budget statistics.
+     */
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("suppressed_updates", suppressedUpdates);
+        stats.put("throttled_chunk_ticks", throttledChunkTicks);
+
+        int trackedChunks = 0;
+        int throttledNow = 0;
+        long tick = currentTick;
+        for (WorldBudget budget : budgets.values()) {
+            for (ChunkBucket bucket : budget.buckets.values()) {
+                trackedChunks++;
+                if (tick - bucket.lastThrottledTick <= 1) {
+                    throttledNow++;
+                }
+            }
+        }
+        stats.put("tracked_chunks", trackedChunks);
+        stats.put("throttled_chunks", throttledNow);
+        return stats;
+    }
+
+    public static void resetStatistics() {
+        suppressedUpdates = 0L;
+        throttledChunkTicks = 0L;
+    }
+}
@@ -1,56 +1,189 @@
 package me.koyere.lagxpert.system;
 
 import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
+import me.koyere.lagxpert.utils.BlockKey;
 import me.koyere.lagxpert.utils.ConfigManager;
+import me.koyere.lagxpert.utils.LongObjectMap;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.scheduler.BukkitRunnable;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Advanced redstone circuit tracking system that monitors redstone activity,
  * detects clock circuits, analyzes pulse frequencies, and manages automatic shutdowns
  * with configurable grace periods and whitelisting capabilities.
+ *
+ * Each active redstone component (dust, repeater, comparator, torch, observer, piston)
+ * is a node in a per-world union-find structure. When a component becomes active it is
+ * joined with every adjacent active component, so a clock made of dozens of blocks is
+ * tracked as one circuit with aggregate pulse rate, cost estimate and a single shutdown
+ * decision. Breaking a component rebuilds its circuit from the remaining members, so
+ * builds that are no longer connected are tracked separately again.
  */
 public class RedstoneCircuitTracker {
 
-    // Circuit tracking data structures
-    private static final Map<String, RedstoneCircuit> activeCircuits = new ConcurrentHashMap<>();
-    private static final Map<String, Long> lastActivityTime = new ConcurrentHashMap<>();
-    private static final Map<String, AtomicInteger> pulseCounters = new ConcurrentHashMap<>();
-    private static final Set<String> whitelistedCircuits = ConcurrentHashMap.newKeySet();
+    private static final SelfOverheadMeter.Probe CLEANUP_PROBE = SelfOverheadMeter.probe("RedstoneCircuitTracker#cleanupInactiveCircuits");
+
+    // Circuit tracking data structures: per world, packed block position -> component.
+    // Component maps are only written from the main thread.
+    private static final Map<UUID, LongObjectMap<Component>> componentsByWorld = new ConcurrentHashMap<>();
+    private static final Map<UUID, Set<Long>> whitelistedCircuits = new ConcurrentHashMap<>();
 
     // Configuration constants
     private static final long CIRCUIT_TIMEOUT_MS = 60000; // 1 minute of inactivity = circuit considered dead
     private static final long PULSE_MEASUREMENT_WINDOW_MS = 10000; // Measure pulses over 10 seconds
+    private static final int PULSE_WINDOW_BUCKETS = (int) (PULSE_MEASUREMENT_WINDOW_MS / 1000); // One bucket per second
     private static final int MAX_PULSES_PER_WINDOW = 200; // Maximum allowed pulses in measurement window
     private static final long CLEANUP_INTERVAL_TICKS = 1200L; // Cleanup every minute (20 ticks * 60)
 
+    private static final Material[] CLOCK_COMPONENTS = {Material.REPEATER, Material.COMPARATOR};
+
+    private static final int SHUTDOWN_TIMER = RedstoneTimerWheel.registerKind("circuit-shutdown", RedstoneCircuitTracker::onShutdownTimer);
+
+    // Offsets of positions a component can connect to: the 6 faces, plus dust stepping up or down a block
+    private static final int[][] NEIGHBOR_OFFSETS = {
+            {1, 0, 0}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}, {0, 0, 1}, {0, 0, -1},
+            {1, 1, 0}, {-1, 1, 0}, {0, 1, 1}, {0, 1, -1},
+            {1, -1, 0}, {-1, -1, 0}, {0, -1, 1}, {0, -1, -1}
+    };
+
     /**
-     * Represents a tracked redstone circuit with its properties and activity data.
+     * Sliding window of pulse counts in one-second buckets. Recording and reading the
+     * windowed total are O(1) (amortized) and allocation-free; buckets that fall out of
+     * the window are cleared as time advances.
      */
-    public static class RedstoneCircuit {
-        private final String circuitId;
-        private final Location primaryLocation;
+    private static final class PulseWindow {
+        private final int[] buckets = new int[PULSE_WINDOW_BUCKETS];
+        // Second of the newest bucket
+        private long headSecond;
+        private int total;
+
+        private PulseWindow(long currentTime) {
+            this.headSecond = currentTime / 1000;
+        }
+
+        private void record(long currentTime) {
+            advance(currentTime / 1000);
+            buckets[(int) (headSecond % PULSE_WINDOW_BUCKETS)]++;
+            total++;
+        }
+
+        private int count(long currentTime) {
+            advance(currentTime / 1000);
+            return total;
+        }
+
+        /**
+         * Windowed total without moving the window, for reads from other threads.
+         */
+        private int peek(long currentTime) {
+            long gap = currentTime / 1000 - headSecond;
+            if (gap <= 0) {
+                return total;
+            }
+            if (gap >= PULSE_WINDOW_BUCKETS) {
+                return 0;
+            }
+            int expired = 0;
+            for (long i = 1; i <= gap; i++) {
+                expired += buckets[(int) ((headSecond + i) % PULSE_WINDOW_BUCKETS)];
+            }
+            return total - expired;
+        }
+
+        private void advance(long second) {
+            long gap = second - headSecond;
+            if (gap <= 0) {
+                return;
+            }
+            if (gap >= PULSE_WINDOW_BUCKETS) {
+                Arrays.fill(buckets, 0);
+                total = 0;
+            } else {
+                for (long i = 1; i <= gap; i++) {
+                    int index = (int) ((headSecond + i) % PULSE_WINDOW_BUCKETS);
+                    total -= buckets[index];
+                    buckets[index] = 0;
+                }
+            }
+            headSecond = second;
+        }
+
+        private void merge(PulseWindow other, long currentTime) {
+            advance(currentTime / 1000);
+            other.advance(currentTime / 1000);
+            for (int i = 0; i < PULSE_WINDOW_BUCKETS; i++) {
+                buckets[i] += other.buckets[i];
+            }
+            total += other.total;
+        }
+    }
+
+    /**
+     * A single active redstone block. Components form a union-find forest per world;
+     * the root of each tree holds the circuit's aggregate data.
+     */
+    private static final class Component {
+        private final long blockKey;
+        private final float costWeight;
+        // Type detected when the component became active, used when circuits are rebuilt
         private final CircuitType type;
-        private final long creationTime;
+        private Component parent;
+        // Only set on roots
+        private RedstoneCircuit circuit;
+
+        private Component(long blockKey, float costWeight, CircuitType type) {
+            this.blockKey = blockKey;
+            this.costWeight = costWeight;
+            this.type = type;
+            this.parent = this;
+        }
+    }
+
+    /**
+     * Represents a tracked redstone circuit (a group of connected components) with its
+     * properties and aggregate activity data.
+     */
+    public static class RedstoneCircuit {
+        private final World world;
+        private final long blockKey;
+        private volatile CircuitType type;
+        private volatile long creationTime;
         private volatile long lastActivityTime;
+        // Start of the current run of activity; reset once the pulse window runs empty
+        private volatile long activeSince;
         private volatile int totalPulses;
+        // Pulses (component updates) over the last measurement window
+        private final PulseWindow pulseWindow;
+        // Sum of component cost weights over all updates
+        private volatile double weightedUpdates;
+        private long[] members = new long[4];
+        private volatile int memberCount;
         private volatile boolean isWhitelisted;
         private volatile boolean isScheduledForShutdown;
         private volatile long graceEndTime;
+        private volatile String shutdownReason;
 
-        public RedstoneCircuit(String circuitId, Location primaryLocation, CircuitType type) {
-            this.circuitId = circuitId;
-            this.primaryLocation = primaryLocation.clone();
+        public RedstoneCircuit(World world, long blockKey, CircuitType type) {
+            this.world = world;
+            this.blockKey = blockKey;
             this.type = type;
+            this.members[0] = blockKey;
+            this.memberCount = 1;
             this.creationTime = System.currentTimeMillis();
+            this.pulseWindow = new PulseWindow(this.creationTime);
             this.lastActivityTime = this.creationTime;
+            this.activeSince = this.creationTime;
             this.totalPulses = 0;
             this.isWhitelisted = false;
             this.isScheduledForShutdown = false;
@@ -58,28 +191,69 @@ public class RedstoneCircuitTracker {
         }
 
         // Getters
-        public String getCircuitId() { return circuitId; }
-        public Location getPrimaryLocation() { return primaryLocation.clone(); }
+        public String getCircuitId() { return generateLocationKey(world, blockKey); }
+        public World getWorld() { return world; }
+        public long getBlockKey() { return blockKey; }
+        public Location getPrimaryLocation() {
+            return new Location(world, BlockKey.getX(blockKey), BlockKey.getY(blockKey), BlockKey.getZ(blockKey));
+        }
         public CircuitType getType() { return type; }
         public long getCreationTime() { return creationTime; }
         public long getLastActivityTime() { return lastActivityTime; }
+        public long getActiveSince() { return activeSince; }
         public int getTotalPulses() { return totalPulses; }
+        public int getComponentCount() { return memberCount; }
         public boolean isWhitelisted() { return isWhitelisted; }
         public boolean isScheduledForShutdown() { return isScheduledForShutdown; }
         public long getGraceEndTime() { return graceEndTime; }
 
-        public void recordActivity() {
-            this.lastActivityTime = System.currentTimeMillis();
+        public void recordActivity(long currentTime, float costWeight) {
+            if (currentTime - lastActivityTime > PULSE_MEASUREMENT_WINDOW_MS) {
+                this.activeSince = currentTime;
+            }
+            this.lastActivityTime = currentTime;
             this.totalPulses++;
+            this.pulseWindow.record(currentTime);
+            this.weightedUpdates += costWeight;
+        }
+
+        /**
+         * Joins another circuit into this one; the other circuit is no longer tracked.
+         */
+        private void absorb(RedstoneCircuit other) {
+            if (memberCount + other.memberCount > members.length) {
+                members = Arrays.copyOf(members, Math.max(members.length << 1, memberCount + other.memberCount));
+            }
+            System.arraycopy(other.members, 0, members, memberCount, other.memberCount);
+            memberCount += other.memberCount;
+
+            creationTime = Math.min(creationTime, other.creationTime);
+            lastActivityTime = Math.max(lastActivityTime, other.lastActivityTime);
+            // The joined circuit has only been running as long as its most recently started part
+            activeSince = Math.max(activeSince, other.activeSince);
+            totalPulses += other.totalPulses;
+            pulseWindow.merge(other.pulseWindow, System.currentTimeMillis());
+            weightedUpdates += other.weightedUpdates;
+            type = mergeTypes(type, other.type);
+            isWhitelisted = isWhitelisted || other.isWhitelisted;
+            if (other.isScheduledForShutdown && (!isScheduledForShutdown || other.graceEndTime < graceEndTime)) {
+                isScheduledForShutdown = true;
+                graceEndTime = other.graceEndTime;
+                shutdownReason = other.shutdownReason;
+            }
+            if (isWhitelisted) {
+                cancelShutdown();
+            }
         }
 
         public void setWhitelisted(boolean whitelisted) {
             this.isWhitelisted = whitelisted;
         }
 
-        public void scheduleShutdown(long graceTimeMs) {
+        public void scheduleShutdown(long graceTimeMs, String reason) {
             this.isScheduledForShutdown = true;
             this.graceEndTime = System.currentTimeMillis() + graceTimeMs;
+            this.shutdownReason = reason;
         }
 
         public void cancelShutdown() {
@@ -95,10 +269,38 @@ public class RedstoneCircuitTracker {
             return System.currentTimeMillis() - creationTime;
         }
 
-        public double getPulsesPerSecond() {
-            long ageMs = getAgeMs();
+        /**
+         * Redstone updates per second across all components of the circuit, over the
+         * measurement window (or the circuit's age while it is younger than the window).
+         */
+        public double getUpdatesPerSecond() {
+            long ageMs = Math.min(getAgeMs(), PULSE_MEASUREMENT_WINDOW_MS);
             if (ageMs <= 0) return 0.0;
-            return (double) totalPulses / (ageMs / 1000.0);
+            return pulseWindow.peek(System.currentTimeMillis()) / Math.max(1.0, ageMs / 1000.0);
+        }
+
+        /**
+         * Component updates within the current measurement window.
+         */
+        public int getPulsesInWindow() {
+            return pulseWindow.peek(System.currentTimeMillis());
+        }
+
+        /**
+         * Pulses per second of the circuit: updates per second per component, which for
+         * a clock approximates its frequency regardless of how many blocks it spans.
+         */
+        public double getPulsesPerSecond() {
+            return getUpdatesPerSecond() / Math.max(1, memberCount);
+        }
+
+        /**
+         * Estimated cost of the circuit in weighted updates per second
+         * (pistons and observers weigh more than dust).
+         */
+        public double getCostEstimate() {
+            if (totalPulses <= 0) return 0.0;
+            return getUpdatesPerSecond() * (weightedUpdates / totalPulses);
         }
     }
 
@@ -123,36 +325,218 @@ public class RedstoneCircuitTracker {
         if (location == null || location.getWorld() == null) {
             return;
         }
+        recordRedstoneActivity(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ(), material);
+    }
+
+    /**
+     * Records redstone activity of a block. Called for every redstone update, so
+     * updates of known circuits do not allocate.
+     *
+     * @param block    The block whose redstone current changed
+     * @param material The type of redstone component that activated
+     */
+    public static void recordRedstoneActivity(Block block, Material material) {
+        recordRedstoneActivity(block.getWorld(), block.getX(), block.getY(), block.getZ(), material);
+    }
 
-        String locationKey = generateLocationKey(location);
+    private static void recordRedstoneActivity(World world, int x, int y, int z, Material material) {
+        long blockKey = BlockKey.pack(x, y, z);
         long currentTime = System.currentTimeMillis();
 
-        // Update last activity time
-        lastActivityTime.put(locationKey, currentTime);
+        LongObjectMap<Component> components = getComponents(world);
 
-        // Increment pulse counter for frequency analysis
-        pulseCounters.computeIfAbsent(locationKey, k -> new AtomicInteger(0)).incrementAndGet();
+        // Get or create component, joining it with adjacent active components
+        Component component = components.get(blockKey);
+        if (component == null) {
+            component = addComponent(world, components, x, y, z, blockKey, material);
+        }
+        RedstoneCircuit circuit = find(component).circuit;
 
-        // Get or create circuit
-        RedstoneCircuit circuit = activeCircuits.get(locationKey);
-        if (circuit == null) {
-            CircuitType detectedType = detectCircuitType(location, material);
-            circuit = new RedstoneCircuit(locationKey, location, detectedType);
-            activeCircuits.put(locationKey, circuit);
+        // Record activity in the circuit
+        circuit.recordActivity(currentTime, component.costWeight);
+        if (RedstoneProfiler.isRecording()) {
+            RedstoneProfiler.record(world, circuit.getBlockKey(), blockKey, component.costWeight);
+        }
 
-            if (ConfigManager.isDebugEnabled()) {
-                LagXpert.getInstance().getLogger().info(
-                        "[RedstoneCircuitTracker] New " + detectedType + " circuit detected at " +
-                                locationToString(location)
-                );
+        // Check if circuit should be flagged for shutdown
+        analyzeCircuitForShutdown(circuit, currentTime);
+    }
+
+    private static Component addComponent(World world, LongObjectMap<Component> components,
+                                          int x, int y, int z, long blockKey, Material material) {
+        CircuitType detectedType = detectCircuitType(new Location(world, x, y, z), material);
+        Component component = new Component(blockKey, getCostWeight(material), detectedType);
+        int joined = insertComponent(world, components, component);
+
+        if (ConfigManager.isDebugEnabled()) {
+            RedstoneCircuit circuit = find(component).circuit;
+            LagXpert.getInstance().getLogger().info(
+                    "[RedstoneCircuitTracker] " + material + " at " + world.getName() + " (" + BlockKey.toString(blockKey) + ")" +
+                            (joined > 0 ? " joined " + circuit.getType() + " circuit of " + circuit.getComponentCount() + " components"
+                                    : " started new " + detectedType + " circuit")
+            );
+        }
+        return component;
+    }
+
+    /**
+     * Adds a component as its own circuit and joins it with adjacent active components.
+     *
+     * @return Number of circuits it was joined with
+     */
+    private static int insertComponent(World world, LongObjectMap<Component> components, Component component) {
+        long blockKey = component.blockKey;
+        component.circuit = new RedstoneCircuit(world, blockKey, component.type);
+        component.circuit.setWhitelisted(isWhitelisted(world, blockKey));
+        components.put(blockKey, component);
+
+        int x = BlockKey.getX(blockKey);
+        int y = BlockKey.getY(blockKey);
+        int z = BlockKey.getZ(blockKey);
+        int joined = 0;
+        for (int[] offset : NEIGHBOR_OFFSETS) {
+            Component neighbor = components.get(BlockKey.pack(x + offset[0], y + offset[1], z + offset[2]));
+            if (neighbor != null && union(component, neighbor)) {
+                joined++;
             }
         }
+        return joined;
+    }
 
-        // Record activity in the circuit
-        circuit.recordActivity();
+    /**
+     * Removes a broken block from its circuit. Union-find cannot split a circuit, so the
+     * circuit is rebuilt from its remaining members: they are re-joined by adjacency into
+     * one or more fresh circuits, with new activity windows. A build that was only
+     * connected to a neighbour through the broken block is tracked on its own again.
+     *
+     * @param block The block that was broken
+     */
+    public static void removeComponent(Block block) {
+        World world = block.getWorld();
+        LongObjectMap<Component> components = componentsByWorld.get(world.getUID());
+        long blockKey = BlockKey.pack(block.getX(), block.getY(), block.getZ());
+        Component removed = components != null ? components.get(blockKey) : null;
+        if (removed == null) {
+            return;
+        }
 
-        // Check if circuit should be flagged for shutdown
-        analyzeCircuitForShutdown(circuit);
+        RedstoneCircuit circuit = find(removed).circuit;
+        Component[] remaining = new Component[circuit.memberCount - 1];
+        int count = 0;
+        for (int i = 0; i < circuit.memberCount; i++) {
+            long key = circuit.members[i];
+            if (key != blockKey) {
+                Component member = components.get(key);
+                remaining[count++] = new Component(key, member.costWeight, member.type);
+            }
+        }
+        removeCircuit(components, circuit);
+
+        for (int i = 0; i < count; i++) {
+            insertComponent(world, components, remaining[i]);
+        }
+    }
+
+    /**
+     * Finds the root of a component's tree, halving the path on the way.
+     */
+    private static Component find(Component component) {
+        while (component.parent != component) {
+            component.parent = component.parent.parent;
+            component = component.parent;
+        }
+        return component;
+    }
+
+    /**
+     * Joins the circuits of two components, the smaller one into the larger one.
+     *
+     * @return True if they were separate circuits
+     */
+    private static boolean union(Component a, Component b) {
+        Component rootA = find(a);
+        Component rootB = find(b);
+        if (rootA == rootB) {
+            return false;
+        }
+        if (rootA.circuit.memberCount < rootB.circuit.memberCount) {
+            Component swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        rootB.parent = rootA;
+        rootA.circuit.absorb(rootB.circuit);
+        rootB.circuit = null;
+        return true;
+    }
+
+    /**
+     * Relative cost of one update of a component type.
+     */
+    private static float getCostWeight(Material material) {
+        switch (material) {
+            case PISTON:
+            case STICKY_PISTON:
+                return 4.0f;
+            case OBSERVER:
+            case COMPARATOR:
+                return 2.0f;
+            case REPEATER:
+                return 1.5f;
+            default:
+                return 1.0f;
+        }
+    }
+
+    /**
+     * Combined type of two joined circuits: clocks dominate, then complex circuits.
+     */
+    private static CircuitType mergeTypes(CircuitType a, CircuitType b) {
+        CircuitType[] priority = {CircuitType.CLOCK, CircuitType.COMPLEX, CircuitType.CONTINUOUS, CircuitType.PULSE};
+        for (CircuitType type : priority) {
+            if (a == type || b == type) {
+                return type;
+            }
+        }
+        return CircuitType.UNKNOWN;
+    }
+
+    private static LongObjectMap<Component> getComponents(World world) {
+        LongObjectMap<Component> components = componentsByWorld.get(world.getUID());
+        if (components == null) {
+            components = new LongObjectMap<>();
+            componentsByWorld.put(world.getUID(), components);
+        }
+        return components;
+    }
+
+    /**
+     * Gets the circuit a block belongs to, or null if the block is not an active component.
+     */
+    public static RedstoneCircuit getCircuit(Location location) {
+        if (location == null || location.getWorld() == null) {
+            return null;
+        }
+        LongObjectMap<Component> components = componentsByWorld.get(location.getWorld().getUID());
+        if (components == null) {
+            return null;
+        }
+        Component component = components.get(BlockKey.pack(location.getBlockX(), location.getBlockY(), location.getBlockZ()));
+        return component != null ? find(component).circuit : null;
+    }
+
+    /**
+     * Gets the circuit a packed block position belongs to, or null if it is not an active component.
+     */
+    public static RedstoneCircuit getCircuit(World world, long blockKey) {
+        LongObjectMap<Component> components = componentsByWorld.get(world.getUID());
+        Component component = components != null ? components.get(blockKey) : null;
+        return component != null ? find(component).circuit : null;
+    }
+
+    private static boolean isWhitelisted(World world, long blockKey) {
+        Set<Long> whitelisted = whitelistedCircuits.get(world.getUID());
+        return whitelisted != null && whitelisted.contains(blockKey);
     }
 
     /**
@@ -187,10 +571,17 @@ public class RedstoneCircuitTracker {
 
     /**
      * Checks if there are repeaters nearby that might indicate a clock circuit.
+     * Uses the chunk component index; scans blocks only while the index is being built.
      */
     private static boolean hasNearbyRepeaters(Location center, int radius) {
         if (center.getWorld() == null) return false;
 
+        int indexed = RedstoneComponentIndex.countComponents(center.getWorld(), center.getBlockX(), center.getBlockY(),
+                center.getBlockZ(), radius, radius, CLOCK_COMPONENTS, 1);
+        if (indexed >= 0) {
+            return indexed > 0;
+        }
+
         for (int x = -radius; x <= radius; x++) {
             for (int y = -radius; y <= radius; y++) {
                 for (int z = -radius; z <= radius; z++) {
@@ -210,12 +601,18 @@ public class RedstoneCircuitTracker {
     private static boolean hasComplexRedstonePattern(Location center) {
         if (center.getWorld() == null) return false;
 
+        int indexed = RedstoneComponentIndex.countComponents(center.getWorld(), center.getBlockX(), center.getBlockY(),
+                center.getBlockZ(), 2, 1, null, 5);
+        if (indexed >= 0) {
+            return indexed >= 5;
+        }
+
         int redstoneComponents = 0;
         for (int x = -2; x <= 2; x++) {
             for (int y = -1; y <= 1; y++) {
                 for (int z = -2; z <= 2; z++) {
                     Block block = center.clone().add(x, y, z).getBlock();
-                    if (isRedstoneComponent(block.getType())) {
+                    if (RedstoneComponentIndex.isRedstoneComponent(block.getType())) {
                         redstoneComponents++;
                     }
                 }
@@ -224,108 +621,157 @@ public class RedstoneCircuitTracker {
         return redstoneComponents >= 5; // 5+ redstone components = complex
     }
 
-    /**
-     * Checks if a material is a redstone component.
-     */
-    private static boolean isRedstoneComponent(Material material) {
-        switch (material) {
-            case REDSTONE_WIRE:
-            case REPEATER:
-            case COMPARATOR:
-            case REDSTONE_TORCH:
-            case REDSTONE_WALL_TORCH:
-            case REDSTONE_BLOCK:
-            case OBSERVER:
-            case PISTON:
-            case STICKY_PISTON:
-                return true;
-            default:
-                return false;
-        }
-    }
-
     /**
      * Analyzes a circuit to determine if it should be scheduled for shutdown.
      */
-    private static void analyzeCircuitForShutdown(RedstoneCircuit circuit) {
+    private static void analyzeCircuitForShutdown(RedstoneCircuit circuit, long currentTime) {
         if (circuit.isWhitelisted() || circuit.isScheduledForShutdown()) {
             return;
         }
 
-        long currentTime = System.currentTimeMillis();
-        String locationKey = circuit.getCircuitId();
-
-        // Check pulse frequency
-        AtomicInteger pulseCounter = pulseCounters.get(locationKey);
-        if (pulseCounter != null) {
-            // Reset counter and check if it exceeded limits
-            int pulsesInWindow = pulseCounter.getAndSet(0);
+        double budgetMultiplier = LagShield.getInstance().getRedstoneBudgetMultiplier(circuit.getWorld());
 
-            if (pulsesInWindow > MAX_PULSES_PER_WINDOW) {
-                scheduleCircuitShutdown(circuit, "high_frequency", getGracePeriod(circuit.getType()));
-                return;
-            }
+        // Check pulse frequency over the sliding window (per-component average)
+        if (exceedsPulseLimit(circuit, currentTime, budgetMultiplier)) {
+            scheduleCircuitShutdown(circuit, "high_frequency", getGracePeriod(circuit.getType()));
+            return;
         }
 
-        // Check continuous activity duration
-        long activeDuration = currentTime - circuit.getCreationTime();
-        long maxDuration = getMaxDuration(circuit.getType());
+        // Check how long the circuit has been active without its pulse window running empty
+        long activeDuration = currentTime - circuit.getActiveSince();
+        long maxDuration = (long) (getMaxDuration(circuit.getType()) * budgetMultiplier);
 
         if (activeDuration > maxDuration) {
             scheduleCircuitShutdown(circuit, "long_duration", getGracePeriod(circuit.getType()));
         }
     }
 
+    private static boolean exceedsPulseLimit(RedstoneCircuit circuit, long currentTime, double budgetMultiplier) {
+        int pulsesInWindow = circuit.pulseWindow.count(currentTime) / Math.max(1, circuit.memberCount);
+        return pulsesInWindow > MAX_PULSES_PER_WINDOW * budgetMultiplier;
+    }
+
     /**
      * Schedules a circuit for shutdown with a grace period.
      */
     private static void scheduleCircuitShutdown(RedstoneCircuit circuit, String reason, long graceTimeMs) {
-        circuit.scheduleShutdown(graceTimeMs);
+        circuit.scheduleShutdown(graceTimeMs, reason);
 
         if (ConfigManager.isDebugEnabled()) {
             LagXpert.getInstance().getLogger().info(
                     "[RedstoneCircuitTracker] Circuit at " + locationToString(circuit.getPrimaryLocation()) +
-                            " scheduled for shutdown due to: " + reason + ". Grace period: " + (graceTimeMs / 1000) + "s"
+                            " (" + circuit.getComponentCount() + " components) scheduled for shutdown due to: " + reason +
+                            ". Grace period: " + (graceTimeMs / 1000) + "s"
             );
         }
 
-        // Schedule the actual shutdown
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (circuit.isGraceExpired()) {
-                    shutdownCircuit(circuit, reason);
-                }
-            }
-        }.runTaskLater(LagXpert.getInstance(), graceTimeMs / 50); // Convert ms to ticks
+        // Schedule the actual shutdown on the redstone timer wheel
+        RedstoneTimerWheel.schedule(SHUTDOWN_TIMER, circuit.getWorld(), circuit.getBlockKey(), graceTimeMs / 50); // Convert ms to ticks
     }
 
     /**
-     * Actually shuts down a circuit by breaking the redstone wire.
+     * Shutdown deadline of a circuit. The circuit may have been joined into a larger one
+     * since it was scheduled, so it is looked up again by position.
      */
-    private static void shutdownCircuit(RedstoneCircuit circuit, String reason) {
-        Location location = circuit.getPrimaryLocation();
-        if (location.getWorld() == null || !location.getWorld().isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4)) {
+    private static long onShutdownTimer(World world, long blockKey) {
+        LongObjectMap<Component> components = componentsByWorld.get(world.getUID());
+        Component component = components != null ? components.get(blockKey) : null;
+        if (component == null) {
+            return 0L;
+        }
+        RedstoneCircuit circuit = find(component).circuit;
+        if (!circuit.isScheduledForShutdown() || circuit.isWhitelisted()) {
+            return 0L;
+        }
+
+        long currentTime = System.currentTimeMillis();
+        if (currentTime <= circuit.getGraceEndTime()) {
+            // Grace was extended (e.g. by a merge); check again when it ends
+            return (circuit.getGraceEndTime() - currentTime) / 50 + 1;
+        }
+
+        String reason = circuit.shutdownReason;
+        // A clock that slowed down during the grace period is spared
+        if ("high_frequency".equals(reason) && !exceedsPulseLimit(circuit, currentTime,
+                LagShield.getInstance().getRedstoneBudgetMultiplier(world))) {
+            circuit.cancelShutdown();
+            return 0L;
+        }
+        shutdownCircuit(circuit, blockKey, reason);
+        return 0L;
+    }
+
+    /**
+     * Actually shuts down a circuit by breaking one block of it: the flagged block if it is
+     * redstone wire, otherwise the first loaded wire among its members, otherwise one of its
+     * repeaters or comparators (clocks made of those have no wire). The circuit is only
+     * dropped from tracking once something was cut.
+     */
+    private static void shutdownCircuit(RedstoneCircuit circuit, long blockKey, String reason) {
+        World world = circuit.getWorld();
+        LongObjectMap<Component> components = componentsByWorld.get(world.getUID());
+        Component flagged = components != null ? components.get(blockKey) : null;
+        if (flagged == null || find(flagged).circuit != circuit) {
+            // Already cleaned up
             return;
         }
 
-        Block block = location.getBlock();
-        if (block.getType() == Material.REDSTONE_WIRE) {
-            block.setType(Material.AIR);
+        Block cut = getLoadedBlock(world, blockKey, Material.REDSTONE_WIRE);
+        for (int i = 0; i < circuit.memberCount && cut == null; i++) {
+            cut = getLoadedBlock(world, circuit.members[i], Material.REDSTONE_WIRE);
+        }
+        if (cut == null) {
+            cut = getLoadedBlock(world, circuit.getBlockKey(), CLOCK_COMPONENTS);
+        }
+        for (int i = 0; i < circuit.memberCount && cut == null; i++) {
+            cut = getLoadedBlock(world, circuit.members[i], CLOCK_COMPONENTS);
+        }
 
-            if (ConfigManager.isDebugEnabled()) {
-                LagXpert.getInstance().getLogger().info(
-                        "[RedstoneCircuitTracker] Shutdown circuit at " + locationToString(location) +
-                                " due to: " + reason
-                );
-            }
+        if (cut == null) {
+            // Nothing to break (e.g. only torches or observers, or unloaded); keep tracking so it can be flagged again
+            circuit.cancelShutdown();
+            LagXpert.getInstance().getLogger().warning(
+                    "[RedstoneCircuitTracker] Could not shut down circuit at " + locationToString(circuit.getPrimaryLocation()) +
+                            " (" + circuit.getComponentCount() + " components, " + reason + "): no loaded wire, repeater or comparator"
+            );
+            return;
+        }
+
+        cut.setType(Material.AIR);
+        if (ConfigManager.isDebugEnabled()) {
+            LagXpert.getInstance().getLogger().info(
+                    "[RedstoneCircuitTracker] Shutdown circuit at " + locationToString(cut.getLocation()) +
+                            " (" + circuit.getComponentCount() + " components) due to: " + reason
+            );
         }
 
         // Remove from tracking
-        String locationKey = circuit.getCircuitId();
-        activeCircuits.remove(locationKey);
-        lastActivityTime.remove(locationKey);
-        pulseCounters.remove(locationKey);
+        removeCircuit(components, circuit);
+    }
+
+    /**
+     * Gets the block at a packed position if its chunk is loaded and it is one of the given types.
+     */
+    private static Block getLoadedBlock(World world, long blockKey, Material... types) {
+        int x = BlockKey.getX(blockKey);
+        int z = BlockKey.getZ(blockKey);
+        if (!world.isChunkLoaded(x >> 4, z >> 4)) {
+            return null;
+        }
+        Block block = world.getBlockAt(x, BlockKey.getY(blockKey), z);
+        Material type = block.getType();
+        for (Material candidate : types) {
+            if (type == candidate) {
+                return block;
+            }
+        }
+        return null;
+    }
+
+    private static void removeCircuit(LongObjectMap<Component> components, RedstoneCircuit circuit) {
+        for (int i = 0; i < circuit.memberCount; i++) {
+            components.remove(circuit.members[i]);
+        }
     }
 
     /**
@@ -363,13 +809,17 @@ public class RedstoneCircuitTracker {
     }
 
     /**
-     * Adds a circuit location to the whitelist.
+     * Adds a circuit location to the whitelist. The whole circuit containing the
+     * location is exempt from shutdowns.
      */
     public static void whitelistCircuit(Location location) {
-        String locationKey = generateLocationKey(location);
-        whitelistedCircuits.add(locationKey);
+        if (location.getWorld() == null) {
+            return;
+        }
+        long blockKey = BlockKey.pack(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        whitelistedCircuits.computeIfAbsent(location.getWorld().getUID(), uuid -> ConcurrentHashMap.newKeySet()).add(blockKey);
 
-        RedstoneCircuit circuit = activeCircuits.get(locationKey);
+        RedstoneCircuit circuit = getCircuit(location);
         if (circuit != null) {
             circuit.setWhitelisted(true);
             circuit.cancelShutdown();
@@ -380,12 +830,23 @@ public class RedstoneCircuitTracker {
      * Removes a circuit location from the whitelist.
      */
     public static void unwhitelistCircuit(Location location) {
-        String locationKey = generateLocationKey(location);
-        whitelistedCircuits.remove(locationKey);
+        if (location.getWorld() == null) {
+            return;
+        }
+        long blockKey = BlockKey.pack(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        Set<Long> whitelisted = whitelistedCircuits.get(location.getWorld().getUID());
+        if (whitelisted != null) {
+            whitelisted.remove(blockKey);
+        }
 
-        RedstoneCircuit circuit = activeCircuits.get(locationKey);
+        // The circuit stays whitelisted while any other of its components is
+        RedstoneCircuit circuit = getCircuit(location);
         if (circuit != null) {
-            circuit.setWhitelisted(false);
+            boolean stillWhitelisted = false;
+            for (int i = 0; i < circuit.memberCount && !stillWhitelisted; i++) {
+                stillWhitelisted = isWhitelisted(location.getWorld(), circuit.members[i]);
+            }
+            circuit.setWhitelisted(stillWhitelisted);
         }
     }
 
@@ -405,25 +866,30 @@ public class RedstoneCircuitTracker {
      * Cleans up circuits that have been inactive for too long.
      */
     private static void cleanupInactiveCircuits() {
-        long currentTime = System.currentTimeMillis();
-        AtomicInteger cleanedUp = new AtomicInteger(0);
-
-        activeCircuits.entrySet().removeIf(entry -> {
-            RedstoneCircuit circuit = entry.getValue();
-            if (currentTime - circuit.getLastActivityTime() > CIRCUIT_TIMEOUT_MS) {
-                String locationKey = entry.getKey();
-                lastActivityTime.remove(locationKey);
-                pulseCounters.remove(locationKey);
-                cleanedUp.incrementAndGet();
-                return true;
+        long probeStart = CLEANUP_PROBE.start();
+        try {
+            long currentTime = System.currentTimeMillis();
+            int cleanedUp = 0;
+
+            for (LongObjectMap<Component> components : componentsByWorld.values()) {
+                for (Component component : components.values()) {
+                    RedstoneCircuit circuit = component.circuit;
+                    if (circuit != null && currentTime - circuit.getLastActivityTime() > CIRCUIT_TIMEOUT_MS) {
+                        removeCircuit(components, circuit);
+                        cleanedUp++;
+                    }
+                }
             }
-            return false;
-        });
+            // Forget unloaded worlds
+            componentsByWorld.keySet().removeIf(uuid -> Bukkit.getWorld(uuid) == null);
 
-        if (ConfigManager.isDebugEnabled() && cleanedUp.get() > 0) {
-            LagXpert.getInstance().getLogger().info(
-                    "[RedstoneCircuitTracker] Cleaned up " + cleanedUp.get() + " inactive circuits"
-            );
+            if (ConfigManager.isDebugEnabled() && cleanedUp > 0) {
+                LagXpert.getInstance().getLogger().info(
+                        "[RedstoneCircuitTracker] Cleaned up " + cleanedUp + " inactive circuits"
+                );
+            }
+        } finally {
+            CLEANUP_PROBE.stop(probeStart);
         }
     }
 
@@ -433,18 +899,48 @@ public class RedstoneCircuitTracker {
     public static Map<String, Object> getStatistics() {
         Map<String, Object> stats = new ConcurrentHashMap<>();
 
-        stats.put("total_circuits", activeCircuits.size());
-        stats.put("whitelisted_circuits", whitelistedCircuits.size());
-
         Map<CircuitType, Integer> typeCount = new ConcurrentHashMap<>();
+        int totalCircuits = 0;
+        int totalComponents = 0;
+        int largestCircuit = 0;
         int scheduledForShutdown = 0;
-
-        for (RedstoneCircuit circuit : activeCircuits.values()) {
-            typeCount.merge(circuit.getType(), 1, Integer::sum);
-            if (circuit.isScheduledForShutdown()) {
-                scheduledForShutdown++;
+        int whitelistedCircuitCount = 0;
+        double totalCost = 0.0;
+        double highestCost = 0.0;
+
+        for (LongObjectMap<Component> components : componentsByWorld.values()) {
+            for (Component component : components.values()) {
+                totalComponents++;
+                RedstoneCircuit circuit = component.circuit;
+                if (circuit == null) {
+                    continue;
+                }
+                totalCircuits++;
+                typeCount.merge(circuit.getType(), 1, Integer::sum);
+                largestCircuit = Math.max(largestCircuit, circuit.getComponentCount());
+                double cost = circuit.getCostEstimate();
+                totalCost += cost;
+                highestCost = Math.max(highestCost, cost);
+                if (circuit.isScheduledForShutdown()) {
+                    scheduledForShutdown++;
+                }
+                if (circuit.isWhitelisted()) {
+                    whitelistedCircuitCount++;
+                }
             }
         }
+        int whitelistedLocations = 0;
+        for (Set<Long> keys : whitelistedCircuits.values()) {
+            whitelistedLocations += keys.size();
+        }
+
+        stats.put("total_circuits", totalCircuits);
+        stats.put("total_components", totalComponents);
+        stats.put("largest_circuit_components", largestCircuit);
+        stats.put("total_cost_estimate", totalCost);
+        stats.put("highest_circuit_cost", highestCost);
+        stats.put("whitelisted_circuits", whitelistedCircuitCount);
+        stats.put("whitelisted_locations", whitelistedLocations);
 
         stats.put("circuits_by_type", typeCount);
         stats.put("circuits_scheduled_shutdown", scheduledForShutdown);
@@ -453,16 +949,16 @@ public class RedstoneCircuitTracker {
     }
 
     /**
-     * Generates a unique location key for tracking.
+     * Generates a readable circuit id from a packed block position.
      */
-    private static String generateLocationKey(Location location) {
-        if (location.getWorld() == null) {
+    private static String generateLocationKey(World world, long blockKey) {
+        if (world == null) {
             return "invalid_location";
         }
-        return location.getWorld().getName() + "_" +
-                location.getBlockX() + "_" +
-                location.getBlockY() + "_" +
-                location.getBlockZ();
+        return world.getName() + "_" +
+                BlockKey.getX(blockKey) + "_" +
+                BlockKey.getY(blockKey) + "_" +
+                BlockKey.getZ(blockKey);
     }
 
     /**
@@ -482,9 +978,8 @@ public class RedstoneCircuitTracker {
      * Clears all tracked data. Used during plugin reload.
      */
     public static void clearAll() {
-        activeCircuits.clear();
-        lastActivityTime.clear();
-        pulseCounters.clear();
+        componentsByWorld.clear();
         whitelistedCircuits.clear();
+        RedstoneComponentIndex.clearAll();
     }
 }
\ No newline at end of file
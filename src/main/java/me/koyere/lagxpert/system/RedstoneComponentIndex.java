@@ -0,0 +1,285 @@
+package me.koyere.lagxpert.system;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.utils.BlockKey;
+import me.koyere.lagxpert.utils.ConfigManager;
+import me.koyere.lagxpert.utils.LongObjectMap;
+import me.koyere.lagxpert.utils.SchedulerWrapper;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-chunk index of redstone components, so circuit classification can count nearby
+ * components with map lookups instead of live getBlock() scans.
+ * A chunk is indexed the first time it is queried: a snapshot is taken on the main
+ * thread and scanned asynchronously (empty sections are skipped). Afterwards the index
+ * is kept current from block place/break events and dropped when the chunk unloads.
+ * Queries touching a chunk whose index is not ready yet return -1 so callers can fall
+ * back to a live scan.
+ * Index maps are only written from the main thread.
+ */
+public class RedstoneComponentIndex {
+
+    private static final Map<UUID, LongObjectMap<ChunkIndex>> indexesByWorld = new ConcurrentHashMap<>();
+    // Chunks whose snapshot is being scanned, with block changes seen in the meantime
+    private static final Map<UUID, LongObjectMap<List<PendingChange>>> building = new ConcurrentHashMap<>();
+
+    private static volatile long chunksIndexed = 0L;
+    private static volatile long lookups = 0L;
+    private static volatile long fallbacks = 0L;
+
+    /**
+     * Redstone components of one chunk, keyed by packed block position.
+     */
+    private static final class ChunkIndex {
+        private final LongObjectMap<Material> components = new LongObjectMap<>();
+    }
+
+    /**
+     * A block change that happened while a chunk's snapshot was being scanned.
+     */
+    private static final class PendingChange {
+        private final long blockKey;
+        private final Material material;
+
+        private PendingChange(long blockKey, Material material) {
+            this.blockKey = blockKey;
+            this.material = material;
+        }
+    }
+
+    /**
+     * Checks if a material is a redstone component.
+     */
+    public static boolean isRedstoneComponent(Material material) {
+        switch (material) {
+            case REDSTONE_WIRE:
+            case REPEATER:
+            case COMPARATOR:
+            case REDSTONE_TORCH:
+            case REDSTONE_WALL_TORCH:
+            case REDSTONE_BLOCK:
+            case OBSERVER:
+            case PISTON:
+            case STICKY_PISTON:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Counts indexed components in a box around a position.
+     *
+     * @param filter Materials to count, or null for every redstone component
+     * @param limit  Stop counting once this many are found
+     * @return Number of components (at most limit), or -1 if a chunk in the box is not indexed yet
+     */
+    public static int countComponents(World world, int centerX, int centerY, int centerZ,
+                                      int radiusXZ, int radiusY, Material[] filter, int limit) {
+        LongObjectMap<ChunkIndex> indexes = indexesByWorld.get(world.getUID());
+        lookups++;
+
+        // Every chunk the box touches must be indexed
+        boolean ready = true;
+        for (int chunkX = (centerX - radiusXZ) >> 4; chunkX <= (centerX + radiusXZ) >> 4; chunkX++) {
+            for (int chunkZ = (centerZ - radiusXZ) >> 4; chunkZ <= (centerZ + radiusXZ) >> 4; chunkZ++) {
+                if (indexes == null || indexes.get(BlockKey.packChunk(chunkX, chunkZ)) == null) {
+                    requestIndex(world, chunkX, chunkZ);
+                    ready = false;
+                }
+            }
+        }
+        if (!ready) {
+            fallbacks++;
+            return -1;
+        }
+
+        int count = 0;
+        ChunkIndex index = null;
+        long indexChunk = 0L;
+        for (int x = centerX - radiusXZ; x <= centerX + radiusXZ; x++) {
+            for (int z = centerZ - radiusXZ; z <= centerZ + radiusXZ; z++) {
+                long chunkKey = BlockKey.chunkOf(x, z);
+                if (index == null || chunkKey != indexChunk) {
+                    index = indexes.get(chunkKey);
+                    indexChunk = chunkKey;
+                }
+                if (index.components.isEmpty()) {
+                    continue;
+                }
+                for (int y = centerY - radiusY; y <= centerY + radiusY; y++) {
+                    Material material = index.components.get(BlockKey.pack(x, y, z));
+                    if (material != null && matches(material, filter) && ++count >= limit) {
+                        return count;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean matches(Material material, Material[] filter) {
+        if (filter == null) {
+            return true;
+        }
+        for (Material candidate : filter) {
+            if (candidate == material) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Starts indexing a loaded chunk, unless it is indexed or being indexed already.
+     */
+    private static void requestIndex(World world, int chunkX, int chunkZ) {
+        long chunkKey = BlockKey.packChunk(chunkX, chunkZ);
+        LongObjectMap<List<PendingChange>> worldBuilding = building.computeIfAbsent(world.getUID(), uuid -> new LongObjectMap<>());
+        if (worldBuilding.get(chunkKey) != null || !world.isChunkLoaded(chunkX, chunkZ)) {
+            return;
+        }
+        worldBuilding.put(chunkKey, new ArrayList<>());
+
+        Chunk chunk = world.getChunkAt(chunkX, chunkZ);
+        ChunkSnapshot snapshot = chunk.getChunkSnapshot(false, false, false);
+        int minY = world.getMinHeight();
+        int maxY = world.getMaxHeight();
+        UUID worldId = world.getUID();
+
+        SchedulerWrapper.runTaskAsynchronously(() -> {
+            ChunkIndex index = scanSnapshot(snapshot, chunkX, chunkZ, minY, maxY);
+            SchedulerWrapper.runTask(() -> installIndex(worldId, chunkKey, index));
+        });
+    }
+
+    private static ChunkIndex scanSnapshot(ChunkSnapshot snapshot, int chunkX, int chunkZ, int minY, int maxY) {
+        ChunkIndex index = new ChunkIndex();
+        int baseX = chunkX << 4;
+        int baseZ = chunkZ << 4;
+        for (int sectionY = minY >> 4; sectionY < (maxY + 15) >> 4; sectionY++) {
+            if (snapshot.isSectionEmpty(sectionY - (minY >> 4))) {
+                continue;
+            }
+            int startY = Math.max(minY, sectionY << 4);
+            int endY = Math.min(maxY, (sectionY << 4) + 16);
+            for (int y = startY; y < endY; y++) {
+                for (int x = 0; x < 16; x++) {
+                    for (int z = 0; z < 16; z++) {
+                        Material material = snapshot.getBlockType(x, y, z);
+                        if (isRedstoneComponent(material)) {
+                            index.components.put(BlockKey.pack(baseX + x, y, baseZ + z), material);
+                        }
+                    }
+                }
+            }
+        }
+        return index;
+    }
+
+    private static void installIndex(UUID worldId, long chunkKey, ChunkIndex index) {
+        LongObjectMap<List<PendingChange>> worldBuilding = building.get(worldId);
+        List<PendingChange> changes = worldBuilding != null ? worldBuilding.remove(chunkKey) : null;
+        World world = Bukkit.getWorld(worldId);
+        if (changes == null || world == null
+                || !world.isChunkLoaded(BlockKey.getChunkX(chunkKey), BlockKey.getChunkZ(chunkKey))) {
+            // Unloaded (or reset) while scanning
+            return;
+        }
+
+        for (PendingChange change : changes) {
+            apply(index, change.blockKey, change.material);
+        }
+        indexesByWorld.computeIfAbsent(worldId, uuid -> new LongObjectMap<>()).put(chunkKey, index);
+        chunksIndexed++;
+    }
+
+    private static void apply(ChunkIndex index, long blockKey, Material material) {
+        if (material != null && isRedstoneComponent(material)) {
+            index.components.put(blockKey, material);
+        } else {
+            index.components.remove(blockKey);
+        }
+    }
+
+    /**
+     * Updates the index after a block was placed or broken.
+     *
+     * @param material New block type (AIR when broken)
+     */
+    public static void onBlockChange(World world, int x, int y, int z, Material material) {
+        long chunkKey = BlockKey.chunkOf(x, z);
+        long blockKey = BlockKey.pack(x, y, z);
+
+        LongObjectMap<ChunkIndex> indexes = indexesByWorld.get(world.getUID());
+        ChunkIndex index = indexes != null ? indexes.get(chunkKey) : null;
+        if (index != null) {
+            apply(index, blockKey, material);
+            return;
+        }
+
+        LongObjectMap<List<PendingChange>> worldBuilding = building.get(world.getUID());
+        List<PendingChange> changes = worldBuilding != null ? worldBuilding.get(chunkKey) : null;
+        if (changes != null) {
+            changes.add(new PendingChange(blockKey, material));
+        }
+    }
+
+    /**
+     * Drops the index of an unloaded chunk.
+     */
+    public static void onChunkUnload(World world, int chunkX, int chunkZ) {
+        long chunkKey = BlockKey.packChunk(chunkX, chunkZ);
+        LongObjectMap<ChunkIndex> indexes = indexesByWorld.get(world.getUID());
+        if (indexes != null) {
+            indexes.remove(chunkKey);
+        }
+        LongObjectMap<List<PendingChange>> worldBuilding = building.get(world.getUID());
+        if (worldBuilding != null) {
+            worldBuilding.remove(chunkKey);
+        }
+    }
+
+    /**
+     * Gets index statistics.
+     */
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        int chunks = 0;
+        int components = 0;
+        for (LongObjectMap<ChunkIndex> indexes : indexesByWorld.values()) {
+            for (ChunkIndex index : indexes.values()) {
+                chunks++;
+                components += index.components.size();
+            }
+        }
+        stats.put("indexed_chunks", chunks);
+        stats.put("indexed_components", components);
+        stats.put("chunks_indexed_total", chunksIndexed);
+        stats.put("lookups", lookups);
+        stats.put("fallbacks", fallbacks);
+        return stats;
+    }
+
+    /**
+     * Clears all indexes. Used during plugin reload.
+     */
+    public static void clearAll() {
+        indexesByWorld.clear();
+        building.clear();
+        if (ConfigManager.isDebugEnabled()) {
+            LagXpert.getInstance().getLogger().info("[RedstoneComponentIndex] Component indexes cleared.");
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package me.koyere.lagxpert.system;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.utils.BlockKey;
+import me.koyere.lagxpert.utils.LongObjectMap;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redstone profiler behind '/lagxpert redstone top'. While a session is recording,
+ * every tracked redstone update is counted per circuit and per chunk in striped
+ * counters (one lock per stripe, so region threads on Folia do not contend). When no
+ * session is running, the recording hook costs a single volatile read.
+ */
+public class RedstoneProfiler {
+
+    private static final int STRIPES = 16;
+    private static final int STRIPE_MASK = STRIPES - 1;
+
+    private static volatile Session session;
+
+    /**
+     * Update counts of one key (circuit or chunk).
+     */
+    private static final class Counter {
+        private final long key;
+        private long updates;
+        private double weightedUpdates;
+
+        private Counter(long key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * One stripe of counters, guarded by its own lock.
+     */
+    private static final class Stripe {
+        private final LongObjectMap<Counter> circuits = new LongObjectMap<>();
+        private final LongObjectMap<Counter> chunks = new LongObjectMap<>();
+    }
+
+    /**
+     * A recording session.
+     */
+    private static final class Session {
+        private final UUID worldFilter;
+        private final long startedAt = System.currentTimeMillis();
+        private final Map<UUID, Stripe[]> worlds = new ConcurrentHashMap<>();
+
+        private Session(UUID worldFilter) {
+            this.worldFilter = worldFilter;
+        }
+
+        private Stripe[] getStripes(UUID worldId) {
+            Stripe[] stripes = worlds.get(worldId);
+            if (stripes == null) {
+                stripes = worlds.computeIfAbsent(worldId, uuid -> {
+                    Stripe[] created = new Stripe[STRIPES];
+                    for (int i = 0; i < STRIPES; i++) {
+                        created[i] = new Stripe();
+                    }
+                    return created;
+                });
+            }
+            return stripes;
+        }
+    }
+
+    /**
+     * A ranked circuit or chunk in a profile report.
+     */
+    public static final class Entry {
+        private final String worldName;
+        private final long key;
+        private final long updates;
+        private final double weightedUpdates;
+        private String circuitType;
+        private int components;
+
+        private Entry(String worldName, long key, long updates, double weightedUpdates) {
+            this.worldName = worldName;
+            this.key = key;
+            this.updates = updates;
+            this.weightedUpdates = weightedUpdates;
+        }
+
+        public String getWorldName() { return worldName; }
+        /** Packed block position for circuits, packed chunk position for chunks. */
+        public long getKey() { return key; }
+        public long getUpdates() { return updates; }
+        public double getWeightedUpdates() { return weightedUpdates; }
+        /** Circuit type, or null for chunks and circuits no longer tracked. */
+        public String getCircuitType() { return circuitType; }
+        public int getComponents() { return components; }
+    }
+
+    /**
+     * Result of a finished session, sorted by estimated work (highest first).
+     */
+    public static final class Report {
+        private final double durationSeconds;
+        private final long totalUpdates;
+        private final double totalWeightedUpdates;
+        private final List<Entry> circuits;
+        private final List<Entry> chunks;
+
+        private Report(double durationSeconds, long totalUpdates, double totalWeightedUpdates,
+                       List<Entry> circuits, List<Entry> chunks) {
+            this.durationSeconds = durationSeconds;
+            this.totalUpdates = totalUpdates;
+            this.totalWeightedUpdates = totalWeightedUpdates;
+            this.circuits = circuits;
+            this.chunks = chunks;
+        }
+
+        public double getDurationSeconds() { return durationSeconds; }
+        public long getTotalUpdates() { return totalUpdates; }
+        public List<Entry> getCircuits() { return circuits; }
+        public List<Entry> getChunks() { return chunks; }
+
+        public double getUpdatesPerSecond(Entry entry) {
+            return entry.updates / Math.max(0.001, durationSeconds);
+        }
+
+        /**
+         * Estimated share of all recorded redstone work (0-1), weighting updates by component cost.
+         */
+        public double getShare(Entry entry) {
+            return totalWeightedUpdates > 0 ? entry.weightedUpdates / totalWeightedUpdates : 0.0;
+        }
+    }
+
+    public static boolean isRecording() {
+        return session != null;
+    }
+
+    /**
+     * Starts recording.
+     *
+     * @param world World to record, or null for all worlds
+     * @return False if a session is already running
+     */
+    public static synchronized boolean start(World world) {
+        if (session != null) {
+            return false;
+        }
+        session = new Session(world != null ? world.getUID() : null);
+        return true;
+    }
+
+    /**
+     * Records one redstone update. Called by the circuit tracker.
+     *
+     * @param circuitKey Packed position identifying the update's circuit
+     * @param blockKey   Packed position of the updated block
+     * @param costWeight Relative cost of the updated component
+     */
+    public static void record(World world, long circuitKey, long blockKey, float costWeight) {
+        Session current = session;
+        if (current == null) {
+            return;
+        }
+        UUID worldId = world.getUID();
+        if (current.worldFilter != null && !current.worldFilter.equals(worldId)) {
+            return;
+        }
+
+        Stripe[] stripes = current.getStripes(worldId);
+        long chunkKey = BlockKey.chunkOf(BlockKey.getX(blockKey), BlockKey.getZ(blockKey));
+        increment(stripes[stripe(circuitKey)], true, circuitKey, costWeight);
+        increment(stripes[stripe(chunkKey)], false, chunkKey, costWeight);
+    }
+
+    private static int stripe(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 59) & STRIPE_MASK;
+    }
+
+    private static void increment(Stripe stripe, boolean circuit, long key, float costWeight) {
+        synchronized (stripe) {
+            LongObjectMap<Counter> counters = circuit ? stripe.circuits : stripe.chunks;
+            Counter counter = counters.get(key);
+            if (counter == null) {
+                counter = new Counter(key);
+                counters.put(key, counter);
+            }
+            counter.updates++;
+            counter.weightedUpdates += costWeight;
+        }
+    }
+
+    /**
+     * Stops the running session and builds its report. Must be called from the main thread
+     * (circuits are looked up to report their current type and size).
+     *
+     * @return The report, or null if no session was running
+     */
+    public static synchronized Report stop() {
+        Session finished = session;
+        session = null;
+        if (finished == null) {
+            return null;
+        }
+
+        double durationSeconds = (System.currentTimeMillis() - finished.startedAt) / 1000.0;
+        List<Entry> circuits = new ArrayList<>();
+        List<Entry> chunks = new ArrayList<>();
+        long totalUpdates = 0L;
+        double totalWeighted = 0.0;
+
+        for (Map.Entry<UUID, Stripe[]> worldEntry : finished.worlds.entrySet()) {
+            World world = Bukkit.getWorld(worldEntry.getKey());
+            String worldName = world != null ? world.getName() : worldEntry.getKey().toString();
+            // Circuits may have merged during the session; counts are combined per current circuit
+            LongObjectMap<Entry> byCircuit = new LongObjectMap<>();
+
+            for (Stripe stripe : worldEntry.getValue()) {
+                synchronized (stripe) {
+                    for (Counter counter : stripe.circuits.values()) {
+                        RedstoneCircuitTracker.RedstoneCircuit circuit = world != null
+                                ? RedstoneCircuitTracker.getCircuit(world, counter.key) : null;
+                        long circuitKey = circuit != null ? circuit.getBlockKey() : counter.key;
+                        Entry existing = byCircuit.get(circuitKey);
+                        Entry merged = new Entry(worldName, circuitKey,
+                                counter.updates + (existing != null ? existing.updates : 0L),
+                                counter.weightedUpdates + (existing != null ? existing.weightedUpdates : 0.0));
+                        if (circuit != null) {
+                            merged.circuitType = circuit.getType().name();
+                            merged.components = circuit.getComponentCount();
+                        }
+                        byCircuit.put(circuitKey, merged);
+                        totalUpdates += counter.updates;
+                        totalWeighted += counter.weightedUpdates;
+                    }
+                    for (Counter counter : stripe.chunks.values()) {
+                        chunks.add(new Entry(worldName, counter.key, counter.updates, counter.weightedUpdates));
+                    }
+                }
+            }
+            circuits.addAll(byCircuit.values());
+        }
+
+        circuits.sort((a, b) -> Double.compare(b.weightedUpdates, a.weightedUpdates));
+        chunks.sort((a, b) -> Double.compare(b.weightedUpdates, a.weightedUpdates));
+        return new Report(durationSeconds, totalUpdates, totalWeighted,
+                Collections.unmodifiableList(circuits), Collections.unmodifiableList(chunks));
+    }
+
+    /**
+     * Writes the per-chunk heat map of a report to a CSV file in the plugin data folder.
+     *
+     * @return The written file
+     */
+    public static File exportHeatMap(Report report) throws IOException {
+        File folder = new File(LagXpert.getInstance().getDataFolder(), "profiles");
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Could not create " + folder.getPath());
+        }
+        String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        File file = new File(folder, "redstone-heatmap-" + timestamp + ".csv");
+
+        try (PrintWriter writer = new PrintWriter(file, StandardCharsets.UTF_8.name())) {
+            writer.println("world,chunk_x,chunk_z,block_x,block_z,updates,updates_per_second,work_share_percent");
+            for (Entry entry : report.getChunks()) {
+                int chunkX = BlockKey.getChunkX(entry.getKey());
+                int chunkZ = BlockKey.getChunkZ(entry.getKey());
+                writer.println(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%.2f,%.3f",
+                        entry.getWorldName(), chunkX, chunkZ, chunkX << 4, chunkZ << 4, entry.getUpdates(),
+                        report.getUpdatesPerSecond(entry), report.getShare(entry) * 100));
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,282 @@
+package me.koyere.lagxpert.system;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
+import me.koyere.lagxpert.utils.ConfigManager;
+import me.koyere.lagxpert.utils.LongObjectMap;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tick-driven timer wheel for redstone deadlines (wire timeouts, circuit shutdowns).
+ * Replaces one Bukkit task per deadline with a single task that advances the wheel
+ * once per tick and fires every deadline of the current slot as a batch.
+ * Deadlines are stored as primitives (block key, world id, remaining rounds) in the
+ * slots, and each timer kind holds at most one pending deadline per block position:
+ * scheduling a position that is already pending is a no-op.
+ * Must be used from the main thread.
+ */
+public class RedstoneTimerWheel {
+
+    private static final SelfOverheadMeter.Probe TICK_PROBE = SelfOverheadMeter.probe("RedstoneTimerWheel#tick");
+
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS; // 256 slots, one per tick
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final Object PENDING = new Object();
+
+    /**
+     * Called when a deadline expires.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * @param world    World of the position
+         * @param blockKey Packed block position ({@link me.koyere.lagxpert.utils.BlockKey})
+         * @return Ticks after which the deadline should fire again, or 0 when done
+         */
+        long onExpire(World world, long blockKey);
+    }
+
+    // Registered timer kinds
+    private static final List<String> kindNames = new ArrayList<>();
+    private static final List<Handler> handlers = new ArrayList<>();
+
+    // Worlds are referenced by small ids in the slots
+    private static final Map<UUID, Integer> worldIds = new HashMap<>();
+    private static final List<UUID> worlds = new ArrayList<>();
+    // Pending positions per (world id * kinds + kind)
+    private static final List<LongObjectMap<Object>> pending = new ArrayList<>();
+
+    // Slot storage: parallel primitive arrays per slot
+    private static final long[][] slotKeys = new long[WHEEL_SIZE][];
+    private static final int[][] slotMeta = new int[WHEEL_SIZE][]; // pending index
+    private static final int[][] slotRounds = new int[WHEEL_SIZE][];
+    private static final int[] slotSizes = new int[WHEEL_SIZE];
+
+    // Reused buffers for the entries fired in one tick
+    private static long[] fireKeys = new long[64];
+    private static int[] fireMeta = new int[64];
+
+    private static BukkitTask tickTask;
+    private static int cursor = 0;
+    private static int scheduledCount = 0;
+    private static long scheduled = 0L;
+    private static long deduplicated = 0L;
+    private static long fired = 0L;
+
+    /**
+     * Registers a timer kind, or replaces the handler of an existing kind with the same name.
+     *
+     * @return Kind id to pass to {@link #schedule(int, World, long, long)}
+     */
+    public static int registerKind(String name, Handler handler) {
+        int existing = kindNames.indexOf(name);
+        if (existing >= 0) {
+            handlers.set(existing, handler);
+            return existing;
+        }
+        if (!worlds.isEmpty()) {
+            // Pending sets are laid out per kind; start over with the new layout
+            clear();
+        }
+        kindNames.add(name);
+        handlers.add(handler);
+        return kindNames.size() - 1;
+    }
+
+    /**
+     * Starts advancing the wheel every tick. Replaces any previous task.
+     */
+    public static void start() {
+        stop();
+        tickTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        }.runTaskTimer(LagXpert.getInstance(), 1L, 1L);
+    }
+
+    /**
+     * Stops the wheel and drops every pending deadline.
+     */
+    public static void stop() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        clear();
+    }
+
+    /**
+     * Schedules a deadline for a block position.
+     *
+     * @param kind       Timer kind from {@link #registerKind(String, Handler)}
+     * @param world      World of the position
+     * @param blockKey   Packed block position
+     * @param delayTicks Ticks until the deadline fires (at least 1)
+     * @return False if the position already has a pending deadline of this kind
+     */
+    public static boolean schedule(int kind, World world, long blockKey, long delayTicks) {
+        int pendingIndex = getWorldId(world) * handlers.size() + kind;
+        return schedule(pendingIndex, blockKey, delayTicks);
+    }
+
+    private static boolean schedule(int pendingIndex, long blockKey, long delayTicks) {
+        LongObjectMap<Object> pendingKeys = pending.get(pendingIndex);
+        if (pendingKeys.get(blockKey) != null) {
+            deduplicated++;
+            return false;
+        }
+        pendingKeys.put(blockKey, PENDING);
+
+        long delay = Math.max(1L, delayTicks);
+        int slot = (int) ((cursor + delay) & WHEEL_MASK);
+        int rounds = (int) Math.min(Integer.MAX_VALUE, (delay - 1) >> WHEEL_BITS);
+        append(slot, blockKey, pendingIndex, rounds);
+        scheduledCount++;
+        scheduled++;
+        return true;
+    }
+
+    /**
+     * Whether a position has a pending deadline of the given kind.
+     */
+    public static boolean isPending(int kind, World world, long blockKey) {
+        Integer worldId = worldIds.get(world.getUID());
+        return worldId != null && pending.get(worldId * handlers.size() + kind).get(blockKey) != null;
+    }
+
+    private static void append(int slot, long blockKey, int pendingIndex, int rounds) {
+        int size = slotSizes[slot];
+        if (slotKeys[slot] == null) {
+            slotKeys[slot] = new long[8];
+            slotMeta[slot] = new int[8];
+            slotRounds[slot] = new int[8];
+        } else if (size == slotKeys[slot].length) {
+            int capacity = size << 1;
+            slotKeys[slot] = Arrays.copyOf(slotKeys[slot], capacity);
+            slotMeta[slot] = Arrays.copyOf(slotMeta[slot], capacity);
+            slotRounds[slot] = Arrays.copyOf(slotRounds[slot], capacity);
+        }
+        slotKeys[slot][size] = blockKey;
+        slotMeta[slot][size] = pendingIndex;
+        slotRounds[slot][size] = rounds;
+        slotSizes[slot] = size + 1;
+    }
+
+    private static int getWorldId(World world) {
+        Integer id = worldIds.get(world.getUID());
+        if (id == null) {
+            id = worlds.size();
+            worldIds.put(world.getUID(), id);
+            worlds.add(world.getUID());
+            for (int i = 0; i < handlers.size(); i++) {
+                pending.add(new LongObjectMap<>());
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Advances the wheel by one tick and fires the deadlines of the new slot.
+     */
+    private static void tick() {
+        cursor = (cursor + 1) & WHEEL_MASK;
+        int size = slotSizes[cursor];
+        if (size == 0) {
+            return;
+        }
+
+        long probeStart = TICK_PROBE.start();
+        try {
+            long[] keys = slotKeys[cursor];
+            int[] meta = slotMeta[cursor];
+            int[] rounds = slotRounds[cursor];
+
+            // Entries with rounds left stay (compacted), the rest are fired after the pass
+            int kept = 0;
+            int firing = 0;
+            for (int i = 0; i < size; i++) {
+                if (rounds[i] > 0) {
+                    keys[kept] = keys[i];
+                    meta[kept] = meta[i];
+                    rounds[kept] = rounds[i] - 1;
+                    kept++;
+                } else {
+                    if (firing == fireKeys.length) {
+                        fireKeys = Arrays.copyOf(fireKeys, firing << 1);
+                        fireMeta = Arrays.copyOf(fireMeta, firing << 1);
+                    }
+                    fireKeys[firing] = keys[i];
+                    fireMeta[firing] = meta[i];
+                    firing++;
+                }
+            }
+            slotSizes[cursor] = kept;
+            scheduledCount -= firing;
+
+            int kinds = handlers.size();
+            for (int i = 0; i < firing; i++) {
+                int pendingIndex = fireMeta[i];
+                long blockKey = fireKeys[i];
+                pending.get(pendingIndex).remove(blockKey);
+                fired++;
+
+                World world = Bukkit.getWorld(worlds.get(pendingIndex / kinds));
+                if (world == null) {
+                    continue;
+                }
+                try {
+                    long again = handlers.get(pendingIndex % kinds).onExpire(world, blockKey);
+                    if (again > 0) {
+                        schedule(pendingIndex, blockKey, again);
+                    }
+                } catch (Exception e) {
+                    LagXpert.getInstance().getLogger().warning("[RedstoneTimerWheel] Error in "
+                            + kindNames.get(pendingIndex % kinds) + " timer: " + e.getMessage());
+                }
+            }
+
+            if (ConfigManager.isDebugEnabled() && firing > 100) {
+                LagXpert.getInstance().getLogger().info("[RedstoneTimerWheel] Fired " + firing + " redstone timers this tick.");
+            }
+        } finally {
+            TICK_PROBE.stop(probeStart);
+        }
+    }
+
+    /**
+     * Drops every pending deadline.
+     */
+    public static void clear() {
+        Arrays.fill(slotSizes, 0);
+        pending.clear();
+        worldIds.clear();
+        worlds.clear();
+        scheduledCount = 0;
+    }
+
+    /**
+     * Gets timer wheel statistics.
+     */
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("running", tickTask != null);
+        stats.put("pending_timers", scheduledCount);
+        stats.put("scheduled_total", scheduled);
+        stats.put("deduplicated_total", deduplicated);
+        stats.put("fired_total", fired);
+        return stats;
+    }
+}
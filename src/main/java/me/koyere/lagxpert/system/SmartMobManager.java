@@ -1,6 +1,7 @@
 package me.koyere.lagxpert.system;
 
 import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
 import me.koyere.lagxpert.utils.ConfigManager;
 import me.koyere.lagxpert.utils.SchedulerWrapper;
 import me.koyere.lagxpert.utils.MessageManager;
@@ -28,6 +29,8 @@ import java.util.concurrent.atomic.AtomicInteger;
  * - Implements smart cooldowns to prevent excessive processing
  */
 public class SmartMobManager {
+
+    private static final SelfOverheadMeter.Probe SCAN_PROBE = SelfOverheadMeter.probe("SmartMobManager#scanAndManageMobs");
     
     private static SmartMobManager instance;
     private final AtomicInteger totalMobsRemoved = new AtomicInteger(0);
@@ -94,49 +97,54 @@ public class SmartMobManager {
      * Main scanning method that processes all loaded chunks intelligently.
      */
     private void scanAndManageMobs() {
-        if (!ConfigManager.isMobsModuleEnabled()) {
-            return;
-        }
+        long probeStart = SCAN_PROBE.start();
+        try {
+            if (!ConfigManager.isMobsModuleEnabled()) {
+                return;
+            }
         
-        long startTime = System.currentTimeMillis();
-        int chunksProcessed = 0;
-        int totalMobsFound = 0;
-        int totalMobsRemovedThisCycle = 0;
+            long startTime = System.currentTimeMillis();
+            int chunksProcessed = 0;
+            int totalMobsFound = 0;
+            int totalMobsRemovedThisCycle = 0;
         
-        List<Chunk> chunksToProcess = getChunksToProcess();
+            List<Chunk> chunksToProcess = getChunksToProcess();
         
-        for (Chunk chunk : chunksToProcess) {
-            if (chunksProcessed >= MAX_CHUNKS_PER_TICK) {
-                break; // Prevent lag spikes
-            }
+            for (Chunk chunk : chunksToProcess) {
+                if (chunksProcessed >= MAX_CHUNKS_PER_TICK) {
+                    break; // Prevent lag spikes
+                }
             
-            try {
-                ChunkMobData mobData = analyzeChunkMobs(chunk);
-                totalMobsFound += mobData.getTotalMobs();
+                try {
+                    ChunkMobData mobData = analyzeChunkMobs(chunk);
+                    totalMobsFound += mobData.getTotalMobs();
                 
-                if (mobData.needsProcessing()) {
-                    int removed = processChunkMobs(chunk, mobData);
-                    totalMobsRemovedThisCycle += removed;
-                    chunksProcessed++;
-                }
+                    if (mobData.needsProcessing()) {
+                        int removed = processChunkMobs(chunk, mobData);
+                        totalMobsRemovedThisCycle += removed;
+                        chunksProcessed++;
+                    }
                 
-            } catch (Exception e) {
-                if (ConfigManager.isDebugEnabled()) {
-                    LagXpert.getInstance().getLogger().warning(
-                        "[SmartMobManager] Error processing chunk " + chunk.getX() + "," + chunk.getZ() + ": " + e.getMessage()
-                    );
+                } catch (Exception e) {
+                    if (ConfigManager.isDebugEnabled()) {
+                        LagXpert.getInstance().getLogger().warning(
+                            "[SmartMobManager] Error processing chunk " + chunk.getX() + "," + chunk.getZ() + ": " + e.getMessage()
+                        );
+                    }
                 }
             }
-        }
         
-        long duration = System.currentTimeMillis() - startTime;
+            long duration = System.currentTimeMillis() - startTime;
         
-        // Log statistics if enabled or if significant activity occurred
-        if (ConfigManager.isDebugEnabled() || totalMobsRemovedThisCycle > 0) {
-            LagXpert.getInstance().getLogger().info(String.format(
-                "[SmartMobManager] Scan completed in %dms: %d chunks processed, %d mobs found, %d mobs removed",
-                duration, chunksProcessed, totalMobsFound, totalMobsRemovedThisCycle
-            ));
+            // Log statistics if enabled or if significant activity occurred
+            if (ConfigManager.isDebugEnabled() || totalMobsRemovedThisCycle > 0) {
+                LagXpert.getInstance().getLogger().info(String.format(
+                    "[SmartMobManager] Scan completed in %dms: %d chunks processed, %d mobs found, %d mobs removed",
+                    duration, chunksProcessed, totalMobsFound, totalMobsRemovedThisCycle
+                ));
+            }
+        } finally {
+            SCAN_PROBE.stop(probeStart);
         }
     }
     
@@ -280,7 +288,8 @@ public class SmartMobManager {
         List<LivingEntity> removable = new ArrayList<>();
         
         for (LivingEntity mob : allMobs) {
-            if (shouldProtectEntity(mob)) {
+            // Removing a stacked mob would delete its whole stack
+            if (MobStackManager.getInstance().isStacked(mob) || shouldProtectEntity(mob)) {
                 continue;
             }
             removable.add(mob);
@@ -294,15 +303,16 @@ public class SmartMobManager {
     
     /**
      * Determines if an entity should be protected from removal.
+     * Also used by the mob stacker and the AI activation manager.
      */
-    private boolean shouldProtectEntity(LivingEntity entity) {
+    public boolean shouldProtectEntity(LivingEntity entity) {
         // Never remove players
         if (entity instanceof Player) {
             return true;
         }
         
-        // Protect named entities
-        if (ConfigManager.shouldProtectNamedMobs()) {
+        // Protect named entities (names shown on mob stacks are not player-given)
+        if (ConfigManager.shouldProtectNamedMobs() && !MobStackManager.getInstance().isStacked(entity)) {
             String customName = entity.getCustomName();
             if (customName != null && !customName.trim().isEmpty()) {
                 return true;
@@ -1,6 +1,7 @@
 package me.koyere.lagxpert.system;
 
 import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
 import me.koyere.lagxpert.utils.SchedulerWrapper;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
@@ -26,6 +27,8 @@ import java.util.Set;
  */
 public class VehicleManager implements Listener {
 
+    private static final SelfOverheadMeter.Probe VEHICLE_SPAWN_PROBE = SelfOverheadMeter.probe("VehicleManager#onVehicleSpawn");
+
     private boolean enabled;
     private int maxMinecartsPerChunk;
     private int maxBoatsPerChunk;
@@ -72,27 +75,32 @@ public class VehicleManager implements Listener {
 
     @EventHandler(priority = EventPriority.NORMAL)
     public void onVehicleSpawn(VehicleCreateEvent event) {
-        if (!enabled || isDisabledWorld(event.getVehicle().getWorld()))
-            return;
-
-        Vehicle vehicle = event.getVehicle();
-        Chunk chunk = vehicle.getLocation().getChunk();
-
-        if (vehicle instanceof Minecart) {
-            long count = Arrays.stream(chunk.getEntities())
-                    .filter(e -> e instanceof Minecart)
-                    .count();
-            if (count >= maxMinecartsPerChunk) {
-                event.setCancelled(true);
-                // Maybe notify admins?
-            }
-        } else if (vehicle instanceof Boat) {
-            long count = Arrays.stream(chunk.getEntities())
-                    .filter(e -> e instanceof Boat)
-                    .count();
-            if (count >= maxBoatsPerChunk) {
-                event.setCancelled(true);
+        long probeStart = VEHICLE_SPAWN_PROBE.start();
+        try {
+            if (!enabled || isDisabledWorld(event.getVehicle().getWorld()))
+                return;
+
+            Vehicle vehicle = event.getVehicle();
+            Chunk chunk = vehicle.getLocation().getChunk();
+
+            if (vehicle instanceof Minecart) {
+                long count = Arrays.stream(chunk.getEntities())
+                        .filter(e -> e instanceof Minecart)
+                        .count();
+                if (count >= maxMinecartsPerChunk) {
+                    event.setCancelled(true);
+                    // Maybe notify admins?
+                }
+            } else if (vehicle instanceof Boat) {
+                long count = Arrays.stream(chunk.getEntities())
+                        .filter(e -> e instanceof Boat)
+                        .count();
+                if (count >= maxBoatsPerChunk) {
+                    event.setCancelled(true);
+                }
             }
+        } finally {
+            VEHICLE_SPAWN_PROBE.stop(probeStart);
         }
     }
 
@@ -0,0 +1,360 @@
+package me.koyere.lagxpert.system;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.config.WorldConfigManager;
+import me.koyere.lagxpert.monitoring.ChunkLoadMeter;
+import me.koyere.lagxpert.utils.ConfigManager;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-world load estimation and ladder state for LagShield.
+ * Periodically samples each world's entity, tile entity and loaded chunk counts,
+ * splits the measured tick time across worlds by their weighted load, and turns
+ * the result into a load score (1.0 = at budget). Each world then walks the
+ * LagShield ladder on its own score, so one overloaded world does not throttle
+ * the others. Budgets come from WorldConfigManager ('lagshield.*' in the world's
+ * file) with the defaults from lagshield.yml.
+ * Must be updated from the main thread.
+ */
+public class WorldPressureTracker {
+
+    // Tick-interval MSPT only says something about world load once ticks run late
+    private static final double IMPRECISE_OVERLOAD_MS = 52.0;
+
+    private boolean enabled;
+    private long sampleIntervalMs;
+    private long tileSampleIntervalMs;
+    private double entityWeight;
+    private double tileWeight;
+    private double chunkWeight;
+
+    // Defaults for worlds without overrides
+    private double defaultMsptBudget;
+    private int defaultMaxEntities;
+    private int defaultMaxTileEntities;
+    private int defaultMaxChunks;
+
+    private List<Double> enterScores = new ArrayList<>();
+    private List<Double> exitScores = new ArrayList<>();
+
+    private final Map<String, WorldState> states = new ConcurrentHashMap<>();
+    private long lastSample = 0L;
+    private long lastTileSample = 0L;
+    private long levelChanges = 0L;
+
+    private static Method tileEntitiesWithoutSnapshot;
+    private static boolean tileEntitiesMethodResolved = false;
+
+    /**
+     * Sampled load and ladder state of one world.
+     */
+    public static class WorldState {
+        private final String worldName;
+        private boolean shieldEnabled = true;
+        private int entities;
+        private int tileEntities;
+        private int chunks;
+        private double estimatedMspt;
+        private double score;
+        private int level;
+        private long levelEnteredAt;
+
+        WorldState(String worldName) {
+            this.worldName = worldName;
+        }
+
+        public String getWorldName() { return worldName; }
+        public boolean isShieldEnabled() { return shieldEnabled; }
+        public int getEntities() { return entities; }
+        public int getTileEntities() { return tileEntities; }
+        public int getChunks() { return chunks; }
+        public double getEstimatedMspt() { return estimatedMspt; }
+        public double getScore() { return score; }
+        public int getLevel() { return level; }
+    }
+
+    /**
+     * Loads settings from the 'per-world' section of lagshield.yml.
+     */
+    public void loadConfig(ConfigurationSection section) {
+        this.enabled = section != null && section.getBoolean("enabled", false);
+        if (section == null) {
+            section = new MemoryConfiguration();
+        }
+
+        this.sampleIntervalMs = Math.max(1, section.getInt("sample-interval-seconds", 5)) * 1000L;
+        this.tileSampleIntervalMs = Math.max(1, section.getInt("tile-sample-interval-seconds", 30)) * 1000L;
+        this.entityWeight = Math.max(0.0, section.getDouble("weights.entity", 1.0));
+        this.tileWeight = Math.max(0.0, section.getDouble("weights.tile-entity", 0.5));
+        this.chunkWeight = Math.max(0.0, section.getDouble("weights.chunk", 0.2));
+
+        this.defaultMsptBudget = Math.max(1.0, section.getDouble("defaults.mspt-budget", 30.0));
+        this.defaultMaxEntities = Math.max(0, section.getInt("defaults.max-entities", 5000));
+        this.defaultMaxTileEntities = Math.max(0, section.getInt("defaults.max-tile-entities", 20000));
+        this.defaultMaxChunks = Math.max(0, section.getInt("defaults.max-chunks", 4000));
+
+        this.enterScores = section.isList("enter-scores") ? section.getDoubleList("enter-scores") : Arrays.asList(1.0, 1.25, 1.5);
+        this.exitScores = section.isList("exit-scores") ? section.getDoubleList("exit-scores") : Arrays.asList(0.85, 1.05, 1.3);
+
+        if (!enabled) {
+            states.clear();
+        }
+        lastSample = 0L;
+        lastTileSample = 0L;
+    }
+
+    /**
+     * Samples world load when due and steps each world's ladder level.
+     *
+     * @param measuredMspt   Current server MSPT
+     * @param precise        Whether MSPT is real work per tick rather than tick intervals
+     * @param levels         LagShield ladder
+     * @param stepUpDelayMs  Minimum time between two step-ups
+     * @param now            Current time in milliseconds
+     */
+    public void update(double measuredMspt, boolean precise, List<LagShield.ShieldLevel> levels, long stepUpDelayMs, long now) {
+        if (!enabled || now - lastSample < sampleIntervalMs) {
+            return;
+        }
+        lastSample = now;
+
+        boolean sampleTiles = now - lastTileSample >= tileSampleIntervalMs;
+        if (sampleTiles) {
+            lastTileSample = now;
+        }
+        sample(sampleTiles);
+        estimate(measuredMspt, precise);
+
+        for (WorldState state : states.values()) {
+            stepLevel(state, levels, stepUpDelayMs, now);
+        }
+    }
+
+    private void sample(boolean sampleTiles) {
+        Map<String, ChunkLoadMeter.WorldCounters> chunkCounters = ChunkLoadMeter.getWorldCounters();
+        List<String> present = new ArrayList<>();
+
+        for (World world : Bukkit.getWorlds()) {
+            String name = world.getName();
+            present.add(name);
+            WorldState state = states.computeIfAbsent(name, WorldState::new);
+
+            state.shieldEnabled = WorldConfigManager.getWorldValue(world, "lagshield.enabled", true, Boolean.class);
+            state.entities = world.getEntities().size();
+
+            ChunkLoadMeter.WorldCounters counters = chunkCounters.get(name);
+            Chunk[] loadedChunks = null;
+            if (counters != null) {
+                state.chunks = (int) counters.getLoadedChunks();
+            } else {
+                loadedChunks = world.getLoadedChunks();
+                state.chunks = loadedChunks.length;
+            }
+
+            if (sampleTiles) {
+                state.tileEntities = countTileEntities(loadedChunks != null ? loadedChunks : world.getLoadedChunks());
+            }
+        }
+        states.keySet().retainAll(present);
+    }
+
+    /**
+     * Counts tile entities, without block state snapshots where the server supports it.
+     */
+    private int countTileEntities(Chunk[] chunks) {
+        if (!tileEntitiesMethodResolved) {
+            tileEntitiesMethodResolved = true;
+            try {
+                tileEntitiesWithoutSnapshot = Chunk.class.getMethod("getTileEntities", boolean.class);
+            } catch (NoSuchMethodException e) {
+                tileEntitiesWithoutSnapshot = null;
+            }
+        }
+
+        int total = 0;
+        for (Chunk chunk : chunks) {
+            if (tileEntitiesWithoutSnapshot != null) {
+                try {
+                    total += ((Object[]) tileEntitiesWithoutSnapshot.invoke(chunk, false)).length;
+                    continue;
+                } catch (Exception e) {
+                    tileEntitiesWithoutSnapshot = null;
+                }
+            }
+            total += chunk.getTileEntities().length;
+        }
+        return total;
+    }
+
+    /**
+     * Splits the measured tick time across worlds by weighted load and computes load scores.
+     */
+    private void estimate(double measuredMspt, boolean precise) {
+        double totalWeight = 0.0;
+        for (WorldState state : states.values()) {
+            totalWeight += loadWeight(state);
+        }
+        boolean msptUsable = precise || measuredMspt > IMPRECISE_OVERLOAD_MS;
+
+        for (WorldState state : states.values()) {
+            World world = Bukkit.getWorld(state.worldName);
+            if (world == null) {
+                continue;
+            }
+            double share = totalWeight > 0 ? loadWeight(state) / totalWeight : 0.0;
+            state.estimatedMspt = measuredMspt * share;
+
+            double msptBudget = WorldConfigManager.getWorldValue(world, "lagshield.mspt-budget", defaultMsptBudget, Double.class);
+            int maxEntities = WorldConfigManager.getWorldValue(world, "lagshield.max-entities", defaultMaxEntities, Integer.class);
+            int maxTiles = WorldConfigManager.getWorldValue(world, "lagshield.max-tile-entities", defaultMaxTileEntities, Integer.class);
+            int maxChunks = WorldConfigManager.getWorldValue(world, "lagshield.max-chunks", defaultMaxChunks, Integer.class);
+
+            double score = msptUsable && msptBudget > 0 ? state.estimatedMspt / msptBudget : 0.0;
+            score = Math.max(score, ratio(state.entities, maxEntities));
+            score = Math.max(score, ratio(state.tileEntities, maxTiles));
+            score = Math.max(score, ratio(state.chunks, maxChunks));
+            state.score = score;
+        }
+    }
+
+    private double loadWeight(WorldState state) {
+        return state.entities * entityWeight + state.tileEntities * tileWeight + state.chunks * chunkWeight;
+    }
+
+    private static double ratio(int value, int limit) {
+        return limit > 0 ? (double) value / limit : 0.0;
+    }
+
+    private void stepLevel(WorldState state, List<LagShield.ShieldLevel> levels, long stepUpDelayMs, long now) {
+        if (!state.shieldEnabled) {
+            state.level = 0;
+            return;
+        }
+        if (state.level > levels.size()) {
+            state.level = levels.size();
+        }
+
+        if (state.level < levels.size() && now - state.levelEnteredAt >= stepUpDelayMs
+                && state.score >= getEnterScore(state.level)) {
+            changeLevel(state, state.level + 1, levels, now);
+            return;
+        }
+
+        if (state.level > 0 && state.score < getExitScore(state.level - 1)
+                && now - state.levelEnteredAt >= levels.get(state.level - 1).getMinDwellMs()) {
+            changeLevel(state, state.level - 1, levels, now);
+        }
+    }
+
+    private void changeLevel(WorldState state, int newLevel, List<LagShield.ShieldLevel> levels, long now) {
+        boolean raised = newLevel > state.level;
+        state.level = newLevel;
+        state.levelEnteredAt = now;
+        levelChanges++;
+
+        String levelName = newLevel > 0 ? levels.get(newLevel - 1).getName() : "inactive";
+        String message = String.format("[LagShield] World '%s' %s to level %d (%s), load score %.2f, ~%.1fms/tick.",
+                state.worldName, raised ? "raised" : "lowered", newLevel, levelName, state.score, state.estimatedMspt);
+        if (raised) {
+            LagXpert.getInstance().getLogger().warning(message);
+        } else if (ConfigManager.isDebugEnabled() || newLevel == 0) {
+            LagXpert.getInstance().getLogger().info(message);
+        }
+    }
+
+    // Score lists shorter than the ladder continue in steps of 0.25
+    private double getEnterScore(int levelIndex) {
+        return scoreAt(enterScores, levelIndex, 1.0);
+    }
+
+    private double getExitScore(int levelIndex) {
+        return scoreAt(exitScores, levelIndex, 0.85);
+    }
+
+    private static double scoreAt(List<Double> scores, int index, double fallback) {
+        if (scores.isEmpty()) {
+            return fallback + index * 0.25;
+        }
+        if (index < scores.size()) {
+            return scores.get(index);
+        }
+        return scores.get(scores.size() - 1) + (index - scores.size() + 1) * 0.25;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the sampled state of a world, or null if it has not been sampled.
+     */
+    public WorldState getState(World world) {
+        return enabled && world != null ? states.get(world.getName()) : null;
+    }
+
+    /**
+     * Whether any world currently holds a ladder level of its own.
+     */
+    public boolean hasThrottledWorld() {
+        for (WorldState state : states.values()) {
+            if (state.level > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the highest load score across worlds.
+     */
+    public double getMaxScore() {
+        double max = 0.0;
+        for (WorldState state : states.values()) {
+            max = Math.max(max, state.score);
+        }
+        return max;
+    }
+
+    public Map<String, WorldState> getStates() {
+        return new HashMap<>(states);
+    }
+
+    /**
+     * Gets per-world statistics.
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("level_changes", levelChanges);
+
+        Map<String, Object> worlds = new HashMap<>();
+        for (WorldState state : states.values()) {
+            Map<String, Object> worldStats = new HashMap<>();
+            worldStats.put("level", state.level);
+            worldStats.put("load_score", state.score);
+            worldStats.put("estimated_mspt", state.estimatedMspt);
+            worldStats.put("entities", state.entities);
+            worldStats.put("tile_entities", state.tileEntities);
+            worldStats.put("loaded_chunks", state.chunks);
+            worlds.put(state.worldName, worldStats);
+        }
+        stats.put("worlds", worlds);
+        return stats;
+    }
+
+    public void resetStatistics() {
+        levelChanges = 0L;
+    }
+}
@@ -0,0 +1,231 @@
+package me.koyere.lagxpert.system;
+
+import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.utils.ConfigManager;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Enforces LagShield's mob cap through each world's own spawn settings.
+ * Scaling the world spawn limits (and stretching the spawn intervals) makes the
+ * server skip natural spawn attempts entirely, instead of spawning mobs that the
+ * entity listener then has to cancel. Each world gets its own multiplier; original
+ * values are captured the first time a world is limited and written back once its
+ * multiplier returns to 1.0. Worlds that followed the server-wide spawn limits are
+ * put back on them rather than pinned to the values they had at the time.
+ * Must be used from the main thread.
+ */
+public class WorldSpawnLimiter {
+
+    // Multipliers are applied in steps of this size, so small pressure changes do not touch worlds
+    private static final double STEP = 0.05;
+    // Longest spawn interval the limiter will configure (in ticks)
+    private static final int MAX_TICKS_PER_SPAWN = 400;
+
+    private boolean enabled;
+    private boolean scaleSpawnIntervals;
+
+    private final Map<String, SpawnSettings> originals = new HashMap<>();
+    private long applications = 0L;
+
+    /**
+     * Spawn settings of a world before LagShield changed them.
+     */
+    private static class SpawnSettings {
+        // Effective limits, used for scaling
+        private final int monsterLimit;
+        private final int animalLimit;
+        private final int waterAnimalLimit;
+        private final int ambientLimit;
+        // Whether each limit was the server-wide default (bukkit.yml) rather than a per-world value
+        private final boolean monsterLimitDefault;
+        private final boolean animalLimitDefault;
+        private final boolean waterAnimalLimitDefault;
+        private final boolean ambientLimitDefault;
+        private final long ticksPerMonsterSpawns;
+        private final long ticksPerAnimalSpawns;
+        // Multiplier currently applied to the world
+        private double appliedMultiplier = 1.0;
+
+        private SpawnSettings(World world) {
+            this.monsterLimit = world.getMonsterSpawnLimit();
+            this.animalLimit = world.getAnimalSpawnLimit();
+            this.waterAnimalLimit = world.getWaterAnimalSpawnLimit();
+            this.ambientLimit = world.getAmbientSpawnLimit();
+            // Worlds report the server-wide limit when they have none of their own
+            this.monsterLimitDefault = monsterLimit == Bukkit.getMonsterSpawnLimit();
+            this.animalLimitDefault = animalLimit == Bukkit.getAnimalSpawnLimit();
+            this.waterAnimalLimitDefault = waterAnimalLimit == Bukkit.getWaterAnimalSpawnLimit();
+            this.ambientLimitDefault = ambientLimit == Bukkit.getAmbientSpawnLimit();
+            this.ticksPerMonsterSpawns = world.getTicksPerMonsterSpawns();
+            this.ticksPerAnimalSpawns = world.getTicksPerAnimalSpawns();
+        }
+
+        /**
+         * Writes the original settings back. A negative limit makes the world use the server-wide limit again.
+         */
+        private void restore(World world) {
+            world.setMonsterSpawnLimit(monsterLimitDefault ? -1 : monsterLimit);
+            world.setAnimalSpawnLimit(animalLimitDefault ? -1 : animalLimit);
+            world.setWaterAnimalSpawnLimit(waterAnimalLimitDefault ? -1 : waterAnimalLimit);
+            world.setAmbientSpawnLimit(ambientLimitDefault ? -1 : ambientLimit);
+            world.setTicksPerMonsterSpawns((int) ticksPerMonsterSpawns);
+            world.setTicksPerAnimalSpawns((int) ticksPerAnimalSpawns);
+        }
+    }
+
+    public void loadConfig(boolean enabled, boolean scaleSpawnIntervals) {
+        boolean changed = this.scaleSpawnIntervals != scaleSpawnIntervals;
+        this.enabled = enabled;
+        this.scaleSpawnIntervals = scaleSpawnIntervals;
+
+        if (!enabled) {
+            restoreAll();
+        } else if (changed) {
+            // Re-apply with the new interval setting on the next update
+            for (SpawnSettings settings : originals.values()) {
+                settings.appliedMultiplier = -1.0;
+            }
+        }
+    }
+
+    /**
+     * Applies each loaded world's spawn multiplier (0-1). A multiplier of 1.0 restores the
+     * world's original settings. Worlds loaded since the last call are picked up,
+     * unloaded worlds are forgotten.
+     *
+     * @param multiplierFor Spawn multiplier for a world
+     */
+    public void apply(ToDoubleFunction<World> multiplierFor) {
+        if (!enabled) {
+            return;
+        }
+
+        originals.keySet().removeIf(name -> Bukkit.getWorld(name) == null);
+        int changed = 0;
+
+        for (World world : Bukkit.getWorlds()) {
+            double multiplier = multiplierFor.applyAsDouble(world);
+            double quantized = Math.max(0.0, Math.min(1.0, Math.round(multiplier / STEP) * STEP));
+            SpawnSettings original = originals.get(world.getName());
+
+            if (quantized >= 1.0) {
+                if (original != null) {
+                    original.restore(world);
+                    originals.remove(world.getName());
+                    changed++;
+                }
+                continue;
+            }
+
+            if (original == null) {
+                original = new SpawnSettings(world);
+                originals.put(world.getName(), original);
+            } else if (Math.abs(quantized - original.appliedMultiplier) < 1e-9) {
+                continue;
+            }
+            applyTo(world, original, quantized);
+            original.appliedMultiplier = quantized;
+            changed++;
+
+            if (ConfigManager.isDebugEnabled()) {
+                LagXpert.getInstance().getLogger().info(String.format(
+                        "[WorldSpawnLimiter] Spawn limits of '%s' scaled to %.0f%%.", world.getName(), quantized * 100));
+            }
+        }
+
+        if (changed > 0) {
+            applications++;
+        }
+    }
+
+    private void applyTo(World world, SpawnSettings original, double multiplier) {
+        world.setMonsterSpawnLimit(scaleLimit(original.monsterLimit, multiplier));
+        world.setAnimalSpawnLimit(scaleLimit(original.animalLimit, multiplier));
+        world.setWaterAnimalSpawnLimit(scaleLimit(original.waterAnimalLimit, multiplier));
+        world.setAmbientSpawnLimit(scaleLimit(original.ambientLimit, multiplier));
+
+        if (scaleSpawnIntervals) {
+            world.setTicksPerMonsterSpawns(scaleInterval(original.ticksPerMonsterSpawns, multiplier));
+            world.setTicksPerAnimalSpawns(scaleInterval(original.ticksPerAnimalSpawns, multiplier));
+        } else {
+            world.setTicksPerMonsterSpawns((int) original.ticksPerMonsterSpawns);
+            world.setTicksPerAnimalSpawns((int) original.ticksPerAnimalSpawns);
+        }
+    }
+
+    private static int scaleLimit(int limit, double multiplier) {
+        return limit <= 0 ? limit : (int) Math.floor(limit * multiplier);
+    }
+
+    /**
+     * Stretches a spawn interval by 1/multiplier. Intervals of 0 or less (spawning disabled)
+     * are kept, and a multiplier of 0 leaves the interval alone since the limits are 0.
+     */
+    private static int scaleInterval(long ticks, double multiplier) {
+        if (ticks <= 0 || multiplier <= 0.0) {
+            return (int) ticks;
+        }
+        long scaled = (long) Math.ceil(ticks / multiplier);
+        return (int) Math.min(Math.max(ticks, MAX_TICKS_PER_SPAWN), scaled);
+    }
+
+    /**
+     * Writes the original spawn settings back to every world the limiter changed.
+     */
+    public void restoreAll() {
+        if (originals.isEmpty()) {
+            return;
+        }
+
+        Iterator<Map.Entry<String, SpawnSettings>> iterator = originals.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, SpawnSettings> entry = iterator.next();
+            World world = Bukkit.getWorld(entry.getKey());
+            if (world != null) {
+                entry.getValue().restore(world);
+            }
+            iterator.remove();
+        }
+
+        if (ConfigManager.isDebugEnabled()) {
+            LagXpert.getInstance().getLogger().info("[WorldSpawnLimiter] World spawn limits restored.");
+        }
+    }
+
+    public boolean isLimiting() {
+        return !originals.isEmpty();
+    }
+
+    /**
+     * Gets the multiplier applied to a world's spawn settings (1.0 when unchanged).
+     */
+    public double getAppliedMultiplier(World world) {
+        SpawnSettings settings = originals.get(world.getName());
+        return settings != null ? settings.appliedMultiplier : 1.0;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("limiting", isLimiting());
+        stats.put("limited_worlds", originals.size());
+        stats.put("applications", applications);
+
+        Map<String, Object> worlds = new HashMap<>();
+        for (Map.Entry<String, SpawnSettings> entry : originals.entrySet()) {
+            worlds.put(entry.getKey(), entry.getValue().appliedMultiplier);
+        }
+        stats.put("worlds", worlds);
+        return stats;
+    }
+
+    public void resetStatistics() {
+        applications = 0L;
+    }
+}
@@ -2,6 +2,7 @@ package me.koyere.lagxpert.tasks;
 
 import me.koyere.lagxpert.LagXpert;
 import me.koyere.lagxpert.cache.ChunkDataCache;
+import me.koyere.lagxpert.system.LagShield;
 import me.koyere.lagxpert.utils.ConfigManager;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
@@ -13,10 +14,13 @@ import org.bukkit.entity.LivingEntity;
 
 import java.util.EnumMap;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
@@ -35,6 +39,11 @@ public class AsyncChunkAnalyzer {
     private static final AtomicInteger completedAnalyses = new AtomicInteger(0);
     private static final AtomicInteger queuedAnalyses = new AtomicInteger(0);
     private static final AtomicInteger failedAnalyses = new AtomicInteger(0);
+    private static final AtomicInteger deferredAnalyses = new AtomicInteger(0);
+
+    // Budget tracking - never reset, unlike the statistics counters above
+    private static final AtomicInteger inFlightAnalyses = new AtomicInteger(0);
+    private static final Queue<PendingAnalysis> pendingAnalyses = new ConcurrentLinkedQueue<>();
 
     /**
      * Custom thread factory for chunk analyzer threads.
@@ -52,6 +61,19 @@ public class AsyncChunkAnalyzer {
         }
     }
 
+    /**
+     * A chunk analysis waiting for a free slot in the analysis budget.
+     */
+    private static class PendingAnalysis {
+        private final Chunk chunk;
+        private final CompletableFuture<ChunkAnalysisResult> future;
+
+        PendingAnalysis(Chunk chunk, CompletableFuture<ChunkAnalysisResult> future) {
+            this.chunk = chunk;
+            this.future = future;
+        }
+    }
+
     /**
      * Result container for chunk analysis operations.
      */
@@ -100,6 +122,8 @@ public class AsyncChunkAnalyzer {
     /**
      * Analyzes a chunk asynchronously and returns a CompletableFuture.
      * The analysis is performed on a background thread to avoid blocking the main server thread.
+     * When the concurrent analysis budget is exhausted the chunk waits in a queue and is
+     * started as soon as an earlier analysis finishes.
      *
      * @param chunk The chunk to analyze
      * @return CompletableFuture containing the analysis result
@@ -124,81 +148,152 @@ public class AsyncChunkAnalyzer {
             return CompletableFuture.completedFuture(result);
         }
 
+        CompletableFuture<ChunkAnalysisResult> future = new CompletableFuture<>();
+
+        // Concurrent analysis budget, reduced by LagShield pressure
+        if (tryReserveSlot()) {
+            submitAnalysis(chunk, future);
+        } else {
+            deferredAnalyses.incrementAndGet();
+            pendingAnalyses.add(new PendingAnalysis(chunk, future));
+            // A slot may have been released between the check and the enqueue
+            drainPending();
+        }
+
+        return future;
+    }
+
+    /**
+     * Reserves one slot of the analysis budget if one is free.
+     */
+    private static boolean tryReserveSlot() {
+        int budget = getAnalysisBudget();
+        while (true) {
+            int current = inFlightAnalyses.get();
+            if (current >= budget) {
+                return false;
+            }
+            if (inFlightAnalyses.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Starts queued analyses while the budget has free slots.
+     */
+    private static void drainPending() {
+        while (!pendingAnalyses.isEmpty() && tryReserveSlot()) {
+            PendingAnalysis pending = pendingAnalyses.poll();
+            if (pending == null) {
+                inFlightAnalyses.decrementAndGet();
+                return;
+            }
+            submitAnalysis(pending.chunk, pending.future);
+        }
+    }
+
+    /**
+     * Submits an analysis for a chunk whose budget slot is already reserved.
+     * The slot is released when the analysis finishes, which in turn starts queued work.
+     */
+    private static void submitAnalysis(Chunk chunk, CompletableFuture<ChunkAnalysisResult> future) {
         queuedAnalyses.incrementAndGet();
 
-        return CompletableFuture.supplyAsync(() -> {
-            long startTime = System.currentTimeMillis();
-            String chunkKey = generateChunkKey(chunk);
+        try {
+            CompletableFuture.supplyAsync(() -> analyzeChunk(chunk), executorService)
+                    .whenComplete((result, throwable) -> {
+                        inFlightAnalyses.decrementAndGet();
+                        if (throwable != null) {
+                            future.completeExceptionally(throwable);
+                        } else {
+                            future.complete(result);
+                        }
+                        drainPending();
+                    });
+        } catch (RejectedExecutionException e) {
+            // Executor is shutting down
+            inFlightAnalyses.decrementAndGet();
+            failedAnalyses.incrementAndGet();
+            future.complete(new ChunkAnalysisResult(generateChunkKey(chunk), e, 0));
+        }
+    }
 
-            try {
-                // Verify chunk is still loaded
-                if (!chunk.isLoaded()) {
-                    throw new IllegalStateException("Chunk became unloaded during analysis");
-                }
+    /**
+     * Performs the chunk scan. Runs on an analyzer thread.
+     */
+    private static ChunkAnalysisResult analyzeChunk(Chunk chunk) {
+        long startTime = System.currentTimeMillis();
+        String chunkKey = generateChunkKey(chunk);
 
-                // Perform the analysis
-                int livingEntities = 0;
-                for (Entity entity : chunk.getEntities()) {
-                    if (entity instanceof LivingEntity) {
-                        livingEntities++;
-                    }
+        try {
+            // Verify chunk is still loaded
+            if (!chunk.isLoaded()) {
+                throw new IllegalStateException("Chunk became unloaded during analysis");
+            }
+
+            // Perform the analysis
+            int livingEntities = 0;
+            for (Entity entity : chunk.getEntities()) {
+                if (entity instanceof LivingEntity) {
+                    livingEntities++;
                 }
+            }
 
-                // Count tile entities by material
-                Map<Material, Integer> blockCounts = new EnumMap<>(Material.class);
-                Map<String, Integer> customCounts = new ConcurrentHashMap<>();
+            // Count tile entities by material
+            Map<Material, Integer> blockCounts = new EnumMap<>(Material.class);
+            Map<String, Integer> customCounts = new ConcurrentHashMap<>();
 
-                for (BlockState blockState : chunk.getTileEntities()) {
-                    Material type = blockState.getType();
-                    blockCounts.put(type, blockCounts.getOrDefault(type, 0) + 1);
+            for (BlockState blockState : chunk.getTileEntities()) {
+                Material type = blockState.getType();
+                blockCounts.put(type, blockCounts.getOrDefault(type, 0) + 1);
 
-                    // Special handling for shulker boxes (all colors)
-                    if (Tag.SHULKER_BOXES.isTagged(type)) {
-                        customCounts.put("all_shulker_boxes", customCounts.getOrDefault("all_shulker_boxes", 0) + 1);
-                    }
+                // Special handling for shulker boxes (all colors)
+                if (Tag.SHULKER_BOXES.isTagged(type)) {
+                    customCounts.put("all_shulker_boxes", customCounts.getOrDefault("all_shulker_boxes", 0) + 1);
                 }
+            }
 
-                // Calculate combined counts for related materials
-                int allChests = blockCounts.getOrDefault(Material.CHEST, 0) + blockCounts.getOrDefault(Material.TRAPPED_CHEST, 0);
-                customCounts.put("all_chests", allChests);
-
-                int allFurnaces = blockCounts.getOrDefault(Material.FURNACE, 0) +
-                        blockCounts.getOrDefault(Material.BLAST_FURNACE, 0) +
-                        blockCounts.getOrDefault(Material.SMOKER, 0);
-                customCounts.put("all_furnaces", allFurnaces);
+            // Calculate combined counts for related materials
+            int allChests = blockCounts.getOrDefault(Material.CHEST, 0) + blockCounts.getOrDefault(Material.TRAPPED_CHEST, 0);
+            customCounts.put("all_chests", allChests);
 
-                int allPistons = blockCounts.getOrDefault(Material.PISTON, 0) + blockCounts.getOrDefault(Material.STICKY_PISTON, 0);
-                customCounts.put("all_pistons", allPistons);
+            int allFurnaces = blockCounts.getOrDefault(Material.FURNACE, 0) +
+                    blockCounts.getOrDefault(Material.BLAST_FURNACE, 0) +
+                    blockCounts.getOrDefault(Material.SMOKER, 0);
+            customCounts.put("all_furnaces", allFurnaces);
 
-                int allDroppersDispensers = blockCounts.getOrDefault(Material.DROPPER, 0) + blockCounts.getOrDefault(Material.DISPENSER, 0);
-                customCounts.put("all_droppers_dispensers", allDroppersDispensers);
+            int allPistons = blockCounts.getOrDefault(Material.PISTON, 0) + blockCounts.getOrDefault(Material.STICKY_PISTON, 0);
+            customCounts.put("all_pistons", allPistons);
 
-                long analysisTime = System.currentTimeMillis() - startTime;
-                completedAnalyses.incrementAndGet();
+            int allDroppersDispensers = blockCounts.getOrDefault(Material.DROPPER, 0) + blockCounts.getOrDefault(Material.DISPENSER, 0);
+            customCounts.put("all_droppers_dispensers", allDroppersDispensers);
 
-                if (ConfigManager.isDebugEnabled()) {
-                    Bukkit.getScheduler().runTask(LagXpert.getInstance(), () -> {
-                        LagXpert.getInstance().getLogger().info("[AsyncChunkAnalyzer] Completed analysis for chunk " +
-                                chunkKey + " in " + analysisTime + "ms");
-                    });
-                }
+            long analysisTime = System.currentTimeMillis() - startTime;
+            completedAnalyses.incrementAndGet();
 
-                return new ChunkAnalysisResult(chunkKey, livingEntities, blockCounts, customCounts, analysisTime);
+            if (ConfigManager.isDebugEnabled()) {
+                Bukkit.getScheduler().runTask(LagXpert.getInstance(), () -> {
+                    LagXpert.getInstance().getLogger().info("[AsyncChunkAnalyzer] Completed analysis for chunk " +
+                            chunkKey + " in " + analysisTime + "ms");
+                });
+            }
 
-            } catch (Exception e) {
-                long analysisTime = System.currentTimeMillis() - startTime;
-                failedAnalyses.incrementAndGet();
+            return new ChunkAnalysisResult(chunkKey, livingEntities, blockCounts, customCounts, analysisTime);
 
-                if (ConfigManager.isDebugEnabled()) {
-                    Bukkit.getScheduler().runTask(LagXpert.getInstance(), () -> {
-                        LagXpert.getInstance().getLogger().warning("[AsyncChunkAnalyzer] Failed to analyze chunk " +
-                                chunkKey + ": " + e.getMessage());
-                    });
-                }
+        } catch (Exception e) {
+            long analysisTime = System.currentTimeMillis() - startTime;
+            failedAnalyses.incrementAndGet();
 
-                return new ChunkAnalysisResult(chunkKey, e, analysisTime);
+            if (ConfigManager.isDebugEnabled()) {
+                Bukkit.getScheduler().runTask(LagXpert.getInstance(), () -> {
+                    LagXpert.getInstance().getLogger().warning("[AsyncChunkAnalyzer] Failed to analyze chunk " +
+                            chunkKey + ": " + e.getMessage());
+                });
             }
-        }, executorService);
+
+            return new ChunkAnalysisResult(chunkKey, e, analysisTime);
+        }
     }
 
     /**
@@ -318,6 +413,16 @@ public class AsyncChunkAnalyzer {
         }, executorService);
     }
 
+    /**
+     * Gets the number of analyses that may run at once: the thread pool size
+     * scaled by LagShield's analyzer budget multiplier, never below one.
+     */
+    public static int getAnalysisBudget() {
+        double multiplier = LagShield.getInstance().getAnalyzerBudgetMultiplier();
+        return Math.max(1, (int) Math.round(THREAD_POOL_SIZE * multiplier));
+    }
+
+
     /**
      * Gets current statistics about the async analyzer performance.
      *
@@ -329,6 +434,10 @@ public class AsyncChunkAnalyzer {
         stats.put("completed_analyses", completedAnalyses.get());
         stats.put("queued_analyses", queuedAnalyses.get());
         stats.put("failed_analyses", failedAnalyses.get());
+        stats.put("deferred_analyses", deferredAnalyses.get());
+        stats.put("analysis_budget", getAnalysisBudget());
+        stats.put("in_flight_analyses", inFlightAnalyses.get());
+        stats.put("pending_analyses", pendingAnalyses.size());
         stats.put("active_threads", Thread.activeCount());
 
         int totalAnalyses = completedAnalyses.get() + failedAnalyses.get();
@@ -339,12 +448,14 @@ public class AsyncChunkAnalyzer {
     }
 
     /**
-     * Resets the statistics counters.
+     * Resets the statistics counters. Budget tracking is left untouched
+     * so analyses still in flight are accounted for correctly.
      */
     public static void resetStatistics() {
         completedAnalyses.set(0);
         queuedAnalyses.set(0);
         failedAnalyses.set(0);
+        deferredAnalyses.set(0);
     }
 
     /**
@@ -363,6 +474,13 @@ public class AsyncChunkAnalyzer {
      */
     public static void shutdown() {
         executorService.shutdown();
+
+        PendingAnalysis pending;
+        while ((pending = pendingAnalyses.poll()) != null) {
+            pending.future.complete(new ChunkAnalysisResult(generateChunkKey(pending.chunk),
+                    new IllegalStateException("Analyzer shut down"), 0));
+        }
+
         try {
             if (!executorService.awaitTermination(5, java.util.concurrent.TimeUnit.SECONDS)) {
                 executorService.shutdownNow();
@@ -378,6 +496,6 @@ public class AsyncChunkAnalyzer {
      * @return true if there are active analysis operations
      */
     public static boolean isActive() {
-        return queuedAnalyses.get() > completedAnalyses.get() + failedAnalyses.get();
+        return inFlightAnalyses.get() > 0 || !pendingAnalyses.isEmpty();
     }
 }
\ No newline at end of file
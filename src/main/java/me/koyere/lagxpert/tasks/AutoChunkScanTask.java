@@ -3,7 +3,9 @@ package me.koyere.lagxpert.tasks;
 import me.koyere.lagxpert.LagXpert;
 import me.koyere.lagxpert.api.events.ChunkOverloadEvent;
 import me.koyere.lagxpert.cache.ChunkDataCache;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
 import me.koyere.lagxpert.system.AlertCooldownManager;
+import me.koyere.lagxpert.system.LagShield;
 import me.koyere.lagxpert.utils.ChunkUtils;
 import me.koyere.lagxpert.utils.ConfigManager;
 import me.koyere.lagxpert.utils.MessageManager;
@@ -34,6 +36,8 @@ import java.util.function.ToIntFunction;
  */
 public class AutoChunkScanTask extends BukkitRunnable {
 
+    private static final SelfOverheadMeter.Probe RUN_PROBE = SelfOverheadMeter.probe("AutoChunkScanTask#run");
+
     // Replaced record ScannableElement with a final class for Java 11 compatibility
     private static final class ScannableElement {
         private final String translationKey;
@@ -97,97 +101,106 @@ public class AutoChunkScanTask extends BukkitRunnable {
 
     @Override
     public void run() {
-        if (!ConfigManager.isAutoChunkScanModuleEnabled() && !ConfigManager.isDebugEnabled()) {
-            return;
-        }
-
-        if (ConfigManager.isDebugEnabled()) {
-            LagXpert.getInstance().getLogger().info("[LagXpert] AutoChunkScanTask: Starting scan cycle...");
-        }
+        long probeStart = RUN_PROBE.start();
+        try {
+            if (!ConfigManager.isAutoChunkScanModuleEnabled() && !ConfigManager.isDebugEnabled()) {
+                return;
+            }
 
-        long scanStartTime = System.currentTimeMillis();
-        int chunksScanned = 0;
-        int cacheHits = 0;
+            if (LagShield.getInstance().shouldPauseAutoScan()) {
+                return;
+            }
 
-        for (World world : Bukkit.getWorlds()) {
-            List<Player> playersInWorld = world.getPlayers();
-            if (playersInWorld.isEmpty() && !ConfigManager.isDebugEnabled()) {
-                continue;
+            if (ConfigManager.isDebugEnabled()) {
+                LagXpert.getInstance().getLogger().info("[LagXpert] AutoChunkScanTask: Starting scan cycle...");
             }
 
-            for (Chunk chunk : world.getLoadedChunks()) {
-                final Chunk currentChunk = chunk;
-                boolean playerIsNear = ConfigManager.isDebugEnabled() || playersInWorld.stream().anyMatch(p ->
-                        p.getWorld().equals(currentChunk.getWorld()) &&
-                                p.getLocation().distanceSquared(currentChunk.getBlock(7, p.getLocation().getBlockY(), 7).getLocation()) <= (48 * 48)
-                );
+            long scanStartTime = System.currentTimeMillis();
+            int chunksScanned = 0;
+            int cacheHits = 0;
 
-                if (!playerIsNear) {
+            for (World world : Bukkit.getWorlds()) {
+                List<Player> playersInWorld = world.getPlayers();
+                if (playersInWorld.isEmpty() && !ConfigManager.isDebugEnabled()) {
                     continue;
                 }
 
-                chunksScanned++;
-                List<Player> playersInThisChunk = getPlayersInChunk(currentChunk);
-                boolean isChunkCurrentlyPopulatedByPlayers = !playersInThisChunk.isEmpty();
+                for (Chunk chunk : world.getLoadedChunks()) {
+                    final Chunk currentChunk = chunk;
+                    boolean playerIsNear = ConfigManager.isDebugEnabled() || playersInWorld.stream().anyMatch(p ->
+                            p.getWorld().equals(currentChunk.getWorld()) &&
+                                    p.getLocation().distanceSquared(currentChunk.getBlock(7, p.getLocation().getBlockY(), 7).getLocation()) <= (48 * 48)
+                    );
 
-                StringBuilder overloadedElementsSummary = new StringBuilder();
-                boolean chunkIsActuallyOverloaded = false;
+                    if (!playerIsNear) {
+                        continue;
+                    }
 
-                // Use complete chunk analysis with cache
-                ChunkDataCache.ChunkData chunkData = ChunkUtils.performCompleteChunkAnalysis(currentChunk);
-                if (chunkData != null && chunkData.isComplete()) {
-                    cacheHits++;
-                }
+                    chunksScanned++;
+                    List<Player> playersInThisChunk = getPlayersInChunk(currentChunk);
+                    boolean isChunkCurrentlyPopulatedByPlayers = !playersInThisChunk.isEmpty();
 
-                for (ScannableElement element : elementsToScan) {
-                    int count = getElementCount(currentChunk, element, chunkData);
-                    int limit = element.getLimit(currentChunk);
+                    StringBuilder overloadedElementsSummary = new StringBuilder();
+                    boolean chunkIsActuallyOverloaded = false;
 
-                    if (limit <= 0) continue;
+                    // Use complete chunk analysis with cache
+                    ChunkDataCache.ChunkData chunkData = ChunkUtils.performCompleteChunkAnalysis(currentChunk);
+                    if (chunkData != null && chunkData.isComplete()) {
+                        cacheHits++;
+                    }
 
-                    if (count > limit) {
-                        fireChunkOverloadEvent(currentChunk, element.getOverloadCauseSuffix() + "_scan_overload");
-                        chunkIsActuallyOverloaded = true;
-                        if (overloadedElementsSummary.length() > 0) {
-                            overloadedElementsSummary.append(", ");
-                        }
-                        overloadedElementsSummary.append(count).append(" ").append(element.getDisplayName());
-                    } else if (count >= (int) (limit * 0.8) && isChunkCurrentlyPopulatedByPlayers && limit > 0) {
-                        if (ConfigManager.isAlertsModuleEnabled() && ConfigManager.shouldAutoScanTriggerIndividualNearLimitWarnings()) {
-                            sendNearLimitWarning(playersInThisChunk, element, count, limit, currentChunk);
+                    for (ScannableElement element : elementsToScan) {
+                        int count = getElementCount(currentChunk, element, chunkData);
+                        int limit = element.getLimit(currentChunk);
+
+                        if (limit <= 0) continue;
+
+                        if (count > limit) {
+                            fireChunkOverloadEvent(currentChunk, element.getOverloadCauseSuffix() + "_scan_overload");
+                            chunkIsActuallyOverloaded = true;
+                            if (overloadedElementsSummary.length() > 0) {
+                                overloadedElementsSummary.append(", ");
+                            }
+                            overloadedElementsSummary.append(count).append(" ").append(element.getDisplayName());
+                        } else if (count >= (int) (limit * 0.8) && isChunkCurrentlyPopulatedByPlayers && limit > 0) {
+                            if (ConfigManager.isAlertsModuleEnabled() && ConfigManager.shouldAutoScanTriggerIndividualNearLimitWarnings()) {
+                                sendNearLimitWarning(playersInThisChunk, element, count, limit, currentChunk);
+                            }
                         }
                     }
-                }
 
-                if (chunkIsActuallyOverloaded && isChunkCurrentlyPopulatedByPlayers &&
-                        ConfigManager.isAlertsModuleEnabled() && ConfigManager.shouldAutoScanSendOverloadSummary()) {
+                    if (chunkIsActuallyOverloaded && isChunkCurrentlyPopulatedByPlayers &&
+                            ConfigManager.isAlertsModuleEnabled() && ConfigManager.shouldAutoScanSendOverloadSummary()) {
 
-                    Map<String, Object> placeholders = new HashMap<>();
-                    placeholders.put("chunk_x", String.valueOf(currentChunk.getX()));
-                    placeholders.put("chunk_z", String.valueOf(currentChunk.getZ()));
-                    placeholders.put("world", currentChunk.getWorld().getName());
-                    placeholders.put("details", overloadedElementsSummary.toString());
+                        Map<String, Object> placeholders = new HashMap<>();
+                        placeholders.put("chunk_x", String.valueOf(currentChunk.getX()));
+                        placeholders.put("chunk_z", String.valueOf(currentChunk.getZ()));
+                        placeholders.put("world", currentChunk.getWorld().getName());
+                        placeholders.put("details", overloadedElementsSummary.toString());
 
-                    String alertMessage = MessageManager.getPrefixedFormattedMessage("alerts.chunk-scan.overloaded-summary", placeholders);
+                        String alertMessage = MessageManager.getPrefixedFormattedMessage("alerts.chunk-scan.overloaded-summary", placeholders);
 
-                    // Apply cooldown for the summary message per player
-                    String summaryAlertKey = AlertCooldownManager.generateAlertKey("scan_overload_summary", currentChunk);
-                    for (Player player : playersInThisChunk) {
-                        if (AlertCooldownManager.canSendAlert(player, summaryAlertKey)) {
-                            player.sendMessage(alertMessage);
+                        // Apply cooldown for the summary message per player
+                        String summaryAlertKey = AlertCooldownManager.generateAlertKey("scan_overload_summary", currentChunk);
+                        for (Player player : playersInThisChunk) {
+                            if (AlertCooldownManager.canSendAlert(player, summaryAlertKey)) {
+                                player.sendMessage(alertMessage);
+                            }
                         }
                     }
                 }
             }
-        }
 
-        long scanDuration = System.currentTimeMillis() - scanStartTime;
+            long scanDuration = System.currentTimeMillis() - scanStartTime;
 
-        if (ConfigManager.isDebugEnabled()) {
-            double cacheHitRate = chunksScanned > 0 ? (double) cacheHits / chunksScanned * 100 : 0;
-            LagXpert.getInstance().getLogger().info("[LagXpert] AutoChunkScanTask: Scan cycle finished. " +
-                    "Chunks scanned: " + chunksScanned + ", Cache hits: " + cacheHits +
-                    " (" + String.format("%.1f", cacheHitRate) + "%), Duration: " + scanDuration + "ms");
+            if (ConfigManager.isDebugEnabled()) {
+                double cacheHitRate = chunksScanned > 0 ? (double) cacheHits / chunksScanned * 100 : 0;
+                LagXpert.getInstance().getLogger().info("[LagXpert] AutoChunkScanTask: Scan cycle finished. " +
+                        "Chunks scanned: " + chunksScanned + ", Cache hits: " + cacheHits +
+                        " (" + String.format("%.1f", cacheHitRate) + "%), Duration: " + scanDuration + "ms");
+            }
+        } finally {
+            RUN_PROBE.stop(probeStart);
         }
     }
 
@@ -1,5 +1,6 @@
 package me.koyere.lagxpert.tasks;
 
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
 import me.koyere.lagxpert.system.ChunkManager;
 import me.koyere.lagxpert.utils.ConfigManager;
 import org.bukkit.scheduler.BukkitRunnable;
@@ -9,13 +10,20 @@ import org.bukkit.scheduler.BukkitRunnable;
  */
 public class ChunkActivityCleanupTask extends BukkitRunnable {
 
+    private static final SelfOverheadMeter.Probe RUN_PROBE = SelfOverheadMeter.probe("ChunkActivityCleanupTask#run");
+
     @Override
     public void run() {
-        if (!ConfigManager.isChunkManagementModuleEnabled() || !ConfigManager.isChunkActivityTrackingEnabled()) {
-            return;
-        }
+        long probeStart = RUN_PROBE.start();
+        try {
+            if (!ConfigManager.isChunkManagementModuleEnabled() || !ConfigManager.isChunkActivityTrackingEnabled()) {
+                return;
+            }
 
-        ChunkManager.cleanupOldActivity();
+            ChunkManager.cleanupOldActivity();
+        } finally {
+            RUN_PROBE.stop(probeStart);
+        }
     }
 }
 
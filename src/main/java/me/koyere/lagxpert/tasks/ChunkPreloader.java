@@ -1,7 +1,9 @@
 package me.koyere.lagxpert.tasks;
 
 import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
 import me.koyere.lagxpert.system.ChunkManager;
+import me.koyere.lagxpert.system.LagShield;
 import me.koyere.lagxpert.utils.ConfigManager;
 import me.koyere.lagxpert.utils.MessageManager;
 import org.bukkit.Bukkit;
@@ -25,6 +27,8 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class ChunkPreloader extends BukkitRunnable {
 
+    private static final SelfOverheadMeter.Probe RUN_PROBE = SelfOverheadMeter.probe("ChunkPreloader#run");
+
     // Statistics tracking
     private static final AtomicInteger totalPreloadCycles = new AtomicInteger(0);
     private static final AtomicInteger totalChunksEvaluated = new AtomicInteger(0);
@@ -112,61 +116,71 @@ public class ChunkPreloader extends BukkitRunnable {
 
     @Override
     public void run() {
-        if (!ConfigManager.isChunkManagementModuleEnabled() || !ConfigManager.isChunkPreloadEnabled()) {
-            return;
-        }
-
-        long cycleStartTime = System.currentTimeMillis();
-        totalPreloadCycles.incrementAndGet();
+        long probeStart = RUN_PROBE.start();
+        try {
+            if (!ConfigManager.isChunkManagementModuleEnabled() || !ConfigManager.isChunkPreloadEnabled()) {
+                return;
+            }
 
-        if (ConfigManager.isChunkDebugEnabled()) {
-            LagXpert.getInstance().getLogger().info("[ChunkPreloader] Starting preload cycle...");
-        }
+            // Preloading adds chunk work; skip it while LagShield is shedding load
+            if (LagShield.getInstance().shouldPauseChunkPreloader()) {
+                return;
+            }
 
-        Map<String, Integer> preloadResults = new HashMap<>();
-        int totalEvaluated = 0;
-        int totalPreloaded = 0;
-        int totalSkipped = 0;
+            long cycleStartTime = System.currentTimeMillis();
+            totalPreloadCycles.incrementAndGet();
 
-        for (World world : Bukkit.getWorlds()) {
-            if (!shouldProcessWorld(world)) {
-                continue;
+            if (ConfigManager.isChunkDebugEnabled()) {
+                LagXpert.getInstance().getLogger().info("[ChunkPreloader] Starting preload cycle...");
             }
 
-            PreloadResult result = processWorldPlayers(world);
-            preloadResults.put(world.getName(), result.preloaded);
+            Map<String, Integer> preloadResults = new HashMap<>();
+            int totalEvaluated = 0;
+            int totalPreloaded = 0;
+            int totalSkipped = 0;
 
-            totalEvaluated += result.evaluated;
-            totalPreloaded += result.preloaded;
-            totalSkipped += result.skipped;
-        }
+            for (World world : Bukkit.getWorlds()) {
+                if (!shouldProcessWorld(world)) {
+                    continue;
+                }
 
-        // Update statistics
-        totalChunksEvaluated.addAndGet(totalEvaluated);
-        totalChunksPreloaded.addAndGet(totalPreloaded);
-        totalChunksSkipped.addAndGet(totalSkipped);
-
-        // Calculate cycle time
-        long cycleTime = System.currentTimeMillis() - cycleStartTime;
-        lastCycleTime = cycleTime;
-        updateAverageCycleTime(cycleTime);
-        if (cycleTime > maxCycleTime) {
-            maxCycleTime = cycleTime;
-        }
+                PreloadResult result = processWorldPlayers(world);
+                preloadResults.put(world.getName(), result.preloaded);
 
-        // Record preload operation for ChunkManager statistics
-        if (totalPreloaded > 0) {
-            ChunkManager.recordChunkPreload(totalPreloaded);
-        }
+                totalEvaluated += result.evaluated;
+                totalPreloaded += result.preloaded;
+                totalSkipped += result.skipped;
+            }
 
-        // Broadcast results if enabled and threshold met
-        broadcastResults(preloadResults, totalPreloaded);
+            // Update statistics
+            totalChunksEvaluated.addAndGet(totalEvaluated);
+            totalChunksPreloaded.addAndGet(totalPreloaded);
+            totalChunksSkipped.addAndGet(totalSkipped);
+
+            // Calculate cycle time
+            long cycleTime = System.currentTimeMillis() - cycleStartTime;
+            lastCycleTime = cycleTime;
+            updateAverageCycleTime(cycleTime);
+            if (cycleTime > maxCycleTime) {
+                maxCycleTime = cycleTime;
+            }
+
+            // Record preload operation for ChunkManager statistics
+            if (totalPreloaded > 0) {
+                ChunkManager.recordChunkPreload(totalPreloaded);
+            }
 
-        // Log results
-        logResults(totalEvaluated, totalPreloaded, totalSkipped, cycleTime, preloadResults);
+            // Broadcast results if enabled and threshold met
+            broadcastResults(preloadResults, totalPreloaded);
 
-        // Cleanup old movement data
-        cleanupOldMovementData();
+            // Log results
+            logResults(totalEvaluated, totalPreloaded, totalSkipped, cycleTime, preloadResults);
+
+            // Cleanup old movement data
+            cleanupOldMovementData();
+        } finally {
+            RUN_PROBE.stop(probeStart);
+        }
     }
 
     /**
@@ -24,6 +24,8 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
+import me.koyere.lagxpert.system.LagShield;
 import me.koyere.lagxpert.utils.ConfigManager;
 import me.koyere.lagxpert.utils.MessageManager;
 
@@ -35,6 +37,8 @@ import me.koyere.lagxpert.utils.MessageManager;
  */
 public class EntityCleanupTask extends BukkitRunnable {
 
+    private static final SelfOverheadMeter.Probe RUN_PROBE = SelfOverheadMeter.probe("EntityCleanupTask#run");
+
     // Statistics tracking
     private static final AtomicInteger totalEntitiesRemoved = new AtomicInteger(0);
     private static final AtomicInteger invalidEntitiesRemoved = new AtomicInteger(0);
@@ -43,44 +47,60 @@ public class EntityCleanupTask extends BukkitRunnable {
     private static final AtomicInteger emptyContainersRemoved = new AtomicInteger(0);
     private static final AtomicInteger outOfBoundsEntitiesRemoved = new AtomicInteger(0);
 
+    // Player search radius around vehicles before they count as abandoned
+    private static final double ABANDONED_VEHICLE_RADIUS = 50.0;
+
+    // LagShield cleanup aggressiveness for the current cycle (1.0 = configured behaviour)
+    private double aggressiveness = 1.0;
+
     @Override
     public void run() {
-        if (!ConfigManager.isEntityCleanupEnabled()) {
-            return;
-        }
-
-        if (ConfigManager.isDebugEnabled()) {
-            LagXpert.getInstance().getLogger().info("[EntityCleanupTask] Starting entity cleanup cycle...");
-        }
+        long probeStart = RUN_PROBE.start();
+        try {
+            if (!ConfigManager.isEntityCleanupEnabled()) {
+                return;
+            }
 
-        long startTime = System.currentTimeMillis();
-        int totalCleaned = 0;
+            if (LagShield.getInstance().shouldPauseEntityCleanup()) {
+                return;
+            }
+            aggressiveness = LagShield.getInstance().getEntityCleanupAggressiveness();
 
-        for (World world : Bukkit.getWorlds()) {
-            if (!isWorldEnabled(world)) {
-                continue;
+            if (ConfigManager.isDebugEnabled()) {
+                LagXpert.getInstance().getLogger().info("[EntityCleanupTask] Starting entity cleanup cycle...");
             }
 
-            totalCleaned += cleanupWorldEntities(world);
-        }
+            long startTime = System.currentTimeMillis();
+            int totalCleaned = 0;
 
-        long duration = System.currentTimeMillis() - startTime;
-        totalEntitiesRemoved.addAndGet(totalCleaned);
+            for (World world : Bukkit.getWorlds()) {
+                if (!isWorldEnabled(world)) {
+                    continue;
+                }
 
-        // Broadcast completion message if enabled and threshold is met
-        if (ConfigManager.shouldBroadcastEntityCleanupCompletion() &&
-                totalCleaned >= ConfigManager.getEntityCleanupBroadcastThreshold()) {
-            String message = MessageManager.color(
-                    ConfigManager.getEntityCleanupCompleteMessage()
-                    .replace("{count}", String.valueOf(totalCleaned)));
-            Bukkit.broadcastMessage(message);
-        }
+                totalCleaned += cleanupWorldEntities(world);
+            }
 
-        if (ConfigManager.isDebugEnabled() || totalCleaned > 0) {
-            LagXpert.getInstance().getLogger().info(
-                    "[EntityCleanupTask] Cleanup completed in " + duration + "ms. " +
-                            "Removed: " + totalCleaned + " entities"
-            );
+            long duration = System.currentTimeMillis() - startTime;
+            totalEntitiesRemoved.addAndGet(totalCleaned);
+
+            // Broadcast completion message if enabled and threshold is met
+            if (ConfigManager.shouldBroadcastEntityCleanupCompletion() &&
+                    totalCleaned >= ConfigManager.getEntityCleanupBroadcastThreshold()) {
+                String message = MessageManager.color(
+                        ConfigManager.getEntityCleanupCompleteMessage()
+                        .replace("{count}", String.valueOf(totalCleaned)));
+                Bukkit.broadcastMessage(message);
+            }
+
+            if (ConfigManager.isDebugEnabled() || totalCleaned > 0) {
+                LagXpert.getInstance().getLogger().info(
+                        "[EntityCleanupTask] Cleanup completed in " + duration + "ms. " +
+                                "Removed: " + totalCleaned + " entities"
+                );
+            }
+        } finally {
+            RUN_PROBE.stop(probeStart);
         }
     }
 
@@ -379,7 +399,9 @@ public class EntityCleanupTask extends BukkitRunnable {
 
         // Check if there are players nearby who might use it
         if (entity instanceof Boat || entity instanceof Minecart) {
-            List<Entity> nearbyEntities = entity.getNearbyEntities(50, 50, 50);
+            // Under pressure, vehicles need a closer player to be kept
+            double radius = ABANDONED_VEHICLE_RADIUS / aggressiveness;
+            List<Entity> nearbyEntities = entity.getNearbyEntities(radius, radius, radius);
             boolean hasNearbyPlayers = nearbyEntities.stream().anyMatch(e -> e instanceof Player);
 
             if (!hasNearbyPlayers) {
@@ -514,8 +536,8 @@ public class EntityCleanupTask extends BukkitRunnable {
             return "invalid";
         }
 
-        // Use configured radius for duplicate detection
-        double radius = ConfigManager.getDuplicateDetectionRadius();
+        // Use configured radius for duplicate detection, widened under LagShield pressure
+        double radius = ConfigManager.getDuplicateDetectionRadius() * aggressiveness;
 
         // Round to radius precision for grouping
         int x = (int) Math.round(location.getX() / radius) * (int) radius;
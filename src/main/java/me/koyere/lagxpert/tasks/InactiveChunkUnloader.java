@@ -1,6 +1,7 @@
 package me.koyere.lagxpert.tasks;
 
 import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
 import me.koyere.lagxpert.system.ChunkManager;
 import me.koyere.lagxpert.utils.ConfigManager;
 import me.koyere.lagxpert.utils.MessageManager;
@@ -24,6 +25,8 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class InactiveChunkUnloader extends BukkitRunnable {
 
+    private static final SelfOverheadMeter.Probe RUN_PROBE = SelfOverheadMeter.probe("InactiveChunkUnloader#run");
+
     // Statistics tracking
     private static final AtomicInteger totalUnloadCycles = new AtomicInteger(0);
     private static final AtomicInteger totalChunksEvaluated = new AtomicInteger(0);
@@ -37,59 +40,64 @@ public class InactiveChunkUnloader extends BukkitRunnable {
 
     @Override
     public void run() {
-        if (!ConfigManager.isChunkManagementModuleEnabled() || !ConfigManager.isAutoUnloadEnabled()) {
-            return;
-        }
+        long probeStart = RUN_PROBE.start();
+        try {
+            if (!ConfigManager.isChunkManagementModuleEnabled() || !ConfigManager.isAutoUnloadEnabled()) {
+                return;
+            }
 
-        long cycleStartTime = System.currentTimeMillis();
-        totalUnloadCycles.incrementAndGet();
+            long cycleStartTime = System.currentTimeMillis();
+            totalUnloadCycles.incrementAndGet();
 
-        if (ConfigManager.isChunkDebugEnabled()) {
-            LagXpert.getInstance().getLogger().info("[InactiveChunkUnloader] Starting unload cycle...");
-        }
+            if (ConfigManager.isChunkDebugEnabled()) {
+                LagXpert.getInstance().getLogger().info("[InactiveChunkUnloader] Starting unload cycle...");
+            }
 
-        Map<String, Integer> unloadResults = new HashMap<>();
-        int totalEvaluated = 0;
-        int totalUnloaded = 0;
-        int totalSkipped = 0;
+            Map<String, Integer> unloadResults = new HashMap<>();
+            int totalEvaluated = 0;
+            int totalUnloaded = 0;
+            int totalSkipped = 0;
 
-        for (World world : Bukkit.getWorlds()) {
-            if (!shouldProcessWorld(world)) {
-                continue;
-            }
+            for (World world : Bukkit.getWorlds()) {
+                if (!shouldProcessWorld(world)) {
+                    continue;
+                }
 
-            UnloadResult result = processWorldChunks(world);
-            unloadResults.put(world.getName(), result.unloaded);
+                UnloadResult result = processWorldChunks(world);
+                unloadResults.put(world.getName(), result.unloaded);
 
-            totalEvaluated += result.evaluated;
-            totalUnloaded += result.unloaded;
-            totalSkipped += result.skipped;
-        }
+                totalEvaluated += result.evaluated;
+                totalUnloaded += result.unloaded;
+                totalSkipped += result.skipped;
+            }
 
-        // Update statistics
-        totalChunksEvaluated.addAndGet(totalEvaluated);
-        totalChunksUnloaded.addAndGet(totalUnloaded);
-        totalChunksSkipped.addAndGet(totalSkipped);
-
-        // Calculate cycle time
-        long cycleTime = System.currentTimeMillis() - cycleStartTime;
-        lastCycleTime = cycleTime;
-        updateAverageCycleTime(cycleTime);
-        if (cycleTime > maxCycleTime) {
-            maxCycleTime = cycleTime;
-        }
+            // Update statistics
+            totalChunksEvaluated.addAndGet(totalEvaluated);
+            totalChunksUnloaded.addAndGet(totalUnloaded);
+            totalChunksSkipped.addAndGet(totalSkipped);
+
+            // Calculate cycle time
+            long cycleTime = System.currentTimeMillis() - cycleStartTime;
+            lastCycleTime = cycleTime;
+            updateAverageCycleTime(cycleTime);
+            if (cycleTime > maxCycleTime) {
+                maxCycleTime = cycleTime;
+            }
 
-        // Record unload operation for ChunkManager statistics
-        if (totalUnloaded > 0) {
-            long estimatedMemorySaved = totalUnloaded * 1024L; // Rough estimate
-            ChunkManager.recordChunkUnload(totalUnloaded, estimatedMemorySaved);
-        }
+            // Record unload operation for ChunkManager statistics
+            if (totalUnloaded > 0) {
+                long estimatedMemorySaved = totalUnloaded * 1024L; // Rough estimate
+                ChunkManager.recordChunkUnload(totalUnloaded, estimatedMemorySaved);
+            }
 
-        // Broadcast results if enabled and threshold met
-        broadcastResults(unloadResults, totalUnloaded);
+            // Broadcast results if enabled and threshold met
+            broadcastResults(unloadResults, totalUnloaded);
 
-        // Log results
-        logResults(totalEvaluated, totalUnloaded, totalSkipped, cycleTime, unloadResults);
+            // Log results
+            logResults(totalEvaluated, totalUnloaded, totalSkipped, cycleTime, unloadResults);
+        } finally {
+            RUN_PROBE.stop(probeStart);
+        }
     }
 
     /**
@@ -1,6 +1,7 @@
 package me.koyere.lagxpert.tasks;
 
 import me.koyere.lagxpert.LagXpert;
+import me.koyere.lagxpert.monitoring.SelfOverheadMeter;
 import me.koyere.lagxpert.system.AbyssManager;
 import me.koyere.lagxpert.system.AbyssTracker; // For bStats
 import me.koyere.lagxpert.system.RecentlyBrokenBlocksTracker;
@@ -28,6 +29,8 @@ import java.util.stream.Collectors;
  */
 public class ItemCleanerTask extends BukkitRunnable {
 
+    private static final SelfOverheadMeter.Probe CLEANUP_PROBE = SelfOverheadMeter.probe("ItemCleanerTask#cleanup");
+
     @Override
     public void run() {
         // This 'run' method is called periodically by the Bukkit scheduler.
@@ -49,13 +52,25 @@ public class ItemCleanerTask extends BukkitRunnable {
             new BukkitRunnable() {
                 @Override
                 public void run() {
-                    performCleanupForAllWorlds(null); // 'null' actor signifies automatic cleanup
+                    runAutomaticCleanup();
                 }
             }.runTaskLater(LagXpert.getInstance(), warningSeconds * 20L); // Convert seconds to ticks
 
         } else {
             // No warning configured, perform cleanup immediately.
-            performCleanupForAllWorlds(null);
+            runAutomaticCleanup();
+        }
+    }
+
+    /**
+     * Runs an automatic cleanup cycle, recording its cost in the self-overhead meter.
+     */
+    private static void runAutomaticCleanup() {
+        long probeStart = CLEANUP_PROBE.start();
+        try {
+            performCleanupForAllWorlds(null); // 'null' actor signifies automatic cleanup
+        } finally {
+            CLEANUP_PROBE.stop(probeStart);
         }
     }
 
@@ -223,6 +238,21 @@ public class ItemCleanerTask extends BukkitRunnable {
         return itemsRemovedInWorld;
     }
 
+    /**
+     * Runs an immediate automatic cleanup without the warning countdown.
+     * Used by LagShield to shed load when it activates.
+     *
+     * @return The total number of items removed.
+     */
+    public static int runEmergencyCleanup() {
+        long probeStart = CLEANUP_PROBE.start();
+        try {
+            return performCleanupForAllWorlds(null);
+        } finally {
+            CLEANUP_PROBE.stop(probeStart);
+        }
+    }
+
     // --- Static utility methods for manual cleanup commands ---
 
     /**
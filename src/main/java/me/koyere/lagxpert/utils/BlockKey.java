@@ -0,0 +1,71 @@
+package me.koyere.lagxpert.utils;
+
+import org.bukkit.block.Block;
+
+/**
+ * Packs block coordinates into a single long, so hot paths can key maps by position
+ * without building location strings or Location objects.
+ * Layout: 26 bits X, 26 bits Z, 12 bits Y (same ranges as vanilla block positions).
+ * Keys are per-world; callers keep one map per world.
+ */
+public final class BlockKey {
+
+    private static final int XZ_BITS = 26;
+    private static final int Y_BITS = 12;
+    private static final long XZ_MASK = (1L << XZ_BITS) - 1;
+    private static final long Y_MASK = (1L << Y_BITS) - 1;
+    private static final int X_SHIFT = Y_BITS + XZ_BITS;
+    private static final int Z_SHIFT = Y_BITS;
+
+    private BlockKey() {
+    }
+
+    public static long pack(int x, int y, int z) {
+        return ((x & XZ_MASK) << X_SHIFT) | ((z & XZ_MASK) << Z_SHIFT) | (y & Y_MASK);
+    }
+
+    public static long pack(Block block) {
+        return pack(block.getX(), block.getY(), block.getZ());
+    }
+
+    public static int getX(long key) {
+        return (int) (key >> X_SHIFT);
+    }
+
+    public static int getY(long key) {
+        return (int) (key << (64 - Y_BITS) >> (64 - Y_BITS));
+    }
+
+    public static int getZ(long key) {
+        return (int) (key << XZ_BITS >> (64 - XZ_BITS));
+    }
+
+    /**
+     * Packs chunk coordinates into a long (X in the high, Z in the low 32 bits).
+     */
+    public static long packChunk(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Chunk key of the chunk containing a block.
+     */
+    public static long chunkOf(int blockX, int blockZ) {
+        return packChunk(blockX >> 4, blockZ >> 4);
+    }
+
+    public static int getChunkX(long chunkKey) {
+        return (int) (chunkKey >> 32);
+    }
+
+    public static int getChunkZ(long chunkKey) {
+        return (int) chunkKey;
+    }
+
+    /**
+     * Readable "x, y, z" form of a key, for logs and commands.
+     */
+    public static String toString(long key) {
+        return getX(key) + ", " + getY(key) + ", " + getZ(key);
+    }
+}
@@ -62,13 +62,37 @@ public class ConfigManager {
     private static int maxTntPerChunk;
     private static int maxPistonsPerChunk;
     private static int maxObserversPerChunk;
+    private static boolean hopperControlEnabled;
+    private static int maxHopperTransfersPerSecond;
+    private static int maxChunkHopperTransfersPerSecond;
+    private static boolean itemPipelineBudgetEnabled;
+    private static int itemPipelinePickupsPerTick;
+    private static int itemPipelineBurst;
+    private static int itemPipelineDeferredPerTick;
+    private static int itemPipelineQueueSize;
 
     // === MOB LIMIT (from mobs.yml) ===
     private static int maxMobsPerChunk;
+    private static boolean entityCensusEnabled;
+    private static int entityCensusResyncSeconds;
+    private static boolean mobStackingEnabled;
+    private static double mobStackingRadius;
+    private static int mobStackingMaxSize;
+    private static List<String> mobStackingTypes;
+    private static int mobStackingChunksPerTick;
+    private static int mobStackingScanIntervalTicks;
+    private static boolean mobStackingNameEnabled;
+    private static String mobStackingNameFormat;
 
     // === REDSTONE CONTROL (settings from redstone.yml, module toggle from config.yml) ===
     private static int redstoneActiveTicks;
     private static boolean redstoneControlModuleEnabled;
+    private static boolean redstoneChunkBudgetEnabled;
+    private static int redstoneChunkUpdatesPerTick;
+    private static int redstoneChunkBurst;
+    private static boolean pistonLimitsEnabled;
+    private static int maxPistonMovesPerSecond;
+    private static int maxPistonBlocksPerSecond;
 
     // === MODULE TOGGLES (all master toggles from config.yml) ===
     private static boolean alertsModuleEnabled; // Overall alerts system toggle
@@ -128,6 +152,13 @@ public class ConfigManager {
     private static String itemCleanerCleanedMessage;
     private static List<String> itemCleanerEnabledWorlds;
     private static List<String> itemCleanerExcludedItems;
+    private static boolean itemMergeEnabled;
+    private static double itemMergeRadius;
+    private static int itemMergeIntervalTicks;
+    private static long itemMergeMaxNanosPerTick;
+    private static boolean xpOrbMergeEnabled;
+    private static int xpOrbMaxValue;
+    private static List<String> itemMergeEnabledWorlds;
 
     // === ITEM CLEANER BROKEN BLOCK TRACKING ===
     private static boolean brokenBlockTrackingEnabled;
@@ -195,6 +226,11 @@ public class ConfigManager {
     // === MONITORING CONFIG (settings from monitoring.yml, module toggle from config.yml) ===
     private static boolean tpsMonitoringEnabled;
     private static int tpsUpdateIntervalTicks;
+    private static boolean msptForecastEnabled;
+    private static double msptForecastSmoothing;
+    private static double msptForecastTrendSmoothing;
+    private static int msptForecastHorizonSeconds;
+    private static int msptForecastWarmupSamples;
     private static int tpsShortTermWindow;
     private static int tpsMediumTermWindow;
     private static int tpsLongTermWindow;
@@ -205,6 +241,10 @@ public class ConfigManager {
     private static int tpsMaxRecords;
     private static int tpsSnapshotIntervalSeconds;
     private static boolean tpsAutoCleanup;
+    private static boolean persistentHistoryEnabled;
+    private static int historyRawRetentionDays;
+    private static int historyMinuteRetentionDays;
+    private static int historyHourRetentionDays;
     private static boolean memoryMonitoringEnabled;
     private static double memoryCriticalThreshold;
     private static double memoryWarningThreshold;
@@ -216,6 +256,9 @@ public class ConfigManager {
     private static int maxLoadedChunksWarning;
     private static boolean chunkLoadingRateMonitoring;
     private static int chunkLoadingRateThreshold;
+    private static int chunkGenerationRateThreshold;
+    private static int chunkLoadingRatePerPlayer;
+    private static int chunkGenerationRatePerPlayer;
     private static boolean lagDetectionEnabled;
     private static double lagDetectionThreshold;
     private static int consecutiveLagSpikesThreshold;
@@ -243,6 +286,13 @@ public class ConfigManager {
     private static boolean logMemoryDetails;
     private static boolean includeStackTraces;
     private static boolean logMonitoringPerformance;
+    private static boolean selfOverheadEnabled;
+    private static int selfOverheadSampleRate;
+    private static boolean metricsEndpointEnabled;
+    private static String metricsEndpointBindAddress;
+    private static int metricsEndpointPort;
+    private static String metricsEndpointPath;
+    private static int metricsSnapshotIntervalSeconds;
 
     // === CHUNK MANAGEMENT CONFIG (settings from chunks.yml, module toggle from config.yml) ===
     private static boolean autoUnloadEnabled;
@@ -376,6 +426,18 @@ public class ConfigManager {
 
         // === MOB LIMIT (from mobs.yml) ===
         maxMobsPerChunk = mobsConfig.getInt("limits.mobs-per-chunk", 40);
+        entityCensusEnabled = mobsConfig.getBoolean("entity-census.enabled", true);
+        entityCensusResyncSeconds = Math.max(1, mobsConfig.getInt("entity-census.resync-seconds", 10));
+
+        // === MOB STACKING (from mobs.yml) ===
+        mobStackingEnabled = mobsConfig.getBoolean("mob-stacking.enabled", false);
+        mobStackingRadius = mobsConfig.getDouble("mob-stacking.radius", 5.0);
+        mobStackingMaxSize = mobsConfig.getInt("mob-stacking.max-stack-size", 50);
+        mobStackingTypes = mobsConfig.getStringList("mob-stacking.types");
+        mobStackingChunksPerTick = Math.max(1, mobsConfig.getInt("mob-stacking.chunks-per-tick", 4));
+        mobStackingScanIntervalTicks = Math.max(1, mobsConfig.getInt("mob-stacking.scan-interval-ticks", 100));
+        mobStackingNameEnabled = mobsConfig.getBoolean("mob-stacking.show-name", true);
+        mobStackingNameFormat = mobsConfig.getString("mob-stacking.name-format", "&e{count}x &f{type}");
 
         // === STORAGE LIMITS (from storage.yml) ===
         maxHoppersPerChunk = storageConfig.getInt("limits.hoppers-per-chunk", 8);
@@ -390,9 +452,23 @@ public class ConfigManager {
         maxTntPerChunk = storageConfig.getInt("limits.tnt-per-chunk", 6);
         maxPistonsPerChunk = storageConfig.getInt("limits.pistons-per-chunk", 12);
         maxObserversPerChunk = storageConfig.getInt("limits.observers-per-chunk", 10);
+        hopperControlEnabled = storageConfig.getBoolean("hopper-control.enabled", false);
+        maxHopperTransfersPerSecond = Math.max(1, storageConfig.getInt("hopper-control.max-transfers-per-second-per-hopper", 8));
+        maxChunkHopperTransfersPerSecond = Math.max(1, storageConfig.getInt("hopper-control.max-transfers-per-second-per-chunk", 1024));
+        itemPipelineBudgetEnabled = storageConfig.getBoolean("item-pipeline.enabled", true);
+        itemPipelinePickupsPerTick = Math.max(1, storageConfig.getInt("item-pipeline.pickups-per-tick", 8));
+        itemPipelineBurst = Math.max(itemPipelinePickupsPerTick, storageConfig.getInt("item-pipeline.burst", 32));
+        itemPipelineDeferredPerTick = Math.max(1, storageConfig.getInt("item-pipeline.deferred-pickups-per-tick", 64));
+        itemPipelineQueueSize = Math.max(0, storageConfig.getInt("item-pipeline.deferred-queue-size", 1024));
 
         // === REDSTONE CONTROL (settings from redstone.yml) ===
         redstoneActiveTicks = redstoneConfig.getInt("control.redstone-active-ticks", 100);
+        redstoneChunkBudgetEnabled = redstoneConfig.getBoolean("control.chunk-budget.enabled", true);
+        redstoneChunkUpdatesPerTick = Math.max(1, redstoneConfig.getInt("control.chunk-budget.updates-per-tick", 128));
+        redstoneChunkBurst = Math.max(redstoneChunkUpdatesPerTick, redstoneConfig.getInt("control.chunk-budget.burst", 512));
+        pistonLimitsEnabled = redstoneConfig.getBoolean("control.pistons.enabled", true);
+        maxPistonMovesPerSecond = Math.max(1, redstoneConfig.getInt("control.pistons.max-moves-per-second", 80));
+        maxPistonBlocksPerSecond = Math.max(1, redstoneConfig.getInt("control.pistons.max-blocks-moved-per-second", 600));
 
         // === TASK CONFIG (AutoChunkScanTask, settings from task.yml) ===
         scanIntervalTicks = taskConfig.getInt("task.scan-interval-ticks", 600);
@@ -420,6 +496,18 @@ public class ConfigManager {
             itemCleanerExcludedItems = new ArrayList<>();
         }
 
+        // === ITEM MERGER (from itemcleaner.yml) ===
+        itemMergeEnabled = itemCleanerConfig.getBoolean("item-merger.enabled", false);
+        itemMergeRadius = Math.max(0.5, itemCleanerConfig.getDouble("item-merger.radius", 0.5));
+        itemMergeIntervalTicks = Math.max(1, itemCleanerConfig.getInt("item-merger.interval-ticks", 40));
+        itemMergeMaxNanosPerTick = (long) (Math.max(0.1, itemCleanerConfig.getDouble("item-merger.max-millis-per-tick", 1.0)) * 1_000_000L);
+        xpOrbMergeEnabled = itemCleanerConfig.getBoolean("item-merger.xp-orbs.enabled", true);
+        xpOrbMaxValue = Math.max(1, itemCleanerConfig.getInt("item-merger.xp-orbs.max-value", 1000));
+        itemMergeEnabledWorlds = itemCleanerConfig.getStringList("item-merger.enabled-worlds");
+        if (itemMergeEnabledWorlds.isEmpty()) {
+            itemMergeEnabledWorlds = java.util.Arrays.asList("all");
+        }
+
         // === ITEM CLEANER BROKEN BLOCK TRACKING ===
         ConfigurationSection brokenBlockSection = itemCleanerConfig.getConfigurationSection("item-cleaner.broken-block-tracking");
         brokenBlockCustomGracePeriods.clear();
@@ -524,6 +612,11 @@ public class ConfigManager {
         // === MONITORING CONFIG (settings from monitoring.yml) ===
         tpsMonitoringEnabled = monitoringConfig.getBoolean("monitoring.tps.enabled", true);
         tpsUpdateIntervalTicks = monitoringConfig.getInt("monitoring.tps.update-interval-ticks", 20);
+        msptForecastEnabled = monitoringConfig.getBoolean("monitoring.tps.forecast.enabled", true);
+        msptForecastSmoothing = Math.max(0.01, Math.min(1.0, monitoringConfig.getDouble("monitoring.tps.forecast.smoothing", 0.3)));
+        msptForecastTrendSmoothing = Math.max(0.01, Math.min(1.0, monitoringConfig.getDouble("monitoring.tps.forecast.trend-smoothing", 0.1)));
+        msptForecastHorizonSeconds = Math.max(1, monitoringConfig.getInt("monitoring.tps.forecast.horizon-seconds", 45));
+        msptForecastWarmupSamples = Math.max(2, monitoringConfig.getInt("monitoring.tps.forecast.warmup-samples", 30));
         tpsShortTermWindow = monitoringConfig.getInt("monitoring.tps.calculation-windows.short-term", 60);
         tpsMediumTermWindow = monitoringConfig.getInt("monitoring.tps.calculation-windows.medium-term", 300);
         tpsLongTermWindow = monitoringConfig.getInt("monitoring.tps.calculation-windows.long-term", 900);
@@ -534,6 +627,10 @@ public class ConfigManager {
         tpsMaxRecords = monitoringConfig.getInt("monitoring.tps.history.max-records", 8640);
         tpsSnapshotIntervalSeconds = monitoringConfig.getInt("monitoring.tps.history.snapshot-interval-seconds", 10);
         tpsAutoCleanup = monitoringConfig.getBoolean("monitoring.tps.history.auto-cleanup", true);
+        persistentHistoryEnabled = monitoringConfig.getBoolean("monitoring.tps.history.persistent.enabled", true);
+        historyRawRetentionDays = Math.max(1, monitoringConfig.getInt("monitoring.tps.history.persistent.retention-days.raw", 2));
+        historyMinuteRetentionDays = Math.max(1, monitoringConfig.getInt("monitoring.tps.history.persistent.retention-days.minute", 14));
+        historyHourRetentionDays = Math.max(1, monitoringConfig.getInt("monitoring.tps.history.persistent.retention-days.hour", 365));
 
         memoryMonitoringEnabled = monitoringConfig.getBoolean("monitoring.memory.enabled", true);
         memoryCriticalThreshold = monitoringConfig.getDouble("monitoring.memory.alert-thresholds.critical", 95.0);
@@ -546,7 +643,10 @@ public class ConfigManager {
         trackChunkEvents = monitoringConfig.getBoolean("monitoring.chunks.track-events", true);
         maxLoadedChunksWarning = monitoringConfig.getInt("monitoring.chunks.max-loaded-chunks-warning", 5000);
         chunkLoadingRateMonitoring = monitoringConfig.getBoolean("monitoring.chunks.loading-rate-monitoring", true);
-        chunkLoadingRateThreshold = monitoringConfig.getInt("monitoring.chunks.loading-rate-threshold", 100);
+        chunkLoadingRateThreshold = monitoringConfig.getInt("monitoring.chunks.loading-rate-threshold", 3000);
+        chunkGenerationRateThreshold = monitoringConfig.getInt("monitoring.chunks.generation-rate-threshold", 2400);
+        chunkLoadingRatePerPlayer = Math.max(0, monitoringConfig.getInt("monitoring.chunks.loading-rate-per-player", 1500));
+        chunkGenerationRatePerPlayer = Math.max(0, monitoringConfig.getInt("monitoring.chunks.generation-rate-per-player", 1200));
 
         lagDetectionEnabled = monitoringConfig.getBoolean("monitoring.lag-detection.enabled", true);
         lagDetectionThreshold = monitoringConfig.getDouble("monitoring.lag-detection.tick-threshold-ms", 100.0);
@@ -578,6 +678,16 @@ public class ConfigManager {
         logMemoryDetails = monitoringConfig.getBoolean("debug.log-memory-details", false);
         includeStackTraces = monitoringConfig.getBoolean("debug.include-stack-traces", false);
         logMonitoringPerformance = monitoringConfig.getBoolean("debug.log-monitoring-performance", false);
+        selfOverheadEnabled = monitoringConfig.getBoolean("monitoring.self-overhead.enabled", true);
+        selfOverheadSampleRate = Math.max(1, monitoringConfig.getInt("monitoring.self-overhead.sample-rate", 16));
+        metricsEndpointEnabled = monitoringConfig.getBoolean("monitoring.metrics-endpoint.enabled", false);
+        metricsEndpointBindAddress = monitoringConfig.getString("monitoring.metrics-endpoint.bind-address", "127.0.0.1");
+        metricsEndpointPort = monitoringConfig.getInt("monitoring.metrics-endpoint.port", 9225);
+        metricsEndpointPath = monitoringConfig.getString("monitoring.metrics-endpoint.path", "/metrics");
+        if (!metricsEndpointPath.startsWith("/")) {
+            metricsEndpointPath = "/" + metricsEndpointPath;
+        }
+        metricsSnapshotIntervalSeconds = Math.max(1, monitoringConfig.getInt("monitoring.metrics-endpoint.snapshot-interval-seconds", 10));
 
         // === CHUNK MANAGEMENT CONFIG (settings from chunks.yml) ===
         autoUnloadEnabled = chunksConfig.getBoolean("chunk-management.auto-unload.enabled", true);
@@ -1230,6 +1340,18 @@ public class ConfigManager {
     // --- Getters for Mob Limits ---
     public static int getMaxMobsPerChunk() { return maxMobsPerChunk; }
     public static int getMaxMobsPerChunk(World world) { return WorldConfigManager.getMobsPerChunk(world); }
+    public static boolean isEntityCensusEnabled() { return entityCensusEnabled; }
+    public static long getEntityCensusResyncMs() { return entityCensusResyncSeconds * 1000L; }
+
+    // --- Getters for Mob Stacking ---
+    public static boolean isMobStackingEnabled() { return mobStackingEnabled; }
+    public static double getMobStackingRadius() { return mobStackingRadius; }
+    public static int getMobStackingMaxSize() { return mobStackingMaxSize; }
+    public static List<String> getMobStackingTypes() { return mobStackingTypes; }
+    public static int getMobStackingChunksPerTick() { return mobStackingChunksPerTick; }
+    public static int getMobStackingScanIntervalTicks() { return mobStackingScanIntervalTicks; }
+    public static boolean isMobStackingNameEnabled() { return mobStackingNameEnabled; }
+    public static String getMobStackingNameFormat() { return mobStackingNameFormat; }
 
     // --- Getters for Storage Limits ---
     public static int getMaxHoppersPerChunk() { return maxHoppersPerChunk; }
@@ -1253,9 +1375,23 @@ public class ConfigManager {
     public static int getMaxTntPerChunk() { return maxTntPerChunk; }
     public static int getMaxPistonsPerChunk() { return maxPistonsPerChunk; }
     public static int getMaxObserversPerChunk() { return maxObserversPerChunk; }
+    public static boolean isHopperControlEnabled() { return hopperControlEnabled; }
+    public static int getMaxHopperTransfersPerSecond() { return maxHopperTransfersPerSecond; }
+    public static int getMaxChunkHopperTransfersPerSecond() { return maxChunkHopperTransfersPerSecond; }
+    public static boolean isItemPipelineBudgetEnabled() { return itemPipelineBudgetEnabled; }
+    public static int getItemPipelinePickupsPerTick() { return itemPipelinePickupsPerTick; }
+    public static int getItemPipelineBurst() { return itemPipelineBurst; }
+    public static int getItemPipelineDeferredPerTick() { return itemPipelineDeferredPerTick; }
+    public static int getItemPipelineQueueSize() { return itemPipelineQueueSize; }
 
     // --- Getters for Redstone Control ---
     public static int getRedstoneActiveTicks() { return redstoneActiveTicks; }
+    public static boolean isRedstoneChunkBudgetEnabled() { return redstoneChunkBudgetEnabled; }
+    public static int getRedstoneChunkUpdatesPerTick() { return redstoneChunkUpdatesPerTick; }
+    public static int getRedstoneChunkBurst() { return redstoneChunkBurst; }
+    public static boolean isPistonLimitsEnabled() { return pistonLimitsEnabled; }
+    public static int getMaxPistonMovesPerSecond() { return maxPistonMovesPerSecond; }
+    public static int getMaxPistonBlocksPerSecond() { return maxPistonBlocksPerSecond; }
 
     // --- Getters for Task Configuration (AutoChunkScanTask) ---
     public static int getScanIntervalTicks() { return scanIntervalTicks; }
@@ -1269,6 +1405,13 @@ public class ConfigManager {
     public static String getItemCleanerCleanedMessage() { return itemCleanerCleanedMessage; }
     public static List<String> getItemCleanerEnabledWorlds() { return Collections.unmodifiableList(itemCleanerEnabledWorlds); }
     public static List<String> getItemCleanerExcludedItems() { return Collections.unmodifiableList(itemCleanerExcludedItems); }
+    public static boolean isItemMergeEnabled() { return itemMergeEnabled; }
+    public static double getItemMergeRadius() { return itemMergeRadius; }
+    public static int getItemMergeIntervalTicks() { return itemMergeIntervalTicks; }
+    public static long getItemMergeMaxNanosPerTick() { return itemMergeMaxNanosPerTick; }
+    public static boolean isXpOrbMergeEnabled() { return xpOrbMergeEnabled; }
+    public static int getXpOrbMaxValue() { return xpOrbMaxValue; }
+    public static List<String> getItemMergeEnabledWorlds() { return itemMergeEnabledWorlds; }
     public static boolean isBrokenBlockTrackingEnabled() { return brokenBlockTrackingEnabled; }
     public static long getBrokenBlockDefaultGracePeriodMs() { return brokenBlockDefaultGracePeriodMs; }
     public static long getBrokenBlockGracePeriod(Material material) {
@@ -1320,6 +1463,11 @@ public class ConfigManager {
     public static boolean isMonitoringModuleEnabled() { return monitoringModuleEnabled; }
     public static boolean isTPSMonitoringEnabled() { return tpsMonitoringEnabled; }
     public static int getTPSUpdateIntervalTicks() { return tpsUpdateIntervalTicks; }
+    public static boolean isMsptForecastEnabled() { return msptForecastEnabled; }
+    public static double getMsptForecastSmoothing() { return msptForecastSmoothing; }
+    public static double getMsptForecastTrendSmoothing() { return msptForecastTrendSmoothing; }
+    public static int getMsptForecastHorizonSeconds() { return msptForecastHorizonSeconds; }
+    public static int getMsptForecastWarmupSamples() { return msptForecastWarmupSamples; }
     public static int getTPSShortTermWindow() { return tpsShortTermWindow; }
     public static int getTPSMediumTermWindow() { return tpsMediumTermWindow; }
     public static int getTPSLongTermWindow() { return tpsLongTermWindow; }
@@ -1330,6 +1478,10 @@ public class ConfigManager {
     public static int getTPSMaxRecords() { return tpsMaxRecords; }
     public static int getTPSSnapshotIntervalSeconds() { return tpsSnapshotIntervalSeconds; }
     public static boolean isTPSAutoCleanup() { return tpsAutoCleanup; }
+    public static boolean isPersistentHistoryEnabled() { return persistentHistoryEnabled; }
+    public static int getHistoryRawRetentionDays() { return historyRawRetentionDays; }
+    public static int getHistoryMinuteRetentionDays() { return historyMinuteRetentionDays; }
+    public static int getHistoryHourRetentionDays() { return historyHourRetentionDays; }
     public static boolean isMemoryMonitoringEnabled() { return memoryMonitoringEnabled; }
     public static double getMemoryCriticalThreshold() { return memoryCriticalThreshold; }
     public static double getMemoryWarningThreshold() { return memoryWarningThreshold; }
@@ -1341,6 +1493,9 @@ public class ConfigManager {
     public static int getMaxLoadedChunksWarning() { return maxLoadedChunksWarning; }
     public static int getChunkLoadingRateThreshold() { return chunkLoadingRateThreshold; }
     public static boolean isChunkLoadingRateMonitoring() { return chunkLoadingRateMonitoring; }
+    public static int getChunkGenerationRateThreshold() { return chunkGenerationRateThreshold; }
+    public static int getChunkLoadingRatePerPlayer() { return chunkLoadingRatePerPlayer; }
+    public static int getChunkGenerationRatePerPlayer() { return chunkGenerationRatePerPlayer; }
     public static boolean isLagDetectionEnabled() { return lagDetectionEnabled; }
     public static double getLagDetectionThreshold() { return lagDetectionThreshold; }
     public static int getConsecutiveLagSpikesThreshold() { return consecutiveLagSpikesThreshold; }
@@ -1368,6 +1523,13 @@ public class ConfigManager {
     public static boolean shouldLogMemoryDetails() { return logMemoryDetails; }
     public static boolean shouldIncludeStackTraces() { return includeStackTraces; }
     public static boolean shouldLogMonitoringPerformance() { return logMonitoringPerformance; }
+    public static boolean isSelfOverheadEnabled() { return selfOverheadEnabled; }
+    public static int getSelfOverheadSampleRate() { return selfOverheadSampleRate; }
+    public static boolean isMetricsEndpointEnabled() { return metricsEndpointEnabled; }
+    public static String getMetricsEndpointBindAddress() { return metricsEndpointBindAddress; }
+    public static int getMetricsEndpointPort() { return metricsEndpointPort; }
+    public static String getMetricsEndpointPath() { return metricsEndpointPath; }
+    public static int getMetricsSnapshotIntervalSeconds() { return metricsSnapshotIntervalSeconds; }
 
     // --- Getters for Chunk Management Configuration ---
     public static boolean isChunkManagementModuleEnabled() { return chunkManagementModuleEnabled; }
@@ -0,0 +1,213 @@
+package me.koyere.lagxpert.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Open-addressing hash map from primitive long keys to objects (linear probing,
+ * backward-shift deletion). Lookups and updates of existing keys do not allocate,
+ * unlike a HashMap keyed by boxed Longs or strings.
+ * Null values are not supported. Not thread-safe: use it from the main thread only
+ * (a map may be filled on a worker before it is handed over through the scheduler).
+ * A read from another thread can race a resize and fail or return a wrong value.
+ *
+ * @param <V> Value type
+ */
+public class LongObjectMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public LongObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        long[] keys = this.keys;
+        Object[] values = this.values;
+        int mask = values.length - 1;
+        int slot = mix(key) & mask;
+        Object value;
+        while ((value = values[slot]) != null) {
+            if (keys[slot] == key) {
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps a key to a value.
+     *
+     * @return The previous value, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int slot = mix(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            rehash(values.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @return The removed value, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = mix(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                removeAt(slot);
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Removes the entry at a slot and shifts following entries of the probe run back,
+     * so lookups never need tombstones.
+     */
+    private void removeAt(int slot) {
+        size--;
+        int free = slot;
+        int current = slot;
+        while (true) {
+            current = (current + 1) & mask;
+            if (values[current] == null) {
+                break;
+            }
+            int ideal = mix(keys[current]) & mask;
+            // Keep the entry where it is if its ideal slot lies cyclically in (free, current]
+            boolean inRange = free <= current
+                    ? free < ideal && ideal <= current
+                    : free < ideal || ideal <= current;
+            if (inRange) {
+                continue;
+            }
+            keys[free] = keys[current];
+            values[free] = values[current];
+            free = current;
+        }
+        values[free] = null;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Removes every entry whose value matches the filter.
+     *
+     * @return Number of removed entries
+     */
+    @SuppressWarnings("unchecked")
+    public int removeIf(Predicate<? super V> filter) {
+        long[] matched = null;
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value != null && filter.test((V) value)) {
+                if (matched == null) {
+                    matched = new long[Math.min(size, 16)];
+                } else if (count == matched.length) {
+                    matched = Arrays.copyOf(matched, count << 1);
+                }
+                matched[count++] = keys[i];
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            remove(matched[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Snapshot of the current values.
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        Object[] values = this.values;
+        List<V> result = new ArrayList<>(size);
+        for (Object value : values) {
+            if (value != null) {
+                result.add((V) value);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+}
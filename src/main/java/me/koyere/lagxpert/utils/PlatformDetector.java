@@ -2,6 +2,9 @@ package me.koyere.lagxpert.utils;
 
 import me.koyere.lagxpert.LagXpert;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Method;
 
 /**
  * Detects the server platform (Folia, Paper, Spigot, Bukkit) and Bedrock compatibility plugins.
@@ -20,6 +23,8 @@ public class PlatformDetector {
     private static boolean hasRegionScheduler = false;
     private static boolean hasAsyncScheduler = false;
     private static boolean hasGlobalRegionScheduler = false;
+    private static boolean hasPlayerViewDistanceApi = false;
+    private static boolean hasPlayerSimulationDistanceApi = false;
     
     public enum PlatformType {
         FOLIA("Folia", true),
@@ -73,6 +78,9 @@ public class PlatformDetector {
             // Detect Bedrock compatibility plugins
             detectBedrockPlugins();
             
+            // Detect per-player distance API (Paper)
+            detectDistanceApi();
+            
         } catch (Exception e) {
             // Fallback to safest option
             platformType = PlatformType.BUKKIT;
@@ -155,6 +163,25 @@ public class PlatformDetector {
         }
     }
     
+    /**
+     * Detects Paper's per-player view and simulation distance setters.
+     */
+    private static void detectDistanceApi() {
+        hasPlayerViewDistanceApi = hasMethod(Player.class, "setViewDistance")
+                && hasMethod(Player.class, "getViewDistance");
+        hasPlayerSimulationDistanceApi = hasMethod(Player.class, "setSimulationDistance")
+                && hasMethod(Player.class, "getSimulationDistance");
+    }
+    
+    private static boolean hasMethod(Class<?> type, String name) {
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     /**
      * Detects Bedrock compatibility plugins (Geyser and Floodgate).
      * Performance-optimized to avoid repeated checks.
@@ -224,6 +251,14 @@ public class PlatformDetector {
         return hasGlobalRegionScheduler;
     }
     
+    public static boolean hasPlayerViewDistanceApi() {
+        return hasPlayerViewDistanceApi;
+    }
+    
+    public static boolean hasPlayerSimulationDistanceApi() {
+        return hasPlayerSimulationDistanceApi;
+    }
+    
     /**
      * Returns a summary of detected platform features.
      */
@@ -0,0 +1,71 @@
+package me.koyere.lagxpert.utils;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshot of a world's player positions bucketed into square cells of a fixed size, so
+ * "is any player within d blocks" only checks the players in the 3x3 cells around a
+ * location instead of every player. Distances up to the cell size are answered exactly.
+ * Build a new grid when positions may have changed; it does not follow players.
+ */
+public final class PlayerGrid {
+
+    private final double cellSize;
+    private final LongObjectMap<List<Location>> cells = new LongObjectMap<>();
+
+    /**
+     * @param world    World whose players are bucketed
+     * @param cellSize Cell edge length in blocks; the largest distance queried
+     */
+    public PlayerGrid(World world, double cellSize) {
+        this.cellSize = cellSize;
+        for (Player player : world.getPlayers()) {
+            Location location = player.getLocation();
+            long cellKey = BlockKey.packChunk(cell(location.getX()), cell(location.getZ()));
+            List<Location> cell = cells.get(cellKey);
+            if (cell == null) {
+                cell = new ArrayList<>(2);
+                cells.put(cellKey, cell);
+            }
+            cell.add(location);
+        }
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    public boolean isEmpty() {
+        return cells.isEmpty();
+    }
+
+    /**
+     * Squared distance to the nearest player in the cells around a location, or
+     * {@link Double#MAX_VALUE} if none of them holds a player.
+     */
+    public double nearestDistanceSquared(Location location) {
+        if (cells.isEmpty()) {
+            return Double.MAX_VALUE;
+        }
+        int cellX = cell(location.getX());
+        int cellZ = cell(location.getZ());
+        double nearest = Double.MAX_VALUE;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                List<Location> cell = cells.get(BlockKey.packChunk(cellX + dx, cellZ + dz));
+                if (cell == null) {
+                    continue;
+                }
+                for (Location player : cell) {
+                    nearest = Math.min(nearest, player.distanceSquared(location));
+                }
+            }
+        }
+        return nearest;
+    }
+}